@@ -19,6 +19,8 @@ import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
+import org.apache.arrow.vector.VectorSchemaRoot;
+
 
 /**
  * Dremio-specific {@link ResultSet}.
@@ -34,6 +36,28 @@ public interface DremioResultSet extends ResultSet  {
    */
   String getQueryId() throws SQLException;
 
+  /**
+   * Moves the cursor to the next batch of rows, as received from the server,
+   * and returns its vectors without converting the values row by row.
+   * <p>
+   *   The remaining rows of the current batch are skipped. The cursor is left
+   *   on the last row of the returned batch, so that a following call to
+   *   {@link #next()} moves to the first row of the batch after it.
+   * </p>
+   * <p>
+   *   The returned vectors belong to this result set: they must not be closed,
+   *   and are only valid until the next call to {@link #next()},
+   *   {@code nextBatch()} or {@link #close()}. The server is throttled the
+   *   same way as when reading row by row.
+   * </p>
+   *
+   * @return  the vectors of the next batch, or {@code null} if there are no
+   *   more batches
+   * @throws  SQLException  if this method is called on a closed result set,
+   *   or if the query failed
+   */
+  VectorSchemaRoot nextBatch() throws SQLException;
+
   /**
    * {@inheritDoc}
    * <p>
@@ -27,6 +27,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.calcite.avatica.AvaticaStatement;
 import org.apache.calcite.avatica.ColumnMetaData;
 import org.apache.calcite.avatica.Meta;
@@ -44,6 +45,7 @@ import com.dremio.exec.proto.UserBitShared.QueryResult.QueryState;
 import com.dremio.exec.proto.UserBitShared.QueryType;
 import com.dremio.exec.proto.UserProtos.PreparedStatement;
 import com.dremio.exec.record.BatchSchema;
+import com.dremio.exec.record.FragmentWritableBatch;
 import com.dremio.exec.record.RecordBatchLoader;
 import com.dremio.exec.rpc.ConnectionThrottle;
 import com.dremio.jdbc.SchemaChangeListener;
@@ -664,6 +666,45 @@ class DremioCursor implements Cursor {
     }
   }
 
+  /**
+   * Advances this cursor to the next batch of rows, if any, skipping the rows
+   * of the current batch not yet returned by {@link #next()}.
+   * <p>
+   *   The cursor is left on the last row of the returned batch, so that the
+   *   next call to {@link #next()} moves to the batch after it.
+   * </p>
+   *
+   * @return  the vectors of the batch, valid until the next call to
+   *   {@link #next()}, {@link #nextBatch()} or {@link #close()}, or null when
+   *   after end of results
+   */
+  VectorSchemaRoot nextBatch() throws SQLException {
+    if ( ! initialSchemaLoaded ) {
+      throw new IllegalStateException(
+          "nextBatch() called but loadInitialSchema() was not called" );
+    }
+
+    if ( afterLastRow ) {
+      return null;
+    }
+    else if ( returnTrueForNextCallToNext ) {
+      // No row of the first batch was returned yet--return that batch.
+      returnTrueForNextCallToNext = false;
+    }
+    else {
+      accessors.clearLastColumnIndexedInRow();
+      currentRecordNumber = currentBatchHolder.getRecordCount() - 1;
+      if ( ! nextRowInternally() ) {
+        return null;
+      }
+    }
+
+    final int recordCount = currentBatchHolder.getRecordCount();
+    currentRecordNumber = recordCount - 1;
+    currentRowNumber += recordCount;
+    return FragmentWritableBatch.getVectorSchemaRoot(currentBatchHolder);
+  }
+
   public void cancel() {
     close();
   }
@@ -39,6 +39,7 @@ import java.util.Calendar;
 import java.util.Map;
 import java.util.TimeZone;
 
+import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.calcite.avatica.AvaticaResultSet;
 import org.apache.calcite.avatica.AvaticaSite;
 import org.apache.calcite.avatica.AvaticaStatement;
@@ -1864,6 +1865,15 @@ class DremioResultSetImpl extends AvaticaResultSet implements DremioResultSet {
     return null;
   }
 
+  @Override
+  public VectorSchemaRoot nextBatch() throws SQLException {
+    throwIfClosed();
+    if (cursor instanceof DremioCursor) {
+      return ((DremioCursor) cursor).nextBatch();
+    }
+    throw new SQLFeatureNotSupportedException("Batches are not available for this result set.");
+  }
+
   ////////////////////////////////////////
 
   @Override
@@ -18,6 +18,7 @@ package com.dremio.jdbc;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.core.StringContains.containsString;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
@@ -26,6 +27,8 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
 import org.junit.Test;
 
 
@@ -131,6 +134,41 @@ public class DremioResultSetTest extends JdbcWithServerTestBase {
     assertThat( "getRow() after last row", resultSet.getRow(), equalTo( 0 ) );
   }
 
+  @Test
+  public void test_nextBatch_returnsVectors()
+    throws Exception
+  {
+    Statement statement = getConnection().createStatement();
+    DremioResultSet resultSet =
+        statement.executeQuery( "VALUES (1), (2), (3)" ).unwrap( DremioResultSet.class );
+
+    VectorSchemaRoot batch = resultSet.nextBatch();
+    assertThat( batch.getRowCount(), is( 3 ) );
+    assertThat( batch.getSchema().getFields().size(), is( 1 ) );
+    IntVector vector = (IntVector) batch.getVector( 0 );
+    assertThat( vector.get( 0 ), is( 1 ) );
+    assertThat( vector.get( 2 ), is( 3 ) );
+
+    assertThat( resultSet.nextBatch(), nullValue() );
+    assertThat( resultSet.next(), is( false ) );
+  }
+
+  @Test
+  public void test_nextBatch_skipsRemainingRows()
+    throws Exception
+  {
+    Statement statement = getConnection().createStatement();
+    DremioResultSet resultSet =
+        statement.executeQuery( "VALUES (1), (2), (3)" ).unwrap( DremioResultSet.class );
+
+    assertThat( resultSet.next(), is( true ) );
+    assertThat( resultSet.getInt( 1 ), is( 1 ) );
+
+    // The rest of the only batch is skipped.
+    assertThat( resultSet.nextBatch(), nullValue() );
+    assertThat( resultSet.next(), is( false ) );
+  }
+
   // TODO:  Ideally, test other methods.
 
 }
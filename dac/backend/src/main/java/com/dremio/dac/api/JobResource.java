@@ -32,6 +32,7 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.core.StreamingOutput;
 
 import com.dremio.common.exceptions.UserException;
 import com.dremio.dac.annotations.APIResource;
@@ -98,6 +99,25 @@ public class JobResource extends BaseResourceWithAllocator {
   @Path("/{id}/results")
   public JobResourceData getQueryResults(@PathParam("id") String id, @QueryParam("offset") @DefaultValue("0") Integer offset, @Valid @QueryParam("limit") @DefaultValue("100") Integer limit) {
     Preconditions.checkArgument(limit <= 500,"limit can not exceed 500 rows");
+    // Additional wait not necessary since we check for job completion via JobState
+    return new JobResourceData(jobs, getCompletedJobSummary(id), securityContext.getUserPrincipal().getName(),
+      getOrCreateAllocator("getQueryResults"),  offset, limit);
+  }
+
+  /**
+   * Same as {@link #getQueryResults}, in the Arrow IPC streaming format. The results are written batch by batch without
+   * being converted, so larger pages are allowed. Only used when requested, as the quality of this type is lower.
+   */
+  @GET
+  @Path("/{id}/results")
+  @Produces(JobResourceArrowData.APPLICATION_ARROW_STREAM + ";qs=0.5")
+  public StreamingOutput getQueryResultsAsArrow(@PathParam("id") String id, @QueryParam("offset") @DefaultValue("0") Integer offset, @Valid @QueryParam("limit") @DefaultValue("100") Integer limit) {
+    Preconditions.checkArgument(limit > 0, "limit should be greater than 0");
+    return new JobResourceArrowData(jobs, getCompletedJobSummary(id), securityContext.getUserPrincipal().getName(),
+      getOrCreateAllocator("getQueryResultsAsArrow"), offset, limit);
+  }
+
+  private JobSummary getCompletedJobSummary(String id) {
     try {
       JobSummaryRequest request = JobSummaryRequest.newBuilder()
         .setJobId(JobProtobuf.JobId.newBuilder().setId(id).build())
@@ -108,9 +128,7 @@ public class JobResource extends BaseResourceWithAllocator {
       if (jobSummary.getJobState() != JobState.COMPLETED) {
         throw new BadRequestException(String.format("Can not fetch details for a job that is in [%s] state.", jobSummary.getJobState()));
       }
-      // Additional wait not necessary since we check for job completion via JobState
-      return new JobResourceData(jobs, jobSummary, securityContext.getUserPrincipal().getName(),
-        getOrCreateAllocator("getQueryResults"),  offset, limit);
+      return jobSummary;
     } catch (JobNotFoundException e) {
       throw new NotFoundException(String.format("Could not find a job with id [%s]", id));
     }
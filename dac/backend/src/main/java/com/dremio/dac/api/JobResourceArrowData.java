@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.dac.api;
+
+import static com.dremio.common.perf.Timer.time;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.DictionaryProvider.MapDictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.dremio.common.perf.Timer;
+import com.dremio.dac.model.job.JobDataFragment;
+import com.dremio.dac.model.job.JobDataWrapper;
+import com.dremio.exec.record.RecordBatchHolder;
+import com.dremio.exec.record.VectorWrapper;
+import com.dremio.service.job.JobSummary;
+import com.dremio.service.jobs.JobsProtoUtil;
+import com.dremio.service.jobs.JobsService;
+
+/**
+ * REST API V3 Job Data in the Arrow IPC streaming format
+ *
+ * Each batch of the results is sliced to the requested range and written as is, without converting the values.
+ */
+public class JobResourceArrowData implements StreamingOutput {
+  private static final Logger logger = LoggerFactory.getLogger(JobResourceArrowData.class);
+
+  public static final String APPLICATION_ARROW_STREAM = "application/vnd.apache.arrow.stream";
+
+  private final JobDataFragment delegate;
+  private final BufferAllocator allocator;
+
+  public JobResourceArrowData(JobsService jobsService, JobSummary jobSummary, String userName, BufferAllocator allocator, int offset, int limit) {
+    this.delegate = new JobDataWrapper(jobsService, JobsProtoUtil.toStuff(jobSummary.getJobId()), userName).range(allocator, offset, limit);
+    this.allocator = allocator;
+  }
+
+  @Override
+  public void write(OutputStream output) throws IOException {
+    try (Timer.TimedBlock b = time("serialize job results VV -> Arrow");
+         VectorSchemaRoot root = VectorSchemaRoot.create(new Schema(delegate.getFields()), allocator)) {
+      final ArrowStreamWriter writer = new ArrowStreamWriter(root, new MapDictionaryProvider(), output);
+      writer.start();
+
+      final List<FieldVector> targets = root.getFieldVectors();
+      for (RecordBatchHolder batchHolder : delegate.getRecordBatches()) {
+        int i = 0;
+        for (VectorWrapper<?> wrapper : batchHolder.getData().getContainer()) {
+          wrapper.getValueVector().makeTransferPair(targets.get(i++))
+            .splitAndTransfer(batchHolder.getStart(), batchHolder.size());
+        }
+        root.setRowCount(batchHolder.size());
+        writer.writeBatch();
+        output.flush();
+      }
+
+      // not closing the writer, as it would close the output stream
+      writer.end();
+    } finally {
+      try {
+        delegate.close();
+      } catch (Exception e) {
+        logger.error("Failure while releasing job data.", e);
+      }
+    }
+  }
+}
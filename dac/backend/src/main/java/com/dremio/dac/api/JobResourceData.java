@@ -27,10 +27,10 @@ import org.slf4j.LoggerFactory;
 import com.dremio.common.perf.Timer;
 import com.dremio.dac.explore.model.APIJobResultsSerializer;
 import com.dremio.dac.explore.model.DataJsonOutput;
+import com.dremio.dac.explore.model.JobResultsJsonWriter;
 import com.dremio.dac.model.job.JobDataFragment;
 import com.dremio.dac.model.job.JobDataWrapper;
 import com.dremio.exec.record.RecordBatchHolder;
-import com.dremio.exec.store.EventBasedRecordWriter;
 import com.dremio.service.job.JobSummary;
 import com.dremio.service.jobs.JobsProtoUtil;
 import com.dremio.service.jobs.JobsService;
@@ -99,16 +99,13 @@ public class JobResourceData {
         generator.writeStartArray();
         final boolean convertNumbersToStrings = DataJsonOutput.isNumberAsString(serializerProvider);
 
-        final APIJobResultsSerializer jsonWriter = new APIJobResultsSerializer(generator, convertNumbersToStrings);
-        jsonWriter.setup();
+        final APIJobResultsSerializer rowWriter = new APIJobResultsSerializer(generator, convertNumbersToStrings);
+        rowWriter.setup();
 
+        final JobResultsJsonWriter jsonWriter =
+          new JobResultsJsonWriter(generator, rowWriter, convertNumbersToStrings, Integer.MAX_VALUE);
         for (RecordBatchHolder batchHolder : jobData.delegate.getRecordBatches()) {
-          final EventBasedRecordWriter recordWriter =
-            new EventBasedRecordWriter(batchHolder.getData().getContainer(), jsonWriter);
-
-          for (int i = batchHolder.getStart(); i < batchHolder.getEnd(); i++) {
-            recordWriter.writeOneRecord(i);
-          }
+          jsonWriter.write(batchHolder);
         }
 
         generator.writeEndArray();
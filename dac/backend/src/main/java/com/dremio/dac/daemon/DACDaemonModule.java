@@ -118,6 +118,8 @@ import com.dremio.exec.store.dfs.PDFSService.PDFSMode;
 import com.dremio.exec.store.sys.SystemTablePluginConfigProvider;
 import com.dremio.exec.store.sys.accel.AccelerationListManager;
 import com.dremio.exec.store.sys.accel.AccelerationManager;
+import com.dremio.exec.store.sys.jobs.JobsListManager;
+import com.dremio.exec.work.NodeStatsExecutorLoadProvider;
 import com.dremio.exec.work.WorkStats;
 import com.dremio.exec.work.protector.ActiveQueryListService;
 import com.dremio.exec.work.protector.ForemenTool;
@@ -134,7 +136,8 @@ import com.dremio.resource.ClusterResourceInformation;
 import com.dremio.resource.GroupResourceInformation;
 import com.dremio.resource.QueryCancelTool;
 import com.dremio.resource.ResourceAllocator;
-import com.dremio.resource.basic.BasicResourceAllocator;
+import com.dremio.resource.loadaware.ExecutorLoadProvider;
+import com.dremio.resource.loadaware.LoadAwareResourceAllocator;
 import com.dremio.sabot.exec.CancelQueryContext;
 import com.dremio.sabot.exec.CoordinatorHeapClawBackStrategy;
 import com.dremio.sabot.exec.ExecToCoordTunnelCreator;
@@ -195,6 +198,7 @@ import com.dremio.service.jobs.HybridJobsService;
 import com.dremio.service.jobs.JobResultToLogEntryConverter;
 import com.dremio.service.jobs.JobResultsStore;
 import com.dremio.service.jobs.JobsFlightProducer;
+import com.dremio.service.jobs.JobsListManagerImpl;
 import com.dremio.service.jobs.JobsService;
 import com.dremio.service.jobs.JobsServiceAdapter;
 import com.dremio.service.jobs.LocalJobsService;
@@ -394,7 +398,8 @@ public class DACDaemonModule implements DACModule {
             config.getBytes(DremioConfig.FABRIC_MEMORY_RESERVATION),
             Long.MAX_VALUE,
             sabotConfig.getInt(RpcConstants.BIT_RPC_TIMEOUT),
-            bootstrap.getExecutor()
+            bootstrap.getExecutor(),
+            sabotConfig.getInt(ExecConstants.BIT_SERVER_RPC_DATA_CONNECTIONS)
         ));
 
     final Optional<SSLEngineFactory> conduitSslEngineFactory;
@@ -539,6 +544,7 @@ public class DACDaemonModule implements DACModule {
       registry.provider(QueryObserverFactory.class),
       registry.provider(AccelerationManager.class),
       registry.provider(AccelerationListManager.class),
+      registry.provider(JobsListManager.class),
       registry.provider(NamespaceService.Factory.class),
       registry.provider(DatasetListingService.class),
       registry.provider(UserService.class),
@@ -733,6 +739,11 @@ public class DACDaemonModule implements DACModule {
       registry.bind(JobResultInfoProvider.class, JobResultInfoProvider.NOOP);
     }
 
+    // the job and profile stores are reachable from any node, so the job system tables can be read anywhere
+    registry.bind(JobsListManager.class, new JobsListManagerImpl(
+      registry.provider(LegacyKVStoreProvider.class),
+      registry.provider(JobTelemetryClient.class)));
+
     if (isCoordinator) {
       // put provisioning service before resource allocator
       final Provider<OptionManager> optionsProvider = () -> sabotContextProvider.get().getOptionManager();
@@ -756,8 +767,10 @@ public class DACDaemonModule implements DACModule {
       ));
     }
 
-    registry.bind(ResourceAllocator.class, new BasicResourceAllocator(registry.provider(ClusterCoordinator
-      .class), registry.provider(GroupResourceInformation.class)));
+    final ExecutorLoadProvider executorLoadProvider = new NodeStatsExecutorLoadProvider(sabotContextProvider,
+      registry.provider(ExecutorServiceClientFactory.class));
+    registry.bind(ResourceAllocator.class, new LoadAwareResourceAllocator(registry.provider(ClusterCoordinator
+      .class), registry.provider(GroupResourceInformation.class), () -> executorLoadProvider));
     if (isCoordinator){
       final Provider<OptionManager> optionManagerProvider = () -> sabotContextProvider.get().getOptionManager();
 
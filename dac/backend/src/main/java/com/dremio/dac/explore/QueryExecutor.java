@@ -20,6 +20,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static java.lang.String.format;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 import javax.ws.rs.core.SecurityContext;
@@ -39,9 +41,11 @@ import com.dremio.dac.util.JobRequestUtil;
 import com.dremio.exec.catalog.DremioTable;
 import com.dremio.exec.catalog.EntityExplorer;
 import com.dremio.exec.catalog.MetadataRequestOptions;
+import com.dremio.exec.planner.physical.PlannerSettings;
 import com.dremio.exec.planner.types.SqlTypeFactoryImpl;
 import com.dremio.exec.store.CatalogService;
 import com.dremio.exec.store.SchemaConfig;
+import com.dremio.options.OptionManager;
 import com.dremio.service.job.JobDetailsRequest;
 import com.dremio.service.job.JobState;
 import com.dremio.service.job.JobSummary;
@@ -61,6 +65,9 @@ import com.dremio.service.jobs.SqlQuery;
 import com.dremio.service.namespace.dataset.DatasetVersion;
 import com.dremio.service.namespace.file.FileFormat;
 import com.dremio.service.users.SystemUser;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 /**
  * A per RequestScoped class used to execute queries.
@@ -70,15 +77,29 @@ public class QueryExecutor {
 
   private static final int MAX_JOBS_TO_SEARCH = 25;
 
+  // Completed preview jobs by sample. Their results are materialized in the job results store, so
+  // that cards and histograms of a dataset version keep reading the same sample instead of
+  // running the preview again once other jobs on the version push it out of the job search.
+  private static final Cache<SampleKey, JobId> SAMPLES = CacheBuilder.newBuilder()
+      .maximumSize(1000)
+      .expireAfterAccess(1, TimeUnit.HOURS)
+      .build();
+
   private final JobsService jobsService;
   private final CatalogService catalogService;
   private final SecurityContext context;
+  private final OptionManager optionManager;
 
-  @Inject
   public QueryExecutor(JobsService jobsService, CatalogService catalogService, SecurityContext context) {
+    this(jobsService, catalogService, context, null);
+  }
+
+  @Inject
+  public QueryExecutor(JobsService jobsService, CatalogService catalogService, SecurityContext context, OptionManager optionManager) {
     this.jobsService = jobsService;
     this.catalogService = catalogService;
     this.context = context;
+    this.optionManager = optionManager;
   }
 
   /**
@@ -123,8 +144,28 @@ public class QueryExecutor {
     }
 
     try {
+      final SampleKey sampleKey = isSample(queryType)
+          ? new SampleKey(query, queryType, datasetPath, version, getSampleSize())
+          : null;
+
       // don't check the cache for UI_RUN queries
       if (queryType != QueryType.UI_RUN && DremioEdition.get() != DremioEdition.MARKETPLACE) {
+        if (sampleKey != null) {
+          final JobId sampleJobId = SAMPLES.getIfPresent(sampleKey);
+          if (sampleJobId != null) {
+            try {
+              if (hasResults(sampleJobId, query.getUsername())) {
+                statusListener.jobCompleted();
+                return new JobDataWrapper(jobsService, sampleJobId, query.getUsername());
+              }
+            } catch (JobNotFoundException | RuntimeException e) {
+              logger.debug("sample job {} not found for dataset {}", sampleJobId.getId(), messagePath, e);
+            }
+            // results were cleaned up
+            SAMPLES.invalidate(sampleKey);
+          }
+        }
+
         final SearchJobsRequest.Builder requestBuilder = SearchJobsRequest.newBuilder()
             .setLimit(MAX_JOBS_TO_SEARCH)
             .setUserName(query.getUsername());
@@ -139,19 +180,17 @@ public class QueryExecutor {
           if (job.getQueryType() == JobsProtoUtil.toBuf(queryType)
             && query.getSql().equals(job.getSql())
             && job.getJobState() == JobState.COMPLETED) {
+            final JobId jobId = JobsProtoUtil.toStuff(job.getJobId());
             try {
-              if (!jobsService.getJobDetails(
-                  JobDetailsRequest.newBuilder()
-                      .setJobId(job.getJobId())
-                      .setUserName(query.getUsername())
-                      .setProvideResultInfo(true)
-                      .build())
-                  .getHasResults()) {
+              if (!hasResults(jobId, query.getUsername())) {
                 continue;
               }
 
+              if (sampleKey != null) {
+                SAMPLES.put(sampleKey, jobId);
+              }
               statusListener.jobCompleted();
-              return new JobDataWrapper(jobsService, JobsProtoUtil.toStuff(job.getJobId()), query.getUsername());
+              return new JobDataWrapper(jobsService, jobId, query.getUsername());
             } catch (JobNotFoundException | RuntimeException e) {
               logger.debug("job {} not found for dataset {}", job.getJobId().getId(), messagePath, e);
               // no result
@@ -163,6 +202,7 @@ public class QueryExecutor {
       }
 
       final JobSubmittedListener submittedListener = new JobSubmittedListener();
+      final SampleRecorder sampleRecorder = new SampleRecorder(sampleKey);
       final JobId jobId = jobsService.submitJob(
         SubmitJobRequest.newBuilder()
           .setSqlQuery(JobsProtoUtil.toBuf(query))
@@ -173,7 +213,8 @@ public class QueryExecutor {
             .build())
           .setRunInSameThread(runInSameThread)
           .build(),
-        new MultiJobStatusListener(statusListener, submittedListener));
+        new MultiJobStatusListener(statusListener, submittedListener, sampleRecorder));
+      sampleRecorder.submitted(jobId);
       submittedListener.await();
 
       return new JobDataWrapper(jobsService, jobId, query.getUsername());
@@ -182,6 +223,111 @@ public class QueryExecutor {
     }
   }
 
+  private boolean hasResults(JobId jobId, String username) throws JobNotFoundException {
+    return jobsService.getJobDetails(
+        JobDetailsRequest.newBuilder()
+            .setJobId(JobsProtoUtil.toBuf(jobId))
+            .setUserName(username)
+            .setProvideResultInfo(true)
+            .build())
+        .getHasResults();
+  }
+
+  /**
+   * Whether the query reads a sample of the dataset, by limiting the records read from each source.
+   */
+  private static boolean isSample(QueryType queryType) {
+    return queryType == QueryType.UI_PREVIEW
+        || queryType == QueryType.UI_INTERNAL_PREVIEW
+        || queryType == QueryType.UI_INITIAL_PREVIEW;
+  }
+
+  private long getSampleSize() {
+    return optionManager == null ? 0 : optionManager.getOption(PlannerSettings.LEAF_LIMIT_SIZE);
+  }
+
+  @VisibleForTesting
+  static void clearSamples() {
+    SAMPLES.invalidateAll();
+  }
+
+  /**
+   * Identifies the sample of a dataset version read by a preview query.
+   */
+  private static final class SampleKey {
+    private final String username;
+    private final String sql;
+    private final List<String> context;
+    private final QueryType queryType;
+    private final List<String> datasetPath;
+    private final String version;
+    private final long sampleSize;
+
+    private SampleKey(SqlQuery query, QueryType queryType, DatasetPath datasetPath, DatasetVersion version, long sampleSize) {
+      this.username = query.getUsername();
+      this.sql = query.getSql();
+      this.context = query.getContext();
+      this.queryType = queryType;
+      this.datasetPath = datasetPath.toPathList();
+      this.version = version == null ? null : version.getVersion();
+      this.sampleSize = sampleSize;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final SampleKey that = (SampleKey) o;
+      return sampleSize == that.sampleSize
+          && Objects.equals(username, that.username)
+          && Objects.equals(sql, that.sql)
+          && Objects.equals(context, that.context)
+          && queryType == that.queryType
+          && Objects.equals(datasetPath, that.datasetPath)
+          && Objects.equals(version, that.version);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(username, sql, context, queryType, datasetPath, version, sampleSize);
+    }
+  }
+
+  /**
+   * Remembers the job of a preview query once it has completed, whichever of the completion and
+   * the submission is notified first.
+   */
+  private static final class SampleRecorder implements JobStatusListener {
+    private final SampleKey key;
+    private JobId jobId;
+    private boolean completed;
+
+    private SampleRecorder(SampleKey key) {
+      this.key = key;
+    }
+
+    synchronized void submitted(JobId jobId) {
+      this.jobId = jobId;
+      record();
+    }
+
+    @Override
+    public synchronized void jobCompleted() {
+      completed = true;
+      record();
+    }
+
+    private void record() {
+      if (key != null && jobId != null && completed) {
+        SAMPLES.put(key, jobId);
+      }
+    }
+  }
+
   public JobData runQueryAndWaitForCompletion(SqlQuery query, QueryType queryType, DatasetPath datasetPath, DatasetVersion version) {
     final CompletionListener listener = new CompletionListener();
     final JobData data = runQueryWithListener(query, queryType, datasetPath, version, listener);
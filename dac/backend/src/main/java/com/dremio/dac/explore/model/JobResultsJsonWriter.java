@@ -0,0 +1,288 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.dac.explore.model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.holders.NullableVarCharHolder;
+
+import com.dremio.exec.planner.physical.WriterPrel;
+import com.dremio.exec.record.RecordBatchHolder;
+import com.dremio.exec.record.VectorWrapper;
+import com.dremio.exec.store.EventBasedRecordWriter;
+import com.dremio.exec.store.EventBasedRecordWriter.FieldConverter;
+import com.dremio.exec.store.RowBasedRecordWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.json.UTF8JsonGenerator;
+
+/**
+ * Writes the records of job results as JSON, in the format of the given row writer
+ * ({@link APIJobResultsSerializer} or {@link DACJobResultsSerializer}).
+ *
+ * Unlike {@link EventBasedRecordWriter}, the values of primitive columns are read straight from their vectors and
+ * written without going through {@link org.apache.arrow.vector.complex.reader.FieldReader}s, which box every value
+ * and decode every string. The other columns, and the strings which may need to be truncated, are still written by
+ * the converters of the row writer. The generator is flushed after each batch, so that the response is sent as the
+ * batches are written instead of accumulating in the output buffers.
+ */
+public class JobResultsJsonWriter {
+
+  private final JsonGenerator generator;
+  private final RowBasedRecordWriter rowWriter;
+  private final boolean convertNumbersToStrings;
+  private final int cellSizeLimit;
+
+  private byte[] scratch = new byte[1024];
+
+  /**
+   * @param generator generator to write to
+   * @param rowWriter row writer, writing the records in the expected format
+   * @param convertNumbersToStrings whether the numbers are written as strings
+   * @param cellSizeLimit maximum length of the strings written by the row writer without truncation
+   */
+  public JobResultsJsonWriter(JsonGenerator generator, RowBasedRecordWriter rowWriter, boolean convertNumbersToStrings,
+      int cellSizeLimit) {
+    this.generator = generator;
+    this.rowWriter = rowWriter;
+    this.convertNumbersToStrings = convertNumbersToStrings;
+    this.cellSizeLimit = cellSizeLimit;
+  }
+
+  /**
+   * Writes the records of the given batch.
+   */
+  public void write(RecordBatchHolder batchHolder) throws IOException {
+    write(batchHolder, index -> {});
+  }
+
+  /**
+   * Writes the records of the given batch.
+   *
+   * @param batchHolder records to write
+   * @param recordListener called with the index of each record in the batch, before the record is written
+   */
+  public void write(RecordBatchHolder batchHolder, IntConsumer recordListener) throws IOException {
+    final List<FieldConverter> converters = new ArrayList<>();
+    int fieldId = 0;
+    for (VectorWrapper<?> wrapper : batchHolder.getData().getContainer()) {
+      final String fieldName = wrapper.getField().getName();
+      if (fieldName.equalsIgnoreCase(WriterPrel.PARTITION_COMPARATOR_FIELD)) {
+        continue;
+      }
+
+      final ValueVector vector = wrapper.getValueVector();
+      final FieldConverter converter = EventBasedRecordWriter.getConverter(rowWriter, fieldId, fieldName,
+          vector.getMinorType(), vector.getReader());
+      if (converter == null) {
+        continue;
+      }
+      fieldId++;
+
+      final CellWriter cellWriter = newCellWriter(vector);
+      converters.add(cellWriter != null ? new TypedFieldConverter(converter, cellWriter) : converter);
+    }
+
+    for (int i = batchHolder.getStart(); i < batchHolder.getEnd(); i++) {
+      recordListener.accept(i);
+      rowWriter.startRecord();
+      for (FieldConverter converter : converters) {
+        converter.setPosition(i);
+        converter.startField();
+        converter.writeField();
+        converter.endField();
+      }
+      rowWriter.endRecord();
+    }
+    generator.flush();
+  }
+
+  /**
+   * Writes the value of a cell, or returns false to let the converter of the row writer write it.
+   */
+  private interface CellWriter {
+    boolean write(int index) throws IOException;
+  }
+
+  private CellWriter newCellWriter(ValueVector vector) {
+    if (vector instanceof BitVector) {
+      final BitVector bitVector = (BitVector) vector;
+      return index -> {
+        if (bitVector.isNull(index)) {
+          generator.writeNull();
+        } else {
+          generator.writeBoolean(bitVector.get(index) != 0);
+        }
+        return true;
+      };
+    }
+    if (vector instanceof TinyIntVector) {
+      final TinyIntVector tinyIntVector = (TinyIntVector) vector;
+      return index -> {
+        if (tinyIntVector.isNull(index)) {
+          generator.writeNull();
+        } else {
+          writeNumber(tinyIntVector.get(index));
+        }
+        return true;
+      };
+    }
+    if (vector instanceof SmallIntVector) {
+      final SmallIntVector smallIntVector = (SmallIntVector) vector;
+      return index -> {
+        if (smallIntVector.isNull(index)) {
+          generator.writeNull();
+        } else {
+          writeNumber(smallIntVector.get(index));
+        }
+        return true;
+      };
+    }
+    if (vector instanceof IntVector) {
+      final IntVector intVector = (IntVector) vector;
+      return index -> {
+        if (intVector.isNull(index)) {
+          generator.writeNull();
+        } else {
+          writeNumber(intVector.get(index));
+        }
+        return true;
+      };
+    }
+    if (vector instanceof BigIntVector) {
+      final BigIntVector bigIntVector = (BigIntVector) vector;
+      return index -> {
+        if (bigIntVector.isNull(index)) {
+          generator.writeNull();
+        } else if (convertNumbersToStrings) {
+          generator.writeString(Long.toString(bigIntVector.get(index)));
+        } else {
+          generator.writeNumber(bigIntVector.get(index));
+        }
+        return true;
+      };
+    }
+    if (vector instanceof Float4Vector) {
+      final Float4Vector float4Vector = (Float4Vector) vector;
+      return index -> {
+        if (float4Vector.isNull(index)) {
+          generator.writeNull();
+        } else if (convertNumbersToStrings) {
+          generator.writeString(Float.toString(float4Vector.get(index)));
+        } else {
+          generator.writeNumber(float4Vector.get(index));
+        }
+        return true;
+      };
+    }
+    if (vector instanceof Float8Vector) {
+      final Float8Vector float8Vector = (Float8Vector) vector;
+      return index -> {
+        if (float8Vector.isNull(index)) {
+          generator.writeNull();
+        } else if (convertNumbersToStrings) {
+          generator.writeString(Double.toString(float8Vector.get(index)));
+        } else {
+          generator.writeNumber(float8Vector.get(index));
+        }
+        return true;
+      };
+    }
+    // only generators writing UTF-8 bytes accept UTF-8 strings
+    if (vector instanceof VarCharVector && generator instanceof UTF8JsonGenerator) {
+      final VarCharVector varCharVector = (VarCharVector) vector;
+      final NullableVarCharHolder holder = new NullableVarCharHolder();
+      return index -> {
+        varCharVector.get(index, holder);
+        if (holder.isSet == 0) {
+          generator.writeNull();
+          return true;
+        }
+
+        // a string has at most as many characters as bytes, so a short enough string is never truncated
+        final int length = holder.end - holder.start;
+        if (length > cellSizeLimit) {
+          return false;
+        }
+        if (length > scratch.length) {
+          scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        holder.buffer.getBytes(holder.start, scratch, 0, length);
+        generator.writeUTF8String(scratch, 0, length);
+        return true;
+      };
+    }
+    return null;
+  }
+
+  private void writeNumber(int value) throws IOException {
+    if (convertNumbersToStrings) {
+      generator.writeString(Integer.toString(value));
+    } else {
+      generator.writeNumber(value);
+    }
+  }
+
+  /**
+   * Converter writing the values of a primitive column, and delegating the rest of the format to the converter of
+   * the row writer.
+   */
+  private static final class TypedFieldConverter extends FieldConverter {
+    private final FieldConverter delegate;
+    private final CellWriter cellWriter;
+    private int index;
+
+    private TypedFieldConverter(FieldConverter delegate, CellWriter cellWriter) {
+      super(delegate);
+      this.delegate = delegate;
+      this.cellWriter = cellWriter;
+    }
+
+    @Override
+    public void setPosition(int index) {
+      this.index = index;
+      delegate.setPosition(index);
+    }
+
+    @Override
+    public void startField() throws IOException {
+      delegate.startField();
+    }
+
+    @Override
+    public void writeField() throws IOException {
+      if (!cellWriter.write(index)) {
+        delegate.writeField();
+      }
+    }
+
+    @Override
+    public void endField() throws IOException {
+      delegate.endField();
+    }
+  }
+}
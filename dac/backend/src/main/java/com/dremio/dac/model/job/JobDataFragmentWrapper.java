@@ -37,12 +37,12 @@ import com.dremio.dac.explore.model.Column;
 import com.dremio.dac.explore.model.DACJobResultsSerializer;
 import com.dremio.dac.explore.model.DACJobResultsSerializer.SerializationContext;
 import com.dremio.dac.explore.model.DataJsonOutput;
+import com.dremio.dac.explore.model.JobResultsJsonWriter;
 import com.dremio.dac.model.job.JobDataFragmentWrapper.JobDataFragmentSerializer;
 import com.dremio.dac.proto.model.dataset.DataType;
 import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.record.RecordBatchData;
 import com.dremio.exec.record.RecordBatchHolder;
-import com.dremio.exec.store.EventBasedRecordWriter;
 import com.dremio.service.job.proto.JobId;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
@@ -248,19 +248,19 @@ public class JobDataFragmentWrapper implements JobDataFragment {
 
         final boolean convertNumbersToStrings = DataJsonOutput.isNumberAsString(provider);
 
-        DACJobResultsSerializer jsonWriter =
-            new DACJobResultsSerializer(generator, context, Integer.getInteger(MAX_CELL_SIZE_KEY, 100), convertNumbersToStrings);
-        jsonWriter.setup();
+        final int maxCellSize = Integer.getInteger(MAX_CELL_SIZE_KEY, 100);
+        DACJobResultsSerializer rowWriter =
+            new DACJobResultsSerializer(generator, context, maxCellSize, convertNumbersToStrings);
+        rowWriter.setup();
 
+        final JobResultsJsonWriter jsonWriter =
+            new JobResultsJsonWriter(generator, rowWriter, convertNumbersToStrings, maxCellSize);
         int currentRowInWriting = data.offsetInJobResults; // row number in complete job results
         for(RecordBatchHolder batchHolder : data.delegate.getRecordBatches()) {
-          final EventBasedRecordWriter recordWriter =
-              new EventBasedRecordWriter(batchHolder.getData().getContainer(), jsonWriter);
-
-          for (int i = batchHolder.getStart(); i < batchHolder.getEnd(); i++) {
-            context.setRowNum(currentRowInWriting++);
-            recordWriter.writeOneRecord(i);
-          }
+          // row number in complete job results of the first record in the batch
+          final int firstRow = currentRowInWriting - batchHolder.getStart();
+          jsonWriter.write(batchHolder, i -> context.setRowNum(firstRow + i));
+          currentRowInWriting += batchHolder.size();
         }
 
         generator.writeEndArray();
@@ -17,12 +17,16 @@ package com.dremio.dac.api;
 
 import static com.dremio.service.jobs.JobsServiceUtil.finalJobStates;
 
+import java.io.ByteArrayInputStream;
 import java.util.Collections;
 import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.Response;
 
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -119,6 +123,42 @@ public class TestSQLResource extends BaseTestServer {
     }
   }
 
+  @Test
+  public void testQueryResultsAsArrow() throws Exception {
+    CreateFromSQL create = new CreateFromSQL("select * from sys.version", Collections.<String>emptyList());
+    SQLResource.QueryDetails details = expectSuccess(getBuilder(getPublicAPI(3).path(PATH)).buildPost(Entity.entity(create, JSON)), SQLResource.QueryDetails.class);
+
+    Assert.assertNotNull(details.getId());
+
+    while (true) {
+      JobStatus status = expectSuccess(getBuilder(getPublicAPI(3).path(JOB_PATH).path(details.getId())).buildGet(), JobStatus.class);
+
+      JobState jobState = status.getJobState();
+
+      Assert.assertTrue("expected job to complete successfully", ensureJobIsRunningOrFinishedWith(JobState.COMPLETED, jobState));
+
+      if (jobState == JobState.COMPLETED) {
+        byte[] results = expectSuccess(getPublicAPI(3).path(JOB_PATH).path(details.getId()).path("results")
+          .request(JobResourceArrowData.APPLICATION_ARROW_STREAM)
+          .header(getAuthHeaderName(), getAuthHeaderValue())
+          .buildGet(), byte[].class);
+
+        long rowCount = 0;
+        try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+             ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(results), allocator)) {
+          while (reader.loadNextBatch()) {
+            rowCount += reader.getVectorSchemaRoot().getRowCount();
+          }
+          Assert.assertNotNull(reader.getVectorSchemaRoot().getVector("version"));
+        }
+        Assert.assertEquals((long) status.getRowCount(), rowCount);
+        break;
+      } else {
+        Thread.sleep(TimeUnit.MILLISECONDS.toMillis(100));
+      }
+    }
+  }
+
   private boolean ensureJobIsRunningOrFinishedWith(JobState expectedFinalState, JobState state) {
     if (expectedFinalState.equals(state)) {
       return true;
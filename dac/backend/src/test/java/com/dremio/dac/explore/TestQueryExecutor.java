@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.dac.explore;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.dac.explore.model.DatasetPath;
+import com.dremio.dac.model.job.JobData;
+import com.dremio.exec.planner.physical.PlannerSettings;
+import com.dremio.options.OptionManager;
+import com.dremio.service.job.JobDetails;
+import com.dremio.service.job.JobDetailsRequest;
+import com.dremio.service.job.SearchJobsRequest;
+import com.dremio.service.job.SubmitJobRequest;
+import com.dremio.service.job.proto.JobId;
+import com.dremio.service.job.proto.QueryType;
+import com.dremio.service.jobs.CompletionListener;
+import com.dremio.service.jobs.JobStatusListener;
+import com.dremio.service.jobs.JobsService;
+import com.dremio.service.jobs.SqlQuery;
+import com.dremio.service.namespace.dataset.DatasetVersion;
+
+/**
+ * Tests for the reuse of preview samples by {@link QueryExecutor}
+ */
+public class TestQueryExecutor {
+  private static final DatasetPath PATH = new DatasetPath(Arrays.asList("space", "ds"));
+  private static final DatasetVersion VERSION = DatasetVersion.newVersion();
+
+  private final AtomicInteger submitted = new AtomicInteger();
+  private JobsService jobsService;
+  private OptionManager optionManager;
+
+  @Before
+  public void setup() throws Exception {
+    QueryExecutor.clearSamples();
+    jobsService = mock(JobsService.class);
+    when(jobsService.searchJobs(any(SearchJobsRequest.class))).thenReturn(Collections.emptyList());
+    when(jobsService.getJobDetails(any(JobDetailsRequest.class)))
+      .thenReturn(JobDetails.newBuilder().setHasResults(true).build());
+    when(jobsService.submitJob(any(SubmitJobRequest.class), any(JobStatusListener.class))).thenAnswer(invocation -> {
+      final JobStatusListener listener = (JobStatusListener) invocation.getArguments()[1];
+      listener.jobSubmitted();
+      listener.jobCompleted();
+      return new JobId("job" + submitted.incrementAndGet());
+    });
+
+    optionManager = mock(OptionManager.class);
+    when(optionManager.getOption(PlannerSettings.LEAF_LIMIT_SIZE)).thenReturn(10000L);
+  }
+
+  @After
+  public void cleanup() {
+    QueryExecutor.clearSamples();
+  }
+
+  @Test
+  public void reusePreviewSample() throws Exception {
+    final QueryExecutor executor = new QueryExecutor(jobsService, null, null, optionManager);
+    final JobData first = preview(executor, "select * from t");
+    final JobData second = preview(executor, "select * from t");
+
+    assertEquals(first.getJobId(), second.getJobId());
+    verify(jobsService, times(1)).submitJob(any(SubmitJobRequest.class), any(JobStatusListener.class));
+
+    // another query, or another sample size, reads another sample
+    preview(executor, "select a from t");
+    when(optionManager.getOption(PlannerSettings.LEAF_LIMIT_SIZE)).thenReturn(100L);
+    preview(executor, "select * from t");
+    assertEquals(3, submitted.get());
+  }
+
+  @Test
+  public void sampleWithoutResults() throws Exception {
+    final QueryExecutor executor = new QueryExecutor(jobsService, null, null, optionManager);
+    preview(executor, "select * from t");
+
+    when(jobsService.getJobDetails(any(JobDetailsRequest.class)))
+      .thenReturn(JobDetails.newBuilder().setHasResults(false).build());
+    preview(executor, "select * from t");
+    assertEquals(2, submitted.get());
+  }
+
+  private static JobData preview(QueryExecutor executor, String sql) {
+    final CompletionListener listener = new CompletionListener();
+    final JobData data = executor.runQueryWithListener(new SqlQuery(sql, "user"), QueryType.UI_PREVIEW, PATH, VERSION, listener);
+    listener.awaitUnchecked();
+    return data;
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.dac.explore.model;
+
+import static com.dremio.exec.record.RecordBatchHolder.newRecordBatchHolder;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
+import com.dremio.exec.record.RecordBatchData;
+import com.dremio.exec.record.RecordBatchHolder;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.store.EventBasedRecordWriter;
+import com.dremio.exec.store.RowBasedRecordWriter;
+import com.dremio.test.AllocatorRule;
+import com.dremio.test.DremioTest;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Tests that {@link JobResultsJsonWriter} writes the same JSON as {@link EventBasedRecordWriter}
+ */
+public class TestJobResultsJsonWriter extends DremioTest {
+  private static final JsonFactory FACTORY = new JsonFactory();
+  private static final int CELL_SIZE_LIMIT = 10;
+  private static final int COUNT = 6;
+
+  @ClassRule
+  public static final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  private BufferAllocator allocator;
+  private RecordBatchData batch;
+
+  @Before
+  public void setup() {
+    allocator = allocatorRule.newAllocator("test-job-results-json-writer", 0, Long.MAX_VALUE);
+
+    final BitVector bit = new BitVector("bit", allocator);
+    final TinyIntVector tinyInt = new TinyIntVector("tinyInt", allocator);
+    final SmallIntVector smallInt = new SmallIntVector("smallInt", allocator);
+    final IntVector integer = new IntVector("int", allocator);
+    final BigIntVector bigInt = new BigIntVector("bigInt", allocator);
+    final Float4Vector float4 = new Float4Vector("float4", allocator);
+    final Float8Vector float8 = new Float8Vector("float8", allocator);
+    final VarCharVector varChar = new VarCharVector("varChar", allocator);
+    final String[] strings = {"a", "quote \" and \\", "été ☃", "\n\t", "longer than the limit"};
+    for (int i = 0; i < COUNT - 1; i++) {
+      bit.setSafe(i, i % 2);
+      tinyInt.setSafe(i, (byte) -i);
+      smallInt.setSafe(i, (short) (i * 1000));
+      integer.setSafe(i, i * (Integer.MAX_VALUE / 4));
+      bigInt.setSafe(i, i * (Long.MIN_VALUE / 4));
+      float4.setSafe(i, i / 3.0f);
+      float8.setSafe(i, i * 1e300);
+      varChar.setSafe(i, strings[i].getBytes(UTF_8));
+    }
+
+    final VectorContainer container = new VectorContainer();
+    container.addCollection(asList(bit, tinyInt, smallInt, integer, bigInt, float4, float8, varChar));
+    container.setAllCount(COUNT);
+    container.buildSchema(SelectionVectorMode.NONE);
+    batch = new RecordBatchData(container, allocator);
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    batch.close();
+    allocator.close();
+  }
+
+  @Test
+  public void apiFormat() throws Exception {
+    for (boolean convertNumbersToStrings : new boolean[] {false, true}) {
+      for (RecordBatchHolder batchHolder : new RecordBatchHolder[] {newRecordBatchHolder(batch, 0, COUNT), newRecordBatchHolder(batch, 2, 5)}) {
+        assertEquals(writeRecords(batchHolder, gen -> new APIJobResultsSerializer(gen, convertNumbersToStrings)),
+          writeJson(batchHolder, gen -> new APIJobResultsSerializer(gen, convertNumbersToStrings), convertNumbersToStrings));
+      }
+    }
+  }
+
+  @Test
+  public void dacFormat() throws Exception {
+    for (boolean convertNumbersToStrings : new boolean[] {false, true}) {
+      final RecordBatchHolder batchHolder = newRecordBatchHolder(batch, 0, COUNT);
+      final String json = writeJson(batchHolder,
+        gen -> new DACJobResultsSerializer(gen, column -> "/" + column, CELL_SIZE_LIMIT, convertNumbersToStrings), convertNumbersToStrings);
+      assertEquals(writeRecords(batchHolder,
+        gen -> new DACJobResultsSerializer(gen, column -> "/" + column, CELL_SIZE_LIMIT, convertNumbersToStrings)), json);
+    }
+  }
+
+  private interface RowWriterFactory {
+    RowBasedRecordWriter newRowWriter(JsonGenerator generator) throws IOException;
+  }
+
+  private static String writeRecords(RecordBatchHolder batchHolder, RowWriterFactory factory) throws Exception {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try (JsonGenerator generator = FACTORY.createGenerator(output)) {
+      final RowBasedRecordWriter rowWriter = factory.newRowWriter(generator);
+      generator.writeStartArray();
+      final EventBasedRecordWriter recordWriter = new EventBasedRecordWriter(batchHolder.getData().getContainer(), rowWriter);
+      for (int i = batchHolder.getStart(); i < batchHolder.getEnd(); i++) {
+        recordWriter.writeOneRecord(i);
+      }
+      generator.writeEndArray();
+    }
+    return new String(output.toByteArray(), UTF_8);
+  }
+
+  private static String writeJson(RecordBatchHolder batchHolder, RowWriterFactory factory, boolean convertNumbersToStrings) throws Exception {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try (JsonGenerator generator = FACTORY.createGenerator(output)) {
+      final RowBasedRecordWriter rowWriter = factory.newRowWriter(generator);
+      generator.writeStartArray();
+      new JobResultsJsonWriter(generator, rowWriter, convertNumbersToStrings, CELL_SIZE_LIMIT).write(batchHolder);
+      generator.writeEndArray();
+    }
+    return new String(output.toByteArray(), UTF_8);
+  }
+}
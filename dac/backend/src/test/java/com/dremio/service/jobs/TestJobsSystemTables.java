@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobs;
+
+import static com.dremio.dac.server.JobsServiceTestUtils.submitJobAndGetData;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.dac.model.job.JobDataFragment;
+import com.dremio.dac.server.BaseTestServer;
+import com.dremio.service.job.proto.JobId;
+import com.dremio.service.job.proto.QueryType;
+
+/**
+ * Tests for the sys.jobs and sys.operator_stats tables, read back from the jobs of the job service.
+ */
+public class TestJobsSystemTables extends BaseTestServer {
+  private static final String QUERY = "SELECT * FROM cp.\"tpch/region.parquet\"";
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void setup() throws Exception {
+    clearAllDataExceptUser();
+    allocator = getSabotContext().getAllocator().newChildAllocator(getClass().getName(), 0, Long.MAX_VALUE);
+  }
+
+  @After
+  public void cleanUp() {
+    allocator.close();
+  }
+
+  @Test
+  public void testJobs() throws Exception {
+    final JobId jobId = runQuery(QUERY);
+    runQuery("SELECT 1");
+
+    try (final JobDataFragment data = getData(String.format(
+        "SELECT job_id, user_name, status, query_type, output_records, query FROM sys.jobs WHERE job_id = '%s'",
+        jobId.getId()))) {
+      assertEquals(1, data.getReturnedRowCount());
+      assertEquals(jobId.getId(), data.extractString("job_id", 0));
+      assertEquals(DEFAULT_USERNAME, data.extractString("user_name", 0));
+      assertEquals("COMPLETED", data.extractString("status", 0));
+      assertEquals("UI_RUN", data.extractString("query_type", 0));
+      assertEquals("5", data.extractString("output_records", 0));
+      assertEquals(QUERY, data.extractString("query", 0));
+    }
+
+    // both queries, but not the internal queries reading sys.jobs
+    try (final JobDataFragment data = getData(
+        "SELECT job_id FROM sys.jobs WHERE query_type = 'UI_RUN' AND status = 'COMPLETED'")) {
+      assertEquals(2, data.getReturnedRowCount());
+    }
+  }
+
+  @Test
+  public void testOperatorStats() throws Exception {
+    final JobId jobId = runQuery(QUERY);
+
+    final Map<String, String> recordsIn = new HashMap<>();
+    try (final JobDataFragment data = getData(String.format(
+        "SELECT major_fragment_id, operator_id, operator_type, minor_fragments, records_in " +
+          "FROM sys.operator_stats WHERE job_id = '%s'", jobId.getId()))) {
+      assertTrue(data.getReturnedRowCount() > 0);
+      for (int i = 0; i < data.getReturnedRowCount(); i++) {
+        final String operator = data.extractString("major_fragment_id", i) + "-" + data.extractString("operator_id", i);
+        // one row per operator and phase, whatever the number of minor fragments
+        assertNull(recordsIn.put(operator, data.extractString("records_in", i)));
+        assertTrue(Integer.parseInt(data.extractString("minor_fragments", i)) > 0);
+      }
+    }
+    // the root operator, and the operators above the scan that read the 5 regions
+    assertTrue(recordsIn.containsKey("0-0"));
+    assertTrue(recordsIn.toString(), recordsIn.containsValue("5"));
+  }
+
+  private JobId runQuery(String sql) {
+    return submitJobAndWaitUntilCompletion(JobRequest.newBuilder()
+      .setSqlQuery(getQueryFromSQL(sql))
+      .setQueryType(QueryType.UI_RUN)
+      .build());
+  }
+
+  private JobDataFragment getData(String sql) {
+    return submitJobAndGetData(l(JobsService.class), JobRequest.newBuilder()
+      .setSqlQuery(getQueryFromSQL(sql))
+      .setQueryType(QueryType.UI_INTERNAL_RUN)
+      .build(), 0, 500, allocator);
+  }
+}
@@ -203,6 +203,10 @@ public class ElasticActions {
       return resource;
     }
 
+    public String getQuery(){
+      return query;
+    }
+
     @Override
     Invocation buildRequest(WebTarget initial, ContextListener context) {
       WebTarget t = initial
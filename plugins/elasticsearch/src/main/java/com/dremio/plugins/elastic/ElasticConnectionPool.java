@@ -108,6 +108,9 @@ public class ElasticConnectionPool implements AutoCloseable {
   //Version 5.3.x or higher
   private static final Version ELASTICSEARCH_VERSION_5_3_X = new Version(5, 3, 0);
 
+  //Version 6.4.x or higher (composite aggregations with missing_bucket)
+  private static final Version ELASTICSEARCH_VERSION_6_4_X = new Version(6, 4, 0);
+
   enum TLSValidationMode {
     STRICT,
     VERIFY_CA,
@@ -151,6 +154,11 @@ public class ElasticConnectionPool implements AutoCloseable {
    */
   private boolean enableContains;
 
+  /**
+   * Flag to indicate if composite aggregations (including null buckets) can be used for aggregate pushdown.
+   */
+  private boolean enableCompositeAggregation;
+
   /**
    * The lowest version found in the cluster.
    */
@@ -359,7 +367,8 @@ public class ElasticConnectionPool implements AutoCloseable {
     return new SourceCapabilities(
         new BooleanCapabilityValue(ElasticsearchStoragePlugin.ENABLE_V5_FEATURES, enable5vFeatures),
         new BooleanCapabilityValue(ElasticsearchStoragePlugin.SUPPORTS_NEW_FEATURES, enableNewFeatures),
-        new BooleanCapabilityValue(SourceCapabilities.SUPPORTS_CONTAINS, enableContains)
+        new BooleanCapabilityValue(SourceCapabilities.SUPPORTS_CONTAINS, enableContains),
+        new BooleanCapabilityValue(ElasticsearchStoragePlugin.SUPPORTS_COMPOSITE_AGGREGATION, enableCompositeAggregation)
         );
   }
 
@@ -459,6 +468,8 @@ public class ElasticConnectionPool implements AutoCloseable {
 
     enableContains = minVersionInCluster.compareTo(ELASTICSEARCH_VERSION_5_3_X) >= 0;
 
+    enableCompositeAggregation = minVersionInCluster.compareTo(ELASTICSEARCH_VERSION_6_4_X) >= 0;
+
     return hosts;
   }
 
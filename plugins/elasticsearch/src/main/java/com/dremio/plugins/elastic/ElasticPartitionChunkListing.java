@@ -27,6 +27,8 @@ import com.dremio.connector.metadata.DatasetSplitAffinity;
 import com.dremio.connector.metadata.PartitionChunk;
 import com.dremio.connector.metadata.PartitionChunkListing;
 import com.dremio.elastic.proto.ElasticReaderProto.ElasticSplitXattr;
+import com.dremio.exec.ExecConstants;
+import com.dremio.options.OptionManager;
 import com.dremio.plugins.elastic.ElasticActions.Count;
 import com.dremio.plugins.elastic.ElasticActions.CountResult;
 import com.dremio.plugins.elastic.ElasticActions.NodesInfo;
@@ -54,13 +56,15 @@ class ElasticPartitionChunkListing implements PartitionChunkListing {
   private final ElasticDatasetHandle datasetHandle;
   private final String indexOrAlias;
   private final String typeName;
+  private final boolean supportsSlicedScroll;
 
   private long rowCount;
   private List<PartitionChunk> partitionChunkList;
 
-  public ElasticPartitionChunkListing(ElasticDatasetHandle datasetHandle) {
+  public ElasticPartitionChunkListing(ElasticDatasetHandle datasetHandle, boolean supportsSlicedScroll) {
     super();
     this.datasetHandle = datasetHandle;
+    this.supportsSlicedScroll = supportsSlicedScroll;
 
     this.indexOrAlias = datasetHandle.getDatasetPath().getComponents().get(1);
     //encode the typeName incase it has a slash or other special characters
@@ -105,6 +109,7 @@ class ElasticPartitionChunkListing implements PartitionChunkListing {
     JsonArray shards = result.getAsJsonObject().getAsJsonArray("shards");
 
     Set<String> indexes = new HashSet<>();
+    List<ShardSplit> shardSplits = new ArrayList<>();
 
     for (JsonElement e : shards) {
       Set<Integer> shard = new HashSet<>();
@@ -126,21 +131,7 @@ class ElasticPartitionChunkListing implements PartitionChunkListing {
       final int onlyShard = shard.iterator().next();
 
       indexes.add(onlyIndex);
-
-      final ElasticSplitXattr splitAttributes = ElasticSplitXattr.newBuilder()
-        .setResource(RESOURCE_JOINER.join(onlyIndex, typeName))
-        .setShard(onlyShard)
-        .build();
-
-      List<DatasetSplitAffinity> affinity = new ArrayList<>();
-      for (String host : hosts) {
-        affinity.add(DatasetSplitAffinity.of(host, SPLIT_DEFAULT_SIZE));
-      }
-
-      partitionChunks.add(PartitionChunk.of(
-        DatasetSplit.of(affinity, (long) SPLIT_DEFAULT_SIZE, 0, os -> splitAttributes.writeTo(os))));
-
-      partitionChunkList = partitionChunks;
+      shardSplits.add(new ShardSplit(onlyIndex, onlyShard, hosts));
     }
 
     Count count = new Count();
@@ -153,6 +144,57 @@ class ElasticPartitionChunkListing implements PartitionChunkListing {
 
     rowCount = countResult.getAsLong();
 
+    final int slices = getSlicesPerShard(shardSplits.size());
+    for (ShardSplit shardSplit : shardSplits) {
+      List<DatasetSplitAffinity> affinity = new ArrayList<>();
+      for (String host : shardSplit.hosts) {
+        affinity.add(DatasetSplitAffinity.of(host, SPLIT_DEFAULT_SIZE));
+      }
+
+      for (int slice = 0; slice < slices; slice++) {
+        final ElasticSplitXattr.Builder splitAttributes = ElasticSplitXattr.newBuilder()
+          .setResource(RESOURCE_JOINER.join(shardSplit.index, typeName))
+          .setShard(shardSplit.shard);
+        if (slices > 1) {
+          splitAttributes.setSliceId(slice).setSliceMax(slices);
+        }
+        final ElasticSplitXattr splitXattr = splitAttributes.build();
+
+        partitionChunks.add(PartitionChunk.of(
+          DatasetSplit.of(affinity, (long) SPLIT_DEFAULT_SIZE, 0, os -> splitXattr.writeTo(os))));
+      }
+    }
+
+    partitionChunkList = partitionChunks;
+
     return partitionChunks.iterator();
   }
+
+  /**
+   * Large shards are read through several sliced scrolls so they can be read by more than one fragment.
+   * Shard sizes are estimated from the total document count, assuming documents are evenly routed.
+   */
+  private int getSlicesPerShard(int shardCount) {
+    if (!supportsSlicedScroll || shardCount == 0) {
+      return 1;
+    }
+
+    final OptionManager options = datasetHandle.getContext().getOptionManager();
+    final long maxSlices = options.getOption(ExecConstants.ELASTIC_SLICED_SCROLL_MAX_SLICES);
+    final long docsPerSlice = options.getOption(ExecConstants.ELASTIC_SLICED_SCROLL_DOCS_PER_SLICE);
+    final long docsPerShard = rowCount / shardCount;
+    return (int) Math.max(1, Math.min(maxSlices, (docsPerShard + docsPerSlice - 1) / docsPerSlice));
+  }
+
+  private static final class ShardSplit {
+    private final String index;
+    private final int shard;
+    private final Set<String> hosts;
+
+    private ShardSplit(String index, int shard, Set<String> hosts) {
+      this.index = index;
+      this.shard = shard;
+      this.hosts = hosts;
+    }
+  }
 }
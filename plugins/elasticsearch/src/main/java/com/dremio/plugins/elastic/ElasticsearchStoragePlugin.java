@@ -110,6 +110,7 @@ public class ElasticsearchStoragePlugin implements StoragePlugin, SupportsListin
 
   public static final BooleanCapability ENABLE_V5_FEATURES = new BooleanCapability("enable_elastic_v5_feature", false);
   public static final BooleanCapability SUPPORTS_NEW_FEATURES = new BooleanCapability("supports_new_features", false);
+  public static final BooleanCapability SUPPORTS_COMPOSITE_AGGREGATION = new BooleanCapability("supports_composite_aggregation", false);
 
   private final String name;
   private final SabotContext context;
@@ -409,7 +410,8 @@ public class ElasticsearchStoragePlugin implements StoragePlugin, SupportsListin
 
   @Override
   public PartitionChunkListing listPartitionChunks(DatasetHandle datasetHandle, ListPartitionChunkOption... options) {
-    return new ElasticPartitionChunkListing(datasetHandle.unwrap(ElasticDatasetHandle.class));
+    return new ElasticPartitionChunkListing(datasetHandle.unwrap(ElasticDatasetHandle.class),
+        connectionPool.getCapabilities().getCapability(ENABLE_V5_FEATURES));
   }
 
   @Override
@@ -69,6 +69,18 @@ public class ElasticScanCreator implements ProducerOperator.Creator<Elasticsearc
             return input.getHost();
           }}));
 
+        if (spec.getAggregation() != null) {
+          readers.add(new ElasticsearchAggregateRecordReader(
+              Iterables.getOnlyElement(subScan.getReferencedTables()),
+              context,
+              spec,
+              split,
+              connection,
+              subScan.getColumns()
+              ));
+          continue;
+        }
+
         readers.add(new ElasticsearchRecordReader(
             plugin,
             Iterables.getOnlyElement(subScan.getReferencedTables()),
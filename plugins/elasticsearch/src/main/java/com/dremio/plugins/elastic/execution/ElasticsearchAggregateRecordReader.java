@@ -0,0 +1,297 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.plugins.elastic.execution;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMilliVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.dremio.common.exceptions.ExecutionSetupException;
+import com.dremio.common.exceptions.InvalidMetadataErrorContext;
+import com.dremio.common.exceptions.UserException;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.elastic.proto.ElasticReaderProto.ElasticSplitXattr;
+import com.dremio.exec.proto.UserBitShared.DremioPBError.ErrorType;
+import com.dremio.exec.store.AbstractRecordReader;
+import com.dremio.exec.store.SplitAndPartitionInfo;
+import com.dremio.plugins.elastic.ElasticActions.Search;
+import com.dremio.plugins.elastic.ElasticActions.SearchBytes;
+import com.dremio.plugins.elastic.ElasticConnectionPool.ElasticConnection;
+import com.dremio.plugins.elastic.planning.ElasticsearchAggregateSpec;
+import com.dremio.plugins.elastic.planning.ElasticsearchAggregateSpec.Column;
+import com.dremio.plugins.elastic.planning.ElasticsearchScanSpec;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.op.scan.OutputMutator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Charsets;
+import com.google.common.collect.Iterators;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+/**
+ * Record reader for an aggregation pushed into Elasticsearch.
+ *
+ * Reads the buckets of the composite aggregation of a single shard, requesting the next page of buckets
+ * using the after_key of the previous one, and writes one row per bucket.
+ */
+public class ElasticsearchAggregateRecordReader extends AbstractRecordReader {
+
+  private static final Logger logger = LoggerFactory.getLogger(ElasticsearchAggregateRecordReader.class);
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  enum State {INIT, READ, DEPLETED, CLOSED};
+
+  private final ElasticConnection connection;
+  private final OperatorStats stats;
+  private final String resource;
+  private final ElasticsearchScanSpec spec;
+  private final ElasticsearchAggregateSpec aggregation;
+  private final ElasticSplitXattr splitAttributes;
+  private final List<String> tableSchemaPath;
+
+  private ObjectNode request;
+  private ValueWriter[] writers;
+  private ValueVector[] vectors;
+  private Iterator<JsonNode> buckets = Collections.emptyIterator();
+  private JsonNode afterKey;
+  private State state = State.INIT;
+
+  public ElasticsearchAggregateRecordReader(
+      List<String> tableSchemaPath,
+      OperatorContext context,
+      ElasticsearchScanSpec spec,
+      SplitAndPartitionInfo split,
+      ElasticConnection connection,
+      List<SchemaPath> columns) throws InvalidProtocolBufferException {
+    super(context, columns);
+    this.tableSchemaPath = tableSchemaPath;
+    this.spec = spec;
+    this.aggregation = spec.getAggregation();
+    this.stats = context == null ? null : context.getStats();
+    this.connection = connection;
+    this.splitAttributes = split == null ? null : ElasticSplitXattr.parseFrom(split.getDatasetSplitInfo().getExtendedProperty());
+    this.resource = split == null ? spec.getResource() : splitAttributes.getResource();
+  }
+
+  @Override
+  public void setup(OutputMutator output) throws ExecutionSetupException {
+    try {
+      request = (ObjectNode) MAPPER.readTree(spec.getQuery());
+    } catch (IOException e) {
+      throw new ExecutionSetupException("Unable to parse Elastic aggregation query.", e);
+    }
+
+    final List<Column> columns = aggregation.getColumns();
+    writers = new ValueWriter[columns.size()];
+    vectors = new ValueVector[columns.size()];
+    for (int i = 0; i < columns.size(); i++) {
+      vectors[i] = output.getVector(columns.get(i).getName());
+      writers[i] = newWriter(columns.get(i), vectors[i]);
+    }
+  }
+
+  @Override
+  public int next() {
+    if (state == State.DEPLETED || state == State.CLOSED) {
+      return 0;
+    }
+
+    int count = 0;
+    while (count < numRowsPerBatch) {
+      if (!buckets.hasNext()) {
+        if (!nextPage()) {
+          break;
+        }
+        continue;
+      }
+
+      final JsonNode bucket = buckets.next();
+      for (ValueWriter writer : writers) {
+        writer.write(count, bucket);
+      }
+      count++;
+    }
+
+    for (ValueVector vector : vectors) {
+      vector.setValueCount(count);
+    }
+    return count;
+  }
+
+  /**
+   * Fetch the next page of buckets.
+   * @return false if all buckets have been read.
+   */
+  private boolean nextPage() {
+    // other slices of a sliced shard are read by the first slice's split, as aggregations can't be sliced.
+    if (state == State.INIT && splitAttributes != null && splitAttributes.getSliceMax() > 1 && splitAttributes.getSliceId() != 0) {
+      state = State.DEPLETED;
+      return false;
+    }
+
+    if (state == State.READ && afterKey == null) {
+      state = State.DEPLETED;
+      return false;
+    }
+
+    if (afterKey != null) {
+      request.with("aggregations").with(ElasticsearchAggregateSpec.GROUPS).with("composite").set("after", afterKey);
+    }
+
+    final String query = request.toString();
+    final Search<byte[]> search = new SearchBytes()
+        .setQuery(query)
+        .setResource(resource);
+
+    if (splitAttributes != null) {
+      search.setParameter("preference", "_shards:" + splitAttributes.getShard());
+    }
+
+    final byte[] bytes;
+    try {
+      if (stats != null) {
+        stats.startWait();
+      }
+      bytes = connection.execute(search);
+    } catch (UserException e) {
+      if (e.getErrorType() == ErrorType.INVALID_DATASET_METADATA) {
+        logger.trace("failed with invalid metadata, ", e);
+        throw UserException.invalidMetadataError()
+            .setAdditionalExceptionContext(
+                new InvalidMetadataErrorContext(Collections.singletonList(tableSchemaPath)))
+            .build(logger);
+      }
+
+      throw e;
+    } finally {
+      if (stats != null) {
+        stats.stopWait();
+      }
+    }
+
+    final JsonNode groups;
+    try {
+      groups = MAPPER.readTree(bytes).path("aggregations").path(ElasticsearchAggregateSpec.GROUPS);
+    } catch (IOException e) {
+      throw UserException.dataReadError(e)
+          .message("Failure while reading Elastic aggregation response.")
+          .addContext("Resource", resource)
+          .addContext("Shard", splitAttributes == null ? "all" : splitAttributes.getShard())
+          .addContext("Query", query)
+          .addContext("Response", new String(bytes, Charsets.UTF_8))
+          .build(logger);
+    }
+
+    state = State.READ;
+    if (aggregation.isComposite()) {
+      final JsonNode page = groups.path("buckets");
+      buckets = page.elements();
+      // a short page is the last one, no need for another round trip.
+      afterKey = page.size() < spec.getFetch() ? null : groups.get("after_key");
+    } else {
+      buckets = Iterators.singletonIterator(groups);
+      afterKey = null;
+    }
+    return true;
+  }
+
+  @Override
+  public void close() throws Exception {
+    state = State.CLOSED;
+  }
+
+  private static JsonNode getValue(Column column, JsonNode bucket) {
+    switch (column.getKind()) {
+    case KEY:
+      return bucket.path("key").path(column.getElasticName());
+    case DOC_COUNT:
+      return bucket.path("doc_count");
+    case METRIC:
+      return bucket.path(column.getElasticName()).path("value");
+    case NULLABLE_SUM:
+      if (bucket.path(column.getCountName()).path("value").asLong() == 0) {
+        return null;
+      }
+      return bucket.path(column.getElasticName()).path("value");
+    default:
+      throw new IllegalStateException("Unknown aggregate column kind " + column.getKind());
+    }
+  }
+
+  private static ValueWriter newWriter(Column column, ValueVector vector) {
+    final ValueSetter setter;
+    if (vector instanceof VarCharVector) {
+      final VarCharVector v = (VarCharVector) vector;
+      setter = (index, value) -> {
+        final byte[] bytes = value.asText().getBytes(Charsets.UTF_8);
+        v.setSafe(index, bytes, 0, bytes.length);
+      };
+    } else if (vector instanceof BitVector) {
+      final BitVector v = (BitVector) vector;
+      setter = (index, value) -> v.setSafe(index, (value.isNumber() ? value.asLong() != 0 : value.asBoolean()) ? 1 : 0);
+    } else if (vector instanceof IntVector) {
+      final IntVector v = (IntVector) vector;
+      setter = (index, value) -> v.setSafe(index, value.asInt());
+    } else if (vector instanceof BigIntVector) {
+      final BigIntVector v = (BigIntVector) vector;
+      setter = (index, value) -> v.setSafe(index, value.asLong());
+    } else if (vector instanceof Float4Vector) {
+      final Float4Vector v = (Float4Vector) vector;
+      setter = (index, value) -> v.setSafe(index, (float) value.asDouble());
+    } else if (vector instanceof Float8Vector) {
+      final Float8Vector v = (Float8Vector) vector;
+      setter = (index, value) -> v.setSafe(index, value.asDouble());
+    } else if (vector instanceof TimeStampMilliVector) {
+      final TimeStampMilliVector v = (TimeStampMilliVector) vector;
+      setter = (index, value) -> v.setSafe(index, value.isNumber() ? value.asLong() : Instant.parse(value.asText()).toEpochMilli());
+    } else {
+      throw new IllegalStateException(String.format("Unsupported vector %s for aggregate column %s.",
+          vector.getClass().getSimpleName(), column.getName()));
+    }
+
+    return (index, bucket) -> {
+      final JsonNode value = getValue(column, bucket);
+      if (value != null && !value.isMissingNode() && !value.isNull()) {
+        setter.set(index, value);
+      }
+    };
+  }
+
+  @FunctionalInterface
+  private interface ValueSetter {
+    void set(int index, JsonNode value);
+  }
+
+  @FunctionalInterface
+  private interface ValueWriter {
+    void write(int index, JsonNode bucket);
+  }
+}
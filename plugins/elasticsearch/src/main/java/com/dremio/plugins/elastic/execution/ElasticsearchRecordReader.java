@@ -20,6 +20,9 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.client.InvocationCallback;
@@ -40,6 +43,7 @@ import com.dremio.common.exceptions.UserException;
 import com.dremio.common.expression.SchemaPath;
 import com.dremio.elastic.proto.ElasticReaderProto.ElasticSplitXattr;
 import com.dremio.elastic.proto.ElasticReaderProto.ElasticTableXattr;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.proto.UserBitShared.DremioPBError.ErrorType;
 import com.dremio.exec.store.AbstractRecordReader;
 import com.dremio.exec.store.SplitAndPartitionInfo;
@@ -58,6 +62,8 @@ import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.op.scan.OutputMutator;
 import com.fasterxml.jackson.core.JsonGenerationException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Charsets;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
@@ -74,6 +80,7 @@ public class ElasticsearchRecordReader extends AbstractRecordReader {
   public static final String MATCH_ALL_REQUEST = String.format("{\"query\": %s }", MATCH_ALL_QUERY);
   private static final int STREAM_COUNT_BREAK_MULTIPLIER = 3;
   private static final String TIMED_OUT = "\"timed_out\": true";
+  private static final ObjectMapper MAPPER = new ObjectMapper();
 
   enum State {INIT, READ, DEPLETED, CLOSED};
 
@@ -96,8 +103,14 @@ public class ElasticsearchRecordReader extends AbstractRecordReader {
   private final boolean metaIndexSelected;
   private final boolean metaTypeSelected;
   private final ElasticsearchStoragePlugin plugin;
+  private final boolean prefetchEnabled;
+  private final long prefetchMaxPageBytes;
+  private final ExecutorService prefetchExecutor;
 
   private long totalSize;
+  private long requestedSize;
+  private int searchSize;
+  private Future<byte[]> prefetchedPage;
   private long totalCount;
   private String scrollId;
   private VectorContainerWriter complexWriter;
@@ -125,10 +138,13 @@ public class ElasticsearchRecordReader extends AbstractRecordReader {
     this.readDefinition = readDefinition;
     this.connection = connection;
     String query = spec.getQuery();
-    this.query = query != null && query.length() > 0 ? query : MATCH_ALL_REQUEST;
     this.usingElasticProjection = useElasticProjection;
     this.config = config;
     this.splitAttributes = split == null ? null : ElasticSplitXattr.parseFrom(split.getDatasetSplitInfo().getExtendedProperty());
+    this.query = withSlice(query != null && query.length() > 0 ? query : MATCH_ALL_REQUEST, splitAttributes);
+    this.prefetchEnabled = context != null && context.getOptions().getOption(ExecConstants.ELASTIC_SCROLL_PREFETCH);
+    this.prefetchMaxPageBytes = context == null ? 0 : context.getOptions().getOption(ExecConstants.ELASTIC_SCROLL_PREFETCH_MAX_PAGE_BYTES);
+    this.prefetchExecutor = prefetchEnabled ? context.getExecutor() : null;
     this.resource = split == null ? spec.getResource() : splitAttributes.getResource();
     this.metaUIDSelected = getColumns().contains(SchemaPath.getSimplePath(ElasticsearchConstants.UID)) || isStarQuery();
     this.metaIDSelected = config.isShowIdColumn() && (getColumns().contains(SchemaPath.getSimplePath(ElasticsearchConstants.ID)) || isStarQuery());
@@ -140,6 +156,28 @@ public class ElasticsearchRecordReader extends AbstractRecordReader {
     }
   }
 
+  /**
+   * Restrict the query to the slice of the shard this split reads, if the shard is read through a sliced scroll.
+   */
+  private static String withSlice(String query, ElasticSplitXattr splitAttributes) {
+    if (splitAttributes == null || splitAttributes.getSliceMax() <= 1) {
+      return query;
+    }
+
+    try {
+      final ObjectNode request = (ObjectNode) MAPPER.readTree(query);
+      request.putObject("slice")
+          .put("id", splitAttributes.getSliceId())
+          .put("max", splitAttributes.getSliceMax());
+      return request.toString();
+    } catch (IOException e) {
+      throw UserException.dataReadError(e)
+          .message("Failure adding slice to Elastic query.")
+          .addContext("Query", query)
+          .build(logger);
+    }
+  }
+
   @Override
   public void setup(OutputMutator output) throws ExecutionSetupException {
     complexWriter = new VectorContainerWriter(output);
@@ -177,7 +215,7 @@ public class ElasticsearchRecordReader extends AbstractRecordReader {
 
   private void getFirstPage() {
     assert state == State.INIT;
-    int searchSize = config.getScrollSize();
+    searchSize = config.getScrollSize();
     int fetch = spec.getFetch();
     if (fetch >= 0 &&  fetch < searchSize) {
       searchSize = fetch;
@@ -217,6 +255,8 @@ public class ElasticsearchRecordReader extends AbstractRecordReader {
       Pair<String, Long> scrollIdAndTotalSize = jsonReader.getScrollAndTotalSizeThenSeekToHits();
       scrollId = scrollIdAndTotalSize.getKey();
       totalSize = scrollIdAndTotalSize.getValue();
+      requestedSize = searchSize;
+      prefetchNextPage(bytes.length);
     } catch (IOException e) {
       String bestEffortMessage = bestEffortMessageForUnknownException(e.getCause());
       if (bestEffortMessage != null) {
@@ -234,15 +274,30 @@ public class ElasticsearchRecordReader extends AbstractRecordReader {
     state = State.READ;
   }
 
+  private SearchScroll newSearchScroll() {
+    return new SearchScroll()
+        .setScrollId(scrollId)
+        .setScrollTimeout(config.getScrollTimeoutFormatted());
+  }
+
   private byte[] getNextPage() throws IOException {
     try {
       if (stats != null) {
         stats.startWait();
       }
-      SearchScroll searchScroll = new SearchScroll()
-          .setScrollId(scrollId)
-          .setScrollTimeout(config.getScrollTimeoutFormatted());
-      return connection.execute(searchScroll);
+      if (prefetchedPage != null) {
+        final Future<byte[]> page = prefetchedPage;
+        prefetchedPage = null;
+        return page.get();
+      }
+      requestedSize += searchSize;
+      return connection.execute(newSearchScroll());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for the next Elastic scroll page.", e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause());
+      throw new IOException(e.getCause());
     } finally {
       if (stats != null) {
         stats.stopWait();
@@ -250,6 +305,23 @@ public class ElasticsearchRecordReader extends AbstractRecordReader {
     }
   }
 
+  /**
+   * Request the page following the one just received while it is being parsed. At most one page is
+   * in flight, and none if the current page is over the configured size, to bound the heap used by a reader.
+   * The request goes through the same retries and timeouts as a synchronous one. No page is requested
+   * once the records of a pushed down limit have been requested, as they are not going to be read.
+   */
+  private void prefetchNextPage(int pageBytes) {
+    if (!prefetchEnabled || pageBytes > prefetchMaxPageBytes || requestedSize >= totalSize
+        || (spec.getLimit() >= 0 && requestedSize >= spec.getLimit())) {
+      return;
+    }
+
+    requestedSize += searchSize;
+    final SearchScroll scroll = newSearchScroll();
+    prefetchedPage = prefetchExecutor.submit(() -> connection.execute(scroll));
+  }
+
 
   @Override
   public int next() {
@@ -298,6 +370,7 @@ public class ElasticsearchRecordReader extends AbstractRecordReader {
         if(!badStreamBreak){
           jsonReader.setSource(bytes);
           scrollId = jsonReader.getScrollAndTotalSizeThenSeekToHits().getKey();
+          prefetchNextPage(bytes.length);
           continue;
         }
 
@@ -371,6 +444,11 @@ public class ElasticsearchRecordReader extends AbstractRecordReader {
     // TODO(DX-10051): fix rare race condition: above block assumes scrollId is not set, but the fragment thread
     // could be in #getFirstPage, right before setting scrollId. In this case, the scroll will never be deleted.
 
+    if (prefetchedPage != null) {
+      prefetchedPage.cancel(true);
+      prefetchedPage = null;
+    }
+
     try {
       final DeleteScroll delete = new DeleteScroll(scrollId);
       final CountDownLatch countDownLatch = new CountDownLatch(1);
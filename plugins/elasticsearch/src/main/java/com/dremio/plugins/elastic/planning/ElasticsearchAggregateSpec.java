@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.plugins.elastic.planning;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Describes how the buckets of a pushed down aggregation map to the output columns of the scan.
+ *
+ * When the aggregation has group keys, the search request contains a composite aggregation named
+ * {@link #GROUPS} which is paged through using its after_key. Without group keys, the metrics are nested
+ * under a match_all filter aggregation with the same name so that the response has a single bucket of
+ * the same shape.
+ */
+public class ElasticsearchAggregateSpec {
+
+  public static final String GROUPS = "groups";
+  public static final String COUNT_SUFFIX = "_count";
+
+  /**
+   * Where the value of an output column is found within a bucket.
+   */
+  public enum Kind {
+    /** bucket.key.[elasticName] */
+    KEY,
+    /** bucket.doc_count */
+    DOC_COUNT,
+    /** bucket.[elasticName].value */
+    METRIC,
+    /** bucket.[elasticName].value, or null when bucket.[elasticName]_count.value is zero. */
+    NULLABLE_SUM
+  }
+
+  private final List<Column> columns;
+  private final boolean composite;
+
+  @JsonCreator
+  public ElasticsearchAggregateSpec(
+      @JsonProperty("columns") List<Column> columns,
+      @JsonProperty("composite") boolean composite) {
+    this.columns = ImmutableList.copyOf(columns);
+    this.composite = composite;
+  }
+
+  public List<Column> getColumns() {
+    return columns;
+  }
+
+  public boolean isComposite() {
+    return composite;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (!(other instanceof ElasticsearchAggregateSpec)) {
+      return false;
+    }
+    ElasticsearchAggregateSpec castOther = (ElasticsearchAggregateSpec) other;
+    return Objects.equal(columns, castOther.columns) && composite == castOther.composite;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(columns, composite);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this).add("columns", columns).add("composite", composite).toString();
+  }
+
+  /**
+   * A single output column of the aggregation.
+   */
+  public static class Column {
+    private final String name;
+    private final String elasticName;
+    private final Kind kind;
+    private final String function;
+    private final String field;
+
+    @JsonCreator
+    public Column(
+        @JsonProperty("name") String name,
+        @JsonProperty("elasticName") String elasticName,
+        @JsonProperty("kind") Kind kind,
+        @JsonProperty("function") String function,
+        @JsonProperty("field") String field) {
+      this.name = name;
+      this.elasticName = elasticName;
+      this.kind = kind;
+      this.function = function;
+      this.field = field;
+    }
+
+    /**
+     * Name of the output column in Dremio.
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Name of the source or sub aggregation in the Elasticsearch request.
+     */
+    public String getElasticName() {
+      return elasticName;
+    }
+
+    public Kind getKind() {
+      return kind;
+    }
+
+    /**
+     * Elasticsearch metric aggregation type (sum, min, max, value_count), null for keys and doc counts.
+     */
+    public String getFunction() {
+      return function;
+    }
+
+    /**
+     * Elasticsearch field the key or metric is computed from, null for doc counts.
+     */
+    public String getField() {
+      return field;
+    }
+
+    @JsonIgnore
+    public String getCountName() {
+      return elasticName + COUNT_SUFFIX;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if (!(other instanceof Column)) {
+        return false;
+      }
+      Column castOther = (Column) other;
+      return Objects.equal(name, castOther.name) && Objects.equal(elasticName, castOther.elasticName)
+          && kind == castOther.kind && Objects.equal(function, castOther.function)
+          && Objects.equal(field, castOther.field);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(name, elasticName, kind, function, field);
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this).add("name", name).add("elasticName", elasticName).add("kind", kind)
+          .add("function", function).add("field", field).toString();
+    }
+  }
+}
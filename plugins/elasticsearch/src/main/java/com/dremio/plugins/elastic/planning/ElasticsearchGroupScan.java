@@ -64,6 +64,20 @@ public class ElasticsearchGroupScan extends AbstractGroupScan {
       .map(input -> input.getSplitAndPartitionInfo(true))
       .collect(Collectors.toList());
 
+    if (spec.getAggregation() != null) {
+      // the scan produces the output of the pushed down aggregation rather than the documents of the table.
+      return new ElasticsearchSubScan(
+          getProps(),
+          getDataset().getStoragePluginId(),
+          spec,
+          splitWork,
+          getColumns(),
+          Iterables.getOnlyElement(getReferencedTables()),
+          getProps().getSchema(),
+          getDataset().getReadDefinition().getExtendedProperty()
+          );
+    }
+
     return new ElasticsearchSubScan(
         getProps(),
         getDataset().getStoragePluginId(),
@@ -27,19 +27,33 @@ public class ElasticsearchScanSpec {
 
   private final String query;
   private final int fetch;
+  private final int limit;
   private final String resource;
   private final boolean pushdown;
+  private final ElasticsearchAggregateSpec aggregation;
+
+  public ElasticsearchScanSpec(String resource, String query, int fetch, boolean pushdown) {
+    this(resource, query, fetch, -1, pushdown, null);
+  }
+
+  public ElasticsearchScanSpec(String resource, String query, int fetch, boolean pushdown, ElasticsearchAggregateSpec aggregation) {
+    this(resource, query, fetch, -1, pushdown, aggregation);
+  }
 
   @JsonCreator
   public ElasticsearchScanSpec(
       @JsonProperty("resource") String resource,
       @JsonProperty("query") String query,
       @JsonProperty("fetch") int fetch,
-      @JsonProperty("pushdown") boolean pushdown) {
+      @JsonProperty("limit") Integer limit,
+      @JsonProperty("pushdown") boolean pushdown,
+      @JsonProperty("aggregation") ElasticsearchAggregateSpec aggregation) {
     this.resource = resource;
     this.query = query;
     this.fetch = fetch;
+    this.limit = limit == null ? -1 : limit;
     this.pushdown = pushdown;
+    this.aggregation = aggregation;
   }
 
   // This is only for testing purposes. Execution doesn't need this information.
@@ -59,6 +73,20 @@ public class ElasticsearchScanSpec {
     return fetch;
   }
 
+  /**
+   * @return the number of records the query is limited to, or -1 if no limit was pushed down.
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * @return the aggregation pushed into the query, or null if the scan returns documents.
+   */
+  public ElasticsearchAggregateSpec getAggregation() {
+    return aggregation;
+  }
+
   @Override
   public boolean equals(final Object other) {
     if (!(other instanceof ElasticsearchScanSpec)) {
@@ -66,18 +94,19 @@ public class ElasticsearchScanSpec {
     }
     ElasticsearchScanSpec castOther = (ElasticsearchScanSpec) other;
     return Objects.equal(query, castOther.query) && Objects.equal(fetch, castOther.fetch)
-        && Objects.equal(resource, castOther.resource);
+        && Objects.equal(limit, castOther.limit)
+        && Objects.equal(resource, castOther.resource) && Objects.equal(aggregation, castOther.aggregation);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(query, fetch, resource);
+    return Objects.hashCode(query, fetch, limit, resource, aggregation);
   }
 
   @Override
   public String toString() {
-    return MoreObjects.toStringHelper(this).add("query", query).add("fetch", fetch).add("resource", resource)
-        .toString();
+    return MoreObjects.toStringHelper(this).add("query", query).add("fetch", fetch).add("limit", limit).add("resource", resource)
+        .add("aggregation", aggregation).toString();
   }
 
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.plugins.elastic.planning.rels;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.elasticsearch.action.search.SearchRequestBuilder;
+
+import com.dremio.common.exceptions.UserException;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.elastic.proto.ElasticReaderProto.ElasticTableXattr;
+import com.dremio.exec.expr.fn.FunctionLookupContext;
+import com.dremio.exec.physical.base.GroupScan;
+import com.dremio.exec.physical.base.OpProps;
+import com.dremio.exec.store.SplitWork;
+import com.dremio.plugins.elastic.ElasticsearchConf;
+import com.dremio.plugins.elastic.planning.ElasticsearchAggregateSpec;
+import com.dremio.plugins.elastic.planning.ElasticsearchGroupScan;
+import com.dremio.plugins.elastic.planning.ElasticsearchScanSpec;
+import com.dremio.plugins.elastic.planning.rules.AggregateAnalyzer;
+import com.dremio.plugins.elastic.planning.rules.ExpressionNotAnalyzableException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.FluentIterable;
+
+/**
+ * Builds a scan whose query returns the buckets of an aggregation instead of documents.
+ *
+ * The stack must be
+ *   ElasticsearchAggregate
+ *       \
+ *     ElasticsearchProject (optional, only input references)
+ *         \
+ *       ElasticsearchFilter (optional)
+ *           \
+ *         ElasticsearchScanPrel
+ */
+public class AggregateScanBuilder extends ScanBuilder {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(AggregateScanBuilder.class);
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private ElasticsearchAggregate aggregate;
+
+  @Override
+  public GroupScan<SplitWork> toGroupScan(OpProps props, long estimatedRowCount) {
+    return new ElasticsearchGroupScan(props, getSpec(), getScan().getTableMetadata(), getColumns(), estimatedRowCount);
+  }
+
+  @Override
+  public List<SchemaPath> getColumns() {
+    return FluentIterable.from(aggregate.getRowType().getFieldNames())
+        .transform(SchemaPath::getSimplePath)
+        .toList();
+  }
+
+  @Override
+  public void setup(List<ElasticsearchPrel> stack, FunctionLookupContext functionLookupContext) {
+    Preconditions.checkArgument(stack.get(0) instanceof ElasticsearchAggregate);
+    final ElasticsearchAggregate aggregate = (ElasticsearchAggregate) stack.get(0);
+    final ElasticIntermediateScanPrel scan = (ElasticIntermediateScanPrel) stack.get(stack.size() - 1);
+    ElasticsearchFilter filter = null;
+    for (ElasticsearchPrel prel : stack.subList(1, stack.size() - 1)) {
+      if (prel instanceof ElasticsearchFilter) {
+        filter = (ElasticsearchFilter) prel;
+      } else if (!(prel instanceof ElasticsearchProject)) {
+        throw new IllegalStateException(String.format("AggregateScanBuilder can't consume a %s.", prel.getClass().getName()));
+      }
+    }
+
+    try {
+      final ElasticsearchAggregateSpec aggregation = AggregateAnalyzer.analyze(aggregate);
+      final ElasticTableXattr tableAttributes = scan.getExtendedAttributes();
+      final int size = ElasticsearchConf.createElasticsearchConf(scan.getPluginId().getConnectionConf()).getScrollSize();
+
+      final SearchRequestBuilder searchRequest = buildRequestBuilder();
+      applyFilter(searchRequest, scan, filter, tableAttributes);
+      searchRequest.setFrom(0).setSize(0);
+
+      final ObjectNode request = (ObjectNode) MAPPER.readTree(searchRequest.toString());
+      request.set("aggregations", AggregateAnalyzer.toAggregations(aggregation, size));
+
+      setSpec(new ElasticsearchScanSpec(
+          tableAttributes.getResource(),
+          MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(request),
+          size,
+          true,
+          aggregation));
+      setScan(scan);
+      this.aggregate = aggregate;
+    } catch (ExpressionNotAnalyzableException | IOException e) {
+      throw UserException.dataReadError(e).message("Elastic aggregate pushdown failed. Too late to recover query.").build(logger);
+    }
+  }
+}
@@ -239,7 +239,9 @@ public class ScanBuilder {
           tableAttributes.getResource(),
           searchRequest.toString(),
           fetch,
-          filter != null || sample != null || limit != null);
+          limit == null ? -1 : limit.getFetchSize(),
+          filter != null || sample != null || limit != null,
+          null);
 
       this.spec = scanSpec;
       this.scan = scan;
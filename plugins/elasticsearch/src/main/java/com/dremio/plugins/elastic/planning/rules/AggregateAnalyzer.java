@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.plugins.elastic.planning.rules;
+
+import static java.lang.String.format;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.AggregateCall;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.type.SqlTypeName;
+
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.plugins.elastic.ElasticsearchConstants;
+import com.dremio.plugins.elastic.ElasticsearchStoragePlugin;
+import com.dremio.plugins.elastic.mapping.FieldAnnotation;
+import com.dremio.plugins.elastic.planning.ElasticsearchAggregateSpec;
+import com.dremio.plugins.elastic.planning.ElasticsearchAggregateSpec.Column;
+import com.dremio.plugins.elastic.planning.ElasticsearchAggregateSpec.Kind;
+import com.dremio.plugins.elastic.planning.rels.ElasticIntermediateScanPrel;
+import com.dremio.plugins.elastic.planning.rels.ElasticsearchAggregate;
+import com.dremio.plugins.elastic.planning.rels.ElasticsearchFilter;
+import com.dremio.plugins.elastic.planning.rels.ElasticsearchPrel;
+import com.dremio.plugins.elastic.planning.rels.ElasticsearchProject;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Translates a first phase aggregation into an Elasticsearch aggregation.
+ *
+ * Group keys become sources of a composite aggregation and aggregate calls become metric sub aggregations.
+ * Only plain field references are supported, keys must be doc value backed and not analyzed or normalized.
+ * Elasticsearch computes sum, min and max in double precision. Sums are only pushed down over floating point
+ * fields, as the sum of integers may not be exactly represented as a double, and min and max are not pushed down
+ * over BIGINT fields, whose values may not be exactly represented as doubles.
+ */
+public final class AggregateAnalyzer {
+
+  private static final ImmutableSet<SqlTypeName> KEY_TYPES = ImmutableSet.of(
+      SqlTypeName.VARCHAR, SqlTypeName.BOOLEAN, SqlTypeName.INTEGER, SqlTypeName.BIGINT,
+      SqlTypeName.FLOAT, SqlTypeName.DOUBLE, SqlTypeName.TIMESTAMP);
+
+  private static final ImmutableSet<SqlTypeName> SUM_TYPES = ImmutableSet.of(
+      SqlTypeName.FLOAT, SqlTypeName.DOUBLE);
+
+  private static final ImmutableSet<SqlTypeName> MIN_MAX_TYPES = ImmutableSet.of(
+      SqlTypeName.INTEGER, SqlTypeName.FLOAT, SqlTypeName.DOUBLE);
+
+  private static final JsonNodeFactory FACTORY = JsonNodeFactory.instance;
+
+  private AggregateAnalyzer() {
+  }
+
+  /**
+   * Checks whether the aggregate and the Elasticsearch operators below it can be pushed down.
+   *
+   * @param aggregate the aggregate, with its input being the Elasticsearch stack
+   * @return a description of the output columns
+   * @throws ExpressionNotAnalyzableException if any part of the aggregation can't be executed by Elasticsearch.
+   */
+  public static ElasticsearchAggregateSpec analyze(ElasticsearchAggregate aggregate) throws ExpressionNotAnalyzableException {
+    final List<ElasticsearchPrel> stack = StackFinder.getStack(aggregate.getInput());
+
+    ElasticsearchProject project = null;
+    ElasticIntermediateScanPrel scan = null;
+    for (int i = 0; i < stack.size(); i++) {
+      final ElasticsearchPrel prel = stack.get(i);
+      if (i == 0 && prel instanceof ElasticsearchProject) {
+        project = (ElasticsearchProject) prel;
+      } else if (prel instanceof ElasticIntermediateScanPrel) {
+        scan = (ElasticIntermediateScanPrel) prel;
+      } else if (!(prel instanceof ElasticsearchFilter)) {
+        throw new ExpressionNotAnalyzableException(format("Unable to push aggregate past %s.", prel.getClass().getSimpleName()), null);
+      }
+    }
+
+    if (scan == null) {
+      throw new ExpressionNotAnalyzableException("Unable to find Elasticsearch scan below aggregate.", null);
+    }
+
+    if (!scan.getPluginId().getCapabilities().getCapability(ElasticsearchStoragePlugin.SUPPORTS_COMPOSITE_AGGREGATION)) {
+      throw new ExpressionNotAnalyzableException("Elasticsearch cluster doesn't support composite aggregations.", null);
+    }
+
+    if (scan.getExtendedAttributes().getVariationDetected()) {
+      throw new ExpressionNotAnalyzableException("Unable to push aggregate down as mapping variation was detected.", null);
+    }
+
+    final RelNode input = aggregate.getInput();
+    final List<String> outputNames = aggregate.getRowType().getFieldNames();
+    final List<Column> columns = new ArrayList<>();
+
+    int ordinal = 0;
+    for (int key : aggregate.getGroupSet()) {
+      final String field = getField(project, scan, key);
+      final SqlTypeName type = input.getRowType().getFieldList().get(key).getType().getSqlTypeName();
+      if (!KEY_TYPES.contains(type)) {
+        throw new ExpressionNotAnalyzableException(format("Unable to group by %s of type %s.", field, type), null);
+      }
+      columns.add(new Column(outputNames.get(ordinal), "k" + ordinal, Kind.KEY, null, field));
+      ordinal++;
+    }
+
+    int metric = 0;
+    for (AggregateCall call : aggregate.getAggCallList()) {
+      final String name = outputNames.get(ordinal++);
+      final String elasticName = "m" + metric++;
+      if (call.isDistinct()) {
+        throw new ExpressionNotAnalyzableException(format("Unable to push down distinct aggregate %s.", call), null);
+      }
+
+      final String function = call.getAggregation().getName();
+      if (ElasticsearchConstants.AGG_COUNT.equals(function) && call.getArgList().isEmpty()) {
+        columns.add(new Column(name, elasticName, Kind.DOC_COUNT, null, null));
+        continue;
+      }
+
+      if (call.getArgList().size() != 1) {
+        throw new ExpressionNotAnalyzableException(format("Unable to push down aggregate %s.", call), null);
+      }
+
+      final int arg = call.getArgList().get(0);
+      final String field = getField(project, scan, arg);
+      final SqlTypeName type = input.getRowType().getFieldList().get(arg).getType().getSqlTypeName();
+      switch (function) {
+      case ElasticsearchConstants.AGG_COUNT:
+        checkType(KEY_TYPES, type, call);
+        columns.add(new Column(name, elasticName, Kind.METRIC, "value_count", field));
+        break;
+      case ElasticsearchConstants.AGG_SUM:
+        // sum of no values is zero in Elasticsearch, but null in SQL.
+        checkType(SUM_TYPES, type, call);
+        columns.add(new Column(name, elasticName, Kind.NULLABLE_SUM, "sum", field));
+        break;
+      case ElasticsearchConstants.AGG_SUM0:
+        checkType(SUM_TYPES, type, call);
+        columns.add(new Column(name, elasticName, Kind.METRIC, "sum", field));
+        break;
+      case ElasticsearchConstants.AGG_MIN:
+        checkType(MIN_MAX_TYPES, type, call);
+        columns.add(new Column(name, elasticName, Kind.METRIC, "min", field));
+        break;
+      case ElasticsearchConstants.AGG_MAX:
+        checkType(MIN_MAX_TYPES, type, call);
+        columns.add(new Column(name, elasticName, Kind.METRIC, "max", field));
+        break;
+      default:
+        throw new ExpressionNotAnalyzableException(format("Unable to push down aggregate function %s.", function), null);
+      }
+    }
+
+    return new ElasticsearchAggregateSpec(columns, !aggregate.getGroupSet().isEmpty());
+  }
+
+  /**
+   * Builds the "aggregations" section of the search request.
+   *
+   * @param spec the analyzed aggregation
+   * @param size the number of composite buckets to return per page
+   * @return the aggregations json object
+   */
+  public static ObjectNode toAggregations(ElasticsearchAggregateSpec spec, int size) {
+    final ObjectNode groups = FACTORY.objectNode();
+    final ObjectNode metrics = FACTORY.objectNode();
+
+    if (spec.isComposite()) {
+      final ObjectNode composite = groups.putObject("composite");
+      composite.put("size", size);
+      final ArrayNode sources = composite.putArray("sources");
+      for (Column column : spec.getColumns()) {
+        if (column.getKind() == Kind.KEY) {
+          final ObjectNode terms = sources.addObject().putObject(column.getElasticName()).putObject("terms");
+          terms.put("field", column.getField());
+          terms.put("missing_bucket", true);
+        }
+      }
+    } else {
+      groups.putObject("filter").putObject("match_all");
+    }
+
+    for (Column column : spec.getColumns()) {
+      switch (column.getKind()) {
+      case METRIC:
+        metrics.putObject(column.getElasticName()).putObject(column.getFunction()).put("field", column.getField());
+        break;
+      case NULLABLE_SUM:
+        metrics.putObject(column.getElasticName()).putObject(column.getFunction()).put("field", column.getField());
+        metrics.putObject(column.getCountName()).putObject("value_count").put("field", column.getField());
+        break;
+      default:
+        break;
+      }
+    }
+
+    if (metrics.size() > 0) {
+      groups.set("aggregations", metrics);
+    }
+
+    final ObjectNode aggregations = FACTORY.objectNode();
+    aggregations.set(ElasticsearchAggregateSpec.GROUPS, groups);
+    return aggregations;
+  }
+
+  private static void checkType(ImmutableSet<SqlTypeName> allowed, SqlTypeName type, AggregateCall call) throws ExpressionNotAnalyzableException {
+    if (!allowed.contains(type)) {
+      throw new ExpressionNotAnalyzableException(format("Unable to push down aggregate %s over type %s.", call, type), null);
+    }
+  }
+
+  /**
+   * Resolve an input of the aggregate to a top level, aggregatable Elasticsearch field.
+   */
+  private static String getField(ElasticsearchProject project, ElasticIntermediateScanPrel scan, int index) throws ExpressionNotAnalyzableException {
+    int scanIndex = index;
+    if (project != null) {
+      final RexNode expr = project.getProjects().get(index);
+      if (!(expr instanceof RexInputRef)) {
+        throw new ExpressionNotAnalyzableException(format("Unable to push down aggregate over expression %s.", expr), null);
+      }
+      scanIndex = ((RexInputRef) expr).getIndex();
+    }
+
+    final String name = scan.getRowType().getFieldNames().get(scanIndex);
+    if (ElasticsearchConstants.META_COLUMNS.contains(name)) {
+      throw new ExpressionNotAnalyzableException(format("Unable to aggregate on metadata column %s.", name), null);
+    }
+
+    final FieldAnnotation annotation = scan.getAnnotation(SchemaPath.getSimplePath(name));
+    if (annotation != null && (annotation.isAnalyzed() || annotation.isNormalized() || annotation.isNotIndexed()
+        || annotation.isDocValueMissing() || annotation.hasSpecialType())) {
+      throw new ExpressionNotAnalyzableException(format("Field %s can't be aggregated by Elasticsearch.", name), null);
+    }
+    return name;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.plugins.elastic.planning.rules;
+
+import org.apache.calcite.plan.RelOptRule;
+import org.apache.calcite.plan.RelOptRuleCall;
+import org.apache.calcite.rel.InvalidRelException;
+
+import com.dremio.exec.planner.logical.RelOptHelper;
+import com.dremio.exec.planner.physical.AggPrelBase.OperatorPhase;
+import com.dremio.exec.planner.physical.HashAggPrel;
+import com.dremio.plugins.elastic.ElasticsearchStoragePlugin;
+import com.dremio.plugins.elastic.planning.rels.ElasticsearchAggregate;
+import com.dremio.plugins.elastic.planning.rels.ElasticsearchIntermediatePrel;
+
+/**
+ * Pushes the first phase of a two phase hash aggregation into Elasticsearch as a composite aggregation.
+ *
+ * Only the first phase is pushed since each split reads a single shard: the partial aggregates of all
+ * shards are combined by the second phase in Dremio.
+ */
+public class ElasticAggregateRule extends RelOptRule {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ElasticAggregateRule.class);
+
+  public static final ElasticAggregateRule INSTANCE = new ElasticAggregateRule();
+
+  private ElasticAggregateRule() {
+    super(RelOptHelper.some(HashAggPrel.class, RelOptHelper.any(ElasticsearchIntermediatePrel.class)), "ElasticAggregateRule");
+  }
+
+  @Override
+  public boolean matches(RelOptRuleCall call) {
+    final HashAggPrel aggregate = call.rel(0);
+    final ElasticsearchIntermediatePrel intermediatePrel = call.rel(1);
+
+    if (aggregate.getOperatorPhase() != OperatorPhase.PHASE_1of2 || intermediatePrel.hasTerminalPrel()) {
+      return false;
+    }
+
+    if (aggregate.getGroupSets().size() != 1) {
+      return false;
+    }
+
+    return intermediatePrel.getPluginId().getCapabilities().getCapability(ElasticsearchStoragePlugin.SUPPORTS_COMPOSITE_AGGREGATION);
+  }
+
+  @Override
+  public void onMatch(RelOptRuleCall call) {
+    final HashAggPrel aggregate = call.rel(0);
+    final ElasticsearchIntermediatePrel intermediatePrel = call.rel(1);
+
+    try {
+      final ElasticsearchAggregate newAggregate = new ElasticsearchAggregate(
+          intermediatePrel.getInput().getCluster(),
+          intermediatePrel.getInput().getTraitSet(),
+          intermediatePrel.getInput(),
+          aggregate.getGroupSet(),
+          aggregate.getGroupSets(),
+          aggregate.getAggCallList(),
+          intermediatePrel.getPluginId());
+
+      // fail early, rather than during finalization, if any part of the aggregate can't be pushed.
+      AggregateAnalyzer.analyze(newAggregate);
+      call.transformTo(intermediatePrel.withNewInput(newAggregate));
+    } catch (InvalidRelException | ExpressionNotAnalyzableException e) {
+      logger.debug("Failed to push aggregate into Elasticsearch; falling back to aggregating in Dremio", e);
+    }
+  }
+}
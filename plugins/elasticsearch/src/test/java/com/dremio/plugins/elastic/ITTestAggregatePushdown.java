@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.plugins.elastic;
+
+import static com.dremio.plugins.elastic.ElasticsearchType.KEYWORD;
+import static com.dremio.plugins.elastic.ElasticsearchType.LONG;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.exec.ExecConstants;
+import com.dremio.plugins.Version;
+import com.dremio.plugins.elastic.ElasticsearchCluster.ColumnData;
+
+/**
+ * Tests for pushing the first phase of aggregations into Elasticsearch composite aggregations.
+ */
+public class ITTestAggregatePushdown extends ElasticBaseTestQuery {
+
+  private static final Version ELASTIC_V6_4 = new Version(6, 4, 0);
+
+  @Before
+  public void loadTable() throws Exception {
+    elastic.schema(3, 0, schema);
+    load(schema, table, getBusinessData());
+    // force two phase aggregation over the few test records.
+    testNoResult("set planner.slice_target = 1");
+  }
+
+  @After
+  public void resetOptions() throws Exception {
+    testNoResult("reset planner.slice_target");
+    testNoResult("ALTER SYSTEM RESET " + ExecConstants.ELASTIC_RULES_AGGREGATE.getOptionName());
+  }
+
+  @Test
+  public void testGroupByKeyword() throws Exception {
+    final String sql = "select state, count(*) as cnt, sum(stars) as total_stars, min(stars) as min_stars, max(review_count) as max_reviews "
+        + "from elasticsearch." + schema + "." + table + " group by state";
+    assertPushdown(sql, true);
+    testBuilder().sqlQuery(sql).unOrdered()
+        .baselineColumns("state", "cnt", "total_stars", "min_stars", "max_reviews")
+        .baselineValues("MA", 2L, 9.0d, 4.5f, 11)
+        .baselineValues("CA", 3L, 9.5d, 1.0f, 33)
+        .go();
+  }
+
+  @Test
+  public void testIntegerSumNotPushed() throws Exception {
+    final String sql = "select state, sum(review_count) as reviews from elasticsearch." + schema + "." + table + " group by state";
+    assertPushdown(sql, false);
+    testBuilder().sqlQuery(sql).unOrdered()
+        .baselineColumns("state", "reviews")
+        .baselineValues("MA", 22L)
+        .baselineValues("CA", 56L)
+        .go();
+  }
+
+  @Test
+  public void testLargeIntegerSum() throws Exception {
+    // 2^53 + 1 is not a double, a sum computed in double precision would be off.
+    final long large = (1L << 53) + 1;
+    load(schema, "large_values", new ColumnData[] {
+        new ColumnData("state", KEYWORD, new Object[][] {{"MA"}, {"MA"}, {"CA"}}),
+        new ColumnData("value", LONG, new Object[][] {{large}, {1L}, {1L}})
+    });
+    final String sql = "select state, sum(\"value\") as total from elasticsearch." + schema + ".large_values group by state";
+    assertPushdown(sql, false);
+    testBuilder().sqlQuery(sql).unOrdered()
+        .baselineColumns("state", "total")
+        .baselineValues("MA", large + 1)
+        .baselineValues("CA", 1L)
+        .go();
+  }
+
+  @Test
+  public void testGroupByWithFilter() throws Exception {
+    final String sql = "select city, count(*) as cnt from elasticsearch." + schema + "." + table
+        + " where stars >= 3.5 group by city";
+    assertPushdown(sql, true);
+    testBuilder().sqlQuery(sql).unOrdered()
+        .baselineColumns("city", "cnt")
+        .baselineValues("Cambridge", 2L)
+        .baselineValues("San Francisco", 1L)
+        .baselineValues("San Diego", 1L)
+        .go();
+  }
+
+  @Test
+  public void testCountWithoutGroupBy() throws Exception {
+    final String sql = "select count(*) as cnt, sum(review_count) as reviews from elasticsearch." + schema + "." + table;
+    testBuilder().sqlQuery(sql).unOrdered()
+        .baselineColumns("cnt", "reviews")
+        .baselineValues(5L, 78L)
+        .go();
+  }
+
+  @Test
+  public void testAnalyzedFieldNotPushed() throws Exception {
+    final String sql = "select state_analyzed, count(*) as cnt from elasticsearch." + schema + "." + table + " group by state_analyzed";
+    assertPushdown(sql, false);
+    testBuilder().sqlQuery(sql).unOrdered()
+        .baselineColumns("state_analyzed", "cnt")
+        .baselineValues("MA", 2L)
+        .baselineValues("CA", 3L)
+        .go();
+  }
+
+  @Test
+  public void testDisabledRule() throws Exception {
+    testNoResult("ALTER SYSTEM SET " + ExecConstants.ELASTIC_RULES_AGGREGATE.getOptionName() + " = false");
+    final String sql = "select state, count(*) as cnt from elasticsearch." + schema + "." + table + " group by state";
+    assertPushdown(sql, false);
+    testBuilder().sqlQuery(sql).unOrdered()
+        .baselineColumns("state", "cnt")
+        .baselineValues("MA", 2L)
+        .baselineValues("CA", 3L)
+        .go();
+  }
+
+  private void assertPushdown(String sql, boolean expected) throws Exception {
+    if (expected) {
+      assumeTrue(elastic.getMinVersionInCluster().compareTo(ELASTIC_V6_4) >= 0);
+    }
+    final String plan = getPlanInString("EXPLAIN PLAN for " + sql, OPTIQ_FORMAT);
+    if (expected) {
+      assertTrue("Expected composite aggregation in plan:\n" + plan, plan.contains("\"composite\""));
+    } else {
+      assertFalse("Unexpected composite aggregation in plan:\n" + plan, plan.contains("\"composite\""));
+    }
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.plugins.elastic;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.exec.ExecConstants;
+
+/**
+ * Tests for reading shards through sliced scrolls, with and without page prefetching.
+ */
+public class ITTestSlicedScroll extends ElasticBaseTestQuery {
+
+  @Before
+  public void loadTable() throws Exception {
+    // split every shard into as many slices as allowed, before the metadata of the table is collected.
+    testNoResult("ALTER SYSTEM SET " + ExecConstants.ELASTIC_SLICED_SCROLL_DOCS_PER_SLICE.getOptionName() + " = 1");
+    testNoResult("ALTER SYSTEM SET " + ExecConstants.ELASTIC_SLICED_SCROLL_MAX_SLICES.getOptionName() + " = 4");
+    elastic.schema(2, 0, schema);
+    load(schema, table, getBusinessData());
+  }
+
+  @After
+  public void resetOptions() throws Exception {
+    testNoResult("ALTER SYSTEM RESET " + ExecConstants.ELASTIC_SLICED_SCROLL_DOCS_PER_SLICE.getOptionName());
+    testNoResult("ALTER SYSTEM RESET " + ExecConstants.ELASTIC_SLICED_SCROLL_MAX_SLICES.getOptionName());
+    testNoResult("ALTER SYSTEM RESET " + ExecConstants.ELASTIC_SCROLL_PREFETCH.getOptionName());
+  }
+
+  @Test
+  public void testSlicedScan() throws Exception {
+    final String sql = "select state, count(*) as cnt from elasticsearch." + schema + "." + table + " group by state";
+    testBuilder().sqlQuery(sql).unOrdered()
+        .baselineColumns("state", "cnt")
+        .baselineValues("MA", 2L)
+        .baselineValues("CA", 3L)
+        .go();
+  }
+
+  @Test
+  public void testSlicedScanWithoutPrefetch() throws Exception {
+    testNoResult("ALTER SYSTEM SET " + ExecConstants.ELASTIC_SCROLL_PREFETCH.getOptionName() + " = false");
+    final String sql = "select count(*) as cnt, sum(review_count) as reviews from elasticsearch." + schema + "." + table;
+    testBuilder().sqlQuery(sql).unOrdered()
+        .baselineColumns("cnt", "reviews")
+        .baselineValues(5L, 78L)
+        .go();
+  }
+
+  @Test
+  public void testSlicedScanWithLimit() throws Exception {
+    // no page is prefetched past the limit pushed into the scroll.
+    final String sql = "select count(*) as cnt from (select state from elasticsearch." + schema + "." + table + " limit 2)";
+    testBuilder().sqlQuery(sql).unOrdered()
+        .baselineColumns("cnt")
+        .baselineValues(2L)
+        .go();
+  }
+}
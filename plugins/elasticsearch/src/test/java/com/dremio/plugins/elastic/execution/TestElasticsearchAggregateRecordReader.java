@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.plugins.elastic.execution;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Matchers;
+
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.plugins.elastic.ElasticActions.Search;
+import com.dremio.plugins.elastic.ElasticConnectionPool.ElasticConnection;
+import com.dremio.plugins.elastic.planning.ElasticsearchAggregateSpec;
+import com.dremio.plugins.elastic.planning.ElasticsearchAggregateSpec.Column;
+import com.dremio.plugins.elastic.planning.ElasticsearchAggregateSpec.Kind;
+import com.dremio.plugins.elastic.planning.ElasticsearchScanSpec;
+import com.dremio.plugins.elastic.planning.rules.AggregateAnalyzer;
+import com.dremio.sabot.op.scan.OutputMutator;
+import com.dremio.test.AllocatorRule;
+import com.dremio.test.DremioTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link ElasticsearchAggregateRecordReader}
+ */
+public class TestElasticsearchAggregateRecordReader extends DremioTest {
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final List<SchemaPath> COLUMNS = ImmutableList.of(SchemaPath.getSimplePath("*"));
+
+  @Rule
+  public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  private BufferAllocator allocator;
+  private final List<String> queries = new ArrayList<>();
+
+  @Before
+  public void setup() {
+    allocator = allocatorRule.newAllocator("test-elasticsearch-aggregate-record-reader", 0, Long.MAX_VALUE);
+  }
+
+  @After
+  public void cleanup() {
+    allocator.close();
+  }
+
+  @Test
+  public void readCompositeBuckets() throws Exception {
+    final ElasticsearchAggregateSpec aggregation = new ElasticsearchAggregateSpec(ImmutableList.of(
+        new Column("state", "k0", Kind.KEY, null, "state"),
+        new Column("cnt", "m0", Kind.DOC_COUNT, null, null),
+        new Column("reviews", "m1", Kind.NULLABLE_SUM, "sum", "review_count"),
+        new Column("max_reviews", "m2", Kind.METRIC, "max", "review_count")), true);
+
+    // a full first page, then a short last one.
+    final ElasticConnection connection = newConnection(
+        "{\"aggregations\": {\"groups\": {\"after_key\": {\"k0\": null}, \"buckets\": ["
+            + "{\"key\": {\"k0\": \"MA\"}, \"doc_count\": 2, \"m1\": {\"value\": 22.0}, \"m1_count\": {\"value\": 2}, \"m2\": {\"value\": 11.0}},"
+            + "{\"key\": {\"k0\": null}, \"doc_count\": 1, \"m1\": {\"value\": 0.0}, \"m1_count\": {\"value\": 0}, \"m2\": {\"value\": null}}]}}}",
+        "{\"aggregations\": {\"groups\": {\"after_key\": {\"k0\": \"CA\"}, \"buckets\": ["
+            + "{\"key\": {\"k0\": \"CA\"}, \"doc_count\": 3, \"m1\": {\"value\": 56.0}, \"m1_count\": {\"value\": 3}, \"m2\": {\"value\": 33.0}}]}}}");
+
+    try (VarCharVector state = new VarCharVector("state", allocator);
+         BigIntVector cnt = new BigIntVector("cnt", allocator);
+         BigIntVector reviews = new BigIntVector("reviews", allocator);
+         IntVector maxReviews = new IntVector("max_reviews", allocator)) {
+      final OutputMutator output = mock(OutputMutator.class);
+      when(output.getVector("state")).thenReturn(state);
+      when(output.getVector("cnt")).thenReturn(cnt);
+      when(output.getVector("reviews")).thenReturn(reviews);
+      when(output.getVector("max_reviews")).thenReturn(maxReviews);
+
+      final ElasticsearchAggregateRecordReader reader = new ElasticsearchAggregateRecordReader(ImmutableList.of("elastic", "idx", "type"),
+          null, newSpec(aggregation, 2), null, connection, COLUMNS);
+      reader.setup(output);
+      assertEquals(3, reader.next());
+      assertEquals(0, reader.next());
+      reader.close();
+
+      assertEquals("MA", new String(state.get(0), UTF_8));
+      assertTrue(state.isNull(1));
+      assertEquals("CA", new String(state.get(2), UTF_8));
+      assertEquals(Arrays.asList(2L, 1L, 3L), Arrays.asList(cnt.getObject(0), cnt.getObject(1), cnt.getObject(2)));
+      // the sum of a bucket without values is null, not zero.
+      assertEquals(Arrays.asList(22L, null, 56L), Arrays.asList(reviews.getObject(0), reviews.getObject(1), reviews.getObject(2)));
+      assertEquals(Arrays.asList(11, null, 33), Arrays.asList(maxReviews.getObject(0), maxReviews.getObject(1), maxReviews.getObject(2)));
+    }
+
+    // the second page is requested after the key of the first one.
+    assertEquals(2, queries.size());
+    assertFalse(MAPPER.readTree(queries.get(0)).path("aggregations").path("groups").path("composite").has("after"));
+    assertEquals(MAPPER.readTree("{\"k0\": null}"),
+        MAPPER.readTree(queries.get(1)).path("aggregations").path("groups").path("composite").path("after"));
+  }
+
+  @Test
+  public void readSingleBucket() throws Exception {
+    final ElasticsearchAggregateSpec aggregation = new ElasticsearchAggregateSpec(ImmutableList.of(
+        new Column("cnt", "m0", Kind.DOC_COUNT, null, null),
+        new Column("min_stars", "m1", Kind.METRIC, "min", "stars")), false);
+
+    final ElasticConnection connection = newConnection(
+        "{\"aggregations\": {\"groups\": {\"doc_count\": 5, \"m1\": {\"value\": 1.0}}}}");
+
+    try (BigIntVector cnt = new BigIntVector("cnt", allocator);
+         Float4Vector minStars = new Float4Vector("min_stars", allocator)) {
+      final OutputMutator output = mock(OutputMutator.class);
+      when(output.getVector("cnt")).thenReturn(cnt);
+      when(output.getVector("min_stars")).thenReturn(minStars);
+
+      final ElasticsearchAggregateRecordReader reader = new ElasticsearchAggregateRecordReader(ImmutableList.of("elastic", "idx", "type"),
+          null, newSpec(aggregation, 100), null, connection, COLUMNS);
+      reader.setup(output);
+      assertEquals(1, reader.next());
+      assertEquals(0, reader.next());
+      reader.close();
+
+      assertEquals(5L, cnt.get(0));
+      assertEquals(1.0f, minStars.get(0), 0.0f);
+    }
+    assertEquals(1, queries.size());
+  }
+
+  private static ElasticsearchScanSpec newSpec(ElasticsearchAggregateSpec aggregation, int size) {
+    final ObjectNode request = MAPPER.createObjectNode();
+    request.put("size", 0);
+    request.set("aggregations", AggregateAnalyzer.toAggregations(aggregation, size));
+    return new ElasticsearchScanSpec("idx/type", request.toString(), size, true, aggregation);
+  }
+
+  /**
+   * Returns a connection answering the successive searches with the given responses, and recording their queries.
+   */
+  private ElasticConnection newConnection(String... responses) {
+    final Iterator<String> iterator = Arrays.asList(responses).iterator();
+    final ElasticConnection connection = mock(ElasticConnection.class);
+    doAnswer(invocation -> {
+      queries.add(((Search<?>) invocation.getArguments()[0]).getQuery());
+      return iterator.next().getBytes(UTF_8);
+    }).when(connection).execute(Matchers.any());
+    return connection;
+  }
+}
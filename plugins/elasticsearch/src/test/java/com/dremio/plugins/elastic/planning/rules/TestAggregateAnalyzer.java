@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.plugins.elastic.planning.rules;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.dremio.plugins.elastic.planning.ElasticsearchAggregateSpec;
+import com.dremio.plugins.elastic.planning.ElasticsearchAggregateSpec.Column;
+import com.dremio.plugins.elastic.planning.ElasticsearchAggregateSpec.Kind;
+import com.dremio.test.DremioTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link AggregateAnalyzer#toAggregations(ElasticsearchAggregateSpec, int)}
+ */
+public class TestAggregateAnalyzer extends DremioTest {
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  @Test
+  public void compositeAggregation() throws Exception {
+    final ElasticsearchAggregateSpec spec = new ElasticsearchAggregateSpec(ImmutableList.of(
+        new Column("state", "k0", Kind.KEY, null, "state"),
+        new Column("city", "k1", Kind.KEY, null, "city"),
+        new Column("cnt", "m0", Kind.DOC_COUNT, null, null),
+        new Column("reviews", "m1", Kind.NULLABLE_SUM, "sum", "review_count"),
+        new Column("max_reviews", "m2", Kind.METRIC, "max", "review_count")), true);
+
+    assertEquals(MAPPER.readTree("{\"groups\": {"
+        + "\"composite\": {\"size\": 100, \"sources\": ["
+        + "{\"k0\": {\"terms\": {\"field\": \"state\", \"missing_bucket\": true}}},"
+        + "{\"k1\": {\"terms\": {\"field\": \"city\", \"missing_bucket\": true}}}]},"
+        + "\"aggregations\": {"
+        + "\"m1\": {\"sum\": {\"field\": \"review_count\"}},"
+        + "\"m1_count\": {\"value_count\": {\"field\": \"review_count\"}},"
+        + "\"m2\": {\"max\": {\"field\": \"review_count\"}}}}}"),
+        AggregateAnalyzer.toAggregations(spec, 100));
+  }
+
+  @Test
+  public void aggregationWithoutGroups() throws Exception {
+    final ElasticsearchAggregateSpec spec = new ElasticsearchAggregateSpec(ImmutableList.of(
+        new Column("cnt", "m0", Kind.DOC_COUNT, null, null),
+        new Column("min_stars", "m1", Kind.METRIC, "min", "stars")), false);
+
+    assertEquals(MAPPER.readTree("{\"groups\": {"
+        + "\"filter\": {\"match_all\": {}},"
+        + "\"aggregations\": {\"m1\": {\"min\": {\"field\": \"stars\"}}}}}"),
+        AggregateAnalyzer.toAggregations(spec, 100));
+  }
+
+  @Test
+  public void countOnly() throws Exception {
+    final ElasticsearchAggregateSpec spec = new ElasticsearchAggregateSpec(ImmutableList.of(
+        new Column("state", "k0", Kind.KEY, null, "state"),
+        new Column("cnt", "m0", Kind.DOC_COUNT, null, null)), true);
+
+    // doc counts are part of every bucket, no sub aggregation is needed.
+    assertEquals(MAPPER.readTree("{\"groups\": {"
+        + "\"composite\": {\"size\": 10, \"sources\": ["
+        + "{\"k0\": {\"terms\": {\"field\": \"state\", \"missing_bucket\": true}}}]}}}"),
+        AggregateAnalyzer.toAggregations(spec, 10));
+  }
+}
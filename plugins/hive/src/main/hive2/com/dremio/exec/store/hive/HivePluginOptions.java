@@ -66,4 +66,9 @@ public interface HivePluginOptions {
    * Option to use bytebuffers using direct memory while reading ORC files
    */
   BooleanValidator HIVE_ORC_READER_USE_DIRECT_MEMORY = new BooleanValidator("store.hive.orc.use_direct_memory", true);
+
+  /**
+   * Option to skip the ORC stripes of a split which can't match the pushed down filter, based on stripe statistics
+   */
+  BooleanValidator HIVE_ORC_READER_PRUNE_STRIPES = new BooleanValidator("store.hive.orc.vectorize.prune_stripes", true);
 }
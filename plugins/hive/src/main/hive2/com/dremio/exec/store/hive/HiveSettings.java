@@ -74,4 +74,11 @@ public final class HiveSettings {
   public boolean useDirectMemoryForOrcReaders() {
     return options.getOption(HivePluginOptions.HIVE_ORC_READER_USE_DIRECT_MEMORY);
   }
+
+  /**
+   * Option to skip the ORC stripes of a split which can't match the pushed down filter, based on stripe statistics
+   */
+  public boolean pruneOrcStripes() {
+    return options.getOption(HivePluginOptions.HIVE_ORC_READER_PRUNE_STRIPES);
+  }
 }
@@ -21,6 +21,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.function.Function;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
 
 import com.dremio.exec.ExecConstants;
@@ -43,7 +44,9 @@ import org.apache.hadoop.hive.ql.io.orc.OrcFile;
 import org.apache.hadoop.hive.ql.io.orc.OrcInputFormat;
 import org.apache.hadoop.hive.ql.io.orc.OrcSplit;
 import org.apache.hadoop.hive.ql.io.orc.Reader;
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf;
 import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.TruthValue;
 import org.apache.hadoop.hive.serde2.ColumnProjectionUtils;
 import org.apache.hadoop.hive.serde2.SerDe;
 import org.apache.hadoop.hive.serde2.objectinspector.ListObjectInspector;
@@ -58,9 +61,13 @@ import org.apache.hadoop.hive.serde2.typeinfo.DecimalTypeInfo;
 import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.security.UserGroupInformation;
+import org.apache.orc.ColumnStatistics;
 import org.apache.orc.OrcConf;
 import org.apache.orc.OrcProto;
+import org.apache.orc.StripeInformation;
+import org.apache.orc.StripeStatistics;
 import org.apache.orc.impl.DataReaderProperties;
+import org.apache.orc.impl.RecordReaderImpl;
 
 import com.dremio.common.exceptions.UserException;
 import com.dremio.common.expression.SchemaPath;
@@ -74,6 +81,7 @@ import com.dremio.hive.proto.HiveReaderProto.HiveTableXattr;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.op.scan.ScanOperator;
 import com.dremio.sabot.op.scan.ScanOperator.Metric;
+import com.google.common.annotations.VisibleForTesting;
 
 /**
  * Use vectorized reader provided by the Hive to read ORC files. We copy one column completely at a time,
@@ -410,7 +418,12 @@ public class HiveORCVectorizedReader extends HiveAbstractReader {
     if (filter != null) {
       final HiveProxyingOrcScanFilter orcScanFilter = (HiveProxyingOrcScanFilter) filter;
       final SearchArgument sarg = HiveUtilities.decodeSearchArgumentFromBase64(orcScanFilter.getProxiedOrcScanFilter().getKryoBase64EncodedFilter());
-      options.searchArgument(sarg, OrcInputFormat.getSargColumnNames(selectedColNames, types, options.getInclude(), fSplit.isOriginal()));
+      final String[] sargColumnNames = OrcInputFormat.getSargColumnNames(selectedColNames, types, options.getInclude(), fSplit.isOriginal());
+      options.searchArgument(sarg, sargColumnNames);
+      // Stripe statistics are indexed by file column, which only lines up with sarg columns of original files
+      if (fSplit.isOriginal() && new HiveSettings(context.getOptions()).pruneOrcStripes()) {
+        pruneStripes(hiveReader, options, sarg, sargColumnNames, offset, length);
+      }
     }
 
     hiveOrcReader = hiveReader.rowsOptions(options);
@@ -432,6 +445,129 @@ public class HiveORCVectorizedReader extends HiveAbstractReader {
     context.getStats().setLongStat(Metric.NUM_VECTORIZED_COLUMNS, vectors.length);
   }
 
+  /**
+   * Narrows the range of the split to the stripes which may contain rows matching the search argument, based on the
+   * stripe statistics in the file footer. The ORC reader then skips the row groups of the remaining stripes using
+   * row indexes and bloom filters.
+   */
+  private void pruneStripes(final Reader hiveReader, final Reader.Options options, final SearchArgument sarg,
+                            final String[] sargColumnNames, final long start, final long length) throws IOException {
+    final List<StripeStatistics> stripeStats = hiveReader.getStripeStatistics();
+    final List<PredicateLeaf> leaves = sarg.getLeaves();
+    final int[] leafColumns = new int[leaves.size()];
+    for (int i = 0; i < leaves.size(); i++) {
+      leafColumns[i] = ArrayUtils.indexOf(sargColumnNames, leaves.get(i).getColumnName());
+    }
+
+    final StripeRange range = StripeRange.of(hiveReader.getStripes(), start, length,
+        i -> i >= stripeStats.size() || isStripeNeeded(sarg, leaves, leafColumns, stripeStats.get(i).getColumnStatistics()));
+    if (range.getNumPruned() == 0) {
+      return;
+    }
+
+    options.range(range.getOffset(), range.getLength());
+    context.getStats().addLongStat(Metric.NUM_ORC_STRIPES_PRUNED, range.getNumPruned());
+    context.getStats().addLongStat(Metric.ORC_STRIPE_BYTES_PRUNED, range.getBytesPruned());
+  }
+
+  /**
+   * Range of a split going from the first to the last of its stripes which are needed.
+   *
+   * Only the stripes before the first needed stripe and after the last one are left out of the range, and counted as
+   * pruned. The stripes in between are still part of the range, and are only skipped row group by row group.
+   */
+  @VisibleForTesting
+  static final class StripeRange {
+    private final long offset;
+    private final long length;
+    private final int numPruned;
+    private final long bytesPruned;
+
+    private StripeRange(long offset, long length, int numPruned, long bytesPruned) {
+      this.offset = offset;
+      this.length = length;
+      this.numPruned = numPruned;
+      this.bytesPruned = bytesPruned;
+    }
+
+    /**
+     * @param stripes stripes of the file
+     * @param start start of the split
+     * @param length length of the split
+     * @param isStripeNeeded whether the stripe of the given index may contain matching rows
+     */
+    static StripeRange of(List<StripeInformation> stripes, long start, long length, IntPredicate isStripeNeeded) {
+      long firstOffset = -1;
+      long end = start;
+      for (int i = 0; i < stripes.size(); i++) {
+        final StripeInformation stripe = stripes.get(i);
+        // same rule as the ORC reader: a stripe belongs to the split its offset falls into
+        if (stripe.getOffset() < start || stripe.getOffset() >= start + length || !isStripeNeeded.test(i)) {
+          continue;
+        }
+
+        if (firstOffset < 0) {
+          firstOffset = stripe.getOffset();
+        }
+        end = stripe.getOffset() + stripe.getLength();
+      }
+
+      if (firstOffset < 0) {
+        // no stripe is needed, the range is empty
+        firstOffset = start;
+      }
+
+      int numPruned = 0;
+      long bytesPruned = 0;
+      for (StripeInformation stripe : stripes) {
+        if (stripe.getOffset() < start || stripe.getOffset() >= start + length) {
+          continue;
+        }
+        if (stripe.getOffset() < firstOffset || stripe.getOffset() >= end) {
+          numPruned++;
+          bytesPruned += stripe.getLength();
+        }
+      }
+      return new StripeRange(firstOffset, end - firstOffset, numPruned, bytesPruned);
+    }
+
+    long getOffset() {
+      return offset;
+    }
+
+    long getLength() {
+      return length;
+    }
+
+    int getNumPruned() {
+      return numPruned;
+    }
+
+    long getBytesPruned() {
+      return bytesPruned;
+    }
+  }
+
+  private boolean isStripeNeeded(final SearchArgument sarg, final List<PredicateLeaf> leaves,
+                                 final int[] leafColumns, final ColumnStatistics[] stats) {
+    final TruthValue[] truthValues = new TruthValue[leaves.size()];
+    for (int i = 0; i < leaves.size(); i++) {
+      if (leafColumns[i] < 0 || leafColumns[i] >= stats.length) {
+        truthValues[i] = TruthValue.YES_NO_NULL;
+        continue;
+      }
+
+      try {
+        truthValues[i] = RecordReaderImpl.evaluatePredicate(stats[leafColumns[i]], leaves.get(i), null);
+      } catch (Exception e) {
+        // statistics can't be used for this predicate, so the stripe has to be read
+        logger.debug("Failed to evaluate predicate {} on ORC stripe statistics", leaves.get(i), e);
+        truthValues[i] = TruthValue.YES_NO_NULL;
+      }
+    }
+    return sarg.evaluate(truthValues).isNeeded();
+  }
+
   @Override
   protected int populateData() {
     try {
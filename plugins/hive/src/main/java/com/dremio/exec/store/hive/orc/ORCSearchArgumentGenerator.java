@@ -176,7 +176,7 @@ class ORCSearchArgumentGenerator extends RexVisitorImpl<Object> {
         } else {
           reversed = true;
           colIndex = ((RexInputRef) child2).getIndex();
-          col = (String) child1.accept(this);
+          col = (String) child2.accept(this);
           literalPair = (Tuple<Object, Type>) child1.accept(this);
         }
 
@@ -251,9 +251,9 @@ class ORCSearchArgumentGenerator extends RexVisitorImpl<Object> {
         switch (call.getKind()) {
           case LESS_THAN:
             if (reversed) {
-              // "<" --(reversed args)--> ">=" ---(rewrite in terms of "!", "<" and "<=")--> "!(<)"
+              // "<" --(reversed args)--> ">" ---(rewrite in terms of "!", "<" and "<=")--> "!(<=)"
               sargBuilder.startNot();
-              sargBuilder.lessThan(col, literalPair.second, literalPair.first);
+              sargBuilder.lessThanEquals(col, literalPair.second, literalPair.first);
               sargBuilder.end();
             } else {
               sargBuilder.lessThan(col, literalPair.second, literalPair.first);
@@ -261,9 +261,9 @@ class ORCSearchArgumentGenerator extends RexVisitorImpl<Object> {
             return null;
           case LESS_THAN_OR_EQUAL:
             if (reversed) {
-              // "<=" --(reversed args)--> ">" ---(rewrite in terms of "!", "<" and "<=")--> "!(<=)"
+              // "<=" --(reversed args)--> ">=" ---(rewrite in terms of "!", "<" and "<=")--> "!(<)"
               sargBuilder.startNot();
-              sargBuilder.lessThanEquals(col, literalPair.second, literalPair.first);
+              sargBuilder.lessThan(col, literalPair.second, literalPair.first);
               sargBuilder.end();
             } else {
               sargBuilder.lessThanEquals(col, literalPair.second, literalPair.first);
@@ -271,8 +271,8 @@ class ORCSearchArgumentGenerator extends RexVisitorImpl<Object> {
             return null;
           case GREATER_THAN:
             if (reversed) {
-              // ">" --(reversed args)--> "<=" ---(rewrite in terms of "!", "<" and "<=")--> "<="
-              sargBuilder.lessThanEquals(col, literalPair.second, literalPair.first);
+              // ">" --(reversed args)--> "<"
+              sargBuilder.lessThan(col, literalPair.second, literalPair.first);
             } else {
               // ">" ---(write in "<" or "<=")--> "!(<=)"
               sargBuilder.startNot();
@@ -282,8 +282,8 @@ class ORCSearchArgumentGenerator extends RexVisitorImpl<Object> {
             return null;
           case GREATER_THAN_OR_EQUAL:
             if (reversed) {
-              // ">=" --(reversed args)--> "<" ---(rewrite in terms of "!", "<" and "<=")--> "<"
-              sargBuilder.lessThan(col, literalPair.second, literalPair.first);
+              // ">=" --(reversed args)--> "<="
+              sargBuilder.lessThanEquals(col, literalPair.second, literalPair.first);
             } else {
               // ">=" ---(write in "<" or "<=")--> "!(<)"
               sargBuilder.startNot();
@@ -16,18 +16,28 @@
 package com.dremio.exec.store.hive.exec;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BitVector;
 import org.apache.hadoop.hive.ql.exec.vector.ListColumnVector;
 import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
 import org.apache.hadoop.hive.ql.exec.vector.MultiValuedColumnVector;
+import org.junit.Rule;
 import org.junit.Test;
 
 import com.dremio.exec.store.hive.exec.HiveORCCopiers;
+import com.dremio.test.AllocatorRule;
 import com.dremio.test.DremioTest;
 
 public class HiveORCCopierTest extends DremioTest {
 
   private static int HIVE_BATCH_SIZE = 1024;
+
+  @Rule
+  public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
   private void getHiveBatch(ListColumnVector input, LongColumnVector child) {
     input.noNulls = false;
 
@@ -58,4 +68,32 @@ public class HiveORCCopierTest extends DremioTest {
     assertEquals(1024, childcountInFirstHalf);
     assertEquals(0, childcountInSecondHalf);
   }
+
+  @Test
+  public void testCopyValidity() {
+    final boolean[] isNull = new boolean[HIVE_BATCH_SIZE];
+    for (int i = 0; i < HIVE_BATCH_SIZE; i++) {
+      isNull[i] = i % 3 == 0;
+    }
+
+    try (BufferAllocator allocator = allocatorRule.newAllocator("test-orc-copier", 0, Long.MAX_VALUE);
+         BitVector output = new BitVector("validity", allocator)) {
+      output.allocateNew(2 * HIVE_BATCH_SIZE);
+      // unaligned output, spanning leading bits, whole words and trailing bits
+      HiveORCCopiers.copyValidity(output.getValidityBuffer(), isNull, 5, 300, 7);
+      // input without nulls
+      HiveORCCopiers.copyValidity(output.getValidityBuffer(), null, 0, 200, 307);
+      output.setValueCount(507);
+
+      for (int i = 0; i < 7; i++) {
+        assertTrue(output.isNull(i));
+      }
+      for (int i = 0; i < 300; i++) {
+        assertEquals("position " + (7 + i), isNull[5 + i], output.isNull(7 + i));
+      }
+      for (int i = 307; i < 507; i++) {
+        assertFalse("position " + i, output.isNull(i));
+      }
+    }
+  }
 }
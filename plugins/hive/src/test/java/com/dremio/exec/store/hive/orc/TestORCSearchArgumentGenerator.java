@@ -324,6 +324,24 @@ public class TestORCSearchArgumentGenerator extends RexBuilderTestBase {
     assertEquals("leaf-0 = (IN intC 23 234 23423), expr = leaf-0", sarg(inExpr));
   }
 
+  @Test
+  public void literalOnLeft() {
+    RexNode ltExpr = builder.makeCall(LESS_THAN, asList(intLit(0, 23), input(0)));
+    assertEquals("leaf-0 = (LESS_THAN_EQUALS intC 23), expr = (not leaf-0)", sarg(ltExpr));
+
+    RexNode leExpr = builder.makeCall(LESS_THAN_OR_EQUAL, asList(intLit(0, 23), input(0)));
+    assertEquals("leaf-0 = (LESS_THAN intC 23), expr = (not leaf-0)", sarg(leExpr));
+
+    RexNode gtExpr = builder.makeCall(GREATER_THAN, asList(intLit(0, 23), input(0)));
+    assertEquals("leaf-0 = (LESS_THAN intC 23), expr = leaf-0", sarg(gtExpr));
+
+    RexNode geExpr = builder.makeCall(GREATER_THAN_OR_EQUAL, asList(intLit(0, 23), input(0)));
+    assertEquals("leaf-0 = (LESS_THAN_EQUALS intC 23), expr = leaf-0", sarg(geExpr));
+
+    RexNode eqExpr = builder.makeCall(EQUALS, asList(varcharLit(6, "str"), input(6)));
+    assertEquals("leaf-0 = (EQUALS varcharC str), expr = leaf-0", sarg(eqExpr));
+  }
+
   private String sarg(RexNode expr) {
     ORCSearchArgumentGenerator gen = new ORCSearchArgumentGenerator(input.getRowType().getFieldNames(), new ArrayList<>());
     expr.accept(gen);
@@ -17,6 +17,7 @@ package com.dremio.exec.store.hive.exec;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
@@ -29,6 +30,7 @@ import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.vector.BaseVariableWidthVector;
 import org.apache.arrow.vector.BigIntVector;
 import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.BitVectorHelper;
 import org.apache.arrow.vector.DateMilliVector;
 import org.apache.arrow.vector.DecimalVector;
 import org.apache.arrow.vector.FieldVector;
@@ -120,6 +122,59 @@ public class HiveORCCopiers {
     }
   }
 
+  /**
+   * Sets the validity bits of output positions [outputIdx, outputIdx + count) from the isNull flags of the input,
+   * one 64 bit word at a time once the output is word aligned.
+   *
+   * @param isNull null flags of the input vector, or null if the input has no nulls
+   */
+  @VisibleForTesting
+  static void copyValidity(ArrowBuf validity, boolean[] isNull, int inputIdx, int count, int outputIdx) {
+    int i = 0;
+    for (; i < count && ((outputIdx + i) & 63) != 0; i++) {
+      if (isNull == null || !isNull[inputIdx + i]) {
+        BitVectorHelper.setValidityBitToOne(validity, outputIdx + i);
+      }
+    }
+
+    for (; i + 64 <= count; i += 64) {
+      long word = -1L;
+      if (isNull != null) {
+        word = 0;
+        final int start = inputIdx + i;
+        for (int bit = 0; bit < 64; bit++) {
+          if (!isNull[start + bit]) {
+            word |= 1L << bit;
+          }
+        }
+      }
+      validity.setLong((outputIdx + i) >>> 3, word);
+    }
+
+    for (; i < count; i++) {
+      if (isNull == null || !isNull[inputIdx + i]) {
+        BitVectorHelper.setValidityBitToOne(validity, outputIdx + i);
+      }
+    }
+  }
+
+  /**
+   * Copies count values of the input array into an 8 byte wide data buffer with a single bulk copy.
+   */
+  private static void copyLongs(ArrowBuf data, long[] input, int inputIdx, int count, int outputIdx) {
+    data.nioBuffer((long) outputIdx * Long.BYTES, count * Long.BYTES)
+      .order(ByteOrder.LITTLE_ENDIAN)
+      .asLongBuffer()
+      .put(input, inputIdx, count);
+  }
+
+  private static void copyDoubles(ArrowBuf data, double[] input, int inputIdx, int count, int outputIdx) {
+    data.nioBuffer((long) outputIdx * Double.BYTES, count * Double.BYTES)
+      .order(ByteOrder.LITTLE_ENDIAN)
+      .asDoubleBuffer()
+      .put(input, inputIdx, count);
+  }
+
   /**
    * Helper method to create {@link ORCCopier}s based on given input, output vector types and projected column ordinals.
    *
@@ -577,17 +632,11 @@ public class HiveORCCopiers {
         for (int i = 0; i < count; i++, outputIdx++) {
           outputVector.set(outputIdx, value);
         }
-      } else if (inputVector.noNulls) {
-        for (int i = 0; i < count; i++, inputIdx++, outputIdx++) {
-          outputVector.set(outputIdx, input[inputIdx]);
-        }
       } else {
-        final boolean[] isNull = inputVector.isNull;
-        for (int i = 0; i < count; i++, inputIdx++, outputIdx++) {
-          if (!isNull[inputIdx]) {
-            outputVector.set(outputIdx, input[inputIdx]);
-          }
-        }
+        // values of null entries are copied as well, they are masked by the validity bits
+        copyLongs(outputVector.getDataBuffer(), input, inputIdx, count, outputIdx);
+        copyValidity(outputVector.getValidityBuffer(), inputVector.noNulls ? null : inputVector.isNull,
+          inputIdx, count, outputIdx);
       }
     }
   }
@@ -664,17 +713,11 @@ public class HiveORCCopiers {
         for (int i = 0; i < count; i++, outputIdx++) {
           outputVector.set(outputIdx, value);
         }
-      } else if (inputVector.noNulls) {
-        for (int i = 0; i < count; i++, inputIdx++, outputIdx++) {
-          outputVector.set(outputIdx, input[inputIdx]);
-        }
       } else {
-        final boolean[] isNull = inputVector.isNull;
-        for (int i = 0; i < count; i++, inputIdx++, outputIdx++) {
-          if (!isNull[inputIdx]) {
-            outputVector.set(outputIdx, input[inputIdx]);
-          }
-        }
+        // values of null entries are copied as well, they are masked by the validity bits
+        copyLongs(outputVector.getDataBuffer(), input, inputIdx, count, outputIdx);
+        copyValidity(outputVector.getValidityBuffer(), inputVector.noNulls ? null : inputVector.isNull,
+          inputIdx, count, outputIdx);
       }
     }
   }
@@ -913,8 +956,12 @@ public class HiveORCCopiers {
   }
 
   private static class DecimalCopier extends ORCCopierBase  {
+    // max precision of decimals whose unscaled value fits in a long
+    private static final int DECIMAL64_MAX_PRECISION = 18;
+
     private DecimalColumnVector inputVector;
     private DecimalVector outputVector;
+    private final HiveDecimalWritable scratch = new HiveDecimalWritable();
 
     DecimalCopier(DecimalColumnVector inputVector, DecimalVector outputVector) {
       this.inputVector = inputVector;
@@ -934,6 +981,12 @@ public class HiveORCCopiers {
       final int scale = inputVector.scale;
       final int outputPrecision = ((ArrowType.Decimal)outputVector.getField().getType()).getPrecision();
       final int outputScale = outputVector.getScale();
+      if (!inputVector.isRepeating && outputPrecision <= DECIMAL64_MAX_PRECISION) {
+        copyDecimal64(input, inputVector.noNulls ? null : inputVector.isNull, inputIdx, count, outputIdx,
+          outputPrecision, outputScale);
+        return;
+      }
+
       if (inputVector.isRepeating) {
         if (inputVector.isNull[0]) {
           return; // If all repeating values are null, then there is no need to write anything to vector
@@ -974,6 +1027,25 @@ public class HiveORCCopiers {
         }
       }
     }
+
+    /**
+     * Writes decimals whose unscaled value fits in a long directly as longs, instead of converting each value to a
+     * big endian byte array.
+     */
+    private void copyDecimal64(HiveDecimalWritable[] input, boolean[] isNull, int inputIdx, int count, int outputIdx,
+                               int outputPrecision, int outputScale) {
+      for (int i = 0; i < count; i++, inputIdx++, outputIdx++) {
+        if (isNull != null && isNull[inputIdx]) {
+          continue;
+        }
+        scratch.set(input[inputIdx]);
+        scratch.mutateEnforcePrecisionScale(outputPrecision, outputScale);
+        // value is unset if precision and scale can't be enforced, which leaves the output null
+        if (scratch.isSet()) {
+          outputVector.set(outputIdx, scratch.serialize64(outputScale));
+        }
+      }
+    }
   }
 
   private static class BitCopier  extends ORCCopierBase  {
@@ -1217,17 +1289,11 @@ public class HiveORCCopiers {
         for (int i = 0; i < count; i++, outputIdx++) {
           outputVector.set(outputIdx, value);
         }
-      } else if (inputVector.noNulls) {
-        for (int i = 0; i < count; i++, inputIdx++, outputIdx++) {
-          outputVector.set(outputIdx, input[inputIdx]);
-        }
       } else {
-        final boolean[] isNull = inputVector.isNull;
-        for (int i = 0; i < count; i++, inputIdx++, outputIdx++) {
-          if (!isNull[inputIdx]) {
-            outputVector.set(outputIdx, input[inputIdx]);
-          }
-        }
+        // values of null entries are copied as well, they are masked by the validity bits
+        copyDoubles(outputVector.getDataBuffer(), input, inputIdx, count, outputIdx);
+        copyValidity(outputVector.getValidityBuffer(), inputVector.noNulls ? null : inputVector.isNull,
+          inputIdx, count, outputIdx);
       }
     }
   }
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.hive.exec;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.orc.StripeInformation;
+import org.junit.Test;
+
+import com.dremio.exec.store.hive.exec.HiveORCVectorizedReader.StripeRange;
+
+/**
+ * Tests for {@link HiveORCVectorizedReader.StripeRange}
+ */
+public class TestHiveORCVectorizedReader {
+  // stripes of 100 bytes, the first one after the file header
+  private static final List<StripeInformation> STRIPES = newStripes(3, 100);
+
+  @Test
+  public void pruneLeadingAndTrailingStripes() {
+    final StripeRange range = StripeRange.of(STRIPES, 0, 1000, i -> i == 1);
+    assertEquals(103, range.getOffset());
+    assertEquals(100, range.getLength());
+    assertEquals(2, range.getNumPruned());
+    assertEquals(200, range.getBytesPruned());
+  }
+
+  @Test
+  public void middleStripeIsNotPruned() {
+    // kept, pruned, kept: the middle stripe stays within the range to read
+    final StripeRange range = StripeRange.of(STRIPES, 0, 1000, i -> i != 1);
+    assertEquals(3, range.getOffset());
+    assertEquals(300, range.getLength());
+    assertEquals(0, range.getNumPruned());
+    assertEquals(0, range.getBytesPruned());
+  }
+
+  @Test
+  public void pruneAllStripes() {
+    final StripeRange range = StripeRange.of(STRIPES, 0, 1000, i -> false);
+    assertEquals(0, range.getLength());
+    assertEquals(3, range.getNumPruned());
+    assertEquals(300, range.getBytesPruned());
+  }
+
+  @Test
+  public void stripesOfOtherSplits() {
+    // the split only owns the stripes starting within it
+    final StripeRange range = StripeRange.of(STRIPES, 100, 200, i -> i == 2);
+    assertEquals(203, range.getOffset());
+    assertEquals(100, range.getLength());
+    assertEquals(1, range.getNumPruned());
+    assertEquals(100, range.getBytesPruned());
+  }
+
+  private static List<StripeInformation> newStripes(int count, long length) {
+    final List<StripeInformation> stripes = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      final StripeInformation stripe = mock(StripeInformation.class);
+      when(stripe.getOffset()).thenReturn(3 + i * length);
+      when(stripe.getLength()).thenReturn(length);
+      stripes.add(stripe);
+    }
+    return stripes;
+  }
+}
@@ -49,6 +49,7 @@ public interface ExecConstants {
   String ZK_INITIAL_TIMEOUT_MS = "dremio.exec.zk.retry.initial_timeout_ms";
 
   String BIT_SERVER_RPC_THREADS = "dremio.exec.rpc.bit.server.threads";
+  String BIT_SERVER_RPC_DATA_CONNECTIONS = "dremio.exec.rpc.bit.server.data_connections";
   String USER_SERVER_RPC_THREADS = "dremio.exec.rpc.user.server.threads";
   String REGISTRATION_ADDRESS = "dremio.exec.rpc.publishedhost";
 
@@ -87,6 +88,12 @@ public interface ExecConstants {
   String WORK_THRESHOLD_FOR_SPLIT_KEY = "exec.expression.split.work_per_split";
   DoubleValidator WORK_THRESHOLD_FOR_SPLIT = new RangeDoubleValidator(WORK_THRESHOLD_FOR_SPLIT_KEY, 0.0, Long.MAX_VALUE, 3.0);
 
+  // Configuration option for adaptive selection of the code generation engine
+  // When non-zero, expressions are evaluated by both Java and Gandiva on this many batches each, and the faster
+  // engine is used for the rest of the fragment. Zero disables adaptive selection
+  String ADAPTIVE_CODEGEN_TRIAL_BATCHES_KEY = "exec.expression.adaptive.trial_batches";
+  LongValidator ADAPTIVE_CODEGEN_TRIAL_BATCHES = new RangeLongValidator(ADAPTIVE_CODEGEN_TRIAL_BATCHES_KEY, 0, 100, 0);
+
   PositiveLongValidator MAX_FOREMEN_PER_COORDINATOR = new PositiveLongValidator("coordinator.alive_queries.limit", Long.MAX_VALUE, 1000);
 
   BooleanValidator REST_API_RUN_QUERY_ASYNC = new BooleanValidator("dremio.coordinator.rest.run_query.async", false);
@@ -110,6 +117,12 @@ public interface ExecConstants {
 
   PositiveLongValidator CODE_GEN_NESTED_METHOD_THRESHOLD = new PositiveLongValidator("exec.operator.codegen.nested_method.threshold", Integer.MAX_VALUE, 100);
 
+  // Whether or not to share compiled gandiva projectors and filters across fragments.
+  BooleanValidator GANDIVA_CACHE_ENABLE = new BooleanValidator("exec.operator.gandiva.cache.enabled", true);
+
+  // Number of compiled gandiva projectors and filters kept in the cache when not in use.
+  PositiveLongValidator GANDIVA_CACHE_SIZE = new PositiveLongValidator("exec.operator.gandiva.cache.size", Integer.MAX_VALUE, 500);
+
   /*
    * Currently if a query is cancelled, but one of the fragments reports the status as FAILED instead of CANCELLED or
    * FINISHED we report the query result as CANCELLED by swallowing the failures occurred in fragments. This BOOT
@@ -139,6 +152,21 @@ public interface ExecConstants {
   String OUTPUT_FORMAT_OPTION = "store.format";
   StringValidator OUTPUT_FORMAT_VALIDATOR = new StringValidator(OUTPUT_FORMAT_OPTION, "parquet");
 
+  // Space filling curve to cluster the LOCALSORT columns of CTAS and INSERT with, instead of sorting them lexicographically
+  String WRITER_CLUSTERING = "store.writer.clustering";
+  EnumeratedStringValidator WRITER_CLUSTERING_VALIDATOR = new EnumeratedStringValidator(WRITER_CLUSTERING, "none", "none", "zorder", "hilbert");
+
+  // Size of the reservoir sample each fragment takes of its input to compute the clustering ranges
+  String WRITER_CLUSTERING_SAMPLE_RECORDS = "store.writer.clustering.sample_records";
+  PositiveLongValidator WRITER_CLUSTERING_SAMPLE_RECORDS_VALIDATOR = new PositiveLongValidator(WRITER_CLUSTERING_SAMPLE_RECORDS, Integer.MAX_VALUE, 100_000);
+
+  // Input kept in memory while it is sampled, before it is spilled
+  String WRITER_CLUSTERING_BUFFER_BYTES = "store.writer.clustering.buffer_bytes";
+  PositiveLongValidator WRITER_CLUSTERING_BUFFER_BYTES_VALIDATOR = new PositiveLongValidator(WRITER_CLUSTERING_BUFFER_BYTES, Long.MAX_VALUE, 64 * 1024 * 1024);
+
+  // Range partition the clustered records across the writer fragments
+  BooleanValidator WRITER_CLUSTERING_RANGE_PARTITION = new BooleanValidator("store.writer.clustering.range_partition", true);
+
   String PARQUET_WRITE_TIME_THRESHOLD_MILLI_SECS = "store.parquet.write-time-threshold-milli-secs";
   PositiveLongValidator PARQUET_WRITE_TIME_THRESHOLD_MILLI_SECS_VALIDATOR = new PositiveLongValidator(PARQUET_WRITE_TIME_THRESHOLD_MILLI_SECS, Integer.MAX_VALUE, 120000);
 
@@ -153,7 +181,17 @@ public interface ExecConstants {
   LongValidator PARQUET_DICT_PAGE_SIZE_VALIDATOR = new LongValidator(PARQUET_DICT_PAGE_SIZE, 1024*1024);
   String PARQUET_WRITER_COMPRESSION_TYPE = "store.parquet.compression";
   EnumeratedStringValidator PARQUET_WRITER_COMPRESSION_TYPE_VALIDATOR = new EnumeratedStringValidator(
-      PARQUET_WRITER_COMPRESSION_TYPE, "snappy", "snappy", "gzip", "none");
+      PARQUET_WRITER_COMPRESSION_TYPE, "snappy", "snappy", "gzip", "zstd", "none");
+
+  String PARQUET_WRITER_COMPRESSION_ZSTD_LEVEL = "store.parquet.compression.zstd.level";
+  LongValidator PARQUET_WRITER_COMPRESSION_ZSTD_LEVEL_VALIDATOR = new RangeLongValidator(PARQUET_WRITER_COMPRESSION_ZSTD_LEVEL, 1, 22, 3);
+
+  // Comma separated list of the top level columns to write a bloom filter for, in each row group
+  String PARQUET_WRITER_BLOOM_FILTER_COLUMNS = "store.parquet.writer.bloom_filter.columns";
+  StringValidator PARQUET_WRITER_BLOOM_FILTER_COLUMNS_VALIDATOR = new StringValidator(PARQUET_WRITER_BLOOM_FILTER_COLUMNS, "");
+
+  String PARQUET_WRITER_BLOOM_FILTER_MAX_BYTES = "store.parquet.writer.bloom_filter.max_bytes";
+  LongValidator PARQUET_WRITER_BLOOM_FILTER_MAX_BYTES_VALIDATOR = new RangeLongValidator(PARQUET_WRITER_BLOOM_FILTER_MAX_BYTES, 1024, 128 * 1024 * 1024, 1024 * 1024);
 
   String PARQUET_MAX_FOOTER_LEN = "store.parquet.max_footer_length";
   LongValidator PARQUET_MAX_FOOTER_LEN_VALIDATOR = new LongValidator(PARQUET_MAX_FOOTER_LEN, 16*1024*1024);
@@ -180,6 +218,15 @@ public interface ExecConstants {
 
   LongValidator PARQUET_MIN_RECORDS_FOR_FLUSH_VALIDATOR = new LongValidator("store.parquet.min_records_for_flush", 25000);
 
+  // Write batches of flat schemas column by column, straight from the arrow buffers
+  String PARQUET_WRITER_COLUMNAR = "store.parquet.writer.columnar";
+  BooleanValidator PARQUET_WRITER_COLUMNAR_VALIDATOR = new BooleanValidator(PARQUET_WRITER_COLUMNAR, false);
+
+  // Number of files a parquet writer can encode, compress and upload in the background while writing the next one.
+  // 0 flushes the files on the writer thread.
+  String PARQUET_WRITER_FLUSH_PARALLELISM = "store.parquet.writer.flush_parallelism";
+  LongValidator PARQUET_WRITER_FLUSH_PARALLELISM_VALIDATOR = new RangeLongValidator(PARQUET_WRITER_FLUSH_PARALLELISM, 0, 16, 0);
+
   String PARQUET_NEW_RECORD_READER = "store.parquet.use_new_reader";
   BooleanValidator PARQUET_RECORD_READER_IMPLEMENTATION_VALIDATOR = new BooleanValidator(PARQUET_NEW_RECORD_READER, false);
 
@@ -241,6 +288,14 @@ public interface ExecConstants {
   String ELASTIC_ACTION_RETRIES = "store.elastic.action_retries";
   LongValidator ELASTIC_ACTION_RETRIES_VALIDATOR = new LongValidator(ELASTIC_ACTION_RETRIES, 0);
 
+  // Shards with more documents than this are split into several sliced scrolls (applied on metadata refresh)
+  LongValidator ELASTIC_SLICED_SCROLL_DOCS_PER_SLICE = new PositiveLongValidator("store.elastic.sliced_scroll.docs_per_slice", Long.MAX_VALUE, 5_000_000);
+  // Upper bound of slices per shard, 1 disables sliced scrolls
+  LongValidator ELASTIC_SLICED_SCROLL_MAX_SLICES = new RangeLongValidator("store.elastic.sliced_scroll.max_slices_per_shard", 1, 1024, 1);
+  // Fetch the next scroll page while the current one is parsed, unless the current page is larger than the limit
+  BooleanValidator ELASTIC_SCROLL_PREFETCH = new BooleanValidator("store.elastic.scroll_prefetch.enabled", true);
+  LongValidator ELASTIC_SCROLL_PREFETCH_MAX_PAGE_BYTES = new PositiveLongValidator("store.elastic.scroll_prefetch.max_page_bytes", Long.MAX_VALUE, 64 * 1024 * 1024);
+
   BooleanValidator ENABLE_UNION_TYPE = new BooleanValidator("exec.enable_union_type", true);
 
   BooleanValidator ACCELERATION_VERBOSE_LOGGING = new BooleanValidator("accelerator.system.verbose.logging", true);
@@ -445,6 +500,8 @@ public interface ExecConstants {
 
   BooleanValidator ENABLE_VECTORIZED_NOSPILL_VARCHAR_NDV_ACCUMULATOR = new BooleanValidator("exec.operator.vectorized_nospill.varchar_ndv", true);
 
+  BooleanValidator ENABLE_VECTORIZED_SPILL_VARCHAR_NDV_ACCUMULATOR = new BooleanValidator("exec.operator.vectorized_spill.varchar_ndv", true);
+
   BooleanValidator TRIM_ROWGROUPS_FROM_FOOTER = new BooleanValidator("exec.parquet.memory.trim_rowgroups", true);
   BooleanValidator TRIM_COLUMNS_FROM_ROW_GROUP = new BooleanValidator("exec.parquet.memory.trim_columns", true);
 
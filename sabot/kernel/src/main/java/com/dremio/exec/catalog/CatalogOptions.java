@@ -22,6 +22,7 @@ import com.dremio.options.TypeValidators;
 import com.dremio.options.TypeValidators.BooleanValidator;
 import com.dremio.options.TypeValidators.LongValidator;
 import com.dremio.options.TypeValidators.PositiveLongValidator;
+import com.dremio.options.TypeValidators.RangeLongValidator;
 import com.dremio.service.namespace.NamespaceService;
 
 /**
@@ -55,6 +56,12 @@ public final class CatalogOptions {
   // How should (multi-)splits be compressed in the K/V store
   public static final TypeValidators.EnumValidator<NamespaceService.SplitCompression> SPLIT_COMPRESSION_TYPE = new TypeValidators.EnumValidator<>(
     "store.plugin.split_compression", NamespaceService.SplitCompression.class, NamespaceService.SplitCompression.SNAPPY);
+  // Number of datasets of a source synchronized concurrently by a metadata refresh, 1 to synchronize them one at a time
+  public static final LongValidator METADATA_REFRESH_PARALLELISM = new RangeLongValidator("store.plugin.metadata_refresh_parallelism", 1, 64, 1);
+
+  // Number of datasets handed at once to a worker of a parallel metadata refresh
+  public static final LongValidator METADATA_REFRESH_BATCH_SIZE = new PositiveLongValidator("store.plugin.metadata_refresh_batch_size", 10_000, 100);
+
   // Disable cross source select
   public static final BooleanValidator DISABLE_CROSS_SOURCE_SELECT = new BooleanValidator("planner.cross_source_select.disable", false);
 
@@ -59,6 +59,7 @@ import com.dremio.exec.store.MissingPluginConf;
 import com.dremio.exec.store.SchemaConfig;
 import com.dremio.exec.store.StoragePlugin;
 import com.dremio.exec.store.StoragePluginRulesFactory;
+import com.dremio.exec.store.dfs.ParallelRecursiveLister;
 import com.dremio.exec.store.ischema.InfoSchemaConf;
 import com.dremio.options.OptionManager;
 import com.dremio.service.coordinator.ClusterCoordinator.Role;
@@ -451,6 +452,9 @@ public class CatalogServiceImpl implements CatalogService {
 
       namespaceService.deleteSource(config.getKey(), config.getTag());
       sourceDataStore.delete(config.getKey());
+      // directory listings saved by file system sources
+      ParallelRecursiveLister.deleteListings(
+          context.get().getKVStoreProvider().getStore(ParallelRecursiveLister.DirectoryListingStoreCreator.class), config.getName());
     } catch (RuntimeException ex) {
       afterUnknownEx = true;
       throw ex;
@@ -15,17 +15,25 @@
  */
 package com.dremio.exec.catalog;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.ConcurrentModificationException;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import com.dremio.common.collections.Tuple;
+import com.dremio.common.concurrent.NamedThreadFactory;
 import com.dremio.common.utils.PathUtils;
 import com.dremio.connector.ConnectorException;
 import com.dremio.connector.metadata.BytesOutput;
@@ -47,9 +55,14 @@ import com.dremio.service.namespace.dataset.proto.DatasetConfig;
 import com.dremio.service.namespace.source.proto.MetadataPolicy;
 import com.dremio.service.namespace.source.proto.UpdateMode;
 import com.dremio.service.namespace.space.proto.FolderConfig;
+import com.dremio.telemetry.api.metrics.Counter;
+import com.dremio.telemetry.api.metrics.Metrics;
+import com.dremio.telemetry.api.metrics.Metrics.ResetType;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 import io.protostuff.ByteString;
 
@@ -60,6 +73,13 @@ public class MetadataSynchronizer {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(MetadataSynchronizer.class);
 
   private static final int NUM_RETRIES = 1;
+  // log the progress of the sync every so many datasets
+  private static final int PROGRESS_INTERVAL = 10_000;
+  // how long to wait for the workers of a parallel sync to stop, once the sync is over
+  private static final long WORKERS_TERMINATION_TIMEOUT_SECONDS = 60;
+
+  private static final Counter DATASETS_SYNCED = Metrics.newCounter(Metrics.join("catalog", "metadata_sync", "datasets"), ResetType.NEVER);
+
   private final SyncStatus syncStatus = new SyncStatus(true);
 
   private final NamespaceService systemNamespace;
@@ -68,12 +88,15 @@ public class MetadataSynchronizer {
   private final ManagedStoragePlugin.MetadataBridge bridge;
   private final DatasetSaver saver;
   private final DatasetRetrievalOptions options;
+  private final int parallelism;
+  private final int batchSize;
 
   private final UpdateMode updateMode;
   private final Set<NamespaceKey> ancestorsToKeep;
   private final List<Tuple<String, String>> failedDatasets;
 
   private Set<NamespaceKey> existingDatasets;
+  private Stopwatch stopwatch;
 
   MetadataSynchronizer(
       NamespaceService systemNamespace,
@@ -82,6 +105,23 @@ public class MetadataSynchronizer {
       MetadataPolicy metadataPolicy,
       DatasetSaver saver,
       DatasetRetrievalOptions options
+  ) {
+    this(systemNamespace, sourceKey, bridge, metadataPolicy, saver, options, 1, 1);
+  }
+
+  /**
+   * @param parallelism number of datasets synchronized concurrently, 1 to synchronize them one at a time
+   * @param batchSize   number of datasets handed at once to a worker, when synchronizing in parallel
+   */
+  MetadataSynchronizer(
+      NamespaceService systemNamespace,
+      NamespaceKey sourceKey,
+      ManagedStoragePlugin.MetadataBridge bridge,
+      MetadataPolicy metadataPolicy,
+      DatasetSaver saver,
+      DatasetRetrievalOptions options,
+      int parallelism,
+      int batchSize
   ) {
     this.systemNamespace = Preconditions.checkNotNull(systemNamespace);
     this.sourceKey = Preconditions.checkNotNull(sourceKey);
@@ -89,10 +129,13 @@ public class MetadataSynchronizer {
     this.sourceMetadata = Preconditions.checkNotNull(bridge.getMetadata());
     this.saver = saver;
     this.options = options;
+    Preconditions.checkArgument(parallelism > 0 && batchSize > 0);
+    this.parallelism = parallelism;
+    this.batchSize = batchSize;
 
     this.updateMode = metadataPolicy.getDatasetUpdateMode();
     this.ancestorsToKeep = new HashSet<>();
-    this.failedDatasets = new ArrayList<>();
+    this.failedDatasets = Collections.synchronizedList(new ArrayList<>());
   }
 
   /**
@@ -115,9 +158,9 @@ public class MetadataSynchronizer {
    */
   public SyncStatus go() {
 
-    final Stopwatch stopwatch = Stopwatch.createStarted();
+    stopwatch = Stopwatch.createStarted();
     try {
-      logger.debug("Source '{}' sync started", sourceKey);
+      logger.debug("Source '{}' sync started with parallelism {}", sourceKey, parallelism);
 
       // 1. update datasets in namespace with the ones in source
       synchronizeDatasets();
@@ -138,6 +181,7 @@ public class MetadataSynchronizer {
     } catch (Exception e) {
       logger.warn("Source '{}' sync failed unexpectedly. Will try again later", sourceKey, e);
     } finally {
+      syncStatus.setThroughput(parallelism, stopwatch.elapsed(TimeUnit.MILLISECONDS));
       if (!failedDatasets.isEmpty()) {
         logger.warn("Source '{}' sync failed for {} datasets. Few failed datasets and reasons:\n{}",
             sourceKey,
@@ -174,6 +218,11 @@ public class MetadataSynchronizer {
     logger.trace("Source '{}' syncing datasets", sourceKey);
     try (DatasetHandleListing datasetListing = getDatasetHandleListing(options.asGetDatasetOptions(null))) {
       final Iterator<? extends DatasetHandle> iterator = datasetListing.iterator();
+      if (parallelism > 1) {
+        synchronizeDatasetsInParallel(iterator);
+        return;
+      }
+
       do {
         try {
           if (!iterator.hasNext()) {
@@ -182,23 +231,158 @@ public class MetadataSynchronizer {
           final DatasetHandle handle = iterator.next();
           final NamespaceKey datasetKey = MetadataObjectsUtils.toNamespaceKey(handle.getDatasetPath());
           final boolean existing = existingDatasets.remove(datasetKey);
-          if (logger.isTraceEnabled()) {
-            logger.trace("Dataset '{}' sync started ({})", datasetKey, existing ? "existing" : "new");
+          if (existing) {
+            addAncestors(datasetKey, ancestorsToKeep);
+          }
+          synchronizeDataset(datasetKey, handle, existing);
+        } catch (DatasetMetadataTooLargeException e) {
+          handleMetadataTooLarge(e);
+        }
+      } while (true);
+    }
+  }
+
+  /**
+   * Same as the serial sync, except that the datasets are handed in batches to a pool of workers. The
+   * datasets are listed, and the namespace keys tracked, by the calling thread only. The number of
+   * pending batches is bounded, so that a large source is not listed way ahead of the workers.
+   */
+  private void synchronizeDatasetsInParallel(Iterator<? extends DatasetHandle> iterator) throws NamespaceException {
+    final ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+        new NamedThreadFactory("metadata-sync-" + sourceKey.getRoot() + "-"));
+    final Deque<Future<?>> pendingBatches = new ArrayDeque<>();
+    try {
+      List<DatasetToSync> batch = new ArrayList<>(batchSize);
+      do {
+        try {
+          if (!iterator.hasNext()) {
+            break;
           }
+          final DatasetHandle handle = iterator.next();
+          final NamespaceKey datasetKey = MetadataObjectsUtils.toNamespaceKey(handle.getDatasetPath());
+          final boolean existing = existingDatasets.remove(datasetKey);
           if (existing) {
             addAncestors(datasetKey, ancestorsToKeep);
-            handleExistingDataset(datasetKey, handle);
-          } else {
-            handleNewDataset(datasetKey, handle);
           }
+          batch.add(new DatasetToSync(datasetKey, handle, existing));
         } catch (DatasetMetadataTooLargeException e) {
-          final boolean existing = existingDatasets.remove(new NamespaceKey(PathUtils.parseFullPath(e.getMessage())));
-          logger.warn("Dataset {} sync failed ({}) due to Metadata too large. Please check.", e.getMessage(), existing ? "existing" : "new");
+          handleMetadataTooLarge(e);
+        }
+
+        if (batch.size() >= batchSize) {
+          while (pendingBatches.size() >= 2 * parallelism) {
+            awaitBatch(pendingBatches.poll());
+          }
+          pendingBatches.add(executor.submit(newBatchTask(batch)));
+          batch = new ArrayList<>(batchSize);
         }
       } while (true);
+
+      if (!batch.isEmpty()) {
+        pendingBatches.add(executor.submit(newBatchTask(batch)));
+      }
+      while (!pendingBatches.isEmpty()) {
+        awaitBatch(pendingBatches.poll());
+      }
+    } finally {
+      for (Future<?> pendingBatch : pendingBatches) {
+        pendingBatch.cancel(true);
+      }
+      executor.shutdownNow();
+      awaitWorkers(executor);
+    }
+  }
+
+  /**
+   * Waits for the workers to stop, so that none of them updates the namespace after the sync is over.
+   */
+  private void awaitWorkers(ExecutorService executor) {
+    boolean interrupted = false;
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(WORKERS_TERMINATION_TIMEOUT_SECONDS);
+    try {
+      while (true) {
+        try {
+          if (!executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+            logger.warn("Source '{}' sync workers did not stop within {} seconds", sourceKey,
+                WORKERS_TERMINATION_TIMEOUT_SECONDS);
+          }
+          return;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private Runnable newBatchTask(List<DatasetToSync> batch) {
+    return () -> {
+      for (DatasetToSync dataset : batch) {
+        // interrupted when the sync is aborted
+        if (syncStatus.isInterrupted() || Thread.currentThread().isInterrupted()) {
+          return;
+        }
+        try {
+          synchronizeDataset(dataset.key, dataset.handle, dataset.existing);
+        } catch (DatasetMetadataTooLargeException e) {
+          // the dataset was already removed from the existing ones when listed
+          logger.warn("Dataset {} sync failed ({}) due to Metadata too large. Please check.", e.getMessage(), dataset.existing ? "existing" : "new");
+        } catch (NamespaceException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    };
+  }
+
+  private void awaitBatch(Future<?> batch) throws NamespaceException {
+    try {
+      Uninterruptibles.getUninterruptibly(batch);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException && cause.getCause() instanceof NamespaceException) {
+        cause = cause.getCause();
+      }
+      Throwables.propagateIfPossible(cause, NamespaceException.class);
+      throw new RuntimeException(cause);
+    }
+  }
+
+  /**
+   * Synchronize a dataset handed by the source.
+   *
+   * @param datasetKey dataset key
+   * @param handle     dataset handle
+   * @param existing   true if the dataset is already in the namespace
+   * @throws NamespaceException if it cannot be handled
+   */
+  private void synchronizeDataset(NamespaceKey datasetKey, DatasetHandle handle, boolean existing)
+      throws NamespaceException {
+    if (logger.isTraceEnabled()) {
+      logger.trace("Dataset '{}' sync started ({})", datasetKey, existing ? "existing" : "new");
+    }
+    if (existing) {
+      handleExistingDataset(datasetKey, handle);
+    } else {
+      handleNewDataset(datasetKey, handle);
+    }
+
+    DATASETS_SYNCED.increment();
+    final long synced = syncStatus.incrementSynced();
+    if (synced % PROGRESS_INTERVAL == 0) {
+      final long elapsedMillis = Math.max(1, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+      logger.info("Source '{}' synchronized {} datasets in {} seconds ({} datasets per second)",
+          sourceKey, synced, elapsedMillis / 1000, synced * 1000 / elapsedMillis);
     }
   }
 
+  private void handleMetadataTooLarge(DatasetMetadataTooLargeException e) {
+    final boolean existing = existingDatasets.remove(new NamespaceKey(PathUtils.parseFullPath(e.getMessage())));
+    logger.warn("Dataset {} sync failed ({}) due to Metadata too large. Please check.", e.getMessage(), existing ? "existing" : "new");
+  }
+
   /**
    * Handle metadata sync for the given existing dataset.
    *
@@ -398,6 +582,21 @@ public class MetadataSynchronizer {
     }
   }
 
+  /**
+   * A dataset handed by the source, waiting for a worker.
+   */
+  private static final class DatasetToSync {
+    private final NamespaceKey key;
+    private final DatasetHandle handle;
+    private final boolean existing;
+
+    private DatasetToSync(NamespaceKey key, DatasetHandle handle, boolean existing) {
+      this.key = key;
+      this.handle = handle;
+      this.existing = existing;
+    }
+  }
+
   private static void addAncestors(NamespaceKey datasetKey, Set<NamespaceKey> ancestors) {
     NamespaceKey key = datasetKey.getParent();
     while (key.hasParent()) {
@@ -401,7 +401,9 @@ class SourceMetadataManager implements AutoCloseable {
 
       final Stopwatch stopwatch = Stopwatch.createStarted();
       final MetadataSynchronizer synchronizeRun = new MetadataSynchronizer(systemNamespace, sourceKey,
-          bridge, metadataPolicy, getSaver(), retrievalOptions);
+          bridge, metadataPolicy, getSaver(), retrievalOptions,
+          (int) Math.max(1, optionManager.getOption(CatalogOptions.METADATA_REFRESH_PARALLELISM)),
+          (int) Math.max(1, optionManager.getOption(CatalogOptions.METADATA_REFRESH_BATCH_SIZE)));
       synchronizeRun.setup();
       final SyncStatus syncStatus = synchronizeRun.go();
 
@@ -16,7 +16,7 @@
 package com.dremio.exec.catalog;
 
 /**
- * Metadata sync status.
+ * Metadata sync status. Safe to update from the workers of a parallel sync.
  */
 class SyncStatus {
 
@@ -31,41 +31,58 @@ class SyncStatus {
   private long extendedUnreadable;
   private long extendedDeleted;
 
-  private boolean refreshed;
-  private boolean interrupted;
+  // datasets handed by the source, and time taken to synchronize them
+  private long synced;
+  private int parallelism = 1;
+  private long elapsedMillis;
+
+  private volatile boolean refreshed;
+  private volatile boolean interrupted;
 
   SyncStatus(boolean fullRefresh) {
     this.fullRefresh = fullRefresh;
   }
 
-  void incrementShallowAdded() {
+  synchronized void incrementShallowAdded() {
     shallowAdded++;
   }
 
-  void incrementShallowDeleted() {
+  synchronized void incrementShallowDeleted() {
     shallowDeleted++;
   }
 
-  void incrementShallowUnchanged() {
+  synchronized void incrementShallowUnchanged() {
     shallowUnchanged++;
   }
 
-  void incrementExtendedChanged() {
+  synchronized void incrementExtendedChanged() {
     extendedChanged++;
   }
 
-  void incrementExtendedUnchanged() {
+  synchronized void incrementExtendedUnchanged() {
     extendedUnchanged++;
   }
 
-  void incrementExtendedUnreadable() {
+  synchronized void incrementExtendedUnreadable() {
     extendedUnreadable++;
   }
 
-  void incrementExtendedDeleted() {
+  synchronized void incrementExtendedDeleted() {
     extendedDeleted++;
   }
 
+  /**
+   * @return the number of datasets synchronized so far, including this one
+   */
+  synchronized long incrementSynced() {
+    return ++synced;
+  }
+
+  synchronized void setThroughput(int parallelism, long elapsedMillis) {
+    this.parallelism = parallelism;
+    this.elapsedMillis = elapsedMillis;
+  }
+
   void setRefreshed() {
     this.refreshed = true;
   }
@@ -83,7 +100,7 @@ class SyncStatus {
   }
 
   @Override
-  public String toString() {
+  public synchronized String toString() {
     final StringBuilder builder = new StringBuilder();
     builder.append(String.format("Shallow probed %d datasets: %d added, %d unchanged, %d deleted\n",
         shallowAdded + shallowUnchanged + shallowDeleted, shallowAdded, shallowUnchanged, shallowDeleted));
@@ -93,6 +110,10 @@ class SyncStatus {
               extendedChanged + extendedUnchanged + extendedDeleted + extendedUnreadable, extendedChanged,
               extendedUnchanged, extendedDeleted, extendedUnreadable));
     }
+    if (synced > 0) {
+      builder.append(String.format("Synchronized %d datasets in %d ms with parallelism %d (%d datasets per second)\n",
+          synced, elapsedMillis, parallelism, synced * 1000 / Math.max(1, elapsedMillis)));
+    }
     return builder.toString();
   }
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.expr;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Picks the code generation engine to evaluate a set of expressions with, by timing the pipeline
+ * of the preferred engine and the pipeline of the other engine on the first batches of a fragment.
+ *
+ * The measured costs are folded into a process-wide profile keyed by the expressions. Once the
+ * expressions have been timed by enough fragments, later fragments go straight to the faster engine
+ * without a trial.
+ */
+final class AdaptiveEngineSelector {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(AdaptiveEngineSelector.class);
+
+  // number of fragments that should time the expressions before the profile is trusted.
+  private static final int MIN_PROFILE_SAMPLES = 3;
+
+  // the other engine should be at least this much faster to be picked, so that noise does not
+  // override the configured preference.
+  private static final double SWITCH_MARGIN = 0.1;
+
+  private static final int MAX_PROFILE_ENTRIES = 10_000;
+
+  private static final Cache<String, Costs> PROFILE = CacheBuilder.newBuilder()
+    .maximumSize(MAX_PROFILE_ENTRIES)
+    .build();
+
+  /**
+   * Engine picked for the expressions.
+   */
+  enum Choice {
+    // not decided yet, both pipelines are being timed.
+    UNDECIDED,
+    PREFERRED,
+    ALTERNATE
+  }
+
+  private final String key;
+  private final int trialBatches;
+
+  private Choice choice = Choice.UNDECIDED;
+  private int batches;
+  private long preferredNanos;
+  private long preferredRecords;
+  private long alternateNanos;
+  private long alternateRecords;
+
+  // cost in nanos per thousand records, as measured or as found in the profile.
+  private long preferredCost;
+  private long alternateCost;
+
+  /**
+   * @param key identifies the expressions in the cost profile
+   * @param trialBatches number of batches timed on each engine before picking one
+   */
+  AdaptiveEngineSelector(String key, int trialBatches) {
+    this.key = key;
+    this.trialBatches = trialBatches;
+
+    final Costs costs = PROFILE.getIfPresent(key);
+    if (costs != null) {
+      costs.apply(this);
+    }
+  }
+
+  Choice getChoice() {
+    return choice;
+  }
+
+  /**
+   * @return true if the next batch should be evaluated by the pipeline of the other engine.
+   */
+  boolean useAlternate() {
+    switch (choice) {
+      case PREFERRED:
+        return false;
+      case ALTERNATE:
+        return true;
+      default:
+        // take turns between the two pipelines
+        return (batches % 2) == 1;
+    }
+  }
+
+  /**
+   * Record the time taken to evaluate a batch.
+   *
+   * @param alternate true if the batch was evaluated by the pipeline of the other engine
+   * @param records number of records in the batch
+   * @param nanos time taken to evaluate the batch
+   */
+  void record(boolean alternate, int records, long nanos) {
+    if (choice != Choice.UNDECIDED) {
+      return;
+    }
+
+    // the first batch of each engine warms up the generated code, and is not timed.
+    if (batches >= 2) {
+      if (alternate) {
+        alternateNanos += nanos;
+        alternateRecords += records;
+      } else {
+        preferredNanos += nanos;
+        preferredRecords += records;
+      }
+    }
+
+    batches++;
+    if (batches < 2 * (trialBatches + 1) || preferredRecords == 0 || alternateRecords == 0) {
+      return;
+    }
+
+    preferredCost = costPerThousand(preferredNanos, preferredRecords);
+    alternateCost = costPerThousand(alternateNanos, alternateRecords);
+    choice = pick(preferredCost, alternateCost);
+    logger.debug("Picked {} engine for {} after {} batches, preferred cost {}, alternate cost {}",
+      choice, key, batches, preferredCost, alternateCost);
+
+    PROFILE.asMap().computeIfAbsent(key, k -> new Costs()).add(preferredCost, alternateCost);
+  }
+
+  /**
+   * @return number of batches evaluated while the engines were being timed
+   */
+  int getTrialBatches() {
+    return batches;
+  }
+
+  /**
+   * @return cost of the preferred engine, in nanos per thousand records
+   */
+  long getPreferredCost() {
+    return preferredCost;
+  }
+
+  /**
+   * @return cost of the other engine, in nanos per thousand records
+   */
+  long getAlternateCost() {
+    return alternateCost;
+  }
+
+  private static long costPerThousand(long nanos, long records) {
+    return (nanos * 1000) / records;
+  }
+
+  private static Choice pick(long preferredCost, long alternateCost) {
+    return alternateCost < preferredCost * (1 - SWITCH_MARGIN) ? Choice.ALTERNATE : Choice.PREFERRED;
+  }
+
+  /**
+   * Running average of the costs measured by the fragments evaluating the same expressions.
+   */
+  private static final class Costs {
+    private int samples;
+    private double preferredCost;
+    private double alternateCost;
+
+    private synchronized void add(long preferred, long alternate) {
+      samples++;
+      preferredCost += (preferred - preferredCost) / samples;
+      alternateCost += (alternate - alternateCost) / samples;
+    }
+
+    private synchronized void apply(AdaptiveEngineSelector selector) {
+      if (samples < MIN_PROFILE_SAMPLES) {
+        return;
+      }
+      selector.choice = pick((long) preferredCost, (long) alternateCost);
+      selector.preferredCost = (long) preferredCost;
+      selector.alternateCost = (long) alternateCost;
+    }
+  }
+}
@@ -59,6 +59,8 @@ public class ExpressionEvaluationOptions {
 
   public boolean isSplitEnabled() { return options.getOption(ExecConstants.SPLIT_ENABLED); }
 
+  public int getAdaptiveTrialBatches() { return (int) options.getOption(ExecConstants.ADAPTIVE_CODEGEN_TRIAL_BATCHES); }
+
   public ExpressionEvaluationOptions flipPreferredCodeGen() {
     ExpressionEvaluationOptions clone = new ExpressionEvaluationOptions(options);
     if (this.codeGenOption == SupportedEngines.CodeGenOption.Java) {
@@ -15,6 +15,7 @@
  */
 package com.dremio.exec.expr;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -26,6 +27,7 @@ import org.apache.arrow.vector.types.pojo.Field;
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.expression.BooleanOperator;
 import com.dremio.common.expression.CompleteType;
+import com.dremio.common.expression.ExpressionStringBuilder;
 import com.dremio.common.expression.FieldReference;
 import com.dremio.common.expression.FunctionHolderExpression;
 import com.dremio.common.expression.IfExpression;
@@ -45,6 +47,7 @@ import com.dremio.exec.record.VectorWrapper;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.op.llvm.expr.GandivaPushdownSieve;
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 
 /**
@@ -108,6 +111,16 @@ public class ExpressionSplitter implements AutoCloseable {
   // When there are many splits, the preferred engine must do at least this much work per split
   final double avgWorkThresholdForSplit;
 
+  // splitter to evaluate the same expressions with the other code generation engine,
+  // when the engine is picked at runtime
+  ExpressionSplitter adaptiveSplitter;
+
+  // expressions added to the splitter, to look up their costs when the engine is picked at runtime
+  private final StringBuilder adaptiveKey = new StringBuilder();
+
+  // times the two engines and picks the faster one, null when the engine is not picked at runtime
+  private AdaptiveEngineSelector adaptiveSelector;
+
   public ExpressionSplitter(OperatorContext context, VectorAccessible incoming,
                             ExpressionEvaluationOptions options, boolean isDecimalV2Enabled) {
     this(context, incoming, options, new GandivaPushdownSieve(isDecimalV2Enabled),
@@ -162,6 +175,15 @@ public class ExpressionSplitter implements AutoCloseable {
     if (checkExcessiveSplits) {
       flipCodeGenSplitter = new ExpressionSplitter(context, incoming, options.flipPreferredCodeGen(), gandivaSplitHelper,
         "_flipped_" + outputPrefix, false, this.vectorContainer);
+
+      if (options.getAdaptiveTrialBatches() > 0 && codeGenOption != SupportedEngines.CodeGenOption.GandivaOnly) {
+        adaptiveSplitter = new ExpressionSplitter(context, incoming, options.flipPreferredCodeGen(), gandivaSplitHelper,
+          "_adaptive_" + outputPrefix, false, this.vectorContainer);
+        if (adaptiveSplitter.preferredEngine == preferredEngine) {
+          // only one engine is available
+          adaptiveSplitter = null;
+        }
+      }
     }
     this.maxSplitsPerExpression = context.getOptions().getOption(ExecConstants
       .MAX_SPLITS_PER_EXPRESSION);
@@ -184,6 +206,48 @@ public class ExpressionSplitter implements AutoCloseable {
     return splitExpressions.size() - (numExprsInGandiva + numExprsInJava);
   }
 
+  public int getNumGandivaCacheHits() {
+    int hits = 0;
+    for (SplitStageExecutor splitStageExecutor : execPipeline) {
+      hits += splitStageExecutor.getGandivaCacheHits();
+    }
+    if (adaptiveSplitter != null) {
+      hits += adaptiveSplitter.getNumGandivaCacheHits();
+    }
+    return hits;
+  }
+
+  public int getNumGandivaCacheMisses() {
+    int misses = 0;
+    for (SplitStageExecutor splitStageExecutor : execPipeline) {
+      misses += splitStageExecutor.getGandivaCacheMisses();
+    }
+    if (adaptiveSplitter != null) {
+      misses += adaptiveSplitter.getNumGandivaCacheMisses();
+    }
+    return misses;
+  }
+
+  // number of batches evaluated while timing the two engines
+  public int getNumAdaptiveTrialBatches() {
+    return adaptiveSelector == null ? 0 : adaptiveSelector.getTrialBatches();
+  }
+
+  // cost of the preferred engine in nanos per thousand records, 0 if not timed
+  public long getAdaptivePreferredCost() {
+    return adaptiveSelector == null ? 0 : adaptiveSelector.getPreferredCost();
+  }
+
+  // cost of the other engine in nanos per thousand records, 0 if not timed
+  public long getAdaptiveAlternateCost() {
+    return adaptiveSelector == null ? 0 : adaptiveSelector.getAlternateCost();
+  }
+
+  // 1 if the other engine was picked to evaluate the expressions
+  public int getNumAdaptiveEngineSwitches() {
+    return adaptiveSelector != null && adaptiveSelector.getChoice() == AdaptiveEngineSelector.Choice.ALTERNATE ? 1 : 0;
+  }
+
   // Splits the given expression
   private ExpressionSplit splitExpression(NamedExpression namedExpression) throws Exception {
     SupportedEngines executionEngine = new SupportedEngines();
@@ -310,6 +374,7 @@ public class ExpressionSplitter implements AutoCloseable {
   // Add one expression to be split
   public ValueVector addExpr(VectorContainer outgoing, NamedExpression namedExpression) throws Exception {
     ExpressionSplit split = addToSplitter(incoming, namedExpression);
+    addToAdaptiveSplitter(namedExpression);
     LogicalExpression expr = split.getNamedExpression().getExpr();
     Field outputField = expr.getCompleteType().toField(namedExpression.getRef());
     return outgoing.addOrGet(outputField);
@@ -367,11 +432,47 @@ public class ExpressionSplitter implements AutoCloseable {
     }
     printDebugInfoForSplits(namedExpression.getExpr(), split, splitsForExpression);
     splitExpressions.addAll(splitsForExpression);
-    flipCodeGenSplitter.currentExprSplits.clear();
+    if (flipCodeGenSplitter != null) {
+      flipCodeGenSplitter.currentExprSplits.clear();
+    }
     this.currentExprSplits.clear();
     return split;
   }
 
+  // Split the expression for the other engine too, when the engine is picked at runtime
+  private void addToAdaptiveSplitter(NamedExpression namedExpression) throws Exception {
+    if (adaptiveSplitter == null) {
+      return;
+    }
+
+    LogicalExpression originalExpr = CodeGenerationContextRemover.removeCodeGenContext(namedExpression.getExpr());
+    adaptiveKey.append(ExpressionStringBuilder.toString(originalExpr)).append(';');
+    final LogicalExpression exprWithOtherCodeGen = context.getClassProducer()
+      .materializeAndAllowComplex(adaptiveSplitter.options, originalExpr, incoming);
+    adaptiveSplitter.addToSplitter(incoming, new NamedExpression(exprWithOtherCodeGen, namedExpression.getRef()));
+  }
+
+  // Look up or start timing the two engines, once all the expressions are added
+  private void startAdaptiveSelection(String operation) {
+    if (adaptiveSplitter == null) {
+      return;
+    }
+
+    adaptiveSelector = new AdaptiveEngineSelector(preferredEngine + ":" + operation + ":" + adaptiveKey,
+      options.getAdaptiveTrialBatches());
+    logger.debug("Adaptive engine selection for {} starts with {}", adaptiveKey, adaptiveSelector.getChoice());
+  }
+
+  // true if the pipeline of the preferred engine evaluates some of the batches
+  private boolean needsPreferredPipeline() {
+    return adaptiveSelector == null || adaptiveSelector.getChoice() != AdaptiveEngineSelector.Choice.ALTERNATE;
+  }
+
+  // true if the pipeline of the other engine evaluates some of the batches
+  private boolean needsAlternatePipeline() {
+    return adaptiveSelector != null && adaptiveSelector.getChoice() != AdaptiveEngineSelector.Choice.PREFERRED;
+  }
+
   private void verifySplitsInGandiva() throws Exception {
     if (codeGenOption != SupportedEngines.CodeGenOption.GandivaOnly) {
       return;
@@ -392,8 +493,14 @@ public class ExpressionSplitter implements AutoCloseable {
   public VectorContainer setupProjector(VectorContainer outgoing, Stopwatch javaCodeGenWatch, Stopwatch gandivaCodeGenWatch)
     throws Exception {
     verifySplitsInGandiva();
-    createPipeline();
-    projectorSetup(outgoing, javaCodeGenWatch, gandivaCodeGenWatch);
+    startAdaptiveSelection("project");
+    if (needsPreferredPipeline()) {
+      createPipeline();
+      projectorSetup(outgoing, javaCodeGenWatch, gandivaCodeGenWatch);
+    }
+    if (needsAlternatePipeline()) {
+      adaptiveSplitter.setupProjector(outgoing, javaCodeGenWatch, gandivaCodeGenWatch);
+    }
     return vectorContainer;
   }
 
@@ -402,9 +509,18 @@ public class ExpressionSplitter implements AutoCloseable {
                           Stopwatch javaCodeGenWatch,
                           Stopwatch gandivaCodeGenWatch) throws Exception {
     addToSplitter(incoming, namedExpression);
+    addToAdaptiveSplitter(namedExpression);
     verifySplitsInGandiva();
-    createPipeline();
-    filterSetup(outgoing, javaCodeGenWatch, gandivaCodeGenWatch);
+    startAdaptiveSelection("filter");
+    if (needsPreferredPipeline()) {
+      createPipeline();
+      filterSetup(outgoing, javaCodeGenWatch, gandivaCodeGenWatch);
+    }
+    if (needsAlternatePipeline()) {
+      adaptiveSplitter.verifySplitsInGandiva();
+      adaptiveSplitter.createPipeline();
+      adaptiveSplitter.filterSetup(outgoing, javaCodeGenWatch, gandivaCodeGenWatch);
+    }
   }
 
   // This is invoked in case of an exception to release all buffers that have been allocated
@@ -416,6 +532,22 @@ public class ExpressionSplitter implements AutoCloseable {
 
   // project operator
   public void projectRecords(int recordsToConsume, Stopwatch javaCodeGenWatch, Stopwatch gandivaCodeGenWatch) throws Exception {
+    if (adaptiveSelector == null) {
+      evaluateProjector(recordsToConsume, javaCodeGenWatch, gandivaCodeGenWatch);
+      return;
+    }
+
+    final boolean alternate = adaptiveSelector.useAlternate();
+    final long start = System.nanoTime();
+    if (alternate) {
+      adaptiveSplitter.evaluateProjector(recordsToConsume, javaCodeGenWatch, gandivaCodeGenWatch);
+    } else {
+      evaluateProjector(recordsToConsume, javaCodeGenWatch, gandivaCodeGenWatch);
+    }
+    adaptiveSelector.record(alternate, recordsToConsume, System.nanoTime() - start);
+  }
+
+  private void evaluateProjector(int recordsToConsume, Stopwatch javaCodeGenWatch, Stopwatch gandivaCodeGenWatch) throws Exception {
     try {
       for (int i = 0; i < execPipeline.size(); i++) {
         SplitStageExecutor executor = execPipeline.get(i);
@@ -429,6 +561,23 @@ public class ExpressionSplitter implements AutoCloseable {
 
   // filter data
   public int filterData(int records, Stopwatch javaCodeGenWatch, Stopwatch gandivaCodeGenWatch) throws Exception {
+    if (adaptiveSelector == null) {
+      return evaluateFilter(records, javaCodeGenWatch, gandivaCodeGenWatch);
+    }
+
+    final boolean alternate = adaptiveSelector.useAlternate();
+    final long start = System.nanoTime();
+    final int filtered;
+    if (alternate) {
+      filtered = adaptiveSplitter.evaluateFilter(records, javaCodeGenWatch, gandivaCodeGenWatch);
+    } else {
+      filtered = evaluateFilter(records, javaCodeGenWatch, gandivaCodeGenWatch);
+    }
+    adaptiveSelector.record(alternate, records, System.nanoTime() - start);
+    return filtered;
+  }
+
+  private int evaluateFilter(int records, Stopwatch javaCodeGenWatch, Stopwatch gandivaCodeGenWatch) throws Exception {
     try {
       for (int i = 0; i < execPipeline.size() - 1; i++) {
         SplitStageExecutor executor = execPipeline.get(i);
@@ -445,7 +594,7 @@ public class ExpressionSplitter implements AutoCloseable {
 
   @Override
   public void close() throws Exception {
-    AutoCloseables.close(execPipeline, splitExpressions);
+    AutoCloseables.close(Iterables.concat(execPipeline, splitExpressions, Collections.singletonList(adaptiveSplitter)));
   }
 
   // Generate unique name for the split
@@ -201,6 +201,24 @@ class SplitStageExecutor implements AutoCloseable {
     javaCodeGenWatch.stop();
   }
 
+  // number of gandiva modules found compiled in the cache
+  int getGandivaCacheHits() {
+    int hits = nativeProjectorBuilder.getCacheHits();
+    if (nativeFilter != null && nativeFilter.isCacheHit()) {
+      hits++;
+    }
+    return hits;
+  }
+
+  // number of gandiva modules compiled, and added to the cache
+  int getGandivaCacheMisses() {
+    int misses = nativeProjectorBuilder.getCacheMisses();
+    if (nativeFilter != null && nativeFilter.isCached() && !nativeFilter.isCacheHit()) {
+      misses++;
+    }
+    return misses;
+  }
+
   // setup evaluation of projector for all splits
   void setupProjector(VectorContainer outgoing, Stopwatch javaCodeGenWatch, Stopwatch gandivaCodeGenWatch) throws GandivaException {
     for(ExpressionSplit split : Iterables.concat(javaSplits, gandivaSplits)) {
@@ -410,6 +410,10 @@ public class HadoopFileSystem
   @Override
   public Iterable<FileBlockLocation> getFileBlockLocations(FileAttributes file, long start, long len) throws IOException {
     if (!(file instanceof FileStatusWrapper)) {
+      if (file != null && file.getPath() != null && file.isRegularFile()) {
+        // attributes not obtained from this file system, as the ones of saved directory listings
+        return getFileBlockLocations(file.getPath(), start, len);
+      }
       throw new ProviderMismatchException();
     }
     final FileStatus status = ((FileStatusWrapper) file).getFileStatus();
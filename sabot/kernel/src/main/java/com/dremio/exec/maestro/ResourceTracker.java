@@ -121,6 +121,8 @@ public class ResourceTracker implements AutoCloseable {
       observer.resourcesScheduled(resourceSchedulingDecisionInfo);
 
     } catch (ExecutionException|InterruptedException e) {
+      // give up the place in the queue if the query is no longer waiting for it
+      resourceSchedulingResult.getResourceSetFuture().cancel(false);
       // if the execution exception was caused by a ResourceAllocationException, throw the cause instead
       Throwables.propagateIfPossible(e.getCause(), ResourceAllocationException.class);
       // otherwise, wrap into an ExecutionSetupException
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.physical.base;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Parquet settings of a writer, overriding the session options.
+ */
+public class ParquetWriterOptions {
+  // compression codec, or null to use the session option
+  private final String compression;
+  // columns to write a bloom filter for, in addition to the ones of the session option
+  private final List<String> bloomFilterColumns;
+
+  @JsonCreator
+  public ParquetWriterOptions(
+    @JsonProperty("compression") String compression,
+    @JsonProperty("bloomFilterColumns") List<String> bloomFilterColumns) {
+    this.compression = compression;
+    this.bloomFilterColumns = bloomFilterColumns == null ? ImmutableList.of() : ImmutableList.copyOf(bloomFilterColumns);
+  }
+
+  public String getCompression() {
+    return compression;
+  }
+
+  public List<String> getBloomFilterColumns() {
+    return bloomFilterColumns;
+  }
+}
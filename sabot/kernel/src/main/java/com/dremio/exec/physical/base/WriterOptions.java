@@ -16,6 +16,7 @@
 package com.dremio.exec.physical.base;
 
 import java.util.List;
+import java.util.Locale;
 
 import org.apache.calcite.plan.RelTraitSet;
 import org.apache.calcite.rel.type.RelDataType;
@@ -43,6 +44,26 @@ public class WriterOptions {
     CREATE,
     INSERT
   }
+
+  /**
+   * Space filling curve used to cluster the records on the sort columns, instead of sorting them
+   * lexicographically.
+   */
+  public enum ClusteringCurve {
+    ZORDER,
+    HILBERT;
+
+    /**
+     * @param option value of a clustering option, "none", "zorder" or "hilbert"
+     * @return the curve, or null if the records should not be clustered
+     */
+    public static ClusteringCurve fromOption(String option) {
+      if (option == null || option.isEmpty() || "none".equalsIgnoreCase(option)) {
+        return null;
+      }
+      return valueOf(option.toUpperCase(Locale.ROOT));
+    }
+  }
 //  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(WriterOptions.class);
 
   public static final WriterOptions DEFAULT = new WriterOptions(null, ImmutableList.<String>of(),
@@ -61,6 +82,8 @@ public class WriterOptions {
   private final IcebergWriterOperation icebergWriterOperation;
   private final ByteString extendedProperty;
   private final boolean outputLimitEnabled;
+  private final ParquetWriterOptions parquetWriterOptions;
+  private final ClusteringCurve clusteringCurve;
 
   public WriterOptions(
     Integer ringCount,
@@ -89,6 +112,42 @@ public class WriterOptions {
          singleWriter, recordLimit, icebergWriterOperation, extendedProperty, false, Long.MAX_VALUE);
   }
 
+  public WriterOptions(
+    Integer ringCount,
+    List<String> partitionColumns,
+    List<String> sortColumns,
+    List<String> distributionColumns,
+    PartitionDistributionStrategy partitionDistributionStrategy,
+    boolean singleWriter,
+    long recordLimit,
+    IcebergWriterOperation icebergWriterOperation,
+    ByteString extendedProperty,
+    boolean outputLimitEnabled,
+    long outputLimitSize
+  ) {
+    this(ringCount, partitionColumns, sortColumns, distributionColumns, partitionDistributionStrategy,
+         singleWriter, recordLimit, icebergWriterOperation, extendedProperty, outputLimitEnabled, outputLimitSize, null);
+  }
+
+  public WriterOptions(
+    Integer ringCount,
+    List<String> partitionColumns,
+    List<String> sortColumns,
+    List<String> distributionColumns,
+    PartitionDistributionStrategy partitionDistributionStrategy,
+    boolean singleWriter,
+    long recordLimit,
+    IcebergWriterOperation icebergWriterOperation,
+    ByteString extendedProperty,
+    boolean outputLimitEnabled,
+    long outputLimitSize,
+    ParquetWriterOptions parquetWriterOptions
+  ) {
+    this(ringCount, partitionColumns, sortColumns, distributionColumns, partitionDistributionStrategy,
+         singleWriter, recordLimit, icebergWriterOperation, extendedProperty, outputLimitEnabled, outputLimitSize,
+         parquetWriterOptions, null);
+  }
+
   @JsonCreator
   public WriterOptions(
     @JsonProperty("ringCount") Integer ringCount,
@@ -101,7 +160,9 @@ public class WriterOptions {
     @JsonProperty("icebergWriterOperation") IcebergWriterOperation icebergWriterOperation,
     @JsonProperty("extendedProperty") ByteString extendedProperty,
     @JsonProperty("outputLimitEnabled") boolean outputLimitEnabled,
-    @JsonProperty("outputLimitSize") long outputLimitSize
+    @JsonProperty("outputLimitSize") long outputLimitSize,
+    @JsonProperty("parquetWriterOptions") ParquetWriterOptions parquetWriterOptions,
+    @JsonProperty("clusteringCurve") ClusteringCurve clusteringCurve
     ) {
     this.ringCount = ringCount;
     this.partitionColumns = partitionColumns;
@@ -114,6 +175,8 @@ public class WriterOptions {
     this.extendedProperty = extendedProperty;
     this.outputLimitEnabled = outputLimitEnabled;
     this.outputLimitSize = outputLimitSize;
+    this.parquetWriterOptions = parquetWriterOptions;
+    this.clusteringCurve = clusteringCurve;
   }
 
   public Integer getRingCount() {
@@ -160,7 +223,8 @@ public class WriterOptions {
 
   public WriterOptions withRecordLimit(long recordLimit) {
     return new WriterOptions(this.ringCount, this.partitionColumns, this.sortColumns, this.distributionColumns,
-      this.partitionDistributionStrategy, this.singleWriter, recordLimit, this.icebergWriterOperation, this.extendedProperty);
+      this.partitionDistributionStrategy, this.singleWriter, recordLimit, this.icebergWriterOperation, this.extendedProperty,
+      false, Long.MAX_VALUE, this.parquetWriterOptions, this.clusteringCurve);
   }
 
   public long getOutputLimitSize() {
@@ -170,18 +234,50 @@ public class WriterOptions {
   public WriterOptions withOutputLimitEnabled(boolean outputLimitEnabled) {
     return new WriterOptions(this.ringCount, this.partitionColumns, this.sortColumns, this.distributionColumns,
                              this.partitionDistributionStrategy, this.singleWriter, this.recordLimit,
-                             this.icebergWriterOperation, this.extendedProperty, outputLimitEnabled, this.outputLimitSize);
+                             this.icebergWriterOperation, this.extendedProperty, outputLimitEnabled, this.outputLimitSize,
+                             this.parquetWriterOptions, this.clusteringCurve);
   }
 
   public WriterOptions withOutputLimitSize(long outputLimitSize) {
     return new WriterOptions(this.ringCount, this.partitionColumns, this.sortColumns, this.distributionColumns,
                              this.partitionDistributionStrategy, this.singleWriter, this.recordLimit,
-                             this.icebergWriterOperation, this.extendedProperty, this.outputLimitEnabled, outputLimitSize);
+                             this.icebergWriterOperation, this.extendedProperty, this.outputLimitEnabled, outputLimitSize,
+                             this.parquetWriterOptions, this.clusteringCurve);
   }
 
   public WriterOptions withPartitionColumns(List<String> partitionColumns) {
     return new WriterOptions(this.ringCount, partitionColumns, this.sortColumns, this.distributionColumns,
-      this.partitionDistributionStrategy, this.singleWriter, this.recordLimit, this.icebergWriterOperation, this.extendedProperty);
+      this.partitionDistributionStrategy, this.singleWriter, this.recordLimit, this.icebergWriterOperation, this.extendedProperty,
+      false, Long.MAX_VALUE, this.parquetWriterOptions, this.clusteringCurve);
+  }
+
+  public ParquetWriterOptions getParquetWriterOptions() {
+    return parquetWriterOptions;
+  }
+
+  public WriterOptions withParquetWriterOptions(ParquetWriterOptions parquetWriterOptions) {
+    return new WriterOptions(this.ringCount, this.partitionColumns, this.sortColumns, this.distributionColumns,
+                             this.partitionDistributionStrategy, this.singleWriter, this.recordLimit,
+                             this.icebergWriterOperation, this.extendedProperty, this.outputLimitEnabled, this.outputLimitSize,
+                             parquetWriterOptions, this.clusteringCurve);
+  }
+
+  public ClusteringCurve getClusteringCurve() {
+    return clusteringCurve;
+  }
+
+  /**
+   * @return true if the records should be clustered on the sort columns
+   */
+  public boolean hasClustering() {
+    return clusteringCurve != null && sortColumns != null && sortColumns.size() > 1;
+  }
+
+  public WriterOptions withClusteringCurve(ClusteringCurve clusteringCurve) {
+    return new WriterOptions(this.ringCount, this.partitionColumns, this.sortColumns, this.distributionColumns,
+                             this.partitionDistributionStrategy, this.singleWriter, this.recordLimit,
+                             this.icebergWriterOperation, this.extendedProperty, this.outputLimitEnabled, this.outputLimitSize,
+                             this.parquetWriterOptions, clusteringCurve);
   }
 
   public IcebergWriterOperation getIcebergWriterOperation() {
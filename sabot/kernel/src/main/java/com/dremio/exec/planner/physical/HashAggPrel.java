@@ -173,6 +173,10 @@ public class HashAggPrel extends AggPrelBase implements Prel{
     if (!canVectorize(creator, child)) {
       return false;
     }
+    /* NDV and variable width MIN/MAX accumulators can be spilled unless disabled */
+    if (creator.getContext().getOptions().getOption(ExecConstants.ENABLE_VECTORIZED_SPILL_VARCHAR_NDV_ACCUMULATOR)) {
+      return true;
+    }
     boolean useSpill = true;
     final BatchSchema childSchema = child.getProps().getSchema();
     for(NamedExpression ne : aggExprs) {
@@ -344,7 +348,8 @@ public class HashAggPrel extends AggPrelBase implements Prel{
         canVectorize,
         canSpill,
         1.0f,
-        hashTableBatchSize);
+        hashTableBatchSize,
+        operPhase == OperatorPhase.PHASE_1of2);
   }
 
 
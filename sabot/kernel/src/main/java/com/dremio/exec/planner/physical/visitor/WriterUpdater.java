@@ -16,6 +16,7 @@
 package com.dremio.exec.planner.physical.visitor;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -34,18 +35,23 @@ import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.rex.RexUtil;
 
 import com.dremio.common.exceptions.UserException;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.physical.base.WriterOptions;
 import com.dremio.exec.planner.common.MoreRelOptUtil;
 import com.dremio.exec.planner.physical.DistributionTrait;
+import com.dremio.exec.planner.physical.DistributionTrait.DistributionField;
 import com.dremio.exec.planner.physical.DistributionTrait.DistributionType;
 import com.dremio.exec.planner.physical.DistributionTraitDef;
 import com.dremio.exec.planner.physical.HashPrelUtil;
+import com.dremio.exec.planner.physical.HashToRandomExchangePrel;
 import com.dremio.exec.planner.physical.Prel;
+import com.dremio.exec.planner.physical.PrelUtil;
 import com.dremio.exec.planner.physical.ProjectAllowDupPrel;
 import com.dremio.exec.planner.physical.ProjectPrel;
 import com.dremio.exec.planner.physical.SortPrel;
 import com.dremio.exec.planner.physical.WriterPrel;
 import com.dremio.exec.planner.sql.SqlOperatorImpl;
+import com.dremio.sabot.op.cluster.ClusteringKeyPrel;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.FluentIterable;
@@ -57,6 +63,8 @@ import com.google.common.collect.Sets;
  * Insert additional operators before writing to impose various types of operations including:
  *  - Create a hashed value to use for sorting when doing DISTRIBUTE BY
  *  - Sorting the data (on DISTRIBUTE BY as well as the local sort field(s))
+ *  - Create a clustering key to sort on instead of the local sort fields, when the data is clustered,
+ *    and range partition the records on it across the writers
  *  - Create a change detection field to create separate files for partitions.
  */
 public class WriterUpdater extends BasePrelVisitor<Prel, Void, RuntimeException> {
@@ -131,20 +139,11 @@ public class WriterUpdater extends BasePrelVisitor<Prel, Void, RuntimeException>
       }
 
       // if sorted, add those as well.
-      if (options.hasSort()) {
-        List<Integer> sortRequestKeys = getFieldIndices(options.getSortColumns(), project.getRowType());
-        for(Integer key : sortRequestKeys){
-          if(sortedKeys.contains(key)){
-            logger.warn("Rejecting sort key {} since it is already included in partition clause.", key);
-            continue;
-          }
-          sortKeys.add(key);
-        }
-      }
+      final Prel sortInput = addSortKeys(project, options, sortedKeys, sortKeys);
 
       final RelCollation collation = getCollation(prel.getTraitSet(), sortKeys);
 
-      final Prel sort = SortPrel.create(project.getCluster(), project.getTraitSet().plus(collation), project, collation);
+      final Prel sort = removeClusteringKey(project, SortPrel.create(sortInput.getCluster(), sortInput.getTraitSet().plus(collation), sortInput, collation));
 
       List<Integer> fieldIndices = new ArrayList<>();
       // add bucket field.
@@ -168,19 +167,10 @@ public class WriterUpdater extends BasePrelVisitor<Prel, Void, RuntimeException>
       sortedKeys.addAll(partitionKeys);
 
       // then sort by sort keys, if available.
-      if (options.hasSort()) {
-        List<Integer> sortRequestKeys = getFieldIndices(options.getSortColumns(), input.getRowType());
-        for(Integer key : sortRequestKeys){
-          if(sortedKeys.contains(key)){
-            logger.warn("Rejecting sort key {} since it is already included in partition clause.", key);
-            continue;
-          }
-          sortKeys.add(key);
-        }
-      }
+      final Prel sortInput = addSortKeys(input, options, sortedKeys, sortKeys);
 
       final RelCollation collation = getCollation(prel.getTraitSet(), sortKeys);
-      final Prel sort = SortPrel.create(input.getCluster(), input.getTraitSet().plus(collation), input, collation);
+      final Prel sort = removeClusteringKey(input, SortPrel.create(sortInput.getCluster(), sortInput.getTraitSet().plus(collation), sortInput, collation));
 
       // we need to sort by the partitions.
       final Prel changeDetectionPrel = addChangeDetectionProject(sort, getFieldIndices(options.getPartitionColumns(), input.getRowType()));
@@ -190,8 +180,10 @@ public class WriterUpdater extends BasePrelVisitor<Prel, Void, RuntimeException>
     } else if(options.hasSort()){
       // no partitions or distributions.
       // insert a sort on sort fields.
-      final RelCollation collation = getCollation(prel.getTraitSet(), getFieldIndices(options.getSortColumns(), input.getRowType()));
-      final Prel sort = SortPrel.create(input.getCluster(), input.getTraitSet().plus(collation), input, collation);
+      final List<Integer> sortKeys = new ArrayList<>();
+      final Prel sortInput = addRangePartitioning(addSortKeys(input, options, Collections.<Integer>emptySet(), sortKeys));
+      final RelCollation collation = getCollation(prel.getTraitSet(), sortKeys);
+      final Prel sort = removeClusteringKey(input, SortPrel.create(sortInput.getCluster(), sortInput.getTraitSet().plus(collation), sortInput, collation));
       final WriterPrel writer = new WriterPrel(prel.getCluster(), prel.getTraitSet(), sort, prel.getCreateTableEntry(), prel.getExpectedInboundRowType());
       return writer;
 
@@ -200,6 +192,80 @@ public class WriterUpdater extends BasePrelVisitor<Prel, Void, RuntimeException>
     }
   }
 
+  /**
+   * Add the sort columns that are not already sorted on to the sort keys. If the records are
+   * clustered on the sort columns, a clustering key is appended to the input and sorted on instead.
+   *
+   * @return the input of the sort
+   */
+  private static Prel addSortKeys(Prel input, WriterOptions options, Set<Integer> sortedKeys, List<Integer> sortKeys) {
+    if (!options.hasSort()) {
+      return input;
+    }
+
+    final List<Integer> sortRequestKeys = new ArrayList<>();
+    for(Integer key : getFieldIndices(options.getSortColumns(), input.getRowType())){
+      if(sortedKeys.contains(key)){
+        logger.warn("Rejecting sort key {} since it is already included in partition clause.", key);
+        continue;
+      }
+      sortRequestKeys.add(key);
+    }
+
+    // clustering on a single column is the same as sorting on it.
+    if (!options.hasClustering() || sortRequestKeys.size() < 2) {
+      sortKeys.addAll(sortRequestKeys);
+      return input;
+    }
+
+    final ClusteringKeyPrel clusteringKey = new ClusteringKeyPrel(input.getCluster(), input.getTraitSet(), input, sortRequestKeys, options.getClusteringCurve());
+    sortKeys.add(clusteringKey.getKeyIndex());
+    return clusteringKey;
+  }
+
+  /**
+   * Distribute the clustered records on the range of their clustering key, so that each writer
+   * gets records of a few ranges of the curve and writes files with tight bounds on every
+   * clustering column. The records are not redistributed if they are written by a single writer,
+   * or if they are not clustered.
+   *
+   * @return the input of the sort
+   */
+  private static Prel addRangePartitioning(Prel sortInput) {
+    if (!(sortInput instanceof ClusteringKeyPrel)
+      || !PrelUtil.getPlannerSettings(sortInput.getCluster()).getOptions().getOption(ExecConstants.WRITER_CLUSTERING_RANGE_PARTITION)) {
+      return sortInput;
+    }
+
+    final DistributionTrait inputDistribution = sortInput.getTraitSet().getTrait(DistributionTraitDef.INSTANCE);
+    if (inputDistribution != null && inputDistribution.getType() == DistributionType.SINGLETON) {
+      return sortInput;
+    }
+
+    final ClusteringKeyPrel clusteringKey = (ClusteringKeyPrel) sortInput;
+    final DistributionTrait distribution = new DistributionTrait(DistributionType.HASH_DISTRIBUTED,
+      ImmutableList.of(new DistributionField(clusteringKey.getRangeIndex())));
+    return new HashToRandomExchangePrel(clusteringKey.getCluster(), clusteringKey.getTraitSet().plus(distribution),
+      clusteringKey, distribution.getFields());
+  }
+
+  /**
+   * Drop the clustering key and its range from the sorted records, if there are, so that the
+   * writer gets the fields of the original input.
+   */
+  private static Prel removeClusteringKey(Prel input, Prel sort) {
+    if (sort.getRowType().getFieldCount() == input.getRowType().getFieldCount()) {
+      return sort;
+    }
+
+    final RelDataType inputRowType = input.getRowType();
+    final List<RexNode> exprs = new ArrayList<>();
+    for (final RelDataTypeField field : inputRowType.getFieldList()) {
+      exprs.add(RexInputRef.of(field.getIndex(), sort.getRowType()));
+    }
+    return ProjectPrel.create(sort.getCluster(), sort.getTraitSet().plus(RelCollations.EMPTY), sort, exprs, inputRowType);
+  }
+
   private static RelCollation getCollation(RelTraitSet set, List<Integer> keys) {
     return set.canonize(RelCollations.of(FluentIterable.from(keys)
         .transform(new Function<Integer, RelFieldCollation>() {
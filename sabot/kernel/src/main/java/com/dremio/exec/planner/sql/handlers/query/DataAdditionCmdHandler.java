@@ -159,7 +159,8 @@ public abstract class DataAdditionCmdHandler implements SqlToPlanHandler {
         Long.MAX_VALUE,
         getIcebergWriterOperation(),
         extendedByteString
-      );
+      ).withClusteringCurve(WriterOptions.ClusteringCurve.fromOption(
+        config.getContext().getOptions().getOption(ExecConstants.WRITER_CLUSTERING_VALIDATOR)));
 
       // Convert the query to Dremio Logical plan and insert a writer operator on top.
       Rel drel = this.convertToDrel(
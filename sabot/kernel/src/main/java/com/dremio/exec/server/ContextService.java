@@ -44,6 +44,7 @@ import com.dremio.exec.server.options.SystemOptionManager;
 import com.dremio.exec.store.CatalogService;
 import com.dremio.exec.store.sys.accel.AccelerationListManager;
 import com.dremio.exec.store.sys.accel.AccelerationManager;
+import com.dremio.exec.store.sys.jobs.JobsListManager;
 import com.dremio.exec.work.WorkStats;
 import com.dremio.options.OptionManager;
 import com.dremio.options.OptionValidatorListing;
@@ -81,6 +82,7 @@ public class ContextService implements Service, Provider<SabotContext> {
   private final Provider<QueryObserverFactory> queryObserverFactory;
   private final Provider<AccelerationManager> accelerationManager;
   private final Provider<AccelerationListManager> accelerationListManager;
+  private final Provider<JobsListManager> jobsListManager;
   private final Provider<NamespaceService.Factory> namespaceServiceFactoryProvider;
   private final Provider<DatasetListingService> datasetListingServiceProvider;
   private final Provider<UserService> userService;
@@ -115,6 +117,7 @@ public class ContextService implements Service, Provider<SabotContext> {
     Provider<QueryObserverFactory> queryObserverFactory,
     Provider<AccelerationManager> accelerationManager,
     Provider<AccelerationListManager> accelerationListManager,
+    Provider<JobsListManager> jobsListManager,
     Provider<NamespaceService.Factory> namespaceServiceFactory,
     Provider<DatasetListingService> datasetListingServiceProvider,
     Provider<UserService> userService,
@@ -136,7 +139,7 @@ public class ContextService implements Service, Provider<SabotContext> {
     this(bootstrapContext, coord, resourceInformationProvider, workStats,
       kvStoreProvider, fabric, conduitServer, userServer,
       materializationDescriptorProvider, queryObserverFactory, accelerationManager,
-      accelerationListManager, namespaceServiceFactory, datasetListingServiceProvider, userService, catalogService,
+      accelerationListManager, jobsListManager, namespaceServiceFactory, datasetListingServiceProvider, userService, catalogService,
       conduitProvider, informationSchemaStub, viewCreatorFactory, spillService, connectionReaderProvider, credentialsService,
       jobResultInfoProvider, optionManagerProvider, systemOptionManagerProvider, engineIdProvider, subEngineIdProvider, optionValidatorProvider,
       allRoles ? EnumSet.allOf(ClusterCoordinator.Role.class) : Sets.newHashSet(ClusterCoordinator.Role.EXECUTOR));
@@ -155,6 +158,7 @@ public class ContextService implements Service, Provider<SabotContext> {
     Provider<QueryObserverFactory> queryObserverFactory,
     Provider<AccelerationManager> accelerationManager,
     Provider<AccelerationListManager> accelerationListManager,
+    Provider<JobsListManager> jobsListManager,
     Provider<NamespaceService.Factory> namespaceServiceFactoryProvider,
     Provider<DatasetListingService> datasetListingServiceProvider,
     Provider<UserService> userService,
@@ -185,6 +189,7 @@ public class ContextService implements Service, Provider<SabotContext> {
     this.queryObserverFactory = queryObserverFactory;
     this.accelerationManager = accelerationManager;
     this.accelerationListManager = accelerationListManager;
+    this.jobsListManager = jobsListManager;
     this.namespaceServiceFactoryProvider = namespaceServiceFactoryProvider;
     this.datasetListingServiceProvider = datasetListingServiceProvider;
     this.userService = userService;
@@ -274,6 +279,7 @@ public class ContextService implements Service, Provider<SabotContext> {
       queryObserverFactory,
       accelerationManager,
       accelerationListManager,
+      jobsListManager,
       catalogService,
       masterCoordinatorConduit.get(),
       informationSchemaStub,
@@ -48,6 +48,7 @@ import com.dremio.exec.store.CatalogService;
 import com.dremio.exec.store.dfs.FileSystemWrapper;
 import com.dremio.exec.store.sys.accel.AccelerationListManager;
 import com.dremio.exec.store.sys.accel.AccelerationManager;
+import com.dremio.exec.store.sys.jobs.JobsListManager;
 import com.dremio.exec.work.WorkStats;
 import com.dremio.options.OptionManager;
 import com.dremio.options.OptionValidatorListing;
@@ -91,6 +92,7 @@ public class SabotContext implements AutoCloseable {
   private final Provider<QueryObserverFactory> queryObserverFactory;
   private final Provider<AccelerationManager> accelerationManager;
   private final Provider<AccelerationListManager> accelerationListManager;
+  private final Provider<JobsListManager> jobsListManager;
   private final Provider<CatalogService> catalogService;
   private final ConduitProvider conduitProvider;
   private final Provider<InformationSchemaServiceBlockingStub> informationSchemaStub;
@@ -127,6 +129,7 @@ public class SabotContext implements AutoCloseable {
       Provider<QueryObserverFactory> queryObserverFactory,
       Provider<AccelerationManager> accelerationManager,
       Provider<AccelerationListManager> accelerationListManager,
+      Provider<JobsListManager> jobsListManager,
       Provider<CatalogService> catalogService,
       ConduitProvider conduitProvider,
       Provider<InformationSchemaServiceBlockingStub> informationSchemaStub,
@@ -153,6 +156,7 @@ public class SabotContext implements AutoCloseable {
     this.lpPersistence = lpPersistence;
     this.accelerationManager = accelerationManager;
     this.accelerationListManager = accelerationListManager;
+    this.jobsListManager = jobsListManager;
     this.connectionReaderProvider = connectionReaderProvider;
 
     this.reader = new PhysicalPlanReader(config, classpathScan, lpPersistence, endpoint, catalogService, this);
@@ -220,6 +224,7 @@ public class SabotContext implements AutoCloseable {
     Provider<QueryObserverFactory> queryObserverFactory,
     Provider<AccelerationManager> accelerationManager,
     Provider<AccelerationListManager> accelerationListManager,
+    Provider<JobsListManager> jobsListManager,
     Provider<CatalogService> catalogService,
     ConduitProvider conduitProvider,
     Provider<InformationSchemaServiceBlockingStub> informationSchemaStub,
@@ -251,6 +256,7 @@ public class SabotContext implements AutoCloseable {
     this.lpPersistence = lpPersistence;
     this.accelerationManager = accelerationManager;
     this.accelerationListManager = accelerationListManager;
+    this.jobsListManager = jobsListManager;
     this.connectionReaderProvider = connectionReaderProvider;
 
     // Escaping 'this'
@@ -480,6 +486,10 @@ public class SabotContext implements AutoCloseable {
     return accelerationListManager.get();
   }
 
+  public JobsListManager getJobsListManager() {
+    return jobsListManager.get();
+  }
+
   public boolean isCoordinator() {
     return roles.contains(Role.COORDINATOR);
   }
@@ -71,7 +71,9 @@ import com.dremio.exec.store.CatalogService;
 import com.dremio.exec.store.sys.SystemTablePluginConfigProvider;
 import com.dremio.exec.store.sys.accel.AccelerationListManager;
 import com.dremio.exec.store.sys.accel.AccelerationManager;
+import com.dremio.exec.store.sys.jobs.JobsListManager;
 import com.dremio.exec.util.GuavaPatcher;
+import com.dremio.exec.work.NodeStatsExecutorLoadProvider;
 import com.dremio.exec.work.WorkStats;
 import com.dremio.exec.work.protector.ForemenTool;
 import com.dremio.exec.work.protector.ForemenWorkManager;
@@ -85,7 +87,8 @@ import com.dremio.resource.ClusterResourceInformation;
 import com.dremio.resource.GroupResourceInformation;
 import com.dremio.resource.QueryCancelTool;
 import com.dremio.resource.ResourceAllocator;
-import com.dremio.resource.basic.BasicResourceAllocator;
+import com.dremio.resource.loadaware.ExecutorLoadProvider;
+import com.dremio.resource.loadaware.LoadAwareResourceAllocator;
 import com.dremio.sabot.exec.ExecToCoordTunnelCreator;
 import com.dremio.sabot.exec.FragmentWorkManager;
 import com.dremio.sabot.exec.TaskPoolInitializer;
@@ -516,7 +519,8 @@ public class SabotNode implements AutoCloseable {
                 0,
                 Long.MAX_VALUE,
                 config.getSabotConfig().getInt(RpcConstants.BIT_RPC_TIMEOUT),
-                bootstrap.getExecutor()
+                bootstrap.getExecutor(),
+                config.getSabotConfig().getInt(ExecConstants.BIT_SERVER_RPC_DATA_CONNECTIONS)
         );
         bind(FabricService.class).toInstance(fabricService);
 
@@ -556,8 +560,10 @@ public class SabotNode implements AutoCloseable {
 
         bind(SystemTablePluginConfigProvider.class).toInstance(new SystemTablePluginConfigProvider());
 
-        bind(ResourceAllocator.class).toInstance(new BasicResourceAllocator(getProvider(ClusterCoordinator.class),
-          getProvider(GroupResourceInformation.class)));
+        final ExecutorLoadProvider executorLoadProvider = new NodeStatsExecutorLoadProvider(getProvider(SabotContext.class),
+          getProvider(ExecutorServiceClientFactory.class));
+        bind(ResourceAllocator.class).toInstance(new LoadAwareResourceAllocator(getProvider(ClusterCoordinator.class),
+          getProvider(GroupResourceInformation.class), () -> executorLoadProvider));
 
         bind(ExecutorSelectorFactory.class).toInstance(new ExecutorSelectorFactoryImpl());
 
@@ -675,6 +681,7 @@ public class SabotNode implements AutoCloseable {
               queryObserverFactory,
               accelerationManager,
               accelerationListManager,
+              () -> JobsListManager.NO_OP,
               namespaceServiceFactory,
               datasetListingService,
               userService,
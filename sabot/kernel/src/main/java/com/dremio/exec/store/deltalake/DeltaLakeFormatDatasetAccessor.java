@@ -42,6 +42,7 @@ import com.dremio.exec.store.dfs.FormatPlugin;
 import com.dremio.exec.store.dfs.PhysicalDatasetUtils;
 import com.dremio.io.file.FileSystem;
 import com.dremio.options.Options;
+import com.dremio.options.TypeValidators.PositiveLongValidator;
 import com.dremio.sabot.exec.store.deltalake.proto.DeltaLakeProtobuf;
 import com.dremio.service.namespace.NamespaceKey;
 import com.dremio.service.namespace.dataset.proto.DatasetType;
@@ -54,6 +55,10 @@ import com.dremio.service.namespace.file.proto.FileConfig;
 @Options
 public class DeltaLakeFormatDatasetAccessor implements FileDatasetHandle {
   private static final Logger logger = LoggerFactory.getLogger(DeltaLakeFormatDatasetAccessor.class);
+
+  // Number of commit and checkpoint files of a DeltaLake table read concurrently
+  public static final PositiveLongValidator LOG_READ_PARALLELISM = new PositiveLongValidator("store.deltalake.log_read.parallelism", 128, 16);
+
   private final DatasetType type;
   private final NamespaceKey tableSchemaPath;
   private final FileSelection fileSelection;
@@ -64,13 +69,14 @@ public class DeltaLakeFormatDatasetAccessor implements FileDatasetHandle {
                                         FileSystem fs,
                                         FileSelection fileSelection,
                                         NamespaceKey tableSchemaPath,
-                                        FormatPlugin formatPlugin) {
+                                        DeltaLakeFormatPlugin formatPlugin) {
 
     this.type = type;
     this.fileSelection = fileSelection;
     this.tableSchemaPath = tableSchemaPath;
     this.formatPlugin = formatPlugin;
-    this.deltaTable = new DeltaLakeTable(fs, fileSelection);
+    this.deltaTable = new DeltaLakeTable(fs, fileSelection, formatPlugin.getSnapshotCache(),
+      (int) formatPlugin.getContext().getOptionManager().getOption(LOG_READ_PARALLELISM));
   }
 
   @Override
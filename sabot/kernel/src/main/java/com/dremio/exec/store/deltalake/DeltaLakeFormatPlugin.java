@@ -51,6 +51,7 @@ public class DeltaLakeFormatPlugin extends BaseFormatPlugin {
   private final DeltaLakeFormatMatcher formatMatcher;
   private final DeltaLakeFormatConfig config;
   private FormatPlugin dataFormatPlugin;
+  private final DeltaLogSnapshotCache snapshotCache;
 
   public DeltaLakeFormatPlugin(String name, SabotContext context, DeltaLakeFormatConfig formatConfig, FileSystemPlugin<?> fsPlugin) {
       super(context, fsPlugin);
@@ -61,6 +62,7 @@ public class DeltaLakeFormatPlugin extends BaseFormatPlugin {
       this.formatMatcher = new DeltaLakeFormatMatcher(this);
       this.dataFormatPlugin = new ParquetFormatPlugin(name, context,
         new ParquetFormatConfig(), fsPlugin);
+      this.snapshotCache = new DeltaLogSnapshotCache();
   }
 
   @Override
@@ -78,6 +80,10 @@ public class DeltaLakeFormatPlugin extends BaseFormatPlugin {
     return context;
   }
 
+  public DeltaLogSnapshotCache getSnapshotCache() {
+    return snapshotCache;
+  }
+
   @Override
   public boolean supportsAutoPartitioning() {
     return false;
@@ -17,9 +17,15 @@
 package com.dremio.exec.store.deltalake;
 
 import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -27,6 +33,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.dremio.connector.metadata.BytesOutput;
+import com.dremio.exec.store.TimedRunnable;
 import com.dremio.exec.store.dfs.FileSelection;
 import com.dremio.io.file.FileAttributes;
 import com.dremio.io.file.FileSystem;
@@ -34,17 +41,30 @@ import com.dremio.io.file.Path;
 import com.dremio.sabot.exec.store.deltalake.proto.DeltaLakeProtobuf;
 import com.dremio.sabot.exec.store.deltalake.proto.DeltaLakeProtobuf.DeltaLakeDatasetXAttr;
 import com.dremio.service.namespace.file.proto.FileType;
+import com.google.common.annotations.VisibleForTesting;
 
 /**
  * This class is responsible for orchestrating preparation of an overall snapshot by parsing oll Delta commit log files.
+ *
+ * The replay starts from the most recent of the latest complete checkpoint and the latest snapshot of the table found in
+ * the {@link DeltaLogSnapshotCache}, and only the commits written after it are read. The parts of a multi-part
+ * checkpoint and the remaining commit files are parsed in parallel.
  */
 @NotThreadSafe
 public class DeltaLakeTable {
     private static final Logger logger = LoggerFactory.getLogger(DeltaLakeTable.class);
 
+    private static final Pattern COMMIT_FILE = Pattern.compile("(\\d{20})\\.json");
+    private static final Pattern CHECKPOINT_FILE = Pattern.compile("(\\d{20})\\.checkpoint\\.parquet");
+    private static final Pattern MULTIPART_CHECKPOINT_FILE = Pattern.compile("(\\d{20})\\.checkpoint\\.(\\d{10})\\.(\\d{10})\\.parquet");
+    // number of most recent versions of the table looked up in the snapshot cache before falling back to the checkpoint
+    private static final long MAX_CACHED_VERSIONS_LOOKUP = 100;
+
     private DeltaLogSnapshot deltaLogSnapshot = null;
     private final FileSystem fs;
     private final Path deltaLogDir;
+    private final DeltaLogSnapshotCache snapshotCache;
+    private final int parallelism;
 
     private long commitReadStartVersion = Long.MAX_VALUE;
     private long commitReadEndVersion = Long.MIN_VALUE;
@@ -52,10 +72,12 @@ public class DeltaLakeTable {
     private long closestLocalSnapshot = -1L;
 
 
-    public DeltaLakeTable(FileSystem fs, FileSelection fileSelection) {
+    public DeltaLakeTable(FileSystem fs, FileSelection fileSelection, DeltaLogSnapshotCache snapshotCache, int parallelism) {
         this.fs = fs;
         final Path rootDir = Path.of(fileSelection.getSelectionRoot());
         this.deltaLogDir = rootDir.resolve(DeltaConstants.DELTA_LOG_DIR);
+        this.snapshotCache = snapshotCache;
+        this.parallelism = parallelism;
     }
 
     public DeltaLogSnapshot getConsolidatedSnapshot() throws IOException {
@@ -64,36 +86,220 @@ public class DeltaLakeTable {
     }
 
     private void loadSnapshotIfMissing() throws IOException {
-        /**
-         * NOTE: This function impl is done in order to facilitate E2E validations and is not the final version.
-         * Final version will be covered as part of DX-26750
-         */
-        DeltaLogReader commitFileParser = DeltaLogReader.getInstance(FileType.JSON);
-        deltaLogSnapshot = null;
-        for (Path commitLogJson : getDeltaCommitFiles()) {
-            // TODO parse commit files in parallel
-            // TODO write logic to parse parquet, and start from checkpoint
-            final DeltaLogSnapshot thisSnapshot = commitFileParser.parseMetadata(fs, commitLogJson);
-            if (deltaLogSnapshot == null) {
-                deltaLogSnapshot = thisSnapshot;
+        if (deltaLogSnapshot != null) {
+            return;
+        }
+
+        final DeltaLogFiles logFiles = listLogFiles();
+        final long latestVersion = logFiles.getLatestVersion();
+        if (latestVersion < 0) {
+            logger.debug("No commit or checkpoint files found in {}", deltaLogDir);
+            return;
+        }
+
+        final Map.Entry<Long, List<Path>> checkpoint = logFiles.getLatestCompleteCheckpoint();
+        long baseVersion = -1L;
+        DeltaLogSnapshot snapshot = null;
+
+        // Most recent snapshot of the table already consolidated by a previous refresh. Refreshes are expected to be more
+        // frequent than checkpoints, so only the most recent versions are looked up
+        final long lowestVersion = Math.max(checkpoint == null ? 0 : checkpoint.getKey(), latestVersion - MAX_CACHED_VERSIONS_LOOKUP + 1);
+        for (long version = latestVersion; version >= lowestVersion; version--) {
+            snapshot = snapshotCache.get(deltaLogDir, version, logFiles.getModificationTime(version));
+            if (snapshot != null) {
+                baseVersion = version;
+                closestLocalSnapshot = version;
+                logger.debug("Using cached snapshot of {} at version {}", deltaLogDir, version);
+                break;
+            }
+        }
+
+        if (snapshot == null && checkpoint != null) {
+            baseVersion = checkpoint.getKey();
+            closestCheckpointVersion = baseVersion;
+            snapshot = merge(null, parseInParallel("Read DeltaLake checkpoint", checkpoint.getValue(), FileType.PARQUET));
+            snapshotCache.put(deltaLogDir, baseVersion, logFiles.getModificationTime(baseVersion), snapshot);
+        }
+
+        final NavigableMap<Long, Path> commits = logFiles.commits.tailMap(baseVersion, false);
+        long expectedVersion = baseVersion + 1;
+        for (long version : commits.keySet()) {
+            if (version != expectedVersion) {
+                throw new IllegalStateException(String.format("Missing commit file for version %d in %s", expectedVersion, deltaLogDir));
+            }
+            expectedVersion++;
+        }
+
+        snapshot = merge(snapshot, parseInParallel("Read DeltaLake commits", new ArrayList<>(commits.values()), FileType.JSON));
+        commitReadStartVersion = commits.isEmpty() ? baseVersion : commits.firstKey();
+        commitReadEndVersion = latestVersion;
+        if (snapshot != null && !commits.isEmpty()) {
+            snapshotCache.put(deltaLogDir, latestVersion, logFiles.getModificationTime(latestVersion), snapshot);
+        }
+        deltaLogSnapshot = snapshot;
+    }
+
+    private DeltaLogSnapshot merge(DeltaLogSnapshot base, List<DeltaLogSnapshot> snapshots) {
+        DeltaLogSnapshot merged = base;
+        for (DeltaLogSnapshot snapshot : snapshots) {
+            if (merged == null) {
+                merged = snapshot;
             } else {
-                deltaLogSnapshot.merge(thisSnapshot);
+                merged.merge(snapshot);
             }
-            commitReadStartVersion = Math.min(commitReadStartVersion, thisSnapshot.getVersionId());
-            commitReadEndVersion = Math.max(commitReadEndVersion, thisSnapshot.getVersionId());
         }
+        return merged;
     }
 
-    private List<Path> getDeltaCommitFiles() throws IOException {
-        // Makeshift code, which returns all files present in _delta_log folder
-        final List<Path> logFiles = StreamSupport.stream(fs.list(deltaLogDir).spliterator(), false)
-                .map(FileAttributes::getPath).sorted()
-                .filter(p -> p.getName().endsWith(".json"))
-                .collect(Collectors.toList());
-        logger.debug("Identified log files {}", logFiles);
+    private List<DeltaLogSnapshot> parseInParallel(String activity, List<Path> logFiles, FileType fileType) throws IOException {
+        if (logFiles.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        final DeltaLogReader reader = DeltaLogReader.getInstance(fileType);
+        final List<TimedRunnable<DeltaLogSnapshot>> parsers = new ArrayList<>(logFiles.size());
+        for (Path logFile : logFiles) {
+            parsers.add(new DeltaLogFileParser(reader, logFile));
+        }
+        return TimedRunnable.run(activity + " " + deltaLogDir, logger, parsers, parallelism);
+    }
+
+    private DeltaLogFiles listLogFiles() throws IOException {
+        final DeltaLogFiles logFiles = new DeltaLogFiles();
+        for (FileAttributes attributes : fs.list(deltaLogDir)) {
+            logFiles.add(attributes.getPath(), attributes.lastModifiedTime().toMillis());
+        }
+        logger.debug("Identified commit files {} and checkpoints {}", logFiles.commits, logFiles.checkpoints);
         return logFiles;
     }
 
+    /**
+     * @return the table version of a commit or checkpoint file.
+     */
+    static long getVersion(Path logFile) {
+        final String name = logFile.getName();
+        return Long.parseLong(name.substring(0, name.indexOf('.')));
+    }
+
+    /**
+     * Commit and checkpoint files of the _delta_log directory, by table version.
+     */
+    @VisibleForTesting
+    static final class DeltaLogFiles {
+        private final NavigableMap<Long, Path> commits = new TreeMap<>();
+        // parts of the checkpoints, indexed by part number. Single part checkpoints have one part with number 1.
+        private final NavigableMap<Long, Path[]> checkpoints = new TreeMap<>();
+        // modification times of the commit files, and of the first part of the checkpoints
+        private final Map<Long, Long> commitModificationTimes = new HashMap<>();
+        private final Map<Long, Long> checkpointModificationTimes = new HashMap<>();
+
+        void add(Path logFile) {
+            add(logFile, 0L);
+        }
+
+        void add(Path logFile, long modificationTime) {
+            final String name = logFile.getName();
+            Matcher matcher = COMMIT_FILE.matcher(name);
+            if (matcher.matches()) {
+                final long version = Long.parseLong(matcher.group(1));
+                commits.put(version, logFile);
+                commitModificationTimes.put(version, modificationTime);
+                return;
+            }
+
+            matcher = CHECKPOINT_FILE.matcher(name);
+            if (matcher.matches()) {
+                final long version = Long.parseLong(matcher.group(1));
+                checkpoints.put(version, new Path[]{logFile});
+                checkpointModificationTimes.put(version, modificationTime);
+                return;
+            }
+
+            matcher = MULTIPART_CHECKPOINT_FILE.matcher(name);
+            if (matcher.matches()) {
+                final int part = Integer.parseInt(matcher.group(2));
+                final int numParts = Integer.parseInt(matcher.group(3));
+                if (part < 1 || part > numParts) {
+                    logger.debug("Ignoring checkpoint part {} with invalid part number", logFile);
+                    return;
+                }
+                final Path[] parts = checkpoints.computeIfAbsent(Long.parseLong(matcher.group(1)), v -> new Path[numParts]);
+                if (parts.length == numParts) {
+                    parts[part - 1] = logFile;
+                    if (part == 1) {
+                        checkpointModificationTimes.put(Long.parseLong(matcher.group(1)), modificationTime);
+                    }
+                }
+            }
+            // other files like _last_checkpoint or crc files aren't needed to build the snapshot
+        }
+
+        /**
+         * @return the modification time of the commit file of the given version, or of its checkpoint if the commit
+         * file was cleaned up, or -1 if there is none.
+         */
+        long getModificationTime(long version) {
+            final Long commitModificationTime = commitModificationTimes.get(version);
+            if (commitModificationTime != null) {
+                return commitModificationTime;
+            }
+            return checkpointModificationTimes.getOrDefault(version, -1L);
+        }
+
+        long getLatestVersion() {
+            final long latestCommit = commits.isEmpty() ? -1L : commits.lastKey();
+            final Map.Entry<Long, List<Path>> checkpoint = getLatestCompleteCheckpoint();
+            final long latestCheckpoint = checkpoint == null ? -1L : checkpoint.getKey();
+            return Math.max(latestCommit, latestCheckpoint);
+        }
+
+        /**
+         * @return the version and parts of the latest checkpoint with all parts present, or null if there is none.
+         * A checkpoint that is still being written by another writer could miss some of its parts.
+         */
+        Map.Entry<Long, List<Path>> getLatestCompleteCheckpoint() {
+            for (Map.Entry<Long, Path[]> checkpoint : checkpoints.descendingMap().entrySet()) {
+                final List<Path> parts = new ArrayList<>(checkpoint.getValue().length);
+                for (Path part : checkpoint.getValue()) {
+                    if (part == null) {
+                        break;
+                    }
+                    parts.add(part);
+                }
+                if (parts.size() == checkpoint.getValue().length) {
+                    return new AbstractMap.SimpleImmutableEntry<>(checkpoint.getKey(), parts);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * TimedRunnable that parses one commit or checkpoint file
+     */
+    private final class DeltaLogFileParser extends TimedRunnable<DeltaLogSnapshot> {
+        private final DeltaLogReader reader;
+        private final Path logFile;
+
+        private DeltaLogFileParser(DeltaLogReader reader, Path logFile) {
+            this.reader = reader;
+            this.logFile = logFile;
+        }
+
+        @Override
+        protected DeltaLogSnapshot runInner() throws Exception {
+            return reader.parseMetadata(fs, logFile);
+        }
+
+        @Override
+        protected IOException convertToIOException(Exception e) {
+            if (e instanceof IOException) {
+                return (IOException) e;
+            }
+            return new IOException("Failed to read DeltaLake log file " + logFile, e);
+        }
+    }
+
     // Use the last read version as the read signature
     public BytesOutput readSignature() throws IOException {
         if (!fs.exists(deltaLogDir) || !fs.isDirectory(deltaLogDir)) {
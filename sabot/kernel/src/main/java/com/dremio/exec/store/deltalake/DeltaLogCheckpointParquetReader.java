@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dremio.exec.store.deltalake;
+
+import static com.dremio.exec.store.deltalake.DeltaConstants.DELTA_FIELD_ADD;
+import static com.dremio.exec.store.deltalake.DeltaConstants.DELTA_FIELD_COMMIT_INFO;
+import static com.dremio.exec.store.deltalake.DeltaConstants.DELTA_FIELD_METADATA;
+import static com.dremio.exec.store.deltalake.DeltaConstants.DELTA_FIELD_METADATA_PARTITION_COLS;
+import static com.dremio.exec.store.deltalake.DeltaConstants.DELTA_FIELD_METADATA_SCHEMA_STRING;
+import static com.dremio.exec.store.deltalake.DeltaConstants.DELTA_FIELD_PROTOCOL;
+import static com.dremio.exec.store.deltalake.DeltaConstants.DELTA_TIMESTAMP;
+import static com.dremio.exec.store.deltalake.DeltaConstants.PROTOCOL_MIN_READER_VERSION;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.arrow.util.Preconditions;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.DelegatingSeekableInputStream;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.io.SeekableInputStream;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.dremio.io.FSInputStream;
+import com.dremio.io.file.FileAttributes;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * DeltaLog reader for one part of a DeltaLake checkpoint parquet file. A checkpoint holds the state of the table at its
+ * version, as one row per action, so the snapshot carries absolute file, byte and row counts rather than deltas.
+ */
+public class DeltaLogCheckpointParquetReader implements DeltaLogReader {
+    private static final Logger logger = LoggerFactory.getLogger(DeltaLogCheckpointParquetReader.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    static final String CHECKPOINT_OPERATION = "CHECKPOINT";
+
+    private static final String ADD_SIZE = "size";
+    private static final String ADD_STATS = "stats";
+    private static final String STATS_NUM_RECORDS = "numRecords";
+    private static final String METADATA_FORMAT = "format";
+    private static final String METADATA_FORMAT_PROVIDER = "provider";
+    private static final String METADATA_CREATED_TIME = "createdTime";
+
+    // Only the columns needed to build the snapshot are read from the checkpoint
+    private static final Map<String, Set<String>> PROJECTED_COLUMNS = ImmutableMap.of(
+            DELTA_FIELD_ADD, ImmutableSet.of(ADD_SIZE, ADD_STATS),
+            DELTA_FIELD_METADATA, ImmutableSet.of(METADATA_FORMAT, DELTA_FIELD_METADATA_SCHEMA_STRING,
+                    DELTA_FIELD_METADATA_PARTITION_COLS, METADATA_CREATED_TIME),
+            DELTA_FIELD_COMMIT_INFO, ImmutableSet.of(DELTA_TIMESTAMP),
+            DELTA_FIELD_PROTOCOL, ImmutableSet.of(PROTOCOL_MIN_READER_VERSION));
+
+    DeltaLogCheckpointParquetReader() {
+        // to be instantiated only from DeltaLogReader
+    }
+
+    @Override
+    public DeltaLogSnapshot parseMetadata(FileSystem fs, Path checkpointFilePath) throws IOException {
+        final FileAttributes attributes = fs.getFileAttributes(checkpointFilePath);
+        long numFiles = 0;
+        long numBytes = 0;
+        long numRows = 0;
+        // the snapshot is ordered against the commits by the time of the commit, not of the file which could have been
+        // rewritten or copied. Checkpoints rarely carry a commitInfo, in which case the table creation time is used
+        long commitTimestamp = -1L;
+        long createdTime = 0L;
+        String schemaString = null;
+        List<String> partitionCols = new ArrayList<>();
+
+        try (ParquetFileReader reader = ParquetFileReader.open(new CheckpointInputFile(fs, checkpointFilePath, attributes.size()))) {
+            final MessageType fileSchema = reader.getFileMetaData().getSchema();
+            final MessageType projection = project(fileSchema);
+            reader.setRequestedSchema(projection);
+            final MessageColumnIO columnIO = new ColumnIOFactory().getColumnIO(projection, fileSchema);
+
+            PageReadStore rowGroup;
+            while ((rowGroup = reader.readNextRowGroup()) != null) {
+                final RecordReader<Group> recordReader = columnIO.getRecordReader(rowGroup, new GroupRecordConverter(projection));
+                for (long i = 0; i < rowGroup.getRowCount(); i++) {
+                    final Group action = recordReader.read();
+                    if (has(action, DELTA_FIELD_ADD)) {
+                        final Group add = action.getGroup(DELTA_FIELD_ADD, 0);
+                        numFiles++;
+                        numBytes += has(add, ADD_SIZE) ? add.getLong(ADD_SIZE, 0) : 0L;
+                        numRows += has(add, ADD_STATS) ? OBJECT_MAPPER.readTree(add.getString(ADD_STATS, 0)).path(STATS_NUM_RECORDS).asLong(0L) : 0L;
+                    } else if (has(action, DELTA_FIELD_METADATA)) {
+                        final Group metadata = action.getGroup(DELTA_FIELD_METADATA, 0);
+                        checkFormat(metadata);
+                        schemaString = has(metadata, DELTA_FIELD_METADATA_SCHEMA_STRING) ? metadata.getString(DELTA_FIELD_METADATA_SCHEMA_STRING, 0) : null;
+                        partitionCols = getPartitionColumns(metadata);
+                        createdTime = has(metadata, METADATA_CREATED_TIME) ? metadata.getLong(METADATA_CREATED_TIME, 0) : 0L;
+                    } else if (has(action, DELTA_FIELD_PROTOCOL)) {
+                        final Group protocol = action.getGroup(DELTA_FIELD_PROTOCOL, 0);
+                        final int minReaderVersion = has(protocol, PROTOCOL_MIN_READER_VERSION) ? protocol.getInteger(PROTOCOL_MIN_READER_VERSION, 0) : 1;
+                        Preconditions.checkState(minReaderVersion <= 1,
+                                "Protocol version %s is incompatible for Dremio plugin", minReaderVersion);
+                    } else if (has(action, DELTA_FIELD_COMMIT_INFO)) {
+                        final Group commitInfo = action.getGroup(DELTA_FIELD_COMMIT_INFO, 0);
+                        if (has(commitInfo, DELTA_TIMESTAMP)) {
+                            commitTimestamp = commitInfo.getLong(DELTA_TIMESTAMP, 0);
+                        }
+                    }
+                }
+            }
+        }
+
+        logger.debug("Read {} files from checkpoint {}", numFiles, checkpointFilePath);
+        final DeltaLogSnapshot snapshot = new DeltaLogSnapshot(CHECKPOINT_OPERATION, numFiles, numBytes, numRows,
+                commitTimestamp >= 0 ? commitTimestamp : createdTime, DeltaLakeTable.getVersion(checkpointFilePath), true);
+        if (schemaString != null) {
+            snapshot.setSchema(schemaString, partitionCols);
+        }
+        return snapshot;
+    }
+
+    private static MessageType project(MessageType fileSchema) {
+        final List<Type> columns = new ArrayList<>();
+        for (Type column : fileSchema.getFields()) {
+            final Set<String> children = PROJECTED_COLUMNS.get(column.getName());
+            if (children == null || column.isPrimitive()) {
+                continue;
+            }
+
+            final List<Type> projectedChildren = new ArrayList<>();
+            for (Type child : column.asGroupType().getFields()) {
+                if (children.contains(child.getName())) {
+                    projectedChildren.add(child);
+                }
+            }
+            if (!projectedChildren.isEmpty()) {
+                columns.add(new GroupType(column.getRepetition(), column.getName(), projectedChildren));
+            }
+        }
+        return new MessageType(fileSchema.getName(), columns);
+    }
+
+    private static void checkFormat(Group metadata) {
+        String format = "parquet";
+        if (has(metadata, METADATA_FORMAT)) {
+            final Group formatGroup = metadata.getGroup(METADATA_FORMAT, 0);
+            if (has(formatGroup, METADATA_FORMAT_PROVIDER)) {
+                format = formatGroup.getString(METADATA_FORMAT_PROVIDER, 0);
+            }
+        }
+        Preconditions.checkState(format.equalsIgnoreCase("parquet"), "Non-parquet delta lake tables aren't supported.");
+    }
+
+    private static List<String> getPartitionColumns(Group metadata) {
+        final List<String> partitionCols = new ArrayList<>();
+        if (!has(metadata, DELTA_FIELD_METADATA_PARTITION_COLS)) {
+            return partitionCols;
+        }
+
+        // three level list encoding: partitionColumns -> repeated list -> element
+        final Group list = metadata.getGroup(DELTA_FIELD_METADATA_PARTITION_COLS, 0);
+        for (int i = 0; i < list.getFieldRepetitionCount(0); i++) {
+            final Group element = list.getGroup(0, i);
+            if (element.getFieldRepetitionCount(0) > 0) {
+                partitionCols.add(element.getString(0, 0));
+            }
+        }
+        return partitionCols;
+    }
+
+    private static boolean has(Group group, String field) {
+        return group.getType().containsField(field) && group.getFieldRepetitionCount(field) > 0;
+    }
+
+    /**
+     * Exposes a file of the Dremio {@link FileSystem} to the parquet reader.
+     */
+    private static final class CheckpointInputFile implements InputFile {
+        private final FileSystem fs;
+        private final Path path;
+        private final long length;
+
+        private CheckpointInputFile(FileSystem fs, Path path, long length) {
+            this.fs = fs;
+            this.path = path;
+            this.length = length;
+        }
+
+        @Override
+        public long getLength() {
+            return length;
+        }
+
+        @Override
+        public SeekableInputStream newStream() throws IOException {
+            final FSInputStream is = fs.open(path);
+            return new DelegatingSeekableInputStream(is) {
+                @Override
+                public long getPos() throws IOException {
+                    return is.getPosition();
+                }
+
+                @Override
+                public void seek(long newPos) throws IOException {
+                    is.setPosition(newPos);
+                }
+            };
+        }
+    }
+}
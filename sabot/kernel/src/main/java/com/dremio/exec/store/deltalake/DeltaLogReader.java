@@ -30,7 +30,8 @@ public interface DeltaLogReader {
         switch (fileType) {
             case JSON:
                 return new DeltaLogCommitJsonReader();
-                //TODO Add DeltaLogParquetParser for checkpoint files
+            case PARQUET:
+                return new DeltaLogCheckpointParquetReader();
             default:
                 throw new IllegalArgumentException("Commit file type is not supported " + fileType);
         }
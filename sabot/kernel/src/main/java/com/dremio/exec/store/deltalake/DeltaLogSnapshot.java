@@ -21,8 +21,6 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 
-import org.apache.arrow.util.VisibleForTesting;
-
 /**
  * Captures DeltaLake commit and metadata information present in one log file. The log file could be a JSON or checkpoint.parquet
  * The class also provides merging capability in order to evaluate an overall snapshot.
@@ -116,7 +114,6 @@ public final class DeltaLogSnapshot implements Comparable<DeltaLogSnapshot> {
         this.versionId = Math.max(this.versionId, that.versionId);
     }
 
-    @VisibleForTesting
     public DeltaLogSnapshot clone() {
         DeltaLogSnapshot clone = new DeltaLogSnapshot(this.operationType, this.netFilesAdded, this.netBytesAdded,
                 this.netOutputRows, this.timestamp, this.versionId, this.isCheckpoint);
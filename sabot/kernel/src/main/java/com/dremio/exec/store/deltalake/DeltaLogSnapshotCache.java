@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.deltalake;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import com.dremio.io.file.Path;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps the consolidated snapshots of recently read DeltaLake tables, keyed by the _delta_log directory, the table
+ * version they represent and the modification time of the log file of that version. A metadata refresh starts from the
+ * most recent cached version of the table and only replays the commits written after it.
+ *
+ * The modification time identifies the table the version belongs to: when a table is dropped and created again at the
+ * same location, its log files are written again, so the snapshots of the former table are no longer found.
+ *
+ * Snapshots are mutable, so copies are handed in and out of the cache.
+ */
+public class DeltaLogSnapshotCache {
+    private static final long MAX_ENTRIES = 1024;
+    private static final long EXPIRE_AFTER_ACCESS_MINUTES = 60;
+
+    private final Cache<Key, DeltaLogSnapshot> snapshots;
+
+    public DeltaLogSnapshotCache() {
+        this(MAX_ENTRIES, EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES);
+    }
+
+    DeltaLogSnapshotCache(long maxEntries, long expireAfterAccess, TimeUnit unit) {
+        this.snapshots = CacheBuilder.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(expireAfterAccess, unit)
+                .build();
+    }
+
+    /**
+     * @return a copy of the snapshot of the table at the given version, or null if it isn't cached.
+     */
+    public DeltaLogSnapshot get(Path deltaLogDir, long version, long logFileModificationTime) {
+        final DeltaLogSnapshot snapshot = snapshots.getIfPresent(new Key(deltaLogDir, version, logFileModificationTime));
+        return snapshot == null ? null : snapshot.clone();
+    }
+
+    public void put(Path deltaLogDir, long version, long logFileModificationTime, DeltaLogSnapshot snapshot) {
+        snapshots.put(new Key(deltaLogDir, version, logFileModificationTime), snapshot.clone());
+    }
+
+    public void invalidateAll() {
+        snapshots.invalidateAll();
+    }
+
+    private static final class Key {
+        private final String deltaLogDir;
+        private final long version;
+        private final long logFileModificationTime;
+
+        private Key(Path deltaLogDir, long version, long logFileModificationTime) {
+            this.deltaLogDir = deltaLogDir.toString();
+            this.version = version;
+            this.logFileModificationTime = logFileModificationTime;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return version == key.version && logFileModificationTime == key.logFileModificationTime
+                    && deltaLogDir.equals(key.deltaLogDir);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(deltaLogDir, version, logFileModificationTime);
+        }
+    }
+}
@@ -165,16 +165,38 @@ public class FileSelection {
   }
 
   public static FileSelection create(final FileSystem fs, final List<String> fullPath) throws IOException {
-    return create(fs, getPathBasedOnFullPath(fullPath));
+    return create(fs, fullPath, null);
   }
 
   // Check if path is actually a full schema path
   public static FileSelection createWithFullSchema(final FileSystem fs, final String parent, final String fullSchemaPath) throws IOException {
-    final Path combined = Path.mergePaths(Path.of(parent), PathUtils.toFSPath(fullSchemaPath));
-    return create(fs, combined);
+    return createWithFullSchema(fs, parent, fullSchemaPath, null);
   }
 
   public static FileSelection create(final FileSystem fs, Path combined) throws IOException {
+    return create(fs, combined, null);
+  }
+
+  public static FileSelection create(final FileSystem fs, final List<String> fullPath, final ParallelRecursiveLister lister) throws IOException {
+    return create(fs, getPathBasedOnFullPath(fullPath), lister);
+  }
+
+  // Check if path is actually a full schema path
+  public static FileSelection createWithFullSchema(final FileSystem fs, final String parent, final String fullSchemaPath,
+                                                   final ParallelRecursiveLister lister) throws IOException {
+    final Path combined = Path.mergePaths(Path.of(parent), PathUtils.toFSPath(fullSchemaPath));
+    return create(fs, combined, lister);
+  }
+
+  /**
+   * Creates a selection of the files and directories under the given path.
+   *
+   * @param fs file system of the path
+   * @param combined path of the selection, possibly with wild cards
+   * @param lister lister of the directories, or null to list them one at a time
+   * @return the selection, or null if no file matches the path
+   */
+  public static FileSelection create(final FileSystem fs, Path combined, final ParallelRecursiveLister lister) throws IOException {
     Stopwatch timer = Stopwatch.createStarted();
 
     // NFS filesystems has delay before files written by executor shows up in the coordinator.
@@ -183,10 +205,14 @@ public class FileSelection {
     fs.exists(combined);
 
     final ImmutableList<FileAttributes> fileAttributes;
-    try(DirectoryStream<FileAttributes> stream = FileSystemUtils.globRecursive(fs, combined, NO_HIDDEN_FILES)) {
-      fileAttributes = ImmutableList.copyOf(stream);
-    } catch (DirectoryIteratorException e) {
-      throw e.getCause();
+    if (lister != null) {
+      fileAttributes = lister.list(combined, NO_HIDDEN_FILES);
+    } else {
+      try (DirectoryStream<FileAttributes> stream = FileSystemUtils.globRecursive(fs, combined, NO_HIDDEN_FILES)) {
+        fileAttributes = ImmutableList.copyOf(stream);
+      } catch (DirectoryIteratorException e) {
+        throw e.getCause();
+      }
     }
 
     logger.trace("Returned files are: {}", fileAttributes);
@@ -70,6 +70,7 @@ import com.dremio.connector.metadata.PartitionChunkListing;
 import com.dremio.connector.metadata.extensions.SupportsReadSignature;
 import com.dremio.connector.metadata.extensions.ValidateMetadataOption;
 import com.dremio.datastore.LegacyProtobufSerializer;
+import com.dremio.datastore.api.LegacyKVStore;
 import com.dremio.exec.ExecConstants;
 import com.dremio.exec.catalog.CurrentSchemaOption;
 import com.dremio.exec.catalog.DatasetSplitsPointer;
@@ -106,6 +107,7 @@ import com.dremio.exec.store.StoragePlugin;
 import com.dremio.exec.store.StoragePluginRulesFactory;
 import com.dremio.exec.store.TimedRunnable;
 import com.dremio.exec.store.dfs.SchemaMutability.MutationType;
+import com.dremio.exec.store.file.proto.FileProtobuf.DirectoryListing;
 import com.dremio.exec.store.file.proto.FileProtobuf.FileSystemCachedEntity;
 import com.dremio.exec.store.file.proto.FileProtobuf.FileUpdateKey;
 import com.dremio.exec.store.iceberg.IcebergOpCommitter;
@@ -117,6 +119,7 @@ import com.dremio.io.file.FileSystem;
 import com.dremio.io.file.FileSystemUtils;
 import com.dremio.io.file.MorePosixFilePermissions;
 import com.dremio.io.file.Path;
+import com.dremio.options.OptionManager;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.store.easy.proto.EasyProtobuf.EasyDatasetSplitXAttr;
 import com.dremio.sabot.exec.store.parquet.proto.ParquetProtobuf.ParquetDatasetSplitXAttr;
@@ -482,6 +485,25 @@ public class FileSystemPlugin<C extends FileSystemConf<C, ?>> implements Storage
     return getDatasetWithFormat(datasetPath, new PreviousDatasetInfo(null, null, null), fconfig, options, user);
   }
 
+  /**
+   * Creates a lister of the directories of the given file system, or returns null when directories
+   * are to be listed one at a time.
+   */
+  private ParallelRecursiveLister newLister(FileSystem fs) {
+    final OptionManager options = context.getOptionManager();
+    final int parallelism = (int) options.getOption(ParallelRecursiveLister.PARALLELISM);
+    final boolean cacheEnabled = options.getOption(ParallelRecursiveLister.CACHE_ENABLED);
+    if (parallelism <= 1 && !cacheEnabled) {
+      return null;
+    }
+
+    // with impersonation, the listings seen by one user must not be reused for another
+    final LegacyKVStore<String, DirectoryListing> store = cacheEnabled && !config.isImpersonationEnabled()
+        ? context.getKVStoreProvider().getStore(ParallelRecursiveLister.DirectoryListingStoreCreator.class)
+        : null;
+    return new ParallelRecursiveLister(fs, Math.max(1, parallelism), store, ParallelRecursiveLister.storePrefix(name));
+  }
+
   protected FileDatasetHandle getDatasetWithFormat(NamespaceKey datasetPath, PreviousDatasetInfo oldConfig, FormatPluginConfig formatPluginConfig,
                                                        DatasetRetrievalOptions retrievalOptions, String user) throws Exception {
 
@@ -492,11 +514,12 @@ public class FileSystemPlugin<C extends FileSystemConf<C, ?>> implements Storage
     try {
       List<String> parentSchemaPath = new ArrayList<>(fullPath.subList(0, fullPath.size() - 1));
       FileSystem fs = createFS(user);
-      FileSelection fileSelection = FileSelection.create(fs, fullPath);
+      final ParallelRecursiveLister lister = newLister(fs);
+      FileSelection fileSelection = FileSelection.create(fs, fullPath, lister);
       String tableName = datasetPath.getName();
 
       if (fileSelection == null) {
-        fileSelection = FileSelection.createWithFullSchema(fs, PathUtils.toFSPathString(parentSchemaPath), tableName);
+        fileSelection = FileSelection.createWithFullSchema(fs, PathUtils.toFSPathString(parentSchemaPath), tableName, lister);
         if (fileSelection == null) {
           return null; // no table found
         } else {
@@ -1063,7 +1086,7 @@ public class FileSystemPlugin<C extends FileSystemConf<C, ?>> implements Storage
     List<String> fullPath = resolveTableNameToValidPath(tableSchemaPath);
     FileSelection fileSelection;
     try {
-      fileSelection = FileSelection.create(fs, fullPath);
+      fileSelection = FileSelection.create(fs, fullPath, newLister(fs));
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
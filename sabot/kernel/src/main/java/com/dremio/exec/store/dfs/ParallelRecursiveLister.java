@@ -0,0 +1,428 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.dfs;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.NotLinkException;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.GroupPrincipal;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import com.dremio.datastore.api.LegacyKVStore;
+import com.dremio.datastore.api.LegacyKVStore.LegacyFindByRange;
+import com.dremio.datastore.api.LegacyKVStoreCreationFunction;
+import com.dremio.datastore.api.LegacyStoreBuildingFactory;
+import com.dremio.datastore.format.Format;
+import com.dremio.exec.store.file.proto.FileProtobuf.DirectoryEntry;
+import com.dremio.exec.store.file.proto.FileProtobuf.DirectoryListing;
+import com.dremio.io.file.FileAttributes;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+import com.dremio.options.Options;
+import com.dremio.options.TypeValidators.BooleanValidator;
+import com.dremio.options.TypeValidators.LongValidator;
+import com.dremio.options.TypeValidators.RangeLongValidator;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Lists the files and directories matching a glob pattern, and everything under the matching
+ * directories, with the same output as {@link com.dremio.io.file.FileSystemUtils#globRecursive}
+ * but with the directories listed in parallel.
+ *
+ * When given a store, the entries of each listed directory are saved along with the modification
+ * time of the directory, and reused as long as the directory keeps the same modification time.
+ * As adding, removing or renaming an entry changes the modification time of its parent directory,
+ * an unchanged directory only costs a status call instead of a listing. Files rewritten in place
+ * are not detected, which the refresh of file datasets already assumes.
+ *
+ * The saved listings of the directories found removed when listing their parent are deleted, and
+ * the saved listings of a source are deleted along with the source.
+ */
+@Options
+public class ParallelRecursiveLister {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ParallelRecursiveLister.class);
+
+  public static final LongValidator PARALLELISM = new RangeLongValidator("dremio.store.dfs.listing.parallelism", 1, 256, 1);
+  public static final BooleanValidator CACHE_ENABLED = new BooleanValidator("dremio.store.dfs.listing.cache.enabled", false);
+
+  // listings of directories modified this recently are not saved, as entries added within the
+  // granularity of the modification time (or the clock skew) would go unnoticed
+  private static final long RECENTLY_MODIFIED_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+  private final FileSystem fs;
+  private final int parallelism;
+  private final LegacyKVStore<String, DirectoryListing> store;
+  private final String storePrefix;
+
+  /**
+   * @param fs file system to list
+   * @param parallelism maximum number of directories listed at the same time
+   * @param store store of the directory listings, or null to always list the directories
+   * @param storePrefix prefix of the keys of the directory listings of this file system
+   */
+  public ParallelRecursiveLister(FileSystem fs, int parallelism, LegacyKVStore<String, DirectoryListing> store, String storePrefix) {
+    Preconditions.checkArgument(parallelism > 0, "Listing parallelism must be positive.");
+    this.fs = fs;
+    this.parallelism = parallelism;
+    this.store = store;
+    this.storePrefix = storePrefix;
+  }
+
+  /**
+   * @return the prefix of the keys of the directory listings of the given source.
+   */
+  public static String storePrefix(String sourceName) {
+    return sourceName + ":";
+  }
+
+  /**
+   * Deletes the saved directory listings of the given source.
+   */
+  public static void deleteListings(LegacyKVStore<String, DirectoryListing> store, String sourceName) {
+    final String start = storePrefix(sourceName);
+    // the keys of the source are the keys between its prefix and the next one
+    final String end = start.substring(0, start.length() - 1) + (char) (start.charAt(start.length() - 1) + 1);
+    final List<String> keys = new ArrayList<>();
+    for (Map.Entry<String, DirectoryListing> entry : store.find(new LegacyFindByRange<>(start, true, end, false))) {
+      keys.add(entry.getKey());
+    }
+    for (String key : keys) {
+      store.delete(key);
+    }
+    logger.debug("Deleted {} saved directory listings of source {}", keys.size(), sourceName);
+  }
+
+  /**
+   * @param pattern glob pattern of the files and directories to list
+   * @param filter filter of the listed paths, a directory rejected by the filter is not listed
+   * @return the matching files and directories, each directory followed by its entries
+   */
+  public ImmutableList<FileAttributes> list(Path pattern, Predicate<Path> filter) throws IOException {
+    final List<FileAttributes> matches;
+    try (DirectoryStream<FileAttributes> stream = fs.glob(pattern, filter)) {
+      matches = ImmutableList.copyOf(stream);
+    } catch (DirectoryIteratorException e) {
+      throw e.getCause();
+    }
+
+    final ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      return pool.invoke(ForkJoinTask.adapt(() -> expand(matches, true, filter)));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Lists the directories among the given entries in parallel.
+   *
+   * @param entries entries of a directory
+   * @param current whether the attributes of the entries are current, or come from a saved listing
+   * @param filter filter of the listed paths
+   * @return the entries accepted by the filter, each directory followed by its entries
+   */
+  private ImmutableList<FileAttributes> expand(List<FileAttributes> entries, boolean current, Predicate<Path> filter) {
+    final ListingTask[] tasks = new ListingTask[entries.size()];
+    for (int i = 0; i < tasks.length; i++) {
+      final FileAttributes entry = entries.get(i);
+      if (entry.isDirectory() && filter.test(entry.getPath())) {
+        tasks[i] = new ListingTask(entry, current, filter);
+        tasks[i].fork();
+      }
+    }
+
+    // join in reverse order of forking, so that the tasks not yet stolen run in this thread
+    final List<?>[] subtrees = new List<?>[tasks.length];
+    for (int i = tasks.length - 1; i >= 0; i--) {
+      if (tasks[i] != null) {
+        subtrees[i] = tasks[i].join();
+      }
+    }
+
+    final ImmutableList.Builder<FileAttributes> result = ImmutableList.builder();
+    for (int i = 0; i < tasks.length; i++) {
+      if (subtrees[i] != null) {
+        @SuppressWarnings("unchecked")
+        final List<FileAttributes> subtree = (List<FileAttributes>) subtrees[i];
+        result.addAll(subtree);
+      } else if (filter.test(entries.get(i).getPath())) {
+        result.add(entries.get(i));
+      }
+    }
+    return result.build();
+  }
+
+  /**
+   * Lists a directory, and returns it followed by its entries.
+   */
+  private final class ListingTask extends RecursiveTask<List<FileAttributes>> {
+    private final FileAttributes directory;
+    private final boolean current;
+    private final Predicate<Path> filter;
+
+    private ListingTask(FileAttributes directory, boolean current, Predicate<Path> filter) {
+      this.directory = directory;
+      this.current = current;
+      this.filter = filter;
+    }
+
+    @Override
+    protected List<FileAttributes> compute() {
+      try {
+        // a directory from a saved listing may have been modified, or removed, since
+        final FileAttributes attributes;
+        try {
+          attributes = current ? directory : fs.getFileAttributes(directory.getPath());
+        } catch (FileNotFoundException e) {
+          deleteSavedListings(directory.getPath());
+          return ImmutableList.of();
+        }
+        final String key = storePrefix + attributes.getPath();
+        final long modificationTime = attributes.lastModifiedTime().toMillis();
+
+        final DirectoryListing saved = store != null && modificationTime > 0 ? store.get(key) : null;
+        if (saved != null && saved.getLastModificationTime() == modificationTime) {
+          logger.trace("Reusing the saved listing of {}", attributes.getPath());
+          final ImmutableList.Builder<FileAttributes> entries = ImmutableList.builder();
+          for (DirectoryEntry entry : saved.getEntriesList()) {
+            entries.add(new SavedFileAttributes(entry));
+          }
+          return withDirectory(attributes, expand(entries.build(), false, filter));
+        }
+
+        final List<FileAttributes> entries;
+        try (DirectoryStream<FileAttributes> stream = store != null ? fs.list(attributes.getPath()) : fs.list(attributes.getPath(), filter)) {
+          entries = ImmutableList.copyOf(stream);
+        } catch (DirectoryIteratorException e) {
+          throw e.getCause();
+        }
+
+        if (store != null && modificationTime > 0 && System.currentTimeMillis() - modificationTime > RECENTLY_MODIFIED_MILLIS) {
+          final DirectoryListing.Builder listing = DirectoryListing.newBuilder()
+              .setLastModificationTime(modificationTime);
+          for (FileAttributes entry : entries) {
+            listing.addEntries(toEntry(entry));
+          }
+          store.put(key, listing.build());
+        } else if (saved != null) {
+          store.delete(key);
+        }
+        if (saved != null) {
+          deleteRemovedDirectories(saved, entries);
+        }
+        return withDirectory(attributes, expand(entries, true, filter));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  /**
+   * Deletes the saved listings of the directories of a saved listing that are no longer listed.
+   */
+  private void deleteRemovedDirectories(DirectoryListing saved, List<FileAttributes> entries) {
+    final Set<String> directories = new HashSet<>();
+    for (FileAttributes entry : entries) {
+      if (entry.isDirectory()) {
+        directories.add(entry.getPath().toString());
+      }
+    }
+    for (DirectoryEntry entry : saved.getEntriesList()) {
+      if (entry.getIsDirectory() && !directories.contains(entry.getPath())) {
+        deleteSavedListings(Path.of(entry.getPath()));
+      }
+    }
+  }
+
+  /**
+   * Deletes the saved listings of a removed directory, and of its subdirectories.
+   */
+  private void deleteSavedListings(Path directory) {
+    final String key = storePrefix + directory;
+    final DirectoryListing saved = store != null ? store.get(key) : null;
+    if (saved == null) {
+      return;
+    }
+
+    logger.trace("Deleting the saved listing of removed directory {}", directory);
+    store.delete(key);
+    for (DirectoryEntry entry : saved.getEntriesList()) {
+      if (entry.getIsDirectory()) {
+        deleteSavedListings(Path.of(entry.getPath()));
+      }
+    }
+  }
+
+  private static List<FileAttributes> withDirectory(FileAttributes directory, List<FileAttributes> entries) {
+    return ImmutableList.<FileAttributes>builder()
+        .add(directory)
+        .addAll(entries)
+        .build();
+  }
+
+  private static DirectoryEntry toEntry(FileAttributes attributes) {
+    final DirectoryEntry.Builder entry = DirectoryEntry.newBuilder()
+        .setPath(attributes.getPath().toString())
+        .setLastModificationTime(attributes.lastModifiedTime().toMillis())
+        .setLength(attributes.size())
+        .setIsDirectory(attributes.isDirectory())
+        .setPermissions(PosixFilePermissions.toString(attributes.permissions()));
+    if (attributes.owner() != null && attributes.owner().getName() != null) {
+      entry.setOwner(attributes.owner().getName());
+    }
+    if (attributes.group() != null && attributes.group().getName() != null) {
+      entry.setGroup(attributes.group().getName());
+    }
+    return entry.build();
+  }
+
+  /**
+   * Attributes of a file or directory from a saved listing.
+   */
+  private static final class SavedFileAttributes implements FileAttributes {
+    private final DirectoryEntry entry;
+    private final Path path;
+
+    private SavedFileAttributes(DirectoryEntry entry) {
+      this.entry = entry;
+      this.path = Path.of(entry.getPath());
+    }
+
+    @Override
+    public Path getPath() {
+      return path;
+    }
+
+    @Override
+    public Path getSymbolicLink() throws IOException {
+      throw new NotLinkException(entry.getPath());
+    }
+
+    @Override
+    public UserPrincipal owner() {
+      return entry::getOwner;
+    }
+
+    @Override
+    public GroupPrincipal group() {
+      return entry::getGroup;
+    }
+
+    @Override
+    public Set<PosixFilePermission> permissions() {
+      return PosixFilePermissions.fromString(entry.getPermissions());
+    }
+
+    @Override
+    public FileTime lastModifiedTime() {
+      return FileTime.fromMillis(entry.getLastModificationTime());
+    }
+
+    @Override
+    public FileTime lastAccessTime() {
+      return FileTime.fromMillis(entry.getLastModificationTime());
+    }
+
+    @Override
+    public FileTime creationTime() {
+      return FileTime.fromMillis(entry.getLastModificationTime());
+    }
+
+    @Override
+    public boolean isRegularFile() {
+      return !entry.getIsDirectory();
+    }
+
+    @Override
+    public boolean isDirectory() {
+      return entry.getIsDirectory();
+    }
+
+    @Override
+    public boolean isSymbolicLink() {
+      return false;
+    }
+
+    @Override
+    public boolean isOther() {
+      return false;
+    }
+
+    @Override
+    public long size() {
+      return entry.getLength();
+    }
+
+    @Override
+    public Object fileKey() {
+      return null;
+    }
+
+    @Override
+    public int hashCode() {
+      return path.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof SavedFileAttributes)) {
+        return false;
+      }
+      return entry.equals(((SavedFileAttributes) obj).entry);
+    }
+
+    @Override
+    public String toString() {
+      return path.toString();
+    }
+  }
+
+  /**
+   * Creator for the store of directory listings.
+   */
+  public static class DirectoryListingStoreCreator implements LegacyKVStoreCreationFunction<String, DirectoryListing> {
+    @Override
+    public LegacyKVStore<String, DirectoryListing> build(LegacyStoreBuildingFactory factory) {
+      return factory.<String, DirectoryListing>newStore()
+        .name("directory_listings")
+        .keyFormat(Format.ofString())
+        .valueFormat(Format.ofProtobuf(DirectoryListing.class))
+        .build();
+    }
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.easy.arrow;
+
+import java.util.Objects;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.util.TransferPair;
+
+import com.dremio.exec.record.RecordBatchData;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.record.VectorWrapper;
+import com.dremio.io.file.Path;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+
+/**
+ * Cache of the record batches read from Arrow files, kept off heap and bounded by the size of their buffers.
+ *
+ * The cached batches are never handed out: each read gets its own vectors, sharing the buffers of the cached batch
+ * instead of copying them, so that it can be released independently of the eviction of the cached batch.
+ */
+public class ArrowBatchCache implements AutoCloseable {
+  private final BufferAllocator allocator;
+  private final Cache<BatchKey, CachedBatch> batches;
+
+  /**
+   * @param allocator allocator the cached batches are accounted to
+   * @param maxBytes maximum size of the buffers of the cached batches
+   */
+  public ArrowBatchCache(BufferAllocator allocator, long maxBytes) {
+    Preconditions.checkArgument(maxBytes > 0, "Cache size must be positive.");
+    this.allocator = allocator;
+    this.batches = CacheBuilder.newBuilder()
+        // a single segment, so that the whole size is available to large batches
+        .concurrencyLevel(1)
+        .maximumWeight(maxBytes)
+        .weigher((BatchKey key, CachedBatch batch) -> batch.size)
+        .removalListener((RemovalListener<BatchKey, CachedBatch>) notification -> notification.getValue().close())
+        .build();
+  }
+
+  /**
+   * Returns the batch at the given offset of the given file, or null if the batch is not cached.
+   *
+   * @param path path of the file
+   * @param offset offset of the batch in the file
+   * @param allocator allocator of the returned batch
+   */
+  public RecordBatchData get(Path path, long offset, BufferAllocator allocator) {
+    final CachedBatch batch = batches.getIfPresent(new BatchKey(path, offset));
+    return batch != null ? batch.share(allocator) : null;
+  }
+
+  /**
+   * Caches the batch at the given offset of the given file. The given batch stays owned by the caller.
+   *
+   * @param path path of the file
+   * @param offset offset of the batch in the file
+   * @param data batch read from the file
+   */
+  public void put(Path path, long offset, RecordBatchData data) {
+    final CachedBatch batch = new CachedBatch(share(data, allocator));
+    if (batch.size == Integer.MAX_VALUE) {
+      // larger than any cache worth having
+      batch.close();
+      return;
+    }
+    batches.put(new BatchKey(path, offset), batch);
+  }
+
+  /**
+   * Drops the cached batches of the files under the given directory.
+   */
+  public void invalidate(Path directory) {
+    final String prefix = directory.toString() + Path.SEPARATOR;
+    batches.asMap().keySet().removeIf(key -> key.path.toString().startsWith(prefix));
+  }
+
+  @Override
+  public void close() {
+    batches.invalidateAll();
+    batches.cleanUp();
+  }
+
+  /**
+   * Returns new vectors sharing the buffers of the given batch.
+   */
+  private static RecordBatchData share(RecordBatchData data, BufferAllocator allocator) {
+    final VectorContainer container = new VectorContainer();
+    try {
+      for (VectorWrapper<?> wrapper : data.getContainer()) {
+        final TransferPair transferPair = wrapper.getValueVector().getTransferPair(allocator);
+        container.add(transferPair.getTo());
+        transferPair.splitAndTransfer(0, data.getRecordCount());
+      }
+      container.setRecordCount(data.getRecordCount());
+      container.buildSchema();
+      return new RecordBatchData(container, allocator);
+    } finally {
+      // the vectors were transferred to the returned batch
+      container.close();
+    }
+  }
+
+  private static final class BatchKey {
+    private final Path path;
+    private final long offset;
+
+    private BatchKey(Path path, long offset) {
+      this.path = path;
+      this.offset = offset;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof BatchKey)) {
+        return false;
+      }
+      final BatchKey that = (BatchKey) obj;
+      return offset == that.offset && path.equals(that.path);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, offset);
+    }
+  }
+
+  /**
+   * Cached batch, which may be evicted while being shared.
+   */
+  private static final class CachedBatch {
+    private final RecordBatchData data;
+    private final int size;
+    private boolean closed;
+
+    private CachedBatch(RecordBatchData data) {
+      this.data = data;
+      long bytes = 0;
+      for (ValueVector vector : data.getVectors()) {
+        bytes += vector.getBufferSize();
+      }
+      this.size = (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private synchronized RecordBatchData share(BufferAllocator allocator) {
+      return closed ? null : ArrowBatchCache.share(data, allocator);
+    }
+
+    private synchronized void close() {
+      if (!closed) {
+        closed = true;
+        data.close();
+      }
+    }
+  }
+}
@@ -69,18 +69,31 @@ public class ArrowFileReader implements AutoCloseable {
   private final ArrowFileMetadata metadata;
   private final BufferAllocator allocator;
   private final Path path;
+  private final ArrowBatchCache cache;
 
   private FSInputStream inputStream;
 
   public ArrowFileReader(final FileSystem dfs, Path basePath, final ArrowFileMetadata metadata,
                    final BufferAllocator allocator) {
+    this(dfs, basePath, metadata, allocator, null);
+  }
+
+  /**
+   * @param cache cache of the batches read, or null to always read the batches from the file
+   */
+  public ArrowFileReader(final FileSystem dfs, Path basePath, final ArrowFileMetadata metadata,
+                   final BufferAllocator allocator, final ArrowBatchCache cache) {
     this.dfs = dfs;
     this.metadata = metadata;
     this.allocator = allocator;
     this.path = basePath.resolve(metadata.getPath());
+    this.cache = cache;
   }
 
   private void openFile() throws IOException {
+    if (inputStream != null) {
+      return;
+    }
     inputStream = dfs.open(path);
 
     if (false /* disable this until a PDFS getFileStatus() issue is fixed AssertionUtil.ASSERT_ENABLED */) {
@@ -135,8 +148,6 @@ public class ArrowFileReader implements AutoCloseable {
         "Invalid start index (%s) and limit (%s) combination. Record count in file (%s)",
         start, limit, metadata.getRecordCount());
 
-    openFile();
-
     final VectorAccessibleSerializable vectorAccessibleSerializable = new VectorAccessibleSerializable(allocator);
     final List<RecordBatchHolder> batches = Lists.newArrayList();
     final ArrowFileFooter footer = metadata.getFooter();
@@ -161,17 +172,26 @@ public class ArrowFileReader implements AutoCloseable {
 
       final long currentBatchCount = batchSummary.getRecordCount();
 
-      // Seek to the place where the batch starts and read
-      inputStream.setPosition(batchSummary.getOffset());
-      vectorAccessibleSerializable.readFromStream(inputStream);
-      final VectorContainer vectorContainer = vectorAccessibleSerializable.get();
+      RecordBatchData batchData = cache != null ? cache.get(path, batchSummary.getOffset(), allocator) : null;
+      if (batchData == null) {
+        // Seek to the place where the batch starts and read
+        openFile();
+        inputStream.setPosition(batchSummary.getOffset());
+        vectorAccessibleSerializable.readFromStream(inputStream);
+        final VectorContainer vectorContainer = vectorAccessibleSerializable.get();
+
+        batchData = new RecordBatchData(vectorContainer, allocator);
+        if (cache != null) {
+          cache.put(path, batchSummary.getOffset(), batchData);
+        }
+      }
 
       // Find the start and end indices within the batch.
       final int batchStart = Math.max(0, (int) (start - (runningCount - currentBatchCount)));
       final int batchEnd = (int) Math.min(currentBatchCount, batchStart + remaining);
 
       final RecordBatchHolder batchHolder = newRecordBatchHolder(
-          new RecordBatchData(vectorContainer, allocator),
+          batchData,
           batchStart,
           batchEnd
       );
@@ -206,6 +226,7 @@ public class ArrowFileReader implements AutoCloseable {
    * @throws IOException
    */
   private RecordBatchHolder getEmptyBatch() throws IOException {
+    openFile();
     final FileAttributes fileAttributes = dfs.getFileAttributes(path);
     final long size = fileAttributes.size();
     inputStream.setPosition(size - (MAGIC_STRING_LENGTH + FOOTER_OFFSET_SIZE));
@@ -41,6 +41,7 @@ import com.dremio.exec.store.dfs.PhysicalDatasetUtils;
 import com.dremio.exec.store.dfs.PreviousDatasetInfo;
 import com.dremio.io.file.FileSystem;
 import com.dremio.options.Options;
+import com.dremio.options.TypeValidators.PositiveLongValidator;
 import com.dremio.service.namespace.NamespaceKey;
 import com.dremio.service.namespace.dataset.proto.DatasetType;
 import com.dremio.service.namespace.file.proto.FileConfig;
@@ -48,6 +49,10 @@ import com.google.common.base.Throwables;
 
 @Options
 public class IcebergFormatDatasetAccessor implements FileDatasetHandle {
+  // Number of threads converting the data files of an iceberg table to splits
+  public static final PositiveLongValidator SPLIT_CONVERSION_PARALLELISM =
+    new PositiveLongValidator("store.iceberg.split_conversion.parallelism", 128, 16);
+
   private final FileSystem fs;
   private final DatasetType type;
   private final NamespaceKey tableSchemaPath;
@@ -72,7 +77,8 @@ public class IcebergFormatDatasetAccessor implements FileDatasetHandle {
     this.formatPlugin = formatPlugin;
     this.oldConfig = oldConfig;
     this.tableWrapper = new IcebergTableWrapper(formatPlugin.getContext(), fs,
-      fsPlugin.getFsConfCopy(), fileSelection.getSelectionRoot());
+      fsPlugin.getFsConfCopy(), fileSelection.getSelectionRoot(),
+      (int) formatPlugin.getContext().getOptionManager().getOption(SPLIT_CONVERSION_PARALLELISM));
   }
 
   @Override
@@ -18,11 +18,18 @@ package com.dremio.exec.store.iceberg;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
 import java.util.stream.Collectors;
 
 import org.apache.hadoop.conf.Configuration;
@@ -33,12 +40,14 @@ import org.apache.iceberg.Schema;
 import org.apache.iceberg.StructLike;
 import org.apache.iceberg.Table;
 import org.apache.iceberg.hadoop.HadoopTables;
+import org.apache.iceberg.io.CloseableIterable;
 import org.apache.iceberg.transforms.Transforms;
 import org.apache.iceberg.types.Type;
 import org.apache.iceberg.types.Types;
 import org.joda.time.DateTimeConstants;
 
 import com.carrotsearch.hppc.cursors.ObjectLongCursor;
+import com.dremio.common.concurrent.NamedThreadFactory;
 import com.dremio.common.exceptions.UserException;
 import com.dremio.connector.metadata.BytesOutput;
 import com.dremio.connector.metadata.DatasetSplit;
@@ -61,6 +70,7 @@ import com.dremio.sabot.exec.store.iceberg.proto.IcebergProtobuf.IcebergSchemaFi
 import com.dremio.sabot.exec.store.parquet.proto.ParquetProtobuf.ColumnValueCount;
 import com.dremio.sabot.exec.store.parquet.proto.ParquetProtobuf.ParquetDatasetSplitXAttr;
 import com.dremio.sabot.exec.store.parquet.proto.ParquetProtobuf.ParquetDatasetXAttr;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.common.net.HostAndPort;
@@ -71,6 +81,8 @@ import com.google.common.net.HostAndPort;
  */
 public class IcebergTableWrapper {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(IcebergTableWrapper.class);
+  // number of data files converted to splits by each task.
+  private static final int FILES_PER_CONVERTER = 16;
 
   private SabotContext context;
   private FileSystem fs;
@@ -85,8 +97,16 @@ public class IcebergTableWrapper {
   private IcebergDatasetXAttr datasetXAttr;
   private BytesOutput readSignature;
   private long recordCount;
+  private final int parallelism;
 
   public IcebergTableWrapper(SabotContext context, FileSystem fs, Configuration fsConf, String rootDir) {
+    this(context, fs, fsConf, rootDir,
+      (int) context.getOptionManager().getOption(IcebergFormatDatasetAccessor.SPLIT_CONVERSION_PARALLELISM));
+  }
+
+  public IcebergTableWrapper(SabotContext context, FileSystem fs, Configuration fsConf, String rootDir,
+                             int parallelism) {
+    this.parallelism = parallelism;
     this.fs = fs;
     this.fsConf = fsConf;
     this.rootDir = rootDir;
@@ -158,19 +178,73 @@ public class IcebergTableWrapper {
   // TODO: this should be optimised to handle deltas.
   private void buildPartitionsAndSplits() throws IOException {
     PartitionConverter partitionConverter = new PartitionConverter(schema);
-    SplitConverter splitConverter = new SplitConverter(context, fs, schema, datasetColumnValueCounts);
-
-    // map of distinct partition values.
+    SplitConverter splitConverter = new SplitConverter(context, fs, schema);
 
     // iterate over all data files to get the partition values and them to the map.
+    // iceberg reads the manifest files using its worker pool, the data files are converted
+    // to splits in groups by a single pool for the whole table, since each of them requires
+    // a lookup in the filesystem.
     // TODO ravindra: this iteration requires reading all of the manifest files. This should go via
     // the dremio wrappers.
-    for (FileScanTask task : table.newScan().includeColumnStats().planFiles()) {
-      List<PartitionValue> partition = partitionConverter.from(task);
-      DatasetSplit split = splitConverter.from(task);
-      partitionChunkListing.put(partition, split);
+    final ExecutorService executor = parallelism > 1
+      ? Executors.newFixedThreadPool(parallelism, new NamedThreadFactory("iceberg-split-converter-"))
+      : null;
+    // converters in the order of the data files, at most two per thread are pending.
+    final Deque<SplitConverterTask> pending = new ArrayDeque<>();
+    try (CloseableIterable<FileScanTask> tasks = table.newScan().includeColumnStats().planFiles()) {
+      List<FileScanTask> files = new ArrayList<>(FILES_PER_CONVERTER);
+      for (FileScanTask task : tasks) {
+        files.add(task);
+        if (files.size() == FILES_PER_CONVERTER) {
+          submit(executor, pending, new SplitConverterTask(splitConverter, files));
+          if (pending.size() > 2 * parallelism) {
+            addSplits(partitionConverter, pending.poll());
+          }
+          files = new ArrayList<>(FILES_PER_CONVERTER);
+        }
+      }
+      if (!files.isEmpty()) {
+        submit(executor, pending, new SplitConverterTask(splitConverter, files));
+      }
+      while (!pending.isEmpty()) {
+        addSplits(partitionConverter, pending.poll());
+      }
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  private static void submit(ExecutorService executor, Deque<SplitConverterTask> pending, SplitConverterTask converter) {
+    if (executor == null) {
+      converter.splits.run();
+    } else {
+      executor.execute(converter.splits);
+    }
+    pending.add(converter);
+  }
+
+  // add the splits in the order of the data files.
+  private void addSplits(PartitionConverter partitionConverter, SplitConverterTask converter) throws IOException {
+    final List<DatasetSplit> splits;
+    try {
+      splits = converter.splits.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while converting iceberg data files to splits", e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), IOException.class);
+      throw new IOException("Failed to convert iceberg data files to splits", e.getCause());
+    }
+
+    for (int i = 0; i < converter.tasks.size(); i++) {
+      final FileScanTask task = converter.tasks.get(i);
+      partitionChunkListing.put(partitionConverter.from(task), splits.get(i));
       recordCount += task.file().recordCount();
     }
+    // aggregate into the dataset level column-value counts.
+    converter.columnValueCounts.forEach((column, count) -> datasetColumnValueCounts.merge(column, count, Long::sum));
   }
 
   // populate the PartitionDatasetXAttr using the aggregated per-columnn counts.
@@ -353,20 +427,41 @@ public class IcebergTableWrapper {
   }
 
   /**
-   * Convert an iceberg split into a DatasetSplit.
+   * Converts a group of iceberg data files into DatasetSplits, and accumulates their column-value counts.
+   */
+  private static final class SplitConverterTask implements Callable<List<DatasetSplit>> {
+    private final SplitConverter splitConverter;
+    private final List<FileScanTask> tasks;
+    private final Map<String, Long> columnValueCounts = new HashMap<>();
+    private final FutureTask<List<DatasetSplit>> splits = new FutureTask<>(this);
+
+    private SplitConverterTask(SplitConverter splitConverter, List<FileScanTask> tasks) {
+      this.splitConverter = splitConverter;
+      this.tasks = tasks;
+    }
+
+    @Override
+    public List<DatasetSplit> call() throws IOException {
+      final List<DatasetSplit> result = new ArrayList<>(tasks.size());
+      for (FileScanTask task : tasks) {
+        result.add(splitConverter.from(task, columnValueCounts));
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Convert an iceberg split into a DatasetSplit. Safe to use from multiple threads.
    */
   private static class SplitConverter {
     private final Schema schema;
     private final FileSystem fs;
-    private final Map<String, Long> datasetColumnValueCounts;
     private final Set<HostAndPort> activeHostMap = Sets.newHashSet();
     private final Set<HostAndPort> activeHostPortMap = Sets.newHashSet();
 
-    SplitConverter(SabotContext context, FileSystem fs, Schema schema,
-      Map<String, Long> datasetColumnValueCounts) {
+    SplitConverter(SabotContext context, FileSystem fs, Schema schema) {
       this.schema = schema;
       this.fs = fs;
-      this.datasetColumnValueCounts = datasetColumnValueCounts;
 
       for (NodeEndpoint endpoint : context.getExecutors()) {
         activeHostMap.add(HostAndPort.fromHost(endpoint.getAddress()));
@@ -374,7 +469,7 @@ public class IcebergTableWrapper {
       }
     }
 
-    DatasetSplit from(FileScanTask task) throws IOException {
+    DatasetSplit from(FileScanTask task, Map<String, Long> datasetColumnValueCounts) throws IOException {
       // TODO ravindra: iceberg does not track counts at a row-group level. We should fallback to
       // an alternate codepath for this.
       DataFile dataFile = task.file();
@@ -407,9 +502,8 @@ public class IcebergTableWrapper {
                   .setColumn(columnName)
                   .setCount(nonNullValueCount)
                   .build());
-          // aggregate into the dataset level column-value counts.
-          datasetColumnValueCounts.merge(
-              columnName, nonNullValueCount, (x, y) -> y + nonNullValueCount);
+          // aggregate into the column-value counts of the batch.
+          datasetColumnValueCounts.merge(columnName, nonNullValueCount, Long::sum);
         }
       }
 
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.DecimalHelper;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnWriteStore;
+import org.apache.parquet.column.ColumnWriter;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.joda.time.DateTimeConstants;
+
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.exec.record.VectorWrapper;
+
+/**
+ * Writes batches into a parquet {@link ColumnWriteStore} column by column, reading the values
+ * straight from the arrow buffers. Unlike the record by record path, there is no field reader,
+ * holder or record consumer involved for each value, and a column without nulls is written
+ * without looking at its validity buffer.
+ *
+ * Only flat schemas of primitive columns are supported. The values are converted the same way
+ * as {@link com.dremio.exec.store.ParquetOutputRecordWriter} does.
+ */
+final class ColumnarParquetBatchWriter {
+  // all columns are optional and top level.
+  private static final int REPETITION_LEVEL = 0;
+  private static final int NULL_DEFINITION_LEVEL = 0;
+  private static final int DEFINITION_LEVEL = 1;
+
+  private final List<Column> columns;
+
+  private ColumnarParquetBatchWriter(List<Column> columns) {
+    this.columns = columns;
+  }
+
+  /**
+   * Create a writer for the parquet schema, if all the columns can be written column by column.
+   *
+   * @param incoming batch to write
+   * @param schema parquet schema of the batch
+   * @param nullColumns columns to write as nulls
+   * @return the writer, or null if the schema is not supported
+   */
+  @Nullable
+  static ColumnarParquetBatchWriter of(VectorAccessible incoming, MessageType schema, Set<String> nullColumns) {
+    final Map<String, ValueVector> vectors = new HashMap<>();
+    for (VectorWrapper<?> wrapper : incoming) {
+      vectors.put(wrapper.getField().getName(), wrapper.getValueVector());
+    }
+
+    final List<Column> columns = new ArrayList<>();
+    for (ColumnDescriptor descriptor : schema.getColumns()) {
+      if (descriptor.getPath().length != 1
+        || descriptor.getMaxRepetitionLevel() != REPETITION_LEVEL
+        || descriptor.getMaxDefinitionLevel() != DEFINITION_LEVEL) {
+        // nested column
+        return null;
+      }
+
+      final String name = descriptor.getPath()[0];
+      final ValueVector vector = vectors.get(name);
+      if (!(vector instanceof FieldVector)) {
+        return null;
+      }
+      if (nullColumns.contains(name)) {
+        columns.add(new Column(descriptor, null, null));
+        continue;
+      }
+
+      final ValueWriter valueWriter = getValueWriter(vector);
+      if (valueWriter == null) {
+        return null;
+      }
+      columns.add(new Column(descriptor, (FieldVector) vector, valueWriter));
+    }
+    return new ColumnarParquetBatchWriter(columns);
+  }
+
+  /**
+   * Write the records of the batch in [offset, offset + length) to the store.
+   *
+   * @param store store to write to
+   * @param offset index of the first record to write
+   * @param length number of records to write
+   */
+  void write(ColumnWriteStore store, int offset, int length) {
+    final int end = offset + length;
+    for (Column column : columns) {
+      final ColumnWriter writer = store.getColumnWriter(column.descriptor);
+      final FieldVector vector = column.vector;
+
+      if (vector == null) {
+        for (int i = offset; i < end; i++) {
+          writer.writeNull(REPETITION_LEVEL, NULL_DEFINITION_LEVEL);
+        }
+      } else if (vector.getNullCount() == 0) {
+        for (int i = offset; i < end; i++) {
+          column.valueWriter.write(writer, vector, i);
+        }
+      } else {
+        final ArrowBuf validity = vector.getValidityBuffer();
+        for (int i = offset; i < end; i++) {
+          if (BitVectorHelper.get(validity, i) == 0) {
+            writer.writeNull(REPETITION_LEVEL, NULL_DEFINITION_LEVEL);
+          } else {
+            column.valueWriter.write(writer, vector, i);
+          }
+        }
+      }
+    }
+
+    for (int i = 0; i < length; i++) {
+      store.endRecord();
+    }
+  }
+
+  @Nullable
+  private static ValueWriter getValueWriter(ValueVector vector) {
+    switch (vector.getMinorType()) {
+      case INT:
+      case TIMEMILLI:
+        return (writer, v, index) ->
+          writer.write(v.getDataBuffer().getInt((long) index * 4), REPETITION_LEVEL, DEFINITION_LEVEL);
+      case BIGINT:
+      case TIMESTAMPMILLI:
+        return (writer, v, index) ->
+          writer.write(v.getDataBuffer().getLong((long) index * 8), REPETITION_LEVEL, DEFINITION_LEVEL);
+      case DATEMILLI:
+        return (writer, v, index) ->
+          writer.write((int) (v.getDataBuffer().getLong((long) index * 8) / DateTimeConstants.MILLIS_PER_DAY),
+            REPETITION_LEVEL, DEFINITION_LEVEL);
+      case FLOAT4:
+        return (writer, v, index) ->
+          writer.write(v.getDataBuffer().getFloat((long) index * 4), REPETITION_LEVEL, DEFINITION_LEVEL);
+      case FLOAT8:
+        return (writer, v, index) ->
+          writer.write(v.getDataBuffer().getDouble((long) index * 8), REPETITION_LEVEL, DEFINITION_LEVEL);
+      case BIT:
+        return (writer, v, index) ->
+          writer.write(BitVectorHelper.get(v.getDataBuffer(), index) == 1, REPETITION_LEVEL, DEFINITION_LEVEL);
+      case VARCHAR:
+      case VARBINARY:
+        return (writer, v, index) -> {
+          final ArrowBuf offsets = v.getOffsetBuffer();
+          final int start = offsets.getInt((long) index * 4);
+          final int end = offsets.getInt((long) (index + 1) * 4);
+          writer.write(Binary.fromByteBuffer(v.getDataBuffer().nioBuffer(start, end - start)),
+            REPETITION_LEVEL, DEFINITION_LEVEL);
+        };
+      case DECIMAL: {
+        // decimals are little endian in arrow, and big endian in parquet.
+        final byte[] bytes = new byte[16];
+        return (writer, v, index) -> {
+          v.getDataBuffer().getBytes((long) index * 16, bytes, 0, 16);
+          DecimalHelper.swapBytes(bytes);
+          writer.write(Binary.fromByteArray(bytes), REPETITION_LEVEL, DEFINITION_LEVEL);
+        };
+      }
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Writes the value at the given index of a vector.
+   */
+  @FunctionalInterface
+  private interface ValueWriter {
+    void write(ColumnWriter writer, FieldVector vector, int index);
+  }
+
+  private static final class Column {
+    private final ColumnDescriptor descriptor;
+    // null when the column is written as nulls
+    private final FieldVector vector;
+    private final ValueWriter valueWriter;
+
+    private Column(ColumnDescriptor descriptor, FieldVector vector, ValueWriter valueWriter) {
+      this.descriptor = descriptor;
+      this.vector = vector;
+      this.valueWriter = valueWriter;
+    }
+  }
+}
@@ -26,15 +26,25 @@ import static org.apache.parquet.hadoop.ParquetWriter.MAX_PADDING_SIZE_DEFAULT;
 import static org.apache.parquet.schema.Type.Repetition.OPTIONAL;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nullable;
 
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.OutOfMemoryException;
+import org.apache.arrow.vector.ValueVector;
 import org.apache.arrow.vector.complex.NonNullableStructVector;
 import org.apache.arrow.vector.complex.UnionVectorHelper;
 import org.apache.arrow.vector.complex.impl.SingleStructReaderImpl;
@@ -56,7 +66,6 @@ import org.apache.parquet.bytes.BytesInput;
 import org.apache.parquet.column.ColumnWriteStore;
 import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.column.ParquetProperties.WriterVersion;
-import org.apache.parquet.column.impl.ColumnWriteStoreV1;
 import org.apache.parquet.column.page.PageWriteStore;
 import org.apache.parquet.column.statistics.Statistics;
 import org.apache.parquet.column.values.factory.DefaultV1ValuesWriterFactory;
@@ -91,6 +100,7 @@ import com.dremio.common.types.TypeProtos.MinorType;
 import com.dremio.common.util.DremioVersionInfo;
 import com.dremio.datastore.LegacyProtobufSerializer;
 import com.dremio.exec.ExecConstants;
+import com.dremio.exec.physical.base.ParquetWriterOptions;
 import com.dremio.exec.physical.base.WriterOptions;
 import com.dremio.exec.planner.acceleration.IncrementalUpdateUtils;
 import com.dremio.exec.planner.acceleration.UpdateIdWrapper;
@@ -98,6 +108,7 @@ import com.dremio.exec.planner.physical.WriterPrel;
 import com.dremio.exec.proto.ExecProtos.FragmentHandle;
 import com.dremio.exec.proto.UserBitShared;
 import com.dremio.exec.record.BatchSchema;
+import com.dremio.exec.record.VectorWrapper;
 import com.dremio.exec.store.EventBasedRecordWriter;
 import com.dremio.exec.store.EventBasedRecordWriter.FieldConverter;
 import com.dremio.exec.store.ParquetOutputRecordWriter;
@@ -115,9 +126,13 @@ import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.exec.store.iceberg.proto.IcebergProtobuf;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.protobuf.InvalidProtocolBufferException;
 
 import io.protostuff.ByteString;
@@ -136,6 +151,9 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
     MAX_IO_WRITE_TIME, // Maximum IO write time
     AVG_IO_WRITE_TIME, // Avg IO write time
     NUM_IO_WRITE,      // Total Number of IO writes
+    NUM_COLUMNAR_BATCHES, // Number of batches written column by column
+    NUM_ASYNC_FLUSHES, // Number of files flushed in the background
+    ASYNC_FLUSH_WAIT_TIME, // Time spent waiting for background flushes, in milliseconds
     ;
 
     @Override
@@ -151,6 +169,8 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
   public static final String DREMIO_VERSION_PROPERTY = "dremio.version";
   public static final String IS_DATE_CORRECT_PROPERTY = "is.date.correct";
   public static final String WRITER_VERSION_PROPERTY = "drill-writer.version";
+  // read by parquet's zstd codec
+  private static final String ZSTD_LEVEL_PROPERTY = "parquet.compression.codec.zstd.level";
 
   private final BufferAllocator codecAllocator;
   private final BufferAllocator columnEncoderAllocator;
@@ -198,6 +218,31 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
   private final int parquetFileWriteTimeThresholdMilliSecs;
   private final double parquetFileWriteIoRateThresholdMbps;
 
+  // write batches column by column when the schema allows it
+  private final boolean columnarWriteEnabled;
+  private boolean writePathChosen;
+  // null when writing record by record
+  private ColumnarParquetBatchWriter columnarWriter;
+  // tracks the update column when writing column by column
+  private FieldConverter updateIdConverter;
+  private long numColumnarBatches;
+
+  // number of files that can be flushed in the background, 0 if files are flushed on the writer thread
+  private final int flushParallelism;
+  private final ExecutorService flushExecutor;
+  // files being flushed in the background, in the order they were written
+  private final Deque<FileFlush> pendingFlushes = new ArrayDeque<>();
+  // a compressor is not thread safe, so each file being written or flushed gets its own codec factory
+  private final List<CompressionCodecFactory> codecFactories = new ArrayList<>();
+  private final Deque<CompressionCodecFactory> idleCodecFactories = new ArrayDeque<>();
+  private long numAsyncFlushes;
+  private long asyncFlushWaitNanos;
+
+  private final int zstdLevel;
+  // lower case names of the top level columns to write a bloom filter for
+  private final Set<String> bloomFilterColumns;
+  private final int bloomFilterMaxBytes;
+
   // metrics workspace variables
   int numFilesWritten = 0;
   long minFileSize = Long.MAX_VALUE;
@@ -210,8 +255,6 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
     this.context = context;
     this.codecAllocator = context.getAllocator().newChildAllocator("ParquetCodecFactory", 0, Long.MAX_VALUE);
     this.columnEncoderAllocator = context.getAllocator().newChildAllocator("ParquetColEncoder", 0, Long.MAX_VALUE);
-    this.codecFactory = CodecFactory.createDirectCodecFactory(new Configuration(),
-        new ParquetDirectByteBufferAllocator(codecAllocator), pageSize);
     this.extraMetaData.put(DREMIO_VERSION_PROPERTY, DremioVersionInfo.getVersion());
     this.extraMetaData.put(IS_DATE_CORRECT_PROPERTY, "true");
 
@@ -239,7 +282,10 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
     memoryThreshold = (int) context.getOptions().getOption(ExecConstants.PARQUET_MEMORY_THRESHOLD_VALIDATOR);
     blockSize = (int) context.getOptions().getOption(ExecConstants.PARQUET_BLOCK_SIZE_VALIDATOR);
     pageSize = (int) context.getOptions().getOption(ExecConstants.PARQUET_PAGE_SIZE_VALIDATOR);
-    final String codecName = context.getOptions().getOption(ExecConstants.PARQUET_WRITER_COMPRESSION_TYPE_VALIDATOR).toLowerCase();
+    final ParquetWriterOptions parquetWriterOptions = writer.getOptions() != null ? writer.getOptions().getParquetWriterOptions() : null;
+    final String codecName = (parquetWriterOptions != null && parquetWriterOptions.getCompression() != null
+      ? parquetWriterOptions.getCompression()
+      : context.getOptions().getOption(ExecConstants.PARQUET_WRITER_COMPRESSION_TYPE_VALIDATOR)).toLowerCase(Locale.ROOT);
     switch(codecName) {
     case "snappy":
       codec = CompressionCodecName.SNAPPY;
@@ -250,6 +296,9 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
     case "gzip":
       codec = CompressionCodecName.GZIP;
       break;
+    case "zstd":
+      codec = CompressionCodecName.ZSTD;
+      break;
     case "none":
     case "uncompressed":
       codec = CompressionCodecName.UNCOMPRESSED;
@@ -264,6 +313,38 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
     minRecordsForFlush = context.getOptions().getOption(ExecConstants.PARQUET_MIN_RECORDS_FOR_FLUSH_VALIDATOR);
     parquetFileWriteTimeThresholdMilliSecs = (int)context.getOptions().getOption(ExecConstants.PARQUET_WRITE_TIME_THRESHOLD_MILLI_SECS_VALIDATOR);
     parquetFileWriteIoRateThresholdMbps = context.getOptions().getOption(ExecConstants.PARQUET_WRITE_IO_RATE_THRESHOLD_MBPS_VALIDATOR);
+    columnarWriteEnabled = context.getOptions().getOption(ExecConstants.PARQUET_WRITER_COLUMNAR_VALIDATOR);
+    flushParallelism = (int) context.getOptions().getOption(ExecConstants.PARQUET_WRITER_FLUSH_PARALLELISM_VALIDATOR);
+    flushExecutor = flushParallelism > 0 ? context.getExecutor() : null;
+    zstdLevel = (int) context.getOptions().getOption(ExecConstants.PARQUET_WRITER_COMPRESSION_ZSTD_LEVEL_VALIDATOR);
+    bloomFilterColumns = getBloomFilterColumns(context.getOptions().getOption(ExecConstants.PARQUET_WRITER_BLOOM_FILTER_COLUMNS_VALIDATOR),
+      parquetWriterOptions);
+    bloomFilterMaxBytes = (int) context.getOptions().getOption(ExecConstants.PARQUET_WRITER_BLOOM_FILTER_MAX_BYTES_VALIDATOR);
+    this.codecFactory = newCodecFactory();
+  }
+
+  private static Set<String> getBloomFilterColumns(String option, ParquetWriterOptions parquetWriterOptions) {
+    final Set<String> columns = new HashSet<>();
+    if (!Strings.isNullOrEmpty(option)) {
+      for (String column : Splitter.on(',').trimResults().omitEmptyStrings().split(option)) {
+        columns.add(column.toLowerCase(Locale.ROOT));
+      }
+    }
+    if (parquetWriterOptions != null) {
+      parquetWriterOptions.getBloomFilterColumns().forEach(column -> columns.add(column.toLowerCase(Locale.ROOT)));
+    }
+    return columns;
+  }
+
+  private CompressionCodecFactory newCodecFactory() {
+    final Configuration conf = new Configuration();
+    if (codec == CompressionCodecName.ZSTD) {
+      conf.setInt(ZSTD_LEVEL_PROPERTY, zstdLevel);
+    }
+    final CompressionCodecFactory factory = CodecFactory.createDirectCodecFactory(conf,
+        new ParquetDirectByteBufferAllocator(codecAllocator), pageSize);
+    codecFactories.add(factory);
+    return factory;
   }
 
   @Override
@@ -354,7 +435,7 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
     schema = getParquetMessageType(batchSchema, "root");
 
     int dictionarySize = (int)context.getOptions().getOption(ExecConstants.PARQUET_DICT_PAGE_SIZE_VALIDATOR);
-    final ParquetProperties parquetProperties = ParquetProperties.builder()
+    final ParquetProperties.Builder parquetPropertiesBuilder = ParquetProperties.builder()
       .withDictionaryPageSize(dictionarySize)
       .withWriterVersion(writerVersion)
       .withValuesWriterFactory(new DefaultV1ValuesWriterFactory())
@@ -364,10 +445,20 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
       .withAddPageHeadersToMetadata(true)
       .withEnableDictionarForBinaryType(enableDictionaryForBinary)
       .withPageRowCountLimit(Integer.MAX_VALUE) // Bug 16118
-      .build();
+      .withColumnIndexTruncateLength(DEFAULT_COLUMN_INDEX_TRUNCATE_LENGTH);
+    if (!bloomFilterColumns.isEmpty()) {
+      parquetPropertiesBuilder.withMaxBloomFilterBytes(bloomFilterMaxBytes);
+      for (Type type : schema.getFields()) {
+        if (type.isPrimitive() && bloomFilterColumns.contains(type.getName().toLowerCase(Locale.ROOT))) {
+          parquetPropertiesBuilder.withBloomFilterEnabled(type.getName(), true);
+        }
+      }
+    }
+    final ParquetProperties parquetProperties = parquetPropertiesBuilder.build();
     pageStore = ColumnChunkPageWriteStoreExposer.newColumnChunkPageWriteStore(
         toDeprecatedBytesCompressor(codecFactory.getCompressor(codec)), schema, parquetProperties);
-    store = new ColumnWriteStoreV1(pageStore, parquetProperties);
+    // the column and offset indexes, and the bloom filters, are built by the page store and written with the footer
+    store = ColumnChunkPageWriteStoreExposer.newColumnWriteStore(schema, pageStore, parquetProperties);
     MessageColumnIO columnIO = new ColumnIOFactory(false).getColumnIO(this.schema);
     consumer = columnIO.getRecordWriter(store);
     setUp(schema, consumer);
@@ -583,33 +674,38 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
     }
 
     if (recordCount > 0) {
-      long writeFileStartTimeMillis = System.currentTimeMillis();
       long memSize = store.getBufferedSize();
-      parquetFileWriter.startBlock(recordCount);
       consumer.flush();
-      store.flush();
-      ColumnChunkPageWriteStoreExposer.flushPageStore(pageStore, parquetFileWriter);
-      parquetFileWriter.endBlock();
-      long recordsWritten = recordCount;
-
-      long footerWriteAndFlushStartTimeMillis = System.currentTimeMillis();
-      // we are writing one single block per file
-      parquetFileWriter.end(extraMetaData);
-
-      long writeFileEndTimeMillis = System.currentTimeMillis();
-
-      logSlowIoWrite(writeFileStartTimeMillis, footerWriteAndFlushStartTimeMillis,  writeFileEndTimeMillis,
-        parquetFileWriter.getPos(), recordsWritten, path);
-
       byte[] metadata = this.trackingConverter == null ? null : trackingConverter.getMetadata();
-      final long fileSize = parquetFileWriter.getPos();
-      listener.recordsWritten(recordsWritten, fileSize, path.toString(), metadata /** TODO: add parquet footer **/,
-        partition.getBucketNumber(), getIcebergMetaData());
+      final FileFlush flush = new FileFlush(memSize, metadata);
       parquetFileWriter = null;
-
-      updateStats(memSize, recordCount);
-
+      store = null;
+      pageStore = null;
       recordCount = 0;
+
+      // the buffered pages stay in memory until the file is flushed, so only flush in the background
+      // if there is enough memory left to write another file of the same size.
+      if (flushExecutor != null && context.getAllocator().getHeadroom() >= memoryThreshold + memSize) {
+        while (pendingFlushes.size() >= flushParallelism) {
+          awaitFlush(pendingFlushes.poll());
+        }
+        flush.future = flushExecutor.submit(() -> {
+          flush.write();
+          return null;
+        });
+        pendingFlushes.add(flush);
+        codecFactory = idleCodecFactories.isEmpty() ? newCodecFactory() : idleCodecFactories.poll();
+        context.getStats().setLongStat(Metric.NUM_ASYNC_FLUSHES, ++numAsyncFlushes);
+      } else {
+        awaitPendingFlushes();
+        try {
+          flush.write();
+        } catch (IOException | RuntimeException e) {
+          flush.abort();
+          throw e;
+        }
+        completeFlush(flush);
+      }
     }
 
     if(store != null){
@@ -621,6 +717,55 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
     index++;
   }
 
+  /**
+   * Wait for a background flush, and report the file it wrote.
+   */
+  private void awaitFlush(FileFlush flush) throws IOException {
+    final long startNanos = System.nanoTime();
+    try {
+      Uninterruptibles.getUninterruptibly(flush.future);
+    } catch (ExecutionException e) {
+      flush.abort();
+      Throwables.propagateIfPossible(e.getCause(), IOException.class);
+      throw new IOException(e.getCause());
+    } finally {
+      idleCodecFactories.add(flush.codecFactory);
+      asyncFlushWaitNanos += System.nanoTime() - startNanos;
+      context.getStats().setLongStat(Metric.ASYNC_FLUSH_WAIT_TIME, TimeUnit.NANOSECONDS.toMillis(asyncFlushWaitNanos));
+    }
+    completeFlush(flush);
+  }
+
+  private void awaitPendingFlushes() throws IOException {
+    while (!pendingFlushes.isEmpty()) {
+      awaitFlush(pendingFlushes.poll());
+    }
+  }
+
+  /**
+   * Wait for the background flushes without reporting the files, so that their memory can be released.
+   */
+  private void abortPendingFlushes() {
+    while (!pendingFlushes.isEmpty()) {
+      final FileFlush flush = pendingFlushes.poll();
+      try {
+        Uninterruptibles.getUninterruptibly(flush.future);
+      } catch (ExecutionException e) {
+        logger.debug("Failure while flushing {}", flush.path, e.getCause());
+      }
+      flush.abort();
+    }
+  }
+
+  private void completeFlush(FileFlush flush) throws IOException {
+    final long fileSize = flush.fileWriter.getPos();
+    listener.recordsWritten(flush.recordCount, fileSize, flush.path.toString(), flush.metadata /** TODO: add parquet footer **/,
+      flush.partition.getBucketNumber(), getIcebergMetaData(flush));
+
+    updateStats(flush.memSize, flush.recordCount);
+    flush.store.close();
+  }
+
   private void logSlowIoWrite(long writeFileStartTimeMillis, long footerWriteAndFlushStartTimeMillis,
                              long writeFileEndTimeMillis, long size, long recordsWritten, Path path) {
 
@@ -639,26 +784,26 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
     }
   }
 
-  private byte[] getIcebergMetaData() throws IOException {
+  private byte[] getIcebergMetaData(FileFlush flush) throws IOException {
     if (!this.isIcebergWriter) {
       return null;
     }
 
-    final long fileSize = parquetFileWriter.getPos();
+    final long fileSize = flush.fileWriter.getPos();
     DataFiles.Builder dataFileBuilder =
       DataFiles.builder(IcebergCatalog.getIcebergPartitionSpec(this.batchSchema, this.partitionColumns))
-        .withPath(path.toString())
+        .withPath(flush.path.toString())
         .withFileSizeInBytes(fileSize)
-        .withRecordCount(recordCount)
+        .withRecordCount(flush.recordCount)
         .withFormat(FileFormat.PARQUET);
 
     // add partition info
     if (partitionColumns != null) {
-      dataFileBuilder = dataFileBuilder.withPartition(partition.getIcebergPartitionData());
+      dataFileBuilder = dataFileBuilder.withPartition(flush.partition.getIcebergPartitionData());
     }
 
     // add column level metrics
-    Metrics metrics = footerMetricsToIcebergMetrics(parquetFileWriter.getFooter(), batchSchema);
+    Metrics metrics = footerMetricsToIcebergMetrics(flush.fileWriter.getFooter(), batchSchema);
     dataFileBuilder = dataFileBuilder.withMetrics(metrics);
     return IcebergSerDe.serializeDataFile(dataFileBuilder.build());
   }
@@ -1041,6 +1186,75 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
   }
 
 
+  @Override
+  public int writeBatch(int offset, int length) throws IOException {
+    if (!writePathChosen) {
+      writePathChosen = true;
+      if (columnarWriteEnabled) {
+        setupColumnarWriter();
+      }
+    }
+
+    if (columnarWriter == null) {
+      return super.writeBatch(offset, length);
+    }
+    return writeColumnar(offset, length);
+  }
+
+  private void setupColumnarWriter() {
+    final Set<String> nullColumns = new HashSet<>();
+    for (VectorWrapper<?> wrapper : incoming) {
+      final String name = wrapper.getField().getName();
+      if (IncrementalUpdateUtils.UPDATE_COLUMN.equals(name)) {
+        final ValueVector vector = wrapper.getValueVector();
+        final FieldConverter converter = EventBasedRecordWriter.getConverter(this, 0, name, vector.getMinorType(),
+          vector.getReader());
+        if (converter == trackingConverter) {
+          // as when writing record by record, the update column is tracked instead of written.
+          updateIdConverter = converter;
+          nullColumns.add(name);
+        }
+      }
+    }
+
+    columnarWriter = ColumnarParquetBatchWriter.of(incoming, schema, nullColumns);
+    if (columnarWriter == null) {
+      logger.debug("Writing record by record, schema {} cannot be written column by column", batchSchema);
+      trackingConverter = null;
+      updateIdConverter = null;
+    }
+  }
+
+  private int writeColumnar(int offset, int length) throws IOException {
+    final int end = offset + length;
+    int position = offset;
+    while (position < end) {
+      // stop at the next check of the block size, as when writing record by record.
+      final long untilNextCheck = max(recordCountForNextMemCheck, minRecordsForFlush) - recordCount;
+      final int count = (int) min(end - position, max(1, untilNextCheck));
+
+      // we wait until there is at least one record before creating the parquet file
+      if (parquetFileWriter == null) {
+        initRecordWriter();
+      }
+
+      columnarWriter.write(store, position, count);
+      if (updateIdConverter != null) {
+        for (int i = position; i < position + count; i++) {
+          updateIdConverter.setPosition(i);
+          updateIdConverter.writeField();
+        }
+      }
+
+      recordCount += count;
+      position += count;
+      checkBlockSizeReached();
+    }
+
+    context.getStats().setLongStat(Metric.NUM_COLUMNAR_BATCHES, ++numColumnarBatches);
+    return length;
+  }
+
   @Override
   public void startRecord() throws IOException {
     consumer.startMessage();
@@ -1085,6 +1299,7 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
   public void close() throws Exception {
     try {
       flushAndClose();
+      awaitPendingFlushes();
       OperatorStats operatorStats = context.getStats();
       OperatorStats.IOStats ioStats = operatorStats.getWriteIOStats();
 
@@ -1102,12 +1317,13 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
       }
     } finally {
       try {
+        abortPendingFlushes();
         NoExceptionAutoCloseables.close(store, pageStore, parquetFileWriter);
       } finally {
         AutoCloseables.close(new AutoCloseable() {
             @Override
             public void close() throws Exception {
-              codecFactory.release();
+              codecFactories.forEach(CompressionCodecFactory::release);
             }
           },
           codecAllocator, columnEncoderAllocator);
@@ -1115,6 +1331,62 @@ public class ParquetRecordWriter extends ParquetOutputRecordWriter {
     }
   }
 
+  /**
+   * A written file, with its row group still buffered in memory.
+   */
+  private final class FileFlush {
+    private final ParquetFileWriter fileWriter;
+    private final ColumnWriteStore store;
+    private final PageWriteStore pageStore;
+    private final CompressionCodecFactory codecFactory;
+    private final Path path;
+    private final WritePartition partition;
+    private final long recordCount;
+    private final long memSize;
+    private final byte[] metadata;
+    // the writer keeps updating its own copy while writing the next files
+    private final Map<String, String> extraMetaData;
+    // set when flushed in the background
+    private Future<Void> future;
+
+    private FileFlush(long memSize, byte[] metadata) {
+      this.fileWriter = ParquetRecordWriter.this.parquetFileWriter;
+      this.store = ParquetRecordWriter.this.store;
+      this.pageStore = ParquetRecordWriter.this.pageStore;
+      this.codecFactory = ParquetRecordWriter.this.codecFactory;
+      this.path = ParquetRecordWriter.this.path;
+      this.partition = ParquetRecordWriter.this.partition;
+      this.recordCount = ParquetRecordWriter.this.recordCount;
+      this.memSize = memSize;
+      this.metadata = metadata;
+      this.extraMetaData = new HashMap<>(ParquetRecordWriter.this.extraMetaData);
+    }
+
+    /**
+     * Encode and compress the remaining pages, and write the row group and the footer to the file.
+     */
+    private void write() throws IOException {
+      long writeFileStartTimeMillis = System.currentTimeMillis();
+      fileWriter.startBlock(recordCount);
+      store.flush();
+      ColumnChunkPageWriteStoreExposer.flushPageStore(pageStore, fileWriter);
+      fileWriter.endBlock();
+
+      long footerWriteAndFlushStartTimeMillis = System.currentTimeMillis();
+      // we are writing one single block per file
+      fileWriter.end(extraMetaData);
+
+      long writeFileEndTimeMillis = System.currentTimeMillis();
+
+      logSlowIoWrite(writeFileStartTimeMillis, footerWriteAndFlushStartTimeMillis,  writeFileEndTimeMillis,
+        fileWriter.getPos(), recordCount, path);
+    }
+
+    private void abort() {
+      NoExceptionAutoCloseables.close(store, pageStore, fileWriter);
+    }
+  }
+
   @Override
   public FieldConverter getNewNullConverter(int fieldId, String fieldName, FieldReader reader) {
     return new NullParquetConverter(fieldId, fieldName, reader);
@@ -21,6 +21,7 @@ import java.util.List;
 
 import com.dremio.common.exceptions.ExecutionSetupException;
 import com.dremio.common.expression.SchemaPath;
+import com.dremio.datastore.SearchTypes.SearchQuery;
 import com.dremio.exec.catalog.StoragePluginId;
 import com.dremio.exec.physical.EndpointAffinity;
 import com.dremio.exec.physical.base.AbstractBase;
@@ -46,6 +47,7 @@ public class SystemGroupScan extends AbstractBase implements GroupScan<SimpleCom
 
   private final SystemTable table;
   private final List<SchemaPath> columns;
+  private final SearchQuery condition;
   private final int nodeCount;
   private final StoragePluginId pluginId;
 
@@ -53,12 +55,14 @@ public class SystemGroupScan extends AbstractBase implements GroupScan<SimpleCom
       OpProps props,
       SystemTable table,
       List<SchemaPath> columns,
+      SearchQuery condition,
       StoragePluginId pluginId,
       int nodeCount
       ) {
     super(props);
     this.table = table;
     this.columns = columns;
+    this.condition = condition;
     this.pluginId = pluginId;
     this.nodeCount = nodeCount;
   }
@@ -93,12 +97,12 @@ public class SystemGroupScan extends AbstractBase implements GroupScan<SimpleCom
       return false;
     }
     SystemGroupScan castOther = (SystemGroupScan) other;
-    return Objects.equal(table, castOther.table);
+    return Objects.equal(table, castOther.table) && Objects.equal(condition, castOther.condition);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(table);
+    return Objects.hashCode(table, condition);
   }
 
   @Override
@@ -129,7 +133,7 @@ public class SystemGroupScan extends AbstractBase implements GroupScan<SimpleCom
 
   @Override
   public SubScan getSpecificScan(List<SimpleCompleteWork> work) {
-    return new SystemSubScan(props, table, getColumns(), pluginId);
+    return new SystemSubScan(props, table, getColumns(), condition, pluginId);
   }
 
   @Override
@@ -149,7 +153,7 @@ public class SystemGroupScan extends AbstractBase implements GroupScan<SimpleCom
 
   @Override
   public PhysicalOperator getNewWithChildren(List<PhysicalOperator> children) throws ExecutionSetupException {
-    return new SystemGroupScan(props, table, columns, pluginId, nodeCount);
+    return new SystemGroupScan(props, table, columns, condition, pluginId, nodeCount);
   }
 
 }
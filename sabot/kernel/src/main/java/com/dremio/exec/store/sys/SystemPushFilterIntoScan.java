@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.sys;
+
+import org.apache.calcite.plan.RelOptRule;
+import org.apache.calcite.plan.RelOptRuleCall;
+import org.apache.calcite.plan.RelOptRuleOperand;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexShuttle;
+
+import com.dremio.exec.planner.logical.RelOptHelper;
+import com.dremio.exec.planner.physical.FilterPrel;
+import com.dremio.exec.planner.physical.ProjectPrel;
+import com.dremio.exec.store.sys.jobs.JobsExpressionConverter;
+import com.dremio.exec.store.sys.jobs.JobsExpressionConverter.PushdownResult;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Pushes filters on the job tables (sys.jobs, sys.operator_stats) into the scan, as a query on the job index.
+ */
+public abstract class SystemPushFilterIntoScan extends RelOptRule {
+
+  public static final RelOptRule IS_FILTER_ON_PROJECT =
+      new SystemPushFilterIntoScan(
+          RelOptHelper.some(FilterPrel.class,
+              RelOptHelper.some(ProjectPrel.class,
+                  RelOptHelper.any(SystemScanPrel.class))),
+          "SystemPushFilterIntoScan:Filter_On_Project") {
+
+        @Override
+        public boolean matches(RelOptRuleCall call) {
+          final SystemScanPrel scan = call.rel(2);
+          return scan.getSystemTable().supportsJobFilter() && !scan.hasFilter();
+        }
+
+        @Override
+        public void onMatch(RelOptRuleCall call) {
+          final FilterPrel filterRel = call.rel(0);
+          final ProjectPrel projectRel = call.rel(1);
+          final SystemScanPrel scanRel = call.rel(2);
+          doMatch(call, scanRel, projectRel, filterRel);
+        }
+      };
+
+  public static final RelOptRule IS_FILTER_ON_SCAN =
+      new SystemPushFilterIntoScan(
+          RelOptHelper.some(FilterPrel.class,
+              RelOptHelper.any(SystemScanPrel.class)),
+          "SystemPushFilterIntoScan:Filter_On_Scan") {
+
+        @Override
+        public boolean matches(RelOptRuleCall call) {
+          final SystemScanPrel scan = call.rel(1);
+          return scan.getSystemTable().supportsJobFilter() && !scan.hasFilter();
+        }
+
+        @Override
+        public void onMatch(RelOptRuleCall call) {
+          final FilterPrel filterRel = call.rel(0);
+          final SystemScanPrel scanRel = call.rel(1);
+          doMatch(call, scanRel, null, filterRel);
+        }
+      };
+
+  private SystemPushFilterIntoScan(RelOptRuleOperand operand, String id) {
+    super(operand, id);
+  }
+
+  protected void doMatch(RelOptRuleCall call, SystemScanPrel scan, ProjectPrel project, FilterPrel filter) {
+    // with a project in between, rewrite the condition in terms of the scan's columns
+    final RexNode condition = project == null ? filter.getCondition() : filter.getCondition().accept(new RexShuttle() {
+      @Override
+      public RexNode visitInputRef(RexInputRef inputRef) {
+        return project.getProjects().get(inputRef.getIndex());
+      }
+    });
+    final PushdownResult result = JobsExpressionConverter.pushdown(scan.getCluster().getRexBuilder(),
+        scan.getRowType(), condition);
+
+    if (result.getQuery() == null) {
+      return; //no filter pushdown ==> No transformation.
+    }
+
+    RelNode input = new SystemScanPrel(scan.getCluster(), scan.getTraitSet(), scan.getTable(), scan.getTableMetadata(),
+        result.getQuery(), scan.getProjectedColumns(), scan.getObservedRowcountAdjustment());
+
+    if (project != null) {
+      input = project.copy(project.getTraitSet(), input, project.getProjects(), filter.getRowType());
+    }
+
+    if (result.getRemainder() == null) {
+      // Filter can be removed as all expressions in the filter are converted and pushed to scan
+      call.transformTo(input);
+    } else {
+      // the pushed query only narrows down the jobs read, keep the whole filter
+      call.transformTo(filter.copy(filter.getTraitSet(), ImmutableList.of(input)));
+    }
+  }
+}
@@ -23,10 +23,12 @@ import org.apache.calcite.plan.RelOptCluster;
 import org.apache.calcite.plan.RelOptTable;
 import org.apache.calcite.plan.RelTraitSet;
 import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelWriter;
 import org.apache.calcite.rel.type.RelDataType;
 
 import com.dremio.common.expression.SchemaPath;
 import com.dremio.connector.metadata.EntityPath;
+import com.dremio.datastore.SearchTypes.SearchQuery;
 import com.dremio.exec.catalog.StoragePluginId;
 import com.dremio.exec.physical.base.PhysicalOperator;
 import com.dremio.exec.planner.fragment.DistributionAffinity;
@@ -35,6 +37,7 @@ import com.dremio.exec.planner.physical.PrelUtil;
 import com.dremio.exec.planner.physical.ScanPrelBase;
 import com.dremio.exec.store.TableMetadata;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 
 /**
@@ -45,6 +48,7 @@ public class SystemScanPrel extends ScanPrelBase {
   private final SystemTable systemTable;
   private final int executorCount;
   private final StoragePluginId pluginId;
+  private final SearchQuery condition;
 
   public SystemScanPrel(
       RelOptCluster cluster,
@@ -54,6 +58,18 @@ public class SystemScanPrel extends ScanPrelBase {
       List<SchemaPath> projectedColumns,
       double observedRowcountAdjustment
       ) {
+    this(cluster, traitSet, table, dataset, null, projectedColumns, observedRowcountAdjustment);
+  }
+
+  public SystemScanPrel(
+      RelOptCluster cluster,
+      RelTraitSet traitSet,
+      RelOptTable table,
+      TableMetadata dataset,
+      SearchQuery condition,
+      List<SchemaPath> projectedColumns,
+      double observedRowcountAdjustment
+      ) {
     super(cluster, traitSet, table, dataset.getStoragePluginId(), dataset, projectedColumns, observedRowcountAdjustment);
 
     final EntityPath datasetPath = new EntityPath(dataset.getName().getPathComponents());
@@ -63,6 +79,7 @@ public class SystemScanPrel extends ScanPrelBase {
 
     this.executorCount = PrelUtil.getPlannerSettings(cluster).getExecutorCount();
     this.pluginId = dataset.getStoragePluginId();
+    this.condition = condition;
   }
 
   @VisibleForTesting
@@ -85,6 +102,11 @@ public class SystemScanPrel extends ScanPrelBase {
     this.executorCount = PrelUtil.getPlannerSettings(cluster).getExecutorCount();
     this.rowType = rowType;
     this.pluginId = dataset.getStoragePluginId();
+    this.condition = null;
+  }
+
+  public SystemTable getSystemTable() {
+    return systemTable;
   }
 
   @Override
@@ -97,6 +119,33 @@ public class SystemScanPrel extends ScanPrelBase {
     return systemTable.isDistributed() ? executorCount : 1;
   }
 
+  @Override
+  public boolean hasFilter() {
+    return condition != null;
+  }
+
+  @Override
+  public double getFilterReduction() {
+    return condition == null ? super.getFilterReduction() : 0.15d;
+  }
+
+  @Override
+  public RelWriter explainTerms(RelWriter pw) {
+    String str = condition == null ? null : condition.toString().replace('\n', ' ');
+    return super.explainTerms(pw).itemIf("condition", str, condition != null);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!other.getClass().equals(this.getClass())) {
+      return false;
+    }
+
+    SystemScanPrel castOther = (SystemScanPrel) other;
+
+    return Objects.equal(condition, castOther.condition) && super.equals(other);
+  }
+
   @Override
   public DistributionAffinity getDistributionAffinity() {
     return systemTable.isDistributed() ? DistributionAffinity.HARD : DistributionAffinity.SOFT;
@@ -108,6 +157,7 @@ public class SystemScanPrel extends ScanPrelBase {
         creator.props(this, getTableMetadata().getUser(), getTableMetadata().getSchema().maskAndReorder(getProjectedColumns()), null, null),
         systemTable,
         getProjectedColumns(),
+        condition,
         pluginId,
         executorCount);
   }
@@ -115,12 +165,12 @@ public class SystemScanPrel extends ScanPrelBase {
   @Override
   public RelNode copy(RelTraitSet traitSet, List<RelNode> inputs) {
     Preconditions.checkArgument(inputs == null || inputs.size() == 0);
-    return new SystemScanPrel(getCluster(), traitSet, getTable(), getTableMetadata(), getProjectedColumns(), getCostAdjustmentFactor());
+    return new SystemScanPrel(getCluster(), traitSet, getTable(), getTableMetadata(), condition, getProjectedColumns(), getCostAdjustmentFactor());
   }
 
   @Override
   public SystemScanPrel cloneWithProject(List<SchemaPath> projection) {
-    return new SystemScanPrel(getCluster(), getTraitSet(), getTable(), getTableMetadata(), projection, getCostAdjustmentFactor());
+    return new SystemScanPrel(getCluster(), getTraitSet(), getTable(), getTableMetadata(), condition, projection, getCostAdjustmentFactor());
   }
 
 }
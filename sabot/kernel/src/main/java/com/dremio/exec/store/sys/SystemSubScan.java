@@ -19,6 +19,7 @@ import java.util.Collection;
 import java.util.List;
 
 import com.dremio.common.expression.SchemaPath;
+import com.dremio.datastore.SearchTypes.SearchQuery;
 import com.dremio.exec.catalog.StoragePluginId;
 import com.dremio.exec.physical.base.AbstractSubScan;
 import com.dremio.exec.physical.base.OpProps;
@@ -37,6 +38,7 @@ public class SystemSubScan extends AbstractSubScan implements OpWithMinorSpecifi
 
   private final List<SchemaPath> columns;
   private final SystemTable table;
+  private final SearchQuery condition;
   private final StoragePluginId pluginId;
 
   @JsonCreator
@@ -44,11 +46,13 @@ public class SystemSubScan extends AbstractSubScan implements OpWithMinorSpecifi
       @JsonProperty("props") OpProps props,
       @JsonProperty("table") SystemTable table,
       @JsonProperty("columns") List<SchemaPath> columns,
+      @JsonProperty("condition") SearchQuery condition,
       @JsonProperty("pluginId") StoragePluginId pluginId
       ) {
     super(props, table.getRecordSchema(), table.getDatasetPath().getComponents());
     this.columns = columns;
     this.table = table;
+    this.condition = condition;
     this.pluginId = pluginId;
   }
 
@@ -66,6 +70,10 @@ public class SystemSubScan extends AbstractSubScan implements OpWithMinorSpecifi
     return table;
   }
 
+  public SearchQuery getCondition() {
+    return condition;
+  }
+
   @Override
   public List<SchemaPath> getColumns() {
     return columns;
@@ -27,6 +27,7 @@ import com.dremio.connector.metadata.DatasetStats;
 import com.dremio.connector.metadata.EntityPath;
 import com.dremio.connector.metadata.PartitionChunk;
 import com.dremio.connector.metadata.PartitionChunkListing;
+import com.dremio.datastore.SearchTypes.SearchQuery;
 import com.dremio.exec.planner.cost.ScanCostFactor;
 import com.dremio.exec.planner.sql.CalciteArrowHelper;
 import com.dremio.exec.planner.types.JavaTypeFactoryImpl;
@@ -39,6 +40,8 @@ import com.dremio.exec.store.sys.OptionIterator.OptionValueWrapper;
 import com.dremio.exec.store.sys.accel.AccelerationListManager;
 import com.dremio.exec.store.sys.accel.AccelerationListManager.MaterializationInfo;
 import com.dremio.exec.store.sys.accel.AccelerationListManager.ReflectionInfo;
+import com.dremio.exec.store.sys.jobs.JobsListManager.JobInfo;
+import com.dremio.exec.store.sys.jobs.JobsListManager.OperatorStatsInfo;
 import com.dremio.exec.work.CacheManagerDatasetInfo;
 import com.dremio.exec.work.CacheManagerFilesInfo;
 import com.dremio.exec.work.CacheManagerMountPointInfo;
@@ -159,6 +162,40 @@ public enum SystemTable implements DatasetHandle, DatasetMetadata, PartitionChun
     }
   },
 
+  JOBS(false, JobInfo.class, "jobs") {
+    @Override
+    public Iterator<?> getIterator(final SabotContext sContext, final OperatorContext context) {
+      return getIterator(sContext, context, null);
+    }
+
+    @Override
+    public Iterator<?> getIterator(final SabotContext sContext, final OperatorContext context, final SearchQuery condition) {
+      return sContext.getJobsListManager().getJobs(condition).iterator();
+    }
+
+    @Override
+    public boolean supportsJobFilter() {
+      return true;
+    }
+  },
+
+  OPERATOR_STATS(false, OperatorStatsInfo.class, "operator_stats") {
+    @Override
+    public Iterator<?> getIterator(final SabotContext sContext, final OperatorContext context) {
+      return getIterator(sContext, context, null);
+    }
+
+    @Override
+    public Iterator<?> getIterator(final SabotContext sContext, final OperatorContext context, final SearchQuery condition) {
+      return sContext.getJobsListManager().getOperatorStats(condition).iterator();
+    }
+
+    @Override
+    public boolean supportsJobFilter() {
+      return true;
+    }
+  },
+
   CACHE_MANAGER_MOUNT_POINTS(true, CacheManagerMountPointInfo.class, "cache", "mount_points") {
     @Override
     public Iterator<?> getIterator(final SabotContext sContext, final OperatorContext context) {
@@ -226,6 +263,21 @@ public enum SystemTable implements DatasetHandle, DatasetMetadata, PartitionChun
 
   public abstract Iterator<?> getIterator(final SabotContext sContext, final OperatorContext context);
 
+  /**
+   * Get the records matching a condition pushed into the scan. Only called for tables
+   * that support pushdown, see {@link #supportsJobFilter()}.
+   */
+  public Iterator<?> getIterator(final SabotContext sContext, final OperatorContext context, final SearchQuery condition) {
+    return getIterator(sContext, context);
+  }
+
+  /**
+   * Whether filters on the table can be pushed into the scan as a query on the job index.
+   */
+  public boolean supportsJobFilter() {
+    return false;
+  }
+
   public boolean isDistributed() {
     return distributed;
   }
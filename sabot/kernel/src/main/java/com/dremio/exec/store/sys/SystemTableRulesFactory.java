@@ -34,7 +34,10 @@ public class SystemTableRulesFactory extends StoragePluginTypeRulesFactory {
       return ImmutableSet.<RelOptRule>of(new SystemScanDrule(pluginType));
 
     case PHYSICAL:
-      return ImmutableSet.of(SystemScanPrule.INSTANCE);
+      return ImmutableSet.of(
+          SystemScanPrule.INSTANCE,
+          SystemPushFilterIntoScan.IS_FILTER_ON_PROJECT,
+          SystemPushFilterIntoScan.IS_FILTER_ON_SCAN);
 
     default:
       return ImmutableSet.of();
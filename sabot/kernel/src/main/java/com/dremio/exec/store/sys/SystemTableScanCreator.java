@@ -35,7 +35,7 @@ public class SystemTableScanCreator implements ProducerOperator.Creator<SystemSu
     final SystemTable table = config.getTable();
     final SystemStoragePlugin plugin2 = fec.getStoragePlugin(config.getPluginId());
     final RecordReader reader = new PojoRecordReader(table.getPojoClass(), table.getIterator
-            (plugin2.getSabotContext(), context), config.getColumns(), context.getTargetBatchSize());
+            (plugin2.getSabotContext(), context, config.getCondition()), config.getColumns(), context.getTargetBatchSize());
 
     return new ScanOperator(config, context, RecordReaderIterator.from(reader));
   }
@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.sys.jobs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.calcite.plan.RelOptUtil;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexUtil;
+import org.apache.calcite.rex.RexVisitorImpl;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.type.SqlTypeName;
+
+import com.dremio.datastore.SearchQueryUtils;
+import com.dremio.datastore.SearchTypes.SearchQuery;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Enables conversion of a filter condition on sys.jobs or sys.operator_stats into a query on the job index
+ * and a remainder, for pushdown purposes.
+ */
+public final class JobsExpressionConverter {
+
+  // Index field names of the jobs store, must be kept in sync with JobIndexKeys in the jobs service.
+  private static final ImmutableMap<String, String> TERM_FIELDS = ImmutableMap.of(
+      "job_id", "JOBID",
+      "user_name", "USER",
+      "status", "JOB_STATE",
+      "query_type", "QUERY_TYPE",
+      "queue_name", "QUEUE_NAME");
+
+  private static final ImmutableMap<String, String> TIME_FIELDS = ImmutableMap.of(
+      "start_time", "START_TIME",
+      "end_time", "END_TIME");
+
+  private JobsExpressionConverter() {
+  }
+
+  public static PushdownResult pushdown(RexBuilder rexBuilder, RelDataType rowType, RexNode condition) {
+    List<RexNode> conjuncts = RelOptUtil.conjunctions(condition);
+    List<RexNode> unused = new ArrayList<>();
+    List<SearchQuery> found = new ArrayList<>();
+
+    Visitor visitor = new Visitor(rowType);
+    for (RexNode n : conjuncts) {
+      SearchQuery q = n.accept(visitor);
+      if (q == null) {
+        unused.add(n);
+      } else {
+        found.add(q);
+      }
+    }
+
+    if (found.isEmpty()) {
+      return new PushdownResult(null, condition);
+    }
+
+    RexNode remainder = RexUtil.composeConjunction(rexBuilder, unused, true);
+    return new PushdownResult(found.size() == 1 ? found.get(0) : SearchQueryUtils.and(found), remainder);
+  }
+
+  private static class Visitor extends RexVisitorImpl<SearchQuery> {
+
+    private final RelDataType rowType;
+
+    Visitor(RelDataType rowType) {
+      super(false);
+      this.rowType = rowType;
+    }
+
+    @Override
+    public SearchQuery visitCall(RexCall call) {
+      switch (call.getKind()) {
+      case AND: {
+        final List<SearchQuery> subs = subs(call.getOperands());
+        return subs == null ? null : SearchQueryUtils.and(subs);
+      }
+
+      case OR: {
+        final List<SearchQuery> subs = subs(call.getOperands());
+        return subs == null ? null : SearchQueryUtils.or(subs);
+      }
+
+      case EQUALS:
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL:
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL:
+        return handleComparison(call);
+
+      default:
+        return null;
+      }
+    }
+
+    private SearchQuery handleComparison(RexCall call) {
+      final List<RexNode> operands = call.getOperands();
+      if (operands.size() != 2) {
+        return null;
+      }
+
+      final RexNode first = operands.get(0);
+      final RexNode second = operands.get(1);
+      final RexInputRef input;
+      final RexLiteral literal;
+      final boolean literalFirst;
+      if (first instanceof RexInputRef && second instanceof RexLiteral) {
+        input = (RexInputRef) first;
+        literal = (RexLiteral) second;
+        literalFirst = false;
+      } else if (first instanceof RexLiteral && second instanceof RexInputRef) {
+        input = (RexInputRef) second;
+        literal = (RexLiteral) first;
+        literalFirst = true;
+      } else {
+        return null;
+      }
+
+      if (RexLiteral.isNullLiteral(literal)) {
+        return null;
+      }
+
+      final String column = rowType.getFieldList().get(input.getIndex()).getName().toLowerCase(Locale.ROOT);
+      final String termField = TERM_FIELDS.get(column);
+      if (termField != null) {
+        if (call.getKind() != SqlKind.EQUALS) {
+          return null;
+        }
+        return SearchQueryUtils.newTermQuery(termField, literal.getValueAs(String.class));
+      }
+
+      final String timeField = TIME_FIELDS.get(column);
+      if (timeField == null || literal.getTypeName() != SqlTypeName.TIMESTAMP) {
+        return null;
+      }
+
+      final Long millis = literal.getValueAs(Long.class);
+      // normalize to "column <op> literal"
+      final SqlKind kind = literalFirst ? call.getKind().reverse() : call.getKind();
+      switch (kind) {
+      case EQUALS:
+        return SearchQueryUtils.newRangeLong(timeField, millis, millis, true, true);
+      case GREATER_THAN:
+        return SearchQueryUtils.newRangeLong(timeField, millis, null, false, false);
+      case GREATER_THAN_OR_EQUAL:
+        return SearchQueryUtils.newRangeLong(timeField, millis, null, true, false);
+      case LESS_THAN:
+        return SearchQueryUtils.newRangeLong(timeField, null, millis, false, false);
+      case LESS_THAN_OR_EQUAL:
+        return SearchQueryUtils.newRangeLong(timeField, null, millis, false, true);
+      default:
+        return null;
+      }
+    }
+
+    private List<SearchQuery> subs(List<RexNode> ops) {
+      List<SearchQuery> subQueries = new ArrayList<>();
+      for (RexNode n : ops) {
+        SearchQuery query = n.accept(this);
+        if (query == null) {
+          return null;
+        }
+        subQueries.add(query);
+      }
+      return subQueries;
+    }
+  }
+
+  /**
+   * Pushed query, and the part of the condition which could not be converted.
+   */
+  public static class PushdownResult {
+    private final SearchQuery query;
+    private final RexNode remainder;
+
+    public PushdownResult(SearchQuery query, RexNode remainder) {
+      this.query = query;
+      this.remainder = remainder;
+    }
+
+    public SearchQuery getQuery() {
+      return query;
+    }
+
+    public RexNode getRemainder() {
+      return remainder;
+    }
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.sys.jobs;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+
+import com.dremio.datastore.SearchTypes.SearchQuery;
+
+/**
+ * Exposes the jobs store to the execution engine, for the sys.jobs and sys.operator_stats tables.
+ */
+public interface JobsListManager {
+
+  /**
+   * Get the jobs matching the condition.
+   *
+   * @param condition condition on the job index (see {@link JobsExpressionConverter}), null for all jobs
+   * @return the jobs, lazily read from the store
+   */
+  Iterable<JobInfo> getJobs(SearchQuery condition);
+
+  /**
+   * Get the operator stats of the jobs matching the condition, one record per operator aggregated
+   * over the minor fragments of its phase. Jobs without a profile are skipped.
+   *
+   * @param condition condition on the job index (see {@link JobsExpressionConverter}), null for all jobs
+   * @return the operator stats, lazily read from the stored profiles
+   */
+  Iterable<OperatorStatsInfo> getOperatorStats(SearchQuery condition);
+
+  JobsListManager NO_OP = new JobsListManager() {
+    @Override
+    public Iterable<JobInfo> getJobs(SearchQuery condition) {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public Iterable<OperatorStatsInfo> getOperatorStats(SearchQuery condition) {
+      return Collections.emptyList();
+    }
+  };
+
+  class JobInfo {
+    public final String job_id;
+    public final String user_name;
+    public final String status;
+    public final String query_type;
+    public final String queue_name;
+    public final String dataset;
+    public final Timestamp start_time;
+    public final Timestamp end_time;
+    public final Long duration_ms;
+    public final Long input_records;
+    public final Long output_records;
+    public final String error_msg;
+    public final String query;
+
+    public JobInfo(String jobId, String userName, String status, String queryType, String queueName, String dataset,
+        Long startTime, Long endTime, Long inputRecords, Long outputRecords, String errorMsg, String query) {
+      this.job_id = jobId;
+      this.user_name = userName;
+      this.status = status;
+      this.query_type = queryType;
+      this.queue_name = queueName;
+      this.dataset = dataset;
+      this.start_time = startTime == null ? null : new Timestamp(startTime);
+      this.end_time = endTime == null ? null : new Timestamp(endTime);
+      this.duration_ms = startTime == null || endTime == null ? null : endTime - startTime;
+      this.input_records = inputRecords;
+      this.output_records = outputRecords;
+      this.error_msg = errorMsg;
+      this.query = query;
+    }
+  }
+
+  class OperatorStatsInfo {
+    public final String job_id;
+    public final String user_name;
+    public final String status;
+    public final Timestamp start_time;
+    public final int major_fragment_id;
+    public final int operator_id;
+    public final String operator_type;
+    public final int minor_fragments;
+    public final long setup_ms;
+    public final long process_ms;
+    public final long wait_ms;
+    public final long peak_memory;
+    public final long records_in;
+    public final long batches_in;
+
+    public OperatorStatsInfo(String jobId, String userName, String status, Long startTime, int majorFragmentId,
+        int operatorId, String operatorType, int minorFragments, long setupMillis, long processMillis, long waitMillis,
+        long peakMemory, long recordsIn, long batchesIn) {
+      this.job_id = jobId;
+      this.user_name = userName;
+      this.status = status;
+      this.start_time = startTime == null ? null : new Timestamp(startTime);
+      this.major_fragment_id = majorFragmentId;
+      this.operator_id = operatorId;
+      this.operator_type = operatorType;
+      this.minor_fragments = minorFragments;
+      this.setup_ms = setupMillis;
+      this.process_ms = processMillis;
+      this.wait_ms = waitMillis;
+      this.peak_memory = peakMemory;
+      this.records_in = recordsIn;
+      this.batches_in = batchesIn;
+    }
+  }
+}
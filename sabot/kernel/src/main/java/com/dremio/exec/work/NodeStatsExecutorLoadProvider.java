@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.work;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Provider;
+
+import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
+import com.dremio.exec.server.SabotContext;
+import com.dremio.exec.store.sys.NodeInstance;
+import com.dremio.resource.loadaware.ExecutorLoad;
+import com.dremio.resource.loadaware.ExecutorLoad.ExecutorMemory;
+import com.dremio.resource.loadaware.ExecutorLoadProvider;
+import com.dremio.service.executor.ExecutorServiceClientFactory;
+import com.google.protobuf.Empty;
+
+/**
+ * Collects the load of the executors from their node statistics.
+ */
+public class NodeStatsExecutorLoadProvider implements ExecutorLoadProvider {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(NodeStatsExecutorLoadProvider.class);
+
+  private final Provider<SabotContext> context;
+  private final Provider<ExecutorServiceClientFactory> executorServiceClientFactoryProvider;
+
+  public NodeStatsExecutorLoadProvider(Provider<SabotContext> context,
+                                       Provider<ExecutorServiceClientFactory> executorServiceClientFactoryProvider) {
+    this.context = context;
+    this.executorServiceClientFactoryProvider = executorServiceClientFactoryProvider;
+  }
+
+  @Override
+  public ExecutorLoad getExecutorLoad() {
+    final Collection<NodeEndpoint> executors = context.get().getExecutors();
+    if (executors.isEmpty()) {
+      return ExecutorLoad.UNKNOWN;
+    }
+
+    final NodeStatsListener nodeStatsListener = new NodeStatsListener(executors.size());
+    executors.forEach(ep -> executorServiceClientFactoryProvider.get().getClientForEndpoint(ep)
+      .getNodeStats(Empty.newBuilder().build(), nodeStatsListener));
+    try {
+      nodeStatsListener.waitForFinish();
+    } catch (Exception ex) {
+      // use the statistics of the executors that responded
+      logger.debug("Error while collecting node statistics: {}", ex.getMessage());
+    }
+
+    // the statistics are keyed by the address and fabric port of the executors
+    final Map<String, NodeEndpoint> endpoints = new HashMap<>();
+    for (NodeEndpoint ep : executors) {
+      endpoints.put(ep.getAddress() + ":" + ep.getFabricPort(), ep);
+    }
+
+    double load = 0;
+    int count = 0;
+    final List<ExecutorMemory> memory = new ArrayList<>();
+    for (Map.Entry<String, NodeInstance> entry : nodeStatsListener.getResult().entrySet()) {
+      final NodeInstance stats = entry.getValue();
+      load = Math.max(load, stats.load == null ? 0 : stats.load);
+      count++;
+
+      // the memory percentage applies to the maximum memory of the same executor
+      final NodeEndpoint ep = endpoints.get(entry.getKey());
+      if (ep != null && ep.getMaxDirectMemory() > 0) {
+        final double memoryPercent = stats.memory == null ? 0 : stats.memory;
+        memory.add(new ExecutorMemory(ep.getMaxDirectMemory(), (long) (ep.getMaxDirectMemory() * memoryPercent / 100)));
+      }
+    }
+    return count == 0 ? ExecutorLoad.UNKNOWN : new ExecutorLoad(load, count, memory);
+  }
+}
@@ -373,7 +373,8 @@ public class FragmentWorkManager implements Service, SafeExit {
     }
 
     public ExecTunnel getTunnel(NodeEndpoint endpoint) {
-      return new ExecTunnel(factory.getCommandRunner(endpoint.getAddress(), endpoint.getFabricPort()));
+      return new ExecTunnel(factory.getCommandRunner(endpoint.getAddress(), endpoint.getFabricPort()),
+        stripe -> factory.getCommandRunner(endpoint.getAddress(), endpoint.getFabricPort(), stripe));
     }
   }
 
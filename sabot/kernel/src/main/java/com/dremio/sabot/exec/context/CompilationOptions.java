@@ -45,4 +45,12 @@ public class CompilationOptions {
   public int getNewMethodThreshold() {
     return (int) optionManager.getOption(ExecConstants.CODE_GEN_NESTED_METHOD_THRESHOLD);
   }
+
+  public boolean enableGandivaCache() {
+    return optionManager.getOption(ExecConstants.GANDIVA_CACHE_ENABLE);
+  }
+
+  public int getGandivaCacheSize() {
+    return (int) optionManager.getOption(ExecConstants.GANDIVA_CACHE_SIZE);
+  }
 }
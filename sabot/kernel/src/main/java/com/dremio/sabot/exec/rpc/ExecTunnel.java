@@ -15,7 +15,9 @@
  */
 package com.dremio.sabot.exec.rpc;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.function.IntFunction;
 
 import com.dremio.exec.proto.ExecProtos.FragmentHandle;
 import com.dremio.exec.proto.ExecRPC.FinishedReceiver;
@@ -33,21 +35,39 @@ import com.google.common.base.Preconditions;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.NettyArrowBuf;
 
+/**
+ * Tunnel to another executor. Record batches and stream completions are sent over the data connection picked by
+ * their receiving fragment, so that they are received in order for a given receiver. All other messages are sent
+ * over the control connection.
+ */
 public class ExecTunnel {
   static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ExecTunnel.class);
 
   private final FabricCommandRunner manager;
+  private final IntFunction<FabricCommandRunner> dataManagers;
 
   public ExecTunnel(FabricCommandRunner runner) {
+    this(runner, stripe -> runner);
+  }
+
+  public ExecTunnel(FabricCommandRunner runner, IntFunction<FabricCommandRunner> dataRunners) {
     this.manager = runner;
+    this.dataManagers = dataRunners;
   }
 
   public void sendStreamComplete(RpcOutcomeListener<Ack> outcomeListener, FragmentStreamComplete streamComplete) {
-    manager.runCommand(new SendStreamCompleteListen(outcomeListener, streamComplete));
+    dataManagers.apply(stripe(streamComplete.getReceivingMajorFragmentId(), streamComplete.getReceivingMinorFragmentIdList()))
+      .runCommand(new SendStreamCompleteListen(outcomeListener, streamComplete));
   }
 
   public void sendRecordBatch(RpcOutcomeListener<Ack> outcomeListener, FragmentWritableBatch batch) {
-    manager.runCommand(new SendBatchAsyncListen(outcomeListener, batch));
+    dataManagers.apply(stripe(batch.getHeader().getReceivingMajorFragmentId(), batch.getHeader().getReceivingMinorFragmentIdList()))
+      .runCommand(new SendBatchAsyncListen(outcomeListener, batch));
+  }
+
+  private static int stripe(int receivingMajorFragmentId, List<Integer> receivingMinorFragmentIds) {
+    final int minorFragmentId = receivingMinorFragmentIds.isEmpty() ? 0 : receivingMinorFragmentIds.get(0);
+    return 31 * receivingMajorFragmentId + minorFragmentId;
   }
 
   public void sendOOBMessage(RpcOutcomeListener<Ack> outcomeListener, OutOfBandMessage message) {
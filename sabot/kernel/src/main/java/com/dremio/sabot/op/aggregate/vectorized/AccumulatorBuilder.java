@@ -21,6 +21,7 @@ import java.util.stream.Collectors;
 
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.FixedSizeBinaryVector;
 import org.apache.arrow.vector.types.pojo.Field;
 
 import com.dremio.common.exceptions.UserException;
@@ -69,6 +70,7 @@ public class AccumulatorBuilder {
 
     final byte[] accumulatorTypes = new byte[aggregateExpressions.size()];
     final List<Field> outputVectorFields = new ArrayList<>(aggregateExpressions.size());
+    final List<Field> postSpillAccumulatorVectorFields = new ArrayList<>(aggregateExpressions.size());
     final List<FieldVector> inputVectors = new ArrayList<>(aggregateExpressions.size());
 
     for (int i = 0; i < aggregateExpressions.size(); i++) {
@@ -91,10 +93,11 @@ public class AccumulatorBuilder {
         accumulatorTypes[i] = (byte)AccumulatorType.COUNT1.ordinal();
         /* count1 doesn't need an input accumulator vector */
         inputVectors.add(null);
+        postSpillAccumulatorVectorFields.add(outputField);
         continue;
       }
 
-      /* SUM, MIN, MAX, $SUM0, COUNT */
+      /* SUM, MIN, MAX, $SUM0, COUNT, HLL, HLL_MERGE */
       final ValueVectorReadExpression vvread = (ValueVectorReadExpression) exprs.get(0);
       inputVector = incoming.getValueAccessorById(FieldVector.class, vvread.getFieldId().getFieldIds()).getValueVector();
       accumulatorTypes[i] = getAccumulatorTypeFromName(func.getName());
@@ -104,9 +107,16 @@ public class AccumulatorBuilder {
       }
 
       inputVectors.add(inputVector);
+      /* NDV accumulators store (and spill) sketches in fixed size slots, not the sketches in outgoing */
+      if (accumulatorTypes[i] == AccumulatorType.HLL.ordinal() || accumulatorTypes[i] == AccumulatorType.HLL_MERGE.ordinal()) {
+        postSpillAccumulatorVectorFields.add(BaseNdvAccumulator.getSketchField(outputField.getName()));
+      } else {
+        postSpillAccumulatorVectorFields.add(outputField);
+      }
     }
 
-    return new MaterializedAggExpressionsResult(accumulatorTypes, inputVectors, outputVectorFields);
+    return new MaterializedAggExpressionsResult(accumulatorTypes, inputVectors, outputVectorFields,
+                                                postSpillAccumulatorVectorFields);
   }
 
   public static MaterializedAggExpressionsResult getAccumulatorTypesFromExpressions(ClassProducer producer,
@@ -129,6 +139,7 @@ public class AccumulatorBuilder {
    * @param materializedAggExpressions holder for materialized aggregate expressions and info on input/output vectors
    * @param outgoing Outgoing vector container
    * @param maxValuesPerBatch maximum records that can be stored in a hashtable block/batch
+   * @param variableFieldSizeEstimate estimated size of the values of variable width accumulators
    *
    * @param decimalV2Enabled
    * @return A Nested accumulator that holds individual sub-accumulators.
@@ -146,7 +157,8 @@ public class AccumulatorBuilder {
                                               VectorContainer outgoing,
                                               final int maxValuesPerBatch,
                                               final long jointAllocationMin,
-                                              final long jointAllocationLimit, boolean decimalV2Enabled) {
+                                              final long jointAllocationLimit,
+                                              final int variableFieldSizeEstimate, boolean decimalV2Enabled) {
     final byte[] accumulatorTypes = materializedAggExpressions.accumulatorTypes;
     final List<FieldVector> inputVectors = materializedAggExpressions.inputVectors;
     final List<Field> outputVectorFields = materializedAggExpressions.outputVectorFields;
@@ -162,7 +174,7 @@ public class AccumulatorBuilder {
       transferVector = outgoing.addOrGet(outputVector.getField());
       accums[i] = getAccumulator(accumulatorType, inputVector, outputVector,
                                  transferVector, maxValuesPerBatch, computationVectorAllocator,
-                                 decimalV2Enabled);
+                                 variableFieldSizeEstimate, decimalV2Enabled);
       if (accums[i] == null) {
         throw new IllegalStateException("ERROR: invalid accumulator state");
       }
@@ -175,6 +187,7 @@ public class AccumulatorBuilder {
                                             FieldVector outputVector, FieldVector transferVector,
                                             final int maxValuesPerBatch,
                                             final BufferAllocator computationVectorAllocator,
+                                            final int variableFieldSizeEstimate,
                                             boolean decimalCompleteEnabled) {
     if (accumulatorType == AccumulatorType.COUNT1.ordinal()) {
       return new CountOneAccumulator(incomingValues, outputVector, transferVector, maxValuesPerBatch,
@@ -257,6 +270,10 @@ public class AccumulatorBuilder {
             // in the interval. Comparisons are the same as comparisons on the underlying int values
             return new MinAccumulators.IntMinAccumulator(incomingValues, outputVector, transferVector, maxValuesPerBatch,
                                                          computationVectorAllocator);
+          case VARCHAR:
+          case VARBINARY:
+            return new MinAccumulators.VarLenMinAccumulator(incomingValues, transferVector, maxValuesPerBatch,
+                                                            computationVectorAllocator, variableFieldSizeEstimate);
         }
         break;
       }
@@ -309,6 +326,10 @@ public class AccumulatorBuilder {
             // in the interval. Comparisons are the same as comparisons on the underlying int values
             return new MaxAccumulators.IntMaxAccumulator(incomingValues, outputVector, transferVector, maxValuesPerBatch,
                                                          computationVectorAllocator);
+          case VARCHAR:
+          case VARBINARY:
+            return new MaxAccumulators.VarLenMaxAccumulator(incomingValues, transferVector, maxValuesPerBatch,
+                                                            computationVectorAllocator, variableFieldSizeEstimate);
         }
         break;
       }
@@ -344,6 +365,61 @@ public class AccumulatorBuilder {
                                           computationVectorAllocator);
       }
 
+      case 6: {
+        final FieldVector sketchVector = new FixedSizeBinaryVector(
+          BaseNdvAccumulator.getSketchField(outputVector.getField().getName()), computationVectorAllocator);
+        switch(type){
+          case INT:
+            return new NdvAccumulators.IntNdvAccumulator(incomingValues, sketchVector, transferVector, maxValuesPerBatch,
+                                                         computationVectorAllocator);
+          case FLOAT4:
+            return new NdvAccumulators.FloatNdvAccumulator(incomingValues, sketchVector, transferVector, maxValuesPerBatch,
+                                                           computationVectorAllocator);
+          case BIGINT:
+            return new NdvAccumulators.BigIntNdvAccumulator(incomingValues, sketchVector, transferVector, maxValuesPerBatch,
+                                                            computationVectorAllocator);
+          case FLOAT8:
+            return new NdvAccumulators.DoubleNdvAccumulator(incomingValues, sketchVector, transferVector, maxValuesPerBatch,
+                                                            computationVectorAllocator);
+          case DECIMAL:
+            if (decimalCompleteEnabled) {
+              return new NdvAccumulators.DecimalNdvAccumulatorV2(incomingValues, sketchVector, transferVector, maxValuesPerBatch,
+                computationVectorAllocator);
+            } else {
+              return new NdvAccumulators.DecimalNdvAccumulator(incomingValues, sketchVector, transferVector, maxValuesPerBatch,
+                computationVectorAllocator);
+            }
+          case BIT:
+            return new NdvAccumulators.BitNdvAccumulator(incomingValues, sketchVector, transferVector, maxValuesPerBatch,
+                                                         computationVectorAllocator);
+          case DATE:
+          case TIMESTAMP:
+            // dates and timestamps are 8-byte values, the sketch is updated with the underlying long values
+            return new NdvAccumulators.BigIntNdvAccumulator(incomingValues, sketchVector, transferVector, maxValuesPerBatch,
+                                                            computationVectorAllocator);
+          case TIME:
+          case INTERVALYEAR:
+            // time and interval-year are 4-byte values, the sketch is updated with the underlying int values
+            return new NdvAccumulators.IntNdvAccumulator(incomingValues, sketchVector, transferVector, maxValuesPerBatch,
+                                                         computationVectorAllocator);
+          case INTERVALDAY:
+            return new NdvAccumulators.IntervalDayNdvAccumulator(incomingValues, sketchVector, transferVector, maxValuesPerBatch,
+                                                                 computationVectorAllocator);
+          case VARCHAR:
+          case VARBINARY:
+            return new NdvAccumulators.VarLenNdvAccumulator(incomingValues, sketchVector, transferVector, maxValuesPerBatch,
+                                                            computationVectorAllocator);
+        }
+        break;
+      }
+
+      case 7: {
+        final FieldVector sketchVector = new FixedSizeBinaryVector(
+          BaseNdvAccumulator.getSketchField(outputVector.getField().getName()), computationVectorAllocator);
+        return new NdvAccumulators.NdvUnionAccumulator(incomingValues, sketchVector, transferVector, maxValuesPerBatch,
+                                                       computationVectorAllocator);
+      }
+
     }
 
     return null;
@@ -358,19 +434,38 @@ public class AccumulatorBuilder {
     final byte[] accumulatorTypes;
     final List<FieldVector> inputVectors;
     final List<Field> outputVectorFields;
+    final List<Field> postSpillAccumulatorVectorFields;
 
     public MaterializedAggExpressionsResult(final byte[] accumulatorTypes,
                                             final List<FieldVector> inputVectors,
                                             final List<Field> outputVectorFields) {
+      this(accumulatorTypes, inputVectors, outputVectorFields, outputVectorFields);
+    }
+
+    public MaterializedAggExpressionsResult(final byte[] accumulatorTypes,
+                                            final List<FieldVector> inputVectors,
+                                            final List<Field> outputVectorFields,
+                                            final List<Field> postSpillAccumulatorVectorFields) {
       this.accumulatorTypes = accumulatorTypes;
       this.inputVectors = inputVectors;
       this.outputVectorFields = outputVectorFields;
+      this.postSpillAccumulatorVectorFields = postSpillAccumulatorVectorFields;
     }
 
     public List<Field> getOutputVectorFields() {
       return outputVectorFields;
     }
 
+    /**
+     * Get the fields of the accumulator vectors that are spilled. These are the
+     * output fields except for NDV where sketches are spilled in fixed size slots.
+     *
+     * @return fields of spilled accumulator vectors
+     */
+    public List<Field> getPostSpillAccumulatorVectorFields() {
+      return postSpillAccumulatorVectorFields;
+    }
+
     public List<FieldVector> getInputVectors() {
       return inputVectors;
     }
@@ -382,10 +477,15 @@ public class AccumulatorBuilder {
     MAX,
     SUM0,
     COUNT,
-    COUNT1
+    COUNT1,
+    HLL,
+    HLL_MERGE
   }
 
   private static byte getAccumulatorTypeFromName(String name) {
+    if (name.equals("hll_merge")) {
+      return (byte)AccumulatorType.HLL_MERGE.ordinal();
+    }
     // Strip _complete if present.
     String functionName  = name.split("_")[0];
     switch (functionName) {
@@ -401,6 +501,8 @@ public class AccumulatorBuilder {
         return (byte)AccumulatorType.COUNT.ordinal();
       case "count1":
         return (byte)AccumulatorType.COUNT1.ordinal();
+      case "hll":
+        return (byte)AccumulatorType.HLL.ordinal();
       default:
         throw UserException.unsupportedError().message("Unable to handle accumulator function %s", name).build(logger);
     }
@@ -36,6 +36,9 @@ import com.google.common.annotations.VisibleForTesting;
  * Every operation done by {@link VectorizedHashAggOperator} and a
  * {@link com.dremio.sabot.op.common.ht2.LBlockHashTable}
  * on accumulator(s) go through the interfaces provided by AccumulatorSet
+ *
+ * The variable width accumulators ({@link BaseVarBinaryAccumulator}) allocate their
+ * own vectors, so they are left out of the joint allocations.
  */
 public class AccumulatorSet implements ResizeListener, AutoCloseable {
 
@@ -45,6 +48,7 @@ public class AccumulatorSet implements ResizeListener, AutoCloseable {
   private final Accumulator[] children;
   private final Map<Integer, List<List<Integer>>> combinedAccumulators;
   private final List<Integer> singleAccumulators;
+  private final List<Integer> selfAllocatingAccumulators;
   private final int validitySizeForSingleAccumulator;
 
   public AccumulatorSet(final long jointAllocationMin, final long jointAllocationLimit,
@@ -58,11 +62,16 @@ public class AccumulatorSet implements ResizeListener, AutoCloseable {
     final int numAllocationBuckets = Long.numberOfTrailingZeros(jointAllocationLimit) - Long.numberOfTrailingZeros(jointAllocationMin);
     this.combinedAccumulators = new HashMap<>(numAllocationBuckets);
     this.singleAccumulators = new ArrayList<>();
+    this.selfAllocatingAccumulators = new ArrayList<>();
 
     // sort the children in descending order of their sizes.
     final List<Integer> sortedChildIndices = new ArrayList<>();
     for (int i = 0; i < children.length; ++i) {
-      sortedChildIndices.add(i);
+      if (children[i] instanceof BaseVarBinaryAccumulator) {
+        selfAllocatingAccumulators.add(i);
+      } else {
+        sortedChildIndices.add(i);
+      }
     }
     sortedChildIndices.sort((a, b) -> (computeAccumulatorSize(b) - computeAccumulatorSize(a)));
 
@@ -176,6 +185,10 @@ public class AccumulatorSet implements ResizeListener, AutoCloseable {
       int totalSize = computeAccumulatorSize(childIndex);
       allocatePowerOfTwoOrLessAndSlice(totalSize, Collections.singletonList(childIndex));
     }
+
+    for (final Integer childIndex : selfAllocatingAccumulators) {
+      children[childIndex].addBatch(null, null);
+    }
   }
 
   private void allocatePowerOfTwoOrLessAndSlice(final int totalSize, List<Integer> childIndices) throws Exception {
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.aggregate.vectorized;
+
+import java.util.Arrays;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+
+import com.dremio.exec.expr.fn.hll.StatisticsAggrFunctions;
+import com.yahoo.memory.WritableMemory;
+import com.yahoo.sketches.hll.HllSketch;
+import com.yahoo.sketches.hll.TgtHllType;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * A base accumulator for HLL/NDV that can be spilled.
+ *
+ * Unlike the other accumulators the state of an NDV accumulator is not a primitive value but a
+ * sketch. Each group gets a fixed size slot in the data buffer of a FixedSizeBinary accumulator vector,
+ * and the sketch is built directly in that slot (in its updatable serialized form). This way the
+ * accumulator vector can be allocated by {@link AccumulatorSet}, spilled and read back by
+ * {@link VectorizedHashAggPartitionSerializable} like any other fixed width accumulator.
+ *
+ * The validity bit of a slot tells whether the sketch in that slot has been initialized. Sketch
+ * objects wrapping the slots are cached per batch so that they are only created once per group.
+ *
+ * @param <T> type of the sketch kept in each slot
+ */
+abstract class BaseNdvAccumulator<T> extends BaseSingleAccumulator {
+
+  /**
+   * width of a slot, large enough for the updatable form of a sketch (or union)
+   */
+  static final int HLL_SKETCH_WIDTH = HllSketch.getMaxUpdatableSerializationBytes(StatisticsAggrFunctions.HLL_ACCURACY, TgtHllType.HLL_8);
+
+  private static final byte[] EMPTY_SKETCH = new HllSketch(StatisticsAggrFunctions.HLL_ACCURACY, TgtHllType.HLL_8).toCompactByteArray();
+
+  private Object[][] states = new Object[0][];
+
+  BaseNdvAccumulator(final FieldVector input, final FieldVector output,
+                     final FieldVector transferVector, final AccumulatorBuilder.AccumulatorType type,
+                     final int maxValuesPerBatch, final BufferAllocator computationVectorAllocator,
+                     final long[] bitAddresses, final long[] valueAddresses,
+                     final FieldVector[] accumulators) {
+    super(input, output, transferVector, type, maxValuesPerBatch, computationVectorAllocator,
+          bitAddresses, valueAddresses, accumulators);
+  }
+
+  /**
+   * Get the field of the accumulator vector that stores the sketches, this is also the
+   * field of the vector the accumulator is spilled into.
+   *
+   * @param name name of the aggregate
+   * @return FixedSizeBinary field
+   */
+  static Field getSketchField(final String name) {
+    return new Field(name, new FieldType(true, new ArrowType.FixedSizeBinary(HLL_SKETCH_WIDTH), null), null);
+  }
+
+  /**
+   * Create a new (empty) sketch in the given slot.
+   */
+  abstract T newState(WritableMemory slot);
+
+  /**
+   * Wrap a slot that already has an initialized sketch.
+   */
+  abstract T wrapState(WritableMemory slot);
+
+  /**
+   * Serialize the sketch to its compact form, which is what the operator outputs.
+   */
+  abstract byte[] toCompactByteArray(T state);
+
+  @Override
+  void initialize(FieldVector vector) {
+    setNullAndZero(vector);
+  }
+
+  /**
+   * Get the sketch of a group, initializing its slot if this is the first value of the group.
+   *
+   * @param chunkIndex hash table batch index
+   * @param chunkOffset index of the group within the batch
+   * @return sketch for the group
+   */
+  @SuppressWarnings("unchecked")
+  final T getState(final int chunkIndex, final int chunkOffset) {
+    if (chunkIndex >= states.length) {
+      states = Arrays.copyOf(states, Math.max(chunkIndex + 1, getBatchCount()));
+    }
+    Object[] batchStates = states[chunkIndex];
+    if (batchStates == null) {
+      batchStates = new Object[maxValuesPerBatch];
+      states[chunkIndex] = batchStates;
+    }
+
+    T state = (T) batchStates[chunkOffset];
+    if (state == null) {
+      final WritableMemory slot = WritableMemory.wrap(getAccumulatorVector(chunkIndex).getDataBuffer()
+        .nioBuffer((long) chunkOffset * HLL_SKETCH_WIDTH, HLL_SKETCH_WIDTH));
+      final long bitUpdateAddr = bitAddresses[chunkIndex] + ((chunkOffset >>> 5) * 4);
+      final int bits = PlatformDependent.getInt(bitUpdateAddr);
+      final int bitUpdateVal = 1 << (chunkOffset & 31);
+      if ((bits & bitUpdateVal) == 0) {
+        state = newState(slot);
+        PlatformDependent.putInt(bitUpdateAddr, bits | bitUpdateVal);
+      } else {
+        state = wrapState(slot);
+      }
+      batchStates[chunkOffset] = state;
+    }
+    return state;
+  }
+
+  private void clearStates(final int batchIndex) {
+    if (batchIndex < states.length) {
+      states[batchIndex] = null;
+    }
+  }
+
+  /**
+   * Output the sketches of a batch in their compact form. Groups without any
+   * non-null value get an empty sketch.
+   *
+   * The accumulator vector is not transferred as it has a different layout than the
+   * outgoing vector. The slots of batch 0 are reset for post-spill processing, memory
+   * of other batches is released by the caller.
+   *
+   * @param batchIndex batch to output
+   */
+  @Override
+  public void output(final int batchIndex) {
+    final FieldVector accumulationVector = getAccumulatorVector(batchIndex);
+    final long bitAddr = bitAddresses[batchIndex];
+    final byte[][] sketches = new byte[maxValuesPerBatch][];
+    long totalSize = 0;
+    for (int i = 0; i < maxValuesPerBatch; i++) {
+      final int bitVal = (PlatformDependent.getByte(bitAddr + (i >>> 3)) >>> (i & 7)) & 1;
+      sketches[i] = bitVal == 0 ? EMPTY_SKETCH : toCompactByteArray(getState(batchIndex, i));
+      totalSize += sketches[i].length;
+    }
+
+    final BaseVariableWidthVector outVector = (BaseVariableWidthVector) getTransferVector();
+    outVector.allocateNew(totalSize, maxValuesPerBatch);
+    for (int i = 0; i < maxValuesPerBatch; i++) {
+      outVector.setSafe(i, sketches[i], 0, sketches[i].length);
+    }
+
+    clearStates(batchIndex);
+    if (batchIndex == 0) {
+      initialize(accumulationVector);
+    }
+  }
+
+  @Override
+  public void releaseBatch(final int batchIdx) {
+    clearStates(batchIdx);
+    super.releaseBatch(batchIdx);
+  }
+
+  @Override
+  public void revertResize() {
+    final int batches = getBatchCount();
+    super.revertResize();
+    if (getBatchCount() < batches) {
+      clearStates(batches - 1);
+    }
+  }
+
+  @Override
+  public void resetToMinimumSize() throws Exception {
+    states = new Object[0][];
+    super.resetToMinimumSize();
+  }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.aggregate.vectorized;
+
+import static java.util.Arrays.asList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.MutableVarcharVector;
+import org.apache.arrow.vector.UInt2Vector;
+import org.apache.arrow.vector.holders.NullableVarCharHolder;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.exec.expr.TypeHelper;
+import com.dremio.exec.proto.UserBitShared.SerializedField;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A base accumulator for MIN/MAX on variable width columns that can be spilled.
+ *
+ * The computed values are stored in a {@link MutableVarcharVector} per batch. Unlike the
+ * fixed width accumulators the vectors are allocated here and not by {@link AccumulatorSet},
+ * since their size depends on the data. For spilling, the values of a batch are written in
+ * the layout of a regular variable width vector (validity, offsets, data) so that they can be
+ * read back into a VarChar/VarBinary vector that becomes the input of post-spill processing.
+ */
+abstract class BaseVarBinaryAccumulator implements Accumulator {
+
+  private static final double COMPACTION_THRESHOLD = 0.5;
+
+  private FieldVector input;
+  private final FieldVector transferVector;
+  private final AccumulatorBuilder.AccumulatorType type;
+  final int maxValuesPerBatch;
+  private final BufferAllocator computationVectorAllocator;
+  private final int validityBufferSize;
+  private final int offsetBufferSize;
+  /* initial capacity of the data buffer of each accumulator vector */
+  private final int valueBufferSize;
+  private final SerializedField serializedField;
+  MutableVarcharVector[] accumulators;
+  private int batches;
+  private boolean resizeAttempted;
+  /* scratch memory for the validity and offsets of a spilled batch */
+  private ArrowBuf spillBuffer;
+  private final NullableVarCharHolder holder = new NullableVarCharHolder();
+
+  BaseVarBinaryAccumulator(final FieldVector input, final FieldVector transferVector,
+                           final AccumulatorBuilder.AccumulatorType type, final int maxValuesPerBatch,
+                           final BufferAllocator computationVectorAllocator, final int variableFieldSizeEstimate) {
+    this.input = input;
+    this.transferVector = transferVector;
+    this.type = type;
+    this.maxValuesPerBatch = maxValuesPerBatch;
+    this.computationVectorAllocator = computationVectorAllocator;
+    this.validityBufferSize = (int) Math.ceil(maxValuesPerBatch / 8.0);
+    this.offsetBufferSize = (maxValuesPerBatch + 1) * BaseVariableWidthVector.OFFSET_WIDTH;
+    this.valueBufferSize = maxValuesPerBatch * variableFieldSizeEstimate;
+    this.serializedField = TypeHelper.getMetadata(transferVector);
+    this.accumulators = new MutableVarcharVector[0];
+    this.batches = 0;
+  }
+
+  AccumulatorBuilder.AccumulatorType getType() {
+    return type;
+  }
+
+  @Override
+  public FieldVector getInput() {
+    return input;
+  }
+
+  @Override
+  public void setInput(final FieldVector inputVector) {
+    this.input = inputVector;
+  }
+
+  public int getBatchCount() {
+    return batches;
+  }
+
+  @Override
+  public void verifyBatchCount(final int batches) {
+    Preconditions.checkArgument(this.batches == batches, "Error: Detected incorrect batch count in accumulator");
+  }
+
+  @Override
+  public int getValidityBufferSize() {
+    return validityBufferSize;
+  }
+
+  /**
+   * Size of the offsets, forward index and values of the accumulator vector allocated for
+   * each batch, the values being sized with the variable field size estimate. The vector
+   * grows beyond it only if the values are larger than estimated.
+   */
+  @Override
+  public int getDataBufferSize() {
+    return offsetBufferSize + maxValuesPerBatch * UInt2Vector.TYPE_WIDTH + valueBufferSize;
+  }
+
+  /**
+   * Add a new batch. {@link AccumulatorSet} does not slice any buffers for this accumulator,
+   * the accumulator vector for the batch is allocated here.
+   */
+  @Override
+  public void addBatch(final ArrowBuf dataBuffer, final ArrowBuf validityBuffer) {
+    try {
+      if (batches == accumulators.length) {
+        accumulators = Arrays.copyOf(accumulators, (batches == 0) ? 1 : batches * 2);
+      }
+      if (spillBuffer == null) {
+        spillBuffer = computationVectorAllocator.buffer(validityBufferSize + offsetBufferSize);
+      }
+      final MutableVarcharVector vector = new MutableVarcharVector(transferVector.getField().getName(),
+        computationVectorAllocator, COMPACTION_THRESHOLD);
+      /* store the new vector and increment batches before allocating memory */
+      accumulators[batches] = vector;
+      batches++;
+      resizeAttempted = true;
+      vector.allocateNew(valueBufferSize, maxValuesPerBatch);
+    } catch (Exception e) {
+      /* this will be caught by LBlockHashTable and subsequently handled by VectorizedHashAggOperator */
+      Throwables.propagate(e);
+    }
+  }
+
+  @Override
+  public void revertResize() {
+    if (!resizeAttempted) {
+      return;
+    }
+    accumulators[batches - 1].close();
+    accumulators[batches - 1] = null;
+    resizeAttempted = false;
+
+    batches--;
+  }
+
+  @Override
+  public void commitResize() {
+    this.resizeAttempted = false;
+  }
+
+  @Override
+  public long getSizeInBytes() {
+    long size = spillBuffer == null ? 0 : spillBuffer.capacity();
+    for (int i = 0; i < batches; i++) {
+      final MutableVarcharVector vector = accumulators[i];
+      size += vector.getValidityBuffer().capacity() + vector.getOffsetBuffer().capacity() + vector.getDataBuffer().capacity();
+    }
+    return size;
+  }
+
+  @Override
+  public void resetToMinimumSize() throws Exception {
+    Preconditions.checkArgument(batches > 0, "Error: expecting a valid accumulator");
+    final MutableVarcharVector[] oldAccumulators = this.accumulators;
+    final int oldBatches = batches;
+    accumulators = Arrays.copyOfRange(oldAccumulators, 0, 1);
+    accumulators[0].reset();
+    batches = 1;
+    AutoCloseables.close(asList(Arrays.copyOfRange(oldAccumulators, 1, oldBatches)));
+  }
+
+  @Override
+  public void releaseBatch(final int batchIdx) {
+    //the 0th batch memory is never released, only reset.
+    if (batchIdx == 0) {
+      accumulators[0].reset();
+      return;
+    }
+    Preconditions.checkArgument(batchIdx < batches, "Error: incorrect batch index to release");
+    accumulators[batchIdx].close();
+  }
+
+  /**
+   * Copy the values of a batch into the vector in outgoing container. The accumulator
+   * vector of batch 0 is reset for post-spill processing, memory of other batches is
+   * released by the caller.
+   *
+   * @param batchIndex batch to output
+   */
+  @Override
+  public void output(final int batchIndex) {
+    final MutableVarcharVector vector = accumulators[batchIndex];
+    final BaseVariableWidthVector outVector = (BaseVariableWidthVector) transferVector;
+    outVector.allocateNew(vector.getUsedByteCapacity(), maxValuesPerBatch);
+    for (int i = 0; i < maxValuesPerBatch && vector.isIndexSafe(i); i++) {
+      vector.get(i, holder);
+      if (holder.isSet == 1) {
+        outVector.setSafe(i, holder.start, holder.end - holder.start, holder.buffer);
+      }
+    }
+    if (batchIndex == 0) {
+      vector.reset();
+    }
+  }
+
+  /**
+   * Collect the buffers to spill the values of a batch. The values are laid out in the
+   * order of the groups as a regular variable width vector: validity buffer, offset buffer
+   * and data buffer. The data buffer is made of slices of the accumulator vector
+   * as runs of contiguous values.
+   *
+   * @param batchIndex batch to spill
+   * @param valueCount number of groups in the batch
+   * @param buffers list to which buffers to be spilled are added
+   * @return metadata of the spilled vector
+   */
+  SerializedField getSpillBuffers(final int batchIndex, final int valueCount, final List<ArrowBuf> buffers) {
+    final MutableVarcharVector vector = accumulators[batchIndex];
+    final int validityLength = (int) Math.ceil(valueCount / 8.0);
+    final int offsetLength = (valueCount + 1) * BaseVariableWidthVector.OFFSET_WIDTH;
+    final ArrowBuf validity = spillBuffer.slice(0, validityLength);
+    final ArrowBuf offsets = spillBuffer.slice(validityBufferSize, offsetLength);
+    validity.setZero(0, validityLength);
+    buffers.add(validity);
+    buffers.add(offsets);
+
+    int dataLength = 0;
+    int runStart = -1;
+    int runEnd = -1;
+    offsets.setInt(0, 0);
+    for (int i = 0; i < valueCount; i++) {
+      if (vector.isIndexSafe(i)) {
+        vector.get(i, holder);
+      } else {
+        holder.isSet = 0;
+      }
+      if (holder.isSet == 1) {
+        BitVectorHelper.setValidityBit(validity, i, 1);
+        dataLength += holder.end - holder.start;
+        if (holder.start != runEnd) {
+          if (runStart >= 0) {
+            buffers.add(vector.getDataBuffer().slice(runStart, runEnd - runStart));
+          }
+          runStart = holder.start;
+        }
+        runEnd = holder.end;
+      }
+      offsets.setInt((long) (i + 1) * BaseVariableWidthVector.OFFSET_WIDTH, dataLength);
+    }
+    if (runStart >= 0) {
+      buffers.add(vector.getDataBuffer().slice(runStart, runEnd - runStart));
+    }
+
+    final SerializedField valuesField = serializedField.getChild(1);
+    return serializedField.toBuilder()
+      .setValueCount(valueCount)
+      .setBufferLength(validityLength + offsetLength + dataLength)
+      .clearChild()
+      .addChild(serializedField.getChild(0).toBuilder().setValueCount(valueCount).setBufferLength(validityLength))
+      .addChild(valuesField.toBuilder()
+        .setValueCount(valueCount)
+        .setBufferLength(offsetLength + dataLength)
+        .clearChild()
+        .addChild(valuesField.getChild(0).toBuilder().setValueCount(valueCount + 1).setBufferLength(offsetLength)))
+      .build();
+  }
+
+  @Override
+  public void close() throws Exception {
+    final List<AutoCloseable> toClose = new ArrayList<>(ImmutableList.copyOf(Arrays.copyOf(accumulators, batches)));
+    if (spillBuffer != null) {
+      toClose.add(spillBuffer);
+      spillBuffer = null;
+    }
+    AutoCloseables.close(toClose);
+  }
+}
@@ -35,7 +35,7 @@ public class HashAggPartitionWritableBatch {
   private final List<ArrowBuf> fixedBlockBuffers;
   private final List<ArrowBuf> variableBlockBuffers;
   private final Accumulator[] accumulators;
-  private final ArrowBuf[] buffers;
+  private final List<ArrowBuf> buffers;
   private int currentBatchIndex;
   private final int blockWidth;
   private final int hashTableSize;
@@ -48,9 +48,9 @@ public class HashAggPartitionWritableBatch {
   static final byte VARIABLE_BUFFER_LENGTH_OFFSET = 4;
   static final byte NUM_ACCUMULATORS_OFFSET = 8;
 
-  /* as of now we only have fixed width accumulators so each
-   * corresponding accumulator column vector that stores computed
-   * values has 2 buffers -- validity, data
+  /* each fixed width accumulator column vector that stores computed
+   * values has 2 buffers -- validity, data. variable width accumulators
+   * have validity, offset and one or more data buffers.
    */
   private static final int NUM_BUFFERS_PERACCUMULATOR_PERBATCH = 2;
 
@@ -75,7 +75,7 @@ public class HashAggPartitionWritableBatch {
     this.fixedBlockBuffers = fixedBlockBuffers;
     this.variableBlockBuffers = variableBlockBuffers;
     this.numWritableBuffers = NUM_HASHTABLE_BUFFERS_PERBATCH + (accumulators.length * NUM_BUFFERS_PERACCUMULATOR_PERBATCH);
-    this.buffers = new ArrowBuf[numWritableBuffers];
+    this.buffers = new ArrayList<>(numWritableBuffers);
     this.blockWidth = blockWidth;
     this.currentBatchIndex = 0;
     this.hashTableSize = hashTableSize;
@@ -85,12 +85,17 @@ public class HashAggPartitionWritableBatch {
   /**
    * Verify the following:
    *
-   * 1. Each accumulator in the top level NestedAccumulator is of type BaseSingleAccumulator.
-   * 2. The number of batches in each BaseSingleAccumulator is equal to the number of batches
+   * 1. Each accumulator in the top level NestedAccumulator is of type BaseSingleAccumulator
+   * or BaseVarBinaryAccumulator.
+   * 2. The number of batches in each accumulator is equal to the number of batches
    * in the hash table.
    */
   private void checkAccumulators(int batchCount) {
     for (int i = 0; i < accumulators.length; i++) {
+      if (accumulators[i] instanceof BaseVarBinaryAccumulator) {
+        Preconditions.checkArgument(((BaseVarBinaryAccumulator)accumulators[i]).getBatchCount() == batchCount);
+        continue;
+      }
       Preconditions.checkArgument(accumulators[i] instanceof BaseSingleAccumulator, "ERROR: invalid accumulator type");
       Preconditions.checkArgument(((BaseSingleAccumulator)accumulators[i]).getBatchCount() == batchCount);
     }
@@ -152,6 +157,10 @@ public class HashAggPartitionWritableBatch {
    *
    * So total 6 buffers per batch.
    *
+   * An accumulator on a variable width column (MIN/MAX on VARCHAR) instead contributes
+   * a validity buffer, an offset buffer and the data of its values, see
+   * {@link BaseVarBinaryAccumulator#getSpillBuffers(int, int, List)}.
+   *
    * Finally, we form a set of buffers (from hash table and accumulator) along with corresponding
    * metadata and this is then spilled by the caller.
    *
@@ -177,24 +186,27 @@ public class HashAggPartitionWritableBatch {
     final int numRecordsInChunk = fixedBufferLength/blockWidth;
     Preconditions.checkArgument(numRecordsInChunk <= maxValuesPerBatch, "Error: detected invalid number of records in batch");
 
-    buffers[0] = fixedBlockBuffer;
-    buffers[1] = variableBlockBuffer;
+    buffers.clear();
+    buffers.add(fixedBlockBuffer);
+    buffers.add(variableBlockBuffer);
 
     final List<UserBitShared.SerializedField> metadata = new ArrayList<>(accumulators.length);
     final byte[] accumulatorTypes = new byte[accumulators.length];
 
-    int k = 2;
     for (int i = 0; i < accumulators.length; i++) {
+      if (accumulators[i] instanceof BaseVarBinaryAccumulator) {
+        final BaseVarBinaryAccumulator accumulator = (BaseVarBinaryAccumulator)accumulators[i];
+        metadata.add(accumulator.getSpillBuffers(currentBatchIndex, numRecordsInChunk, buffers));
+        accumulatorTypes[i] = (byte)accumulator.getType().ordinal();
+        continue;
+      }
       final BaseSingleAccumulator accumulator = (BaseSingleAccumulator)accumulators[i];
       accumulator.setValueCount(currentBatchIndex, numRecordsInChunk);
       final List<ArrowBuf> accumulatorBuffers = accumulator.getBuffers(currentBatchIndex);
       Preconditions.checkArgument(accumulatorBuffers.size() == 2, "ERROR: incorrect number of buffers in accumulator vector");
       metadata.add(TypeHelper.getMetadata(accumulator.getAccumulatorVector(currentBatchIndex)));
       accumulatorTypes[i] = (byte)accumulator.getType().ordinal();
-      for (int j = 0; j < accumulatorBuffers.size(); j++) {
-        buffers[k] = accumulatorBuffers.get(j);
-        k++;
-      }
+      buffers.addAll(accumulatorBuffers);
     }
 
     final UserBitShared.RecordBatchDef accumulatorBatchDef = UserBitShared.RecordBatchDef.newBuilder()
@@ -209,7 +221,7 @@ public class HashAggPartitionWritableBatch {
       accumulatorTypes, accumulatorBatchDef, batchIdx);
   }
 
-  public ArrowBuf[] getBuffers() {
+  public List<ArrowBuf> getBuffers() {
     return buffers;
   }
 
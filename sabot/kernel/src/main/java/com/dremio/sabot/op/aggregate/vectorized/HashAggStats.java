@@ -80,7 +80,11 @@ public class HashAggStats {
     OOB_DROP_UNDER_THRESHOLD, // Number of times OOB dropped spilling notification as it was under the threshold.
     OOB_DROP_NO_VICTIM, // Number of times OOB dropped spilling notification as all allocations were minimal.
     OOB_SPILL, // Spill was done due to oob.
-    OOB_DROP_ALREADY_SPILLING // Number of times operator dropped spilling notification as it was already spilling
+    OOB_DROP_ALREADY_SPILLING, // Number of times operator dropped spilling notification as it was already spilling
+
+    PARTIAL_AGG_BYPASSED,     /* 1 if phase-1 aggregation switched to passing incoming records through */
+    PARTIAL_AGG_REDUCTION_PERCENT, /* groups as a percentage of records consumed, measured over the sampled batches */
+    PARTIAL_AGG_PASSED_THROUGH_RECORDS /* number of incoming records output without being aggregated */
 
     ;
 
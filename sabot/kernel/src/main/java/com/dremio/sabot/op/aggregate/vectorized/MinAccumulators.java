@@ -21,9 +21,14 @@ import static com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggOperator
 
 import java.math.BigDecimal;
 
+import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BaseVariableWidthVector;
 import org.apache.arrow.vector.DecimalVector;
 import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.MutableVarcharVector;
+import org.apache.arrow.vector.holders.NullableVarCharHolder;
+import org.apache.arrow.vector.util.ByteFunctionHelpers;
 
 import com.dremio.exec.util.DecimalUtils;
 
@@ -554,4 +559,54 @@ public class MinAccumulators {
     }
     return a;
   }
+
+  public static class VarLenMinAccumulator extends BaseVarBinaryAccumulator {
+    private final NullableVarCharHolder holder = new NullableVarCharHolder();
+
+    public VarLenMinAccumulator(FieldVector input, FieldVector transferVector, int maxValuesPerBatch,
+                                BufferAllocator computationVectorAllocator, int variableFieldSizeEstimate) {
+      super(input, transferVector, AccumulatorBuilder.AccumulatorType.MIN, maxValuesPerBatch,
+            computationVectorAllocator, variableFieldSizeEstimate);
+    }
+
+    public void accumulate(final long memoryAddr, final int count,
+                           final int bitsInChunk, final int chunkOffsetMask) {
+      final long maxMemAddr = memoryAddr + count * PARTITIONINDEX_HTORDINAL_WIDTH;
+      final FieldVector inputVector = getInput();
+      final long incomingBit = inputVector.getValidityBufferAddress();
+      final ArrowBuf inputOffsetBuf = inputVector.getOffsetBuffer();
+      final ArrowBuf inputBuf = inputVector.getDataBuffer();
+      final MutableVarcharVector[] accumulators = this.accumulators;
+
+      for (long partitionAndOrdinalAddr = memoryAddr; partitionAndOrdinalAddr < maxMemAddr; partitionAndOrdinalAddr += PARTITIONINDEX_HTORDINAL_WIDTH) {
+        /* get the index of data in input vector */
+        final int incomingIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + KEYINDEX_OFFSET);
+        final int bitVal = (PlatformDependent.getByte(incomingBit + ((incomingIndex >>> 3))) >>> (incomingIndex & 7)) & 1;
+        /* incoming record is null, skip it */
+        if (bitVal == 0) {
+          continue;
+        }
+        /* get the hash table ordinal */
+        final int tableIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + HTORDINAL_OFFSET);
+        /* get the hash table batch index */
+        final int chunkIndex = tableIndex >>> bitsInChunk;
+        final int chunkOffset = tableIndex & chunkOffsetMask;
+        /* get the offset of incoming record */
+        final int startOffset = inputOffsetBuf.getInt((long) incomingIndex * BaseVariableWidthVector.OFFSET_WIDTH);
+        final int endOffset = inputOffsetBuf.getInt((long) (incomingIndex + 1) * BaseVariableWidthVector.OFFSET_WIDTH);
+
+        final MutableVarcharVector mv = accumulators[chunkIndex];
+        holder.isSet = 0;
+        if (mv.isIndexSafe(chunkOffset)) {
+          mv.get(chunkOffset, holder);
+        }
+
+        /* replace a null min or compare incoming with currently running min record */
+        if (holder.isSet == 0
+          || ByteFunctionHelpers.compare(inputBuf, startOffset, endOffset, holder.buffer, holder.start, holder.end) == -1) {
+          mv.setSafe(chunkOffset, startOffset, endOffset - startOffset, inputBuf);
+        }
+      }
+    }
+  }
 }
@@ -0,0 +1,442 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.aggregate.vectorized;
+
+import static com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggOperator.HTORDINAL_OFFSET;
+import static com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggOperator.KEYINDEX_OFFSET;
+import static com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggOperator.PARTITIONINDEX_HTORDINAL_WIDTH;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+
+import com.dremio.exec.expr.fn.hll.StatisticsAggrFunctions;
+import com.dremio.exec.util.DecimalUtils;
+import com.yahoo.memory.Memory;
+import com.yahoo.memory.WritableMemory;
+import com.yahoo.sketches.hll.HllSketch;
+import com.yahoo.sketches.hll.TgtHllType;
+import com.yahoo.sketches.hll.Union;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Spillable HLL/NDV accumulators.
+ *
+ * Phase 1 (HLL) accumulators update a sketch per group from the input values. Phase 2 (HLL_MERGE)
+ * accumulators union the incoming sketches. Once a partition has been spilled, the sketches read back
+ * from disk are merged the same way, so pre-spill HLL accumulators become {@link NdvUnionAccumulator}
+ * for post-spill processing.
+ */
+public class NdvAccumulators {
+
+  private NdvAccumulators(){};
+
+  /**
+   * Base for the accumulators that build a sketch from the input values.
+   */
+  abstract static class HllNdvAccumulator extends BaseNdvAccumulator<HllSketch> {
+
+    HllNdvAccumulator(FieldVector input, FieldVector output,
+                      FieldVector transferVector, int maxValuesPerBatch,
+                      BufferAllocator computationVectorAllocator) {
+      super(input, output, transferVector, AccumulatorBuilder.AccumulatorType.HLL, maxValuesPerBatch,
+            computationVectorAllocator, null, null, null);
+    }
+
+    @Override
+    HllSketch newState(WritableMemory slot) {
+      return new HllSketch(StatisticsAggrFunctions.HLL_ACCURACY, TgtHllType.HLL_8, slot);
+    }
+
+    @Override
+    HllSketch wrapState(WritableMemory slot) {
+      // sketch objects are only dropped from the cache along with the contents of their slots
+      throw new IllegalStateException("Error: detected an initialized sketch slot without a sketch");
+    }
+
+    @Override
+    byte[] toCompactByteArray(HllSketch state) {
+      return state.toCompactByteArray();
+    }
+  }
+
+  public static class IntNdvAccumulator extends HllNdvAccumulator {
+    private static final int WIDTH_INPUT = 4;
+
+    public IntNdvAccumulator(FieldVector input, FieldVector output,
+                             FieldVector transferVector, int maxValuesPerBatch,
+                             BufferAllocator computationVectorAllocator) {
+      super(input, output, transferVector, maxValuesPerBatch, computationVectorAllocator);
+    }
+
+    public void accumulate(final long memoryAddr, final int count,
+                           final int bitsInChunk, final int chunkOffsetMask) {
+      final long maxMemAddr = memoryAddr + count * PARTITIONINDEX_HTORDINAL_WIDTH;
+      final FieldVector inputVector = getInput();
+      final long incomingBit = inputVector.getValidityBufferAddress();
+      final long incomingValue = inputVector.getDataBufferAddress();
+
+      for (long partitionAndOrdinalAddr = memoryAddr; partitionAndOrdinalAddr < maxMemAddr; partitionAndOrdinalAddr += PARTITIONINDEX_HTORDINAL_WIDTH) {
+        /* get the index of data in input vector */
+        final int incomingIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + KEYINDEX_OFFSET);
+        final int bitVal = (PlatformDependent.getByte(incomingBit + ((incomingIndex >>> 3))) >>> (incomingIndex & 7)) & 1;
+        /* incoming record is null, skip it */
+        if (bitVal == 0) {
+          continue;
+        }
+        /* get the hash table ordinal */
+        final int tableIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + HTORDINAL_OFFSET);
+        final int newVal = PlatformDependent.getInt(incomingValue + (incomingIndex * WIDTH_INPUT));
+        getState(tableIndex >>> bitsInChunk, tableIndex & chunkOffsetMask).update(newVal);
+      }
+    }
+  }
+
+  public static class BigIntNdvAccumulator extends HllNdvAccumulator {
+    private static final int WIDTH_INPUT = 8;
+
+    public BigIntNdvAccumulator(FieldVector input, FieldVector output,
+                                FieldVector transferVector, int maxValuesPerBatch,
+                                BufferAllocator computationVectorAllocator) {
+      super(input, output, transferVector, maxValuesPerBatch, computationVectorAllocator);
+    }
+
+    public void accumulate(final long memoryAddr, final int count,
+                           final int bitsInChunk, final int chunkOffsetMask) {
+      final long maxMemAddr = memoryAddr + count * PARTITIONINDEX_HTORDINAL_WIDTH;
+      final FieldVector inputVector = getInput();
+      final long incomingBit = inputVector.getValidityBufferAddress();
+      final long incomingValue = inputVector.getDataBufferAddress();
+
+      for (long partitionAndOrdinalAddr = memoryAddr; partitionAndOrdinalAddr < maxMemAddr; partitionAndOrdinalAddr += PARTITIONINDEX_HTORDINAL_WIDTH) {
+        final int incomingIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + KEYINDEX_OFFSET);
+        final int bitVal = (PlatformDependent.getByte(incomingBit + ((incomingIndex >>> 3))) >>> (incomingIndex & 7)) & 1;
+        if (bitVal == 0) {
+          continue;
+        }
+        final int tableIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + HTORDINAL_OFFSET);
+        final long newVal = PlatformDependent.getLong(incomingValue + (incomingIndex * WIDTH_INPUT));
+        getState(tableIndex >>> bitsInChunk, tableIndex & chunkOffsetMask).update(newVal);
+      }
+    }
+  }
+
+  public static class FloatNdvAccumulator extends HllNdvAccumulator {
+    private static final int WIDTH_INPUT = 4;
+
+    public FloatNdvAccumulator(FieldVector input, FieldVector output,
+                               FieldVector transferVector, int maxValuesPerBatch,
+                               BufferAllocator computationVectorAllocator) {
+      super(input, output, transferVector, maxValuesPerBatch, computationVectorAllocator);
+    }
+
+    public void accumulate(final long memoryAddr, final int count,
+                           final int bitsInChunk, final int chunkOffsetMask) {
+      final long maxMemAddr = memoryAddr + count * PARTITIONINDEX_HTORDINAL_WIDTH;
+      final FieldVector inputVector = getInput();
+      final long incomingBit = inputVector.getValidityBufferAddress();
+      final long incomingValue = inputVector.getDataBufferAddress();
+
+      for (long partitionAndOrdinalAddr = memoryAddr; partitionAndOrdinalAddr < maxMemAddr; partitionAndOrdinalAddr += PARTITIONINDEX_HTORDINAL_WIDTH) {
+        final int incomingIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + KEYINDEX_OFFSET);
+        final int bitVal = (PlatformDependent.getByte(incomingBit + ((incomingIndex >>> 3))) >>> (incomingIndex & 7)) & 1;
+        if (bitVal == 0) {
+          continue;
+        }
+        final int tableIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + HTORDINAL_OFFSET);
+        final float newVal = Float.intBitsToFloat(PlatformDependent.getInt(incomingValue + (incomingIndex * WIDTH_INPUT)));
+        getState(tableIndex >>> bitsInChunk, tableIndex & chunkOffsetMask).update(newVal);
+      }
+    }
+  }
+
+  public static class DoubleNdvAccumulator extends HllNdvAccumulator {
+    private static final int WIDTH_INPUT = 8;
+
+    public DoubleNdvAccumulator(FieldVector input, FieldVector output,
+                                FieldVector transferVector, int maxValuesPerBatch,
+                                BufferAllocator computationVectorAllocator) {
+      super(input, output, transferVector, maxValuesPerBatch, computationVectorAllocator);
+    }
+
+    public void accumulate(final long memoryAddr, final int count,
+                           final int bitsInChunk, final int chunkOffsetMask) {
+      final long maxMemAddr = memoryAddr + count * PARTITIONINDEX_HTORDINAL_WIDTH;
+      final FieldVector inputVector = getInput();
+      final long incomingBit = inputVector.getValidityBufferAddress();
+      final long incomingValue = inputVector.getDataBufferAddress();
+
+      for (long partitionAndOrdinalAddr = memoryAddr; partitionAndOrdinalAddr < maxMemAddr; partitionAndOrdinalAddr += PARTITIONINDEX_HTORDINAL_WIDTH) {
+        final int incomingIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + KEYINDEX_OFFSET);
+        final int bitVal = (PlatformDependent.getByte(incomingBit + ((incomingIndex >>> 3))) >>> (incomingIndex & 7)) & 1;
+        if (bitVal == 0) {
+          continue;
+        }
+        final int tableIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + HTORDINAL_OFFSET);
+        final double newVal = Double.longBitsToDouble(PlatformDependent.getLong(incomingValue + (incomingIndex * WIDTH_INPUT)));
+        getState(tableIndex >>> bitsInChunk, tableIndex & chunkOffsetMask).update(newVal);
+      }
+    }
+  }
+
+  public static class DecimalNdvAccumulator extends HllNdvAccumulator {
+    private static final int WIDTH_INPUT = 16;      // decimal inputs
+    private final byte[] valBuf = new byte[WIDTH_INPUT];
+
+    public DecimalNdvAccumulator(FieldVector input, FieldVector output,
+                                 FieldVector transferVector, int maxValuesPerBatch,
+                                 BufferAllocator computationVectorAllocator) {
+      super(input, output, transferVector, maxValuesPerBatch, computationVectorAllocator);
+    }
+
+    public void accumulate(final long memoryAddr, final int count,
+                           final int bitsInChunk, final int chunkOffsetMask) {
+      final long maxMemAddr = memoryAddr + count * PARTITIONINDEX_HTORDINAL_WIDTH;
+      final FieldVector inputVector = getInput();
+      final long incomingBit = inputVector.getValidityBufferAddress();
+      final long incomingValue = inputVector.getDataBufferAddress();
+      final int scale = ((DecimalVector) inputVector).getScale();
+
+      for (long partitionAndOrdinalAddr = memoryAddr; partitionAndOrdinalAddr < maxMemAddr; partitionAndOrdinalAddr += PARTITIONINDEX_HTORDINAL_WIDTH) {
+        final int incomingIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + KEYINDEX_OFFSET);
+        final int bitVal = (PlatformDependent.getByte(incomingBit + ((incomingIndex >>> 3))) >>> (incomingIndex & 7)) & 1;
+        if (bitVal == 0) {
+          continue;
+        }
+        final int tableIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + HTORDINAL_OFFSET);
+        final java.math.BigDecimal newVal = DecimalUtils.getBigDecimalFromLEBytes(incomingValue + (incomingIndex * WIDTH_INPUT), valBuf, scale);
+        getState(tableIndex >>> bitsInChunk, tableIndex & chunkOffsetMask).update(newVal.doubleValue());
+      }
+    }
+  }
+
+  public static class DecimalNdvAccumulatorV2 extends HllNdvAccumulator {
+    private static final int WIDTH_INPUT = 16;      // decimal inputs
+
+    public DecimalNdvAccumulatorV2(FieldVector input, FieldVector output,
+                                   FieldVector transferVector, int maxValuesPerBatch,
+                                   BufferAllocator computationVectorAllocator) {
+      super(input, output, transferVector, maxValuesPerBatch, computationVectorAllocator);
+    }
+
+    public void accumulate(final long memoryAddr, final int count,
+                           final int bitsInChunk, final int chunkOffsetMask) {
+      final long maxMemAddr = memoryAddr + count * PARTITIONINDEX_HTORDINAL_WIDTH;
+      final FieldVector inputVector = getInput();
+      final long incomingBit = inputVector.getValidityBufferAddress();
+      final ArrowBuf inputBuf = inputVector.getDataBuffer();
+
+      for (long partitionAndOrdinalAddr = memoryAddr; partitionAndOrdinalAddr < maxMemAddr; partitionAndOrdinalAddr += PARTITIONINDEX_HTORDINAL_WIDTH) {
+        final int incomingIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + KEYINDEX_OFFSET);
+        final int bitVal = (PlatformDependent.getByte(incomingBit + ((incomingIndex >>> 3))) >>> (incomingIndex & 7)) & 1;
+        if (bitVal == 0) {
+          continue;
+        }
+        final int tableIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + HTORDINAL_OFFSET);
+        /* the sketch is updated with the raw (little endian) decimal bytes */
+        final Memory value = Memory.wrap(inputBuf.nioBuffer((long) incomingIndex * WIDTH_INPUT, WIDTH_INPUT));
+        getState(tableIndex >>> bitsInChunk, tableIndex & chunkOffsetMask).update(value, 0, WIDTH_INPUT);
+      }
+    }
+  }
+
+  public static class BitNdvAccumulator extends HllNdvAccumulator {
+
+    public BitNdvAccumulator(FieldVector input, FieldVector output,
+                             FieldVector transferVector, int maxValuesPerBatch,
+                             BufferAllocator computationVectorAllocator) {
+      super(input, output, transferVector, maxValuesPerBatch, computationVectorAllocator);
+    }
+
+    public void accumulate(final long memoryAddr, final int count,
+                           final int bitsInChunk, final int chunkOffsetMask) {
+      final long maxMemAddr = memoryAddr + count * PARTITIONINDEX_HTORDINAL_WIDTH;
+      final FieldVector inputVector = getInput();
+      final long incomingBit = inputVector.getValidityBufferAddress();
+      final long incomingValue = inputVector.getDataBufferAddress();
+
+      for (long partitionAndOrdinalAddr = memoryAddr; partitionAndOrdinalAddr < maxMemAddr; partitionAndOrdinalAddr += PARTITIONINDEX_HTORDINAL_WIDTH) {
+        final int incomingIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + KEYINDEX_OFFSET);
+        final int bitVal = (PlatformDependent.getByte(incomingBit + ((incomingIndex >>> 3))) >>> (incomingIndex & 7)) & 1;
+        if (bitVal == 0) {
+          continue;
+        }
+        final int tableIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + HTORDINAL_OFFSET);
+        final int newVal = (PlatformDependent.getByte(incomingValue + ((incomingIndex >>> 3))) >>> (incomingIndex & 7)) & 1;
+        getState(tableIndex >>> bitsInChunk, tableIndex & chunkOffsetMask).update(newVal);
+      }
+    }
+  }
+
+  public static class IntervalDayNdvAccumulator extends HllNdvAccumulator {
+    private static final int WIDTH_INPUT = 8;       // pair-of-ints inputs
+
+    public IntervalDayNdvAccumulator(FieldVector input, FieldVector output,
+                                     FieldVector transferVector, int maxValuesPerBatch,
+                                     BufferAllocator computationVectorAllocator) {
+      super(input, output, transferVector, maxValuesPerBatch, computationVectorAllocator);
+    }
+
+    public void accumulate(final long memoryAddr, final int count,
+                           final int bitsInChunk, final int chunkOffsetMask) {
+      final long maxMemAddr = memoryAddr + count * PARTITIONINDEX_HTORDINAL_WIDTH;
+      final FieldVector inputVector = getInput();
+      final long incomingBit = inputVector.getValidityBufferAddress();
+      final long incomingValue = inputVector.getDataBufferAddress();
+
+      for (long partitionAndOrdinalAddr = memoryAddr; partitionAndOrdinalAddr < maxMemAddr; partitionAndOrdinalAddr += PARTITIONINDEX_HTORDINAL_WIDTH) {
+        final int incomingIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + KEYINDEX_OFFSET);
+        final int bitVal = (PlatformDependent.getByte(incomingBit + ((incomingIndex >>> 3))) >>> (incomingIndex & 7)) & 1;
+        if (bitVal == 0) {
+          continue;
+        }
+        final int tableIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + HTORDINAL_OFFSET);
+        final long newVal = PlatformDependent.getLong(incomingValue + (incomingIndex * WIDTH_INPUT));
+        getState(tableIndex >>> bitsInChunk, tableIndex & chunkOffsetMask).update(newVal);
+      }
+    }
+  }
+
+  public static class VarLenNdvAccumulator extends HllNdvAccumulator {
+
+    public VarLenNdvAccumulator(FieldVector input, FieldVector output,
+                                FieldVector transferVector, int maxValuesPerBatch,
+                                BufferAllocator computationVectorAllocator) {
+      super(input, output, transferVector, maxValuesPerBatch, computationVectorAllocator);
+    }
+
+    public void accumulate(final long memoryAddr, final int count,
+                           final int bitsInChunk, final int chunkOffsetMask) {
+      final long maxMemAddr = memoryAddr + count * PARTITIONINDEX_HTORDINAL_WIDTH;
+      final FieldVector inputVector = getInput();
+      final long incomingBit = inputVector.getValidityBufferAddress();
+      final ArrowBuf inputOffsetBuf = inputVector.getOffsetBuffer();
+      final ArrowBuf inputBuf = inputVector.getDataBuffer();
+
+      for (long partitionAndOrdinalAddr = memoryAddr; partitionAndOrdinalAddr < maxMemAddr; partitionAndOrdinalAddr += PARTITIONINDEX_HTORDINAL_WIDTH) {
+        final int incomingIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + KEYINDEX_OFFSET);
+        final int bitVal = (PlatformDependent.getByte(incomingBit + ((incomingIndex >>> 3))) >>> (incomingIndex & 7)) & 1;
+        if (bitVal == 0) {
+          continue;
+        }
+        final int tableIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + HTORDINAL_OFFSET);
+        /* get the offset of incoming record */
+        final int startOffset = inputOffsetBuf.getInt((long) incomingIndex * BaseVariableWidthVector.OFFSET_WIDTH);
+        final int endOffset = inputOffsetBuf.getInt((long) (incomingIndex + 1) * BaseVariableWidthVector.OFFSET_WIDTH);
+        final int len = endOffset - startOffset;
+        getState(tableIndex >>> bitsInChunk, tableIndex & chunkOffsetMask)
+          .update(Memory.wrap(inputBuf.nioBuffer(startOffset, len)), 0, len);
+      }
+    }
+  }
+
+  /**
+   * Merges sketches into a union per group. The input is either a VarBinary vector of
+   * compact sketches (phase 2 of NDV) or the FixedSizeBinary accumulator vector of an
+   * NDV accumulator read back from a spilled batch.
+   */
+  public static class NdvUnionAccumulator extends BaseNdvAccumulator<Union> {
+
+    public NdvUnionAccumulator(FieldVector input, FieldVector output,
+                               FieldVector transferVector, int maxValuesPerBatch,
+                               BufferAllocator computationVectorAllocator) {
+      this(input, output, transferVector, maxValuesPerBatch, computationVectorAllocator,
+           null, null, null);
+    }
+
+    private NdvUnionAccumulator(final FieldVector input, final FieldVector output,
+                                final FieldVector transferVector, final int maxValuesPerBatch,
+                                final BufferAllocator computationVectorAllocator,
+                                final long[] bitAddresses, final long[] valueAddresses,
+                                final FieldVector[] accumulators) {
+      super(input, output, transferVector, AccumulatorBuilder.AccumulatorType.HLL_MERGE,
+            maxValuesPerBatch, computationVectorAllocator, bitAddresses, valueAddresses, accumulators);
+    }
+
+    /**
+     * Used during post-spill processing to convert a HLL accumulator
+     * into a union accumulator that merges the spilled sketches
+     *
+     * @param ndvAccumulator pre-spill accumulator
+     * @param input input vector with values to be accumulated
+     * @param maxValuesPerBatch max values in a hash table batch
+     * @param computationVectorAllocator allocator used for allocating
+     *                                   accumulators that store computed values
+     */
+    NdvUnionAccumulator(final HllNdvAccumulator ndvAccumulator,
+                        final FieldVector input, final int maxValuesPerBatch,
+                        final BufferAllocator computationVectorAllocator) {
+      this(input, ndvAccumulator.getOutput(),
+           ndvAccumulator.getTransferVector(),
+           maxValuesPerBatch, computationVectorAllocator,
+           ndvAccumulator.getBitAddresses(),
+           ndvAccumulator.getValueAddresses(),
+           ndvAccumulator.getAccumulators());
+    }
+
+    @Override
+    Union newState(WritableMemory slot) {
+      return new Union(StatisticsAggrFunctions.HLL_ACCURACY, slot);
+    }
+
+    @Override
+    Union wrapState(WritableMemory slot) {
+      final HllSketch existing = HllSketch.heapify(slot);
+      final Union union = new Union(StatisticsAggrFunctions.HLL_ACCURACY, slot);
+      union.update(existing);
+      return union;
+    }
+
+    @Override
+    byte[] toCompactByteArray(Union state) {
+      return state.toCompactByteArray();
+    }
+
+    public void accumulate(final long memoryAddr, final int count,
+                           final int bitsInChunk, final int chunkOffsetMask) {
+      final long maxMemAddr = memoryAddr + count * PARTITIONINDEX_HTORDINAL_WIDTH;
+      final FieldVector inputVector = getInput();
+      final long incomingBit = inputVector.getValidityBufferAddress();
+      /* spilled sketches are in fixed size slots, incoming ones are variable width */
+      final boolean variableWidth = inputVector instanceof BaseVariableWidthVector;
+      final ArrowBuf inputOffsetBuf = variableWidth ? inputVector.getOffsetBuffer() : null;
+      final ArrowBuf inputBuf = inputVector.getDataBuffer();
+
+      for (long partitionAndOrdinalAddr = memoryAddr; partitionAndOrdinalAddr < maxMemAddr; partitionAndOrdinalAddr += PARTITIONINDEX_HTORDINAL_WIDTH) {
+        final int incomingIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + KEYINDEX_OFFSET);
+        final int bitVal = (PlatformDependent.getByte(incomingBit + ((incomingIndex >>> 3))) >>> (incomingIndex & 7)) & 1;
+        if (bitVal == 0) {
+          continue;
+        }
+        final int tableIndex = PlatformDependent.getInt(partitionAndOrdinalAddr + HTORDINAL_OFFSET);
+        final long startOffset;
+        final int len;
+        if (variableWidth) {
+          startOffset = inputOffsetBuf.getInt((long) incomingIndex * BaseVariableWidthVector.OFFSET_WIDTH);
+          len = inputOffsetBuf.getInt((long) (incomingIndex + 1) * BaseVariableWidthVector.OFFSET_WIDTH) - (int) startOffset;
+        } else {
+          startOffset = (long) incomingIndex * HLL_SKETCH_WIDTH;
+          len = HLL_SKETCH_WIDTH;
+        }
+        final HllSketch sketch = HllSketch.wrap(Memory.wrap(inputBuf.nioBuffer(startOffset, len)));
+        getState(tableIndex >>> bitsInChunk, tableIndex & chunkOffsetMask).update(sketch);
+      }
+    }
+  }
+}
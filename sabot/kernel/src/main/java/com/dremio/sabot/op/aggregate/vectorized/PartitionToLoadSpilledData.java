@@ -22,7 +22,10 @@ import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.util.LargeMemoryUtil;
 import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BaseVariableWidthVector;
 import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.FixedSizeBinaryVector;
+import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.apache.arrow.vector.types.pojo.Field;
 
 import com.dremio.common.AutoCloseables;
@@ -139,13 +142,22 @@ public class PartitionToLoadSpilledData implements AutoCloseable {
                                                final AutoCloseables.RollbackCloseable rollbackCloseable) {
     int count = 0;
     for (Field field : postSpillAccumulatorVectorTypes) {
-     FieldVector vector = TypeHelper.getNewVector(field, allocator);
+     /* TypeHelper doesn't honor the width of FixedSizeBinary (used by NDV accumulators) */
+     FieldVector vector = field.getType() instanceof ArrowType.FixedSizeBinary
+       ? new FixedSizeBinaryVector(field, allocator)
+       : TypeHelper.getNewVector(field, allocator);
      /* we have aggregation on INT, BIGINT, FLOAT, FLOAT4 and DECIMAL types of
-      * columns which are all fixed width.
+      * columns which are all fixed width, NDV sketches in fixed size slots and
+      * MIN/MAX on variable width columns.
       */
-     Preconditions.checkArgument(vector instanceof BaseFixedWidthVector, "Error: detected invalid accumulator vector type");
+     Preconditions.checkArgument(vector instanceof BaseFixedWidthVector || vector instanceof BaseVariableWidthVector,
+       "Error: detected invalid accumulator vector type");
      rollbackCloseable.add(vector);
-     ((BaseFixedWidthVector) vector).allocateNew(valueCount);
+     if (vector instanceof BaseFixedWidthVector) {
+       ((BaseFixedWidthVector) vector).allocateNew(valueCount);
+     } else {
+       ((BaseVariableWidthVector) vector).allocateNew(valueCount);
+     }
 
      Preconditions.checkArgument(vector.getValueCapacity() >= valueCount, "Error: failed to correctly pre-allocate accumulator vector in extra partition");
      postSpillAccumulatorVectors[count] = vector;
@@ -300,14 +312,12 @@ public class PartitionToLoadSpilledData implements AutoCloseable {
     variableKeyColPivotedData.readerIndex(0);
     variableKeyColPivotedData.writerIndex(0);
     for (FieldVector vector : postSpillAccumulatorVectors) {
-      final ArrowBuf validityBuffer = vector.getValidityBuffer();
-      final ArrowBuf dataBuffer = vector.getDataBuffer();
-      validityBuffer.readerIndex(0);
-      validityBuffer.writerIndex(0);
-      dataBuffer.readerIndex(0);
-      dataBuffer.writerIndex(0);
-      validityBuffer.setZero(0, validityBuffer.capacity());
-      dataBuffer.setZero(0, dataBuffer.capacity());
+      /* validity and data buffers, along with offset buffer for variable width vectors */
+      for (ArrowBuf buffer : vector.getFieldBuffers()) {
+        buffer.readerIndex(0);
+        buffer.writerIndex(0);
+        buffer.setZero(0, buffer.capacity());
+      }
       vector.setValueCount(0);
     }
   }
@@ -28,6 +28,7 @@ import org.apache.arrow.vector.FieldVector;
 import org.apache.arrow.vector.VarBinaryVector;
 import org.apache.arrow.vector.VarCharVector;
 import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.util.TransferPair;
 
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.exceptions.ExecutionSetupException;
@@ -329,6 +330,9 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
   public static final DoubleValidator OOB_SPILL_TRIGGER_HEADROOM_FACTOR = new RangeDoubleValidator("exec.operator.aggregate.vectorize.oob_trigger_headroom_factor", 0.0d, 10.0d, .2d);
   public static final BooleanValidator OOB_SPILL_TRIGGER_ENABLED = new BooleanValidator("exec.operator.aggregate.vectorize.oob_trigger_enabled", true);
   public static final BooleanValidator VECTORIZED_HASHAGG_ENABLE_MICRO_SPILLS = new BooleanValidator("exec.operator.aggregate.vectorize.enable_micro_spills", true);
+  public static final BooleanValidator VECTORIZED_HASHAGG_PARTIAL_BYPASS_ENABLED = new BooleanValidator("exec.operator.aggregate.vectorize.partial_bypass.enabled", true);
+  public static final PositiveLongValidator VECTORIZED_HASHAGG_PARTIAL_BYPASS_SAMPLE_BATCHES = new PositiveLongValidator("exec.operator.aggregate.vectorize.partial_bypass.sample_batches", Integer.MAX_VALUE, 16);
+  public static final DoubleValidator VECTORIZED_HASHAGG_PARTIAL_BYPASS_THRESHOLD = new RangeDoubleValidator("exec.operator.aggregate.vectorize.partial_bypass.reduction_threshold", 0.0d, 1.0d, .9d);
 
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(VectorizedHashAggOperator.class);
 
@@ -409,6 +413,22 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
   private int bitsInChunk;
   private int chunkOffsetMask;
 
+  /* adaptive bypass of phase-1 aggregation */
+  private final boolean partialAggBypassEnabled;
+  private final int partialAggSampleBatches;
+  private final double partialAggReductionThreshold;
+  private int partialAggSampledBatches;
+  private long partialAggSampledRecords;
+  private double partialAggReductionRatio;
+  private boolean partialAggBypassed;
+  private boolean flushingPartialAgg;
+  /* records of the incoming batch passed through once phase-1 aggregation is bypassed */
+  private List<TransferPair> passThroughKeyTransfers;
+  private VectorizedHashAggPartition passThroughPartition;
+  private int passThroughRecords;
+  private int passThroughRecordsOutput;
+  private long partialAggPassedThroughRecords;
+
   public static final String OUT_OF_MEMORY_MSG = "Vectorized Hash Agg ran out of memory";
 
   public static final String PREALLOC_FAILURE_PARTITIONS = "Error: Failed to preallocate minimum memory in vectorized hashagg for single batch in all partitions";
@@ -462,6 +482,9 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
     this.resumableInsertState = null;
     this.operatorStateBeforeOOB = null;
     this.forceSpillState = null;
+    this.partialAggBypassEnabled = popConfig.isPartial() && options.getOption(VECTORIZED_HASHAGG_PARTIAL_BYPASS_ENABLED);
+    this.partialAggSampleBatches = (int)options.getOption(VECTORIZED_HASHAGG_PARTIAL_BYPASS_SAMPLE_BATCHES);
+    this.partialAggReductionThreshold = options.getOption(VECTORIZED_HASHAGG_PARTIAL_BYPASS_THRESHOLD);
     logger.debug("partitions:{}, min-hashtable-size:{}, max-hashtable-batch-size:{} variable-width-key-size:{}",
       numPartitions, minHashTableSize, maxHashTableBatchSize, estimatedVariableWidthKeySize);
   }
@@ -589,6 +612,7 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
                                                                           maxHashTableBatchSize,
                                                                           jointAllocationMin,
                                                                           jointAllocationLimit,
+                                                                          estimatedVariableWidthKeySize,
                                                                           decimalV2Enabled);
         /* this step allocates memory for control structure in hashtable and reverts itself if
          * allocation fails so we don't have to rely on rollback closeable
@@ -625,7 +649,7 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
     setLocalInfoForHashTable();
 
     /* STEP 4: Build extra partition (aka loading or read partition) */
-    final List<Field> postSpillAccumulatorVectorFields = materializeAggExpressionsResult.outputVectorFields;
+    final List<Field> postSpillAccumulatorVectorFields = materializeAggExpressionsResult.getPostSpillAccumulatorVectorFields();
     allocateExtraPartition(postSpillAccumulatorVectorFields);
 
     final long memoryAfterExtraPartition = allocator.getAllocatedMemory();
@@ -709,6 +733,7 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
     final ImmutableList.Builder<FieldVector> validationVectors = ImmutableList.builder();
 
     final List<FieldVectorPair> fvps = new ArrayList<>();
+    final ImmutableList.Builder<TransferPair> keyTransfers = ImmutableList.builder();
     for (int i = 0; i < groupByExpressions.size(); i++) {
       final NamedExpression ne = groupByExpressions.get(i);
       final LogicalExpression expr = context.getClassProducer().materialize(ne.getExpr(), incoming);
@@ -728,9 +753,11 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
       final FieldVector outputVector = TypeHelper.getNewVector(expr.getCompleteType().toField(ne.getRef()), outputAllocator);
       outgoing.add(outputVector);
       fvps.add(new FieldVectorPair(inputVector, outputVector));
+      keyTransfers.add(inputVector.makeTransferPair(outputVector));
     }
 
     this.vectorsToValidate = validationVectors.build();
+    this.passThroughKeyTransfers = keyTransfers.build();
     return PivotBuilder.getBlockDefinition(fvps);
   }
 
@@ -762,7 +789,130 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
     for(FieldVector v : vectorsToValidate){
       VariableLengthValidator.validateVariable(v, records);
     }
+
+    if (partialAggBypassed && startPassThrough(records)) {
+      return;
+    }
+
     consumeDataHelper(records);
+
+    if (partialAggBypassEnabled && !partialAggBypassed) {
+      partialAggSampledRecords += records;
+      if (internalStateMachine == InternalState.NONE) {
+        /* incoming batch is fully consumed */
+        checkPartialAggBypass();
+      }
+    }
+  }
+
+  /**
+   * Monitor how well the first phase of a two phase aggregation reduces its input.
+   *
+   * The ratio of groups to records consumed is measured over the first few incoming
+   * batches. When the group keys turn out to be (close to) unique, aggregating in this
+   * phase does not reduce the data sent to the second phase while the hash table keeps
+   * growing and eventually spills. In that case the partitions that were not spilled are
+   * flushed once, and the subsequent incoming records are passed through to the exchange
+   * without being inserted into the hash table (see {@link #startPassThrough(int)}).
+   *
+   * The spilled partitions keep the data they have in memory, they no longer grow and are
+   * processed as usual once the input is over.
+   */
+  private void checkPartialAggBypass() {
+    if (++partialAggSampledBatches < partialAggSampleBatches) {
+      return;
+    }
+
+    /* groups that were spilled were not reduced in memory either */
+    final long groups = getHashTableSize() + partitionSpillHandler.getTotalRecordsSpilled();
+    partialAggReductionRatio = partialAggSampledRecords == 0 ? 0 : ((double) groups) / partialAggSampledRecords;
+    partialAggBypassed = partialAggReductionRatio >= partialAggReductionThreshold;
+    logger.debug("phase-1 aggregation reduction ratio after {} batches and {} records: {}, bypass:{}",
+      partialAggSampledBatches, partialAggSampledRecords, partialAggReductionRatio, partialAggBypassed);
+    updateStats();
+
+    if (!partialAggBypassed) {
+      /* aggregation is effective, stop monitoring */
+      partialAggSampledBatches = Integer.MIN_VALUE;
+    } else if (getUnspilledHashTableSize() > 0) {
+      flushingPartialAgg = true;
+      moveToOutputState();
+    }
+  }
+
+  /**
+   * Pass the records of an incoming batch through once phase-1 aggregation is bypassed.
+   *
+   * Each record is a group of its own: the GROUP BY keys are transferred from the incoming
+   * batch as they are and the accumulators are computed for a single record, which gives
+   * them the phase-1 output type (e.g. the count of a single value). The accumulation uses
+   * the first batch of a partition that was not spilled (and is empty after the flush done
+   * when the bypass was decided), with an identity mapping
+   * from records to ordinals, and is output right away. Records are output in steps of
+   * at most maxHashTableBatchSize records, the size of an accumulator batch.
+   *
+   * @param records number of records in the incoming batch
+   * @return true if the records are passed through, false if they need to be aggregated
+   * because every partition was spilled.
+   */
+  private boolean startPassThrough(final int records) {
+    if (passThroughPartition == null) {
+      for (VectorizedHashAggPartition partition : hashAggPartitions) {
+        if (!partition.isSpilled() && partition.hashTable.size() == 0) {
+          passThroughPartition = partition;
+          break;
+        }
+      }
+      if (passThroughPartition == null) {
+        /* every partition was spilled */
+        return false;
+      }
+    }
+
+    if (records > 0) {
+      passThroughRecords = records;
+      passThroughRecordsOutput = 0;
+      state = State.CAN_PRODUCE;
+      internalStateMachine = InternalState.OUTPUT_PASS_THROUGH;
+    }
+    return true;
+  }
+
+  /**
+   * Helper function for outputData(). Outputs the next step of the
+   * incoming records passed through.
+   *
+   * @return number of records outputted
+   */
+  private int outputPassThrough() {
+    final VectorizedHashAggPartition partition = passThroughPartition;
+    final int recordsConsumed = passThroughRecordsOutput;
+    final int records = Math.min(maxHashTableBatchSize, passThroughRecords - recordsConsumed);
+
+    /* record i of the step goes to ordinal i of the first accumulator batch */
+    for (int i = 0; i < records; i++) {
+      partition.appendRecord(i, recordsConsumed + i);
+    }
+    accumulateWatch.start();
+    partition.accumulator.accumulate(partition.buffer.memoryAddress(), records, bitsInChunk, chunkOffsetMask);
+    accumulateWatch.stop();
+    partition.resetRecords();
+
+    /* transfer accumulation vectors and GROUP BY key columns to outgoing container */
+    partition.accumulator.output(0);
+    for (TransferPair transfer : passThroughKeyTransfers) {
+      transfer.splitAndTransfer(recordsConsumed, records);
+    }
+
+    passThroughRecordsOutput += records;
+    partialAggPassedThroughRecords += records;
+    if (passThroughRecordsOutput == passThroughRecords) {
+      /* incoming batch is fully passed through, continue consuming incoming data */
+      state = State.CAN_CONSUME;
+      internalStateMachine = InternalState.NONE;
+    }
+
+    return outgoing.setAllCount(records);
   }
 
   /**
@@ -1691,6 +1841,18 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
     return tableSize;
   }
 
+  /* number of groups in the partitions that outputPartitions() outputs, spilled partitions are skipped */
+  private int getUnspilledHashTableSize() {
+    final VectorizedHashAggPartition[] hashAggPartitions = this.hashAggPartitions;
+    int tableSize = 0;
+    for (int i = 0; i < numPartitions; i++) {
+      if (!hashAggPartitions[i].isSpilled()) {
+        tableSize += hashAggPartitions[i].hashTable.size();
+      }
+    }
+    return tableSize;
+  }
+
   private void computeAllStats() {
     final VectorizedHashAggPartition[] hashAggPartitions = this.hashAggPartitions;
     final int numPartitions = this.numPartitions;
@@ -1822,6 +1984,9 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
     stats.setLongStat(Metric.OOB_DROP_NO_VICTIM, oobDropNoVictim);
     stats.setLongStat(Metric.OOB_SPILL, oobSpills);
     stats.setLongStat(Metric.OOB_DROP_ALREADY_SPILLING, oobDropSpill);
+    stats.setLongStat(Metric.PARTIAL_AGG_BYPASSED, partialAggBypassed ? 1 : 0);
+    stats.setLongStat(Metric.PARTIAL_AGG_REDUCTION_PERCENT, Math.round(partialAggReductionRatio * 100));
+    stats.setLongStat(Metric.PARTIAL_AGG_PASSED_THROUGH_RECORDS, partialAggPassedThroughRecords);
 
     if (iterations == 1) {
       stats.setLongStat(Metric.ALLOCATED_FOR_FIXED_KEYS, statsHolder.allocatedForFixedBlocks);
@@ -2171,6 +2336,9 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
       case OUTPUT_INMEMORY_PARTITIONS:
         records = outputPartitions();
         break;
+      case OUTPUT_PASS_THROUGH:
+        records = outputPassThrough();
+        break;
       case TRANSITION_PARTITION_SPILL_STATE:
         transitionPartitionSpillState();
         consumeSpilledData();
@@ -2271,6 +2439,14 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
    * are not done and need to start the next iteration.
    */
   private void postOutputProcessing() {
+    if (flushingPartialAgg) {
+      /* done flushing the in-memory partitions in bypass mode, continue consuming incoming data */
+      flushingPartialAgg = false;
+      state = State.CAN_CONSUME;
+      internalStateMachine = InternalState.NONE;
+      return;
+    }
+
     if ((partitionSpillHandler.getActiveSpilledPartitionCount() == 0) && partitionSpillHandler.isSpillQueueEmpty()) {
       /* if we are inside recursion, that is we are outputting after
        * consuming the input from a spilled partition, we need to check if
@@ -2323,7 +2499,7 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
   public void noMoreToConsume() throws Exception {
     state.is(State.CAN_CONSUME);
     assertInternalState(InternalState.NONE);
-    if (getHashTableSize() == 0) {
+    if (getHashTableSize() == 0 && partitionSpillHandler.getActiveSpilledPartitionCount() == 0) {
       /* nothing to output */
       moveToFinalState();
     } else {
@@ -2448,6 +2624,7 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
   private enum InternalState {
     NONE,
     OUTPUT_INMEMORY_PARTITIONS,
+    OUTPUT_PASS_THROUGH,
     PROCESS_SPILLED_PARTITION,
     TRANSITION_PARTITION_SPILL_STATE,
     SPILL_NEXT_BATCH,
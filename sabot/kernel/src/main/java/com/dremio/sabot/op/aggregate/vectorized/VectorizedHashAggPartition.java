@@ -212,6 +212,8 @@ public class VectorizedHashAggPartition implements AutoCloseable {
    * (2) For count, count1, sum, $sum0 convert the accumulator type.
    * For example an pre-spill IntSumAccumulator will become
    * BigIntSumAccumulator for post-spill processing.
+   * Similarly a pre-spill HLL accumulator becomes NdvUnionAccumulator
+   * that merges the spilled sketches.
    *
    * @param accumulatorTypes
    * @param accumulatorVectors
@@ -249,6 +251,20 @@ public class VectorizedHashAggPartition implements AutoCloseable {
         /* handle $SUM0 */
         updateSumZeroAccumulator(deserializedAccumulator, partitionAccumulators,
                                  i, computationVectorAllocator);
+      } else if (accumulatorType == AccumulatorBuilder.AccumulatorType.HLL.ordinal()) {
+        /* handle HLL, the spilled sketches are merged with a union */
+        if (partitionAccumulator instanceof NdvAccumulators.HllNdvAccumulator) {
+          partitionAccumulators[i] =
+            new NdvAccumulators.NdvUnionAccumulator((NdvAccumulators.HllNdvAccumulator)partitionAccumulator,
+                                                    deserializedAccumulator,
+                                                    hashTable.getActualValuesPerBatch(),
+                                                    computationVectorAllocator);
+        } else {
+          partitionAccumulator.setInput(deserializedAccumulator);
+        }
+      } else if (accumulatorType == AccumulatorBuilder.AccumulatorType.HLL_MERGE.ordinal()) {
+        /* handle HLL_MERGE */
+        partitionAccumulator.setInput(deserializedAccumulator);
       }
       else {
         /* handle MIN, MAX */
@@ -25,6 +25,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.util.LargeMemoryUtil;
+import org.apache.arrow.vector.BaseVariableWidthVector;
 import org.apache.arrow.vector.FieldVector;
 
 import com.dremio.exec.cache.AbstractStreamSerializable;
@@ -231,9 +232,20 @@ public class VectorizedHashAggPartitionSerializable extends AbstractStreamSerial
       final int dataLength = valuesField.getBufferLength();
       Preconditions.checkArgument(rawDataLength == bitsLength + dataLength, "Error, read incorrect accumulator vector buffer length");
       final ArrowBuf validityBuffer = vector.getValidityBuffer();
-      final ArrowBuf dataBuffer = vector.getDataBuffer();
       readIntoArrowBuf(validityBuffer, bitsLength, input);
-      readIntoArrowBuf(dataBuffer, dataLength, input);
+      if (vector instanceof BaseVariableWidthVector) {
+        /* accumulator on variable width column, values child has the offsets as child */
+        final BaseVariableWidthVector variableWidthVector = (BaseVariableWidthVector) vector;
+        final int offsetLength = valuesField.getChild(0).getBufferLength();
+        readIntoArrowBuf(variableWidthVector.getOffsetBuffer(), offsetLength, input);
+        while (variableWidthVector.getDataBuffer().capacity() < dataLength - offsetLength) {
+          variableWidthVector.reallocDataBuffer();
+        }
+        readIntoArrowBuf(variableWidthVector.getDataBuffer(), dataLength - offsetLength, input);
+        variableWidthVector.setLastSet(metaData.getValueCount() - 1);
+      } else {
+        readIntoArrowBuf(vector.getDataBuffer(), dataLength, input);
+      }
       vector.setValueCount(metaData.getValueCount());
       count++;
     }
@@ -313,7 +325,7 @@ public class VectorizedHashAggPartitionSerializable extends AbstractStreamSerial
                                         final HashAggPartitionBatchDefinition batchDefinition) throws IOException {
     /* write chunk metadata */
     writeBatchDefinition(batchDefinition, output);
-    final ArrowBuf[] buffersToSpill = writableBatch.getBuffers();
+    final List<ArrowBuf> buffersToSpill = writableBatch.getBuffers();
     Stopwatch watch = Stopwatch.createStarted();
       /* write chunk data */
     for (ArrowBuf buffer: buffersToSpill) {
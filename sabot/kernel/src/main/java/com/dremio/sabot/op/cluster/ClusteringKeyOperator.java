@@ -0,0 +1,501 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.cluster;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.util.TransferPair;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.exceptions.ExecutionSetupException;
+import com.dremio.common.exceptions.UserException;
+import com.dremio.common.expression.CompleteType;
+import com.dremio.common.expression.Describer;
+import com.dremio.common.utils.protos.QueryIdHelper;
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.physical.base.WriterOptions.ClusteringCurve;
+import com.dremio.exec.proto.ExecProtos.FragmentHandle;
+import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.record.VectorWrapper;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.sabot.op.sort.external.SpillManager;
+import com.dremio.sabot.op.sort.external.SpillManager.SpillFile;
+import com.dremio.sabot.op.sort.external.SpillManager.SpillInputStream;
+import com.dremio.sabot.op.sort.external.SpillManager.SpillOutputStream;
+import com.dremio.sabot.op.spi.SingleInputOperator;
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Appends to each record its position along a space filling curve over the clustering columns,
+ * and the range of the curve the position falls in.
+ *
+ * The values of each column are first mapped to their rank among the values of a sample, so
+ * that every column spreads over the whole range of the curve whatever its distribution. The
+ * sample is a reservoir sample of the whole input: the input is buffered (in memory, then
+ * spilled once it gets larger than store.writer.clustering.buffer_bytes) until it is over, and
+ * only then are the ranges computed and the buffered batches output.
+ *
+ * The ranks are scaled to a fixed number of bits per column, so that the positions computed by
+ * different fragments from their own samples are comparable. The range of a position is made of
+ * its most significant bits, it is used to range partition the records across the writers.
+ */
+public class ClusteringKeyOperator implements SingleInputOperator {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ClusteringKeyOperator.class);
+
+  // more ranges per column than this does not make the clustering noticeably better.
+  private static final int MAX_BITS_PER_COLUMN = 20;
+
+  // number of bits of the range of a position, that is up to 1024 ranges to partition on.
+  @VisibleForTesting
+  static final int MAX_RANGE_BITS = 10;
+
+  private final ClusteringKeyPOP config;
+  private final OperatorContext context;
+  private final int sampleRecords;
+  private final long bufferBytes;
+  private final Random random = new Random(0);
+
+  private State state = State.NEEDS_SETUP;
+  private VectorAccessible incoming;
+  private VectorContainer outgoing;
+  private BigIntVector keyVector;
+  private BigIntVector rangeVector;
+  private final List<TransferPair> transfers = new ArrayList<>();
+
+  // index of the clustering columns in the batches, and the vectors holding them in incoming and outgoing.
+  private int[] columnIndices;
+  private ValueVector[] incomingColumnVectors;
+  private ValueVector[] columnVectors;
+  private KeyEncoder[] encoders;
+  private int[] coordinates;
+  private int bitsPerColumn;
+  private int rangeShift;
+
+  // reservoir sample of the encoded values of each column.
+  private long[][] sample;
+  private int sampledRecords;
+  private long consumedRecords;
+
+  // batches buffered until the input is over, in memory until they get too large and then on disk.
+  private final Deque<VectorContainer> batches = new ArrayDeque<>();
+  private long batchesSize;
+  private SpillManager spillManager;
+  private SpillFile spillFile;
+  private SpillOutputStream spillOutput;
+  private SpillInputStream spillInput;
+  private VectorContainer spillContainer;
+  private int spilledBatches;
+
+  // upper bounds of the ranges of each column, null until the input is over.
+  private long[][] boundaries;
+  private int bits;
+
+  public ClusteringKeyOperator(OperatorContext context, ClusteringKeyPOP config) {
+    this.config = config;
+    this.context = context;
+    this.sampleRecords = (int) context.getOptions().getOption(ExecConstants.WRITER_CLUSTERING_SAMPLE_RECORDS_VALIDATOR);
+    this.bufferBytes = context.getOptions().getOption(ExecConstants.WRITER_CLUSTERING_BUFFER_BYTES_VALIDATOR);
+  }
+
+  @Override
+  public VectorAccessible setup(VectorAccessible accessible) throws Exception {
+    state.is(State.NEEDS_SETUP);
+    this.incoming = accessible;
+    this.outgoing = context.createOutputVectorContainer();
+
+    final List<String> columns = config.getColumns();
+    columnIndices = new int[columns.size()];
+    incomingColumnVectors = new ValueVector[columns.size()];
+    columnVectors = new ValueVector[columns.size()];
+    encoders = new KeyEncoder[columns.size()];
+    coordinates = new int[columns.size()];
+    Arrays.fill(columnIndices, -1);
+
+    int index = 0;
+    for (VectorWrapper<?> w : accessible) {
+      final ValueVector incomingVector = w.getValueVector();
+      final TransferPair pair = incomingVector.getTransferPair(context.getAllocator());
+      transfers.add(pair);
+      outgoing.add(pair.getTo());
+
+      for (int i = 0; i < columns.size(); i++) {
+        if (columns.get(i).equalsIgnoreCase(w.getField().getName())) {
+          final KeyEncoder encoder = getEncoder(incomingVector);
+          if (encoder == null) {
+            throw UserException.unsupportedError()
+              .message("Clustering on column %s is not supported.", Describer.describe(w.getField()))
+              .build(logger);
+          }
+          columnIndices[i] = index;
+          incomingColumnVectors[i] = incomingVector;
+          columnVectors[i] = pair.getTo();
+          encoders[i] = encoder;
+        }
+      }
+      index++;
+    }
+
+    for (int i = 0; i < columns.size(); i++) {
+      if (columnIndices[i] == -1) {
+        throw UserException.validationError()
+          .message("Clustering column %s could not be resolved.", columns.get(i))
+          .build(logger);
+      }
+    }
+
+    bitsPerColumn = getBitsPerColumn(columns.size());
+    rangeShift = bitsPerColumn * columns.size() - getRangeBits(columns.size());
+
+    keyVector = outgoing.addOrGet(CompleteType.BIGINT.toField(ClusteringKeyPrel.CLUSTERING_KEY_FIELD));
+    rangeVector = outgoing.addOrGet(CompleteType.BIGINT.toField(ClusteringKeyPrel.CLUSTERING_RANGE_FIELD));
+    outgoing.buildSchema(SelectionVectorMode.NONE);
+    state = State.CAN_CONSUME;
+    return outgoing;
+  }
+
+  /**
+   * @return the number of bits of each coordinate of the positions on the curve.
+   */
+  static int getBitsPerColumn(int columns) {
+    return Math.min(MAX_BITS_PER_COLUMN, SpaceFillingCurves.bitsPerDimension(columns));
+  }
+
+  /**
+   * @return the number of bits of the range of a position.
+   */
+  static int getRangeBits(int columns) {
+    return Math.min(MAX_RANGE_BITS, getBitsPerColumn(columns) * columns);
+  }
+
+  @Override
+  public void consumeData(int records) throws Exception {
+    state.is(State.CAN_CONSUME);
+    if (records == 0) {
+      return;
+    }
+
+    sample(records);
+
+    final VectorContainer batch = VectorContainer.getTransferClone(incoming, context.getAllocator());
+    if (spillOutput == null) {
+      batches.add(batch);
+      batchesSize += getSize(batch);
+      if (batchesSize > bufferBytes) {
+        startSpilling();
+      }
+    } else {
+      spill(batch);
+    }
+  }
+
+  @Override
+  public int outputData() throws Exception {
+    state.is(State.CAN_PRODUCE);
+
+    final int records;
+    if (!batches.isEmpty()) {
+      try (VectorContainer batch = batches.poll()) {
+        records = transfer(batch);
+      }
+    } else {
+      spillContainer.zeroVectors();
+      spillInput.load(spillContainer, context.getAllocator());
+      spilledBatches--;
+      records = transfer(spillContainer);
+    }
+
+    if (batches.isEmpty() && spilledBatches == 0) {
+      state = State.DONE;
+    }
+
+    computeKeys(records);
+    outgoing.setRecordCount(records);
+    return records;
+  }
+
+  @Override
+  public void noMoreToConsume() throws Exception {
+    state.is(State.CAN_CONSUME);
+    if (sampledRecords == 0) {
+      state = State.DONE;
+      return;
+    }
+
+    computeBoundaries();
+    if (spillOutput != null) {
+      spillOutput.close();
+      spillOutput = null;
+      spillInput = spillFile.open(false);
+      spillContainer = VectorContainer.create(context.getAllocator(), incoming.getSchema());
+    }
+    state = State.CAN_PRODUCE;
+  }
+
+  /**
+   * Add the values of the clustering columns of the incoming records to the reservoir sample:
+   * the nth record replaces a random record of the sample with probability sample size / n.
+   */
+  private void sample(int records) {
+    if (sample == null) {
+      sample = new long[encoders.length][sampleRecords];
+    }
+
+    for (int i = 0; i < records; i++) {
+      consumedRecords++;
+      final int slot;
+      if (sampledRecords < sampleRecords) {
+        slot = sampledRecords++;
+      } else {
+        final long candidate = (long) (random.nextDouble() * consumedRecords);
+        if (candidate >= sampleRecords) {
+          continue;
+        }
+        slot = (int) candidate;
+      }
+
+      for (int c = 0; c < encoders.length; c++) {
+        sample[c][slot] = encoders[c].encode(incomingColumnVectors[c], i);
+      }
+    }
+  }
+
+  private static long getSize(VectorAccessible batch) {
+    long size = 0;
+    for (VectorWrapper<?> w : batch) {
+      size += w.getValueVector().getBufferSize();
+    }
+    return size;
+  }
+
+  /**
+   * Move the batches buffered in memory to disk, the following batches are spilled as they
+   * are received.
+   */
+  private void startSpilling() throws IOException {
+    final FragmentHandle handle = context.getFragmentHandle();
+    final String id = String.format("clustering-%s.%s.%s.%s", QueryIdHelper.getQueryId(handle.getQueryId()),
+      handle.getMajorFragmentId(), handle.getMinorFragmentId(), config.getProps().getLocalOperatorId());
+    spillManager = new SpillManager(context.getConfig(), context.getOptions(), id, null,
+      context.getSpillService(), "clustering key spilling", context.getStats());
+    spillFile = spillManager.getSpillFile("batches");
+    spillOutput = spillFile.create(false);
+    logger.debug("Spilling the input of the clustering key to {} after {} records", spillFile.getPath(), consumedRecords);
+
+    while (!batches.isEmpty()) {
+      spill(batches.poll());
+    }
+    batchesSize = 0;
+  }
+
+  private void spill(VectorContainer batch) throws IOException {
+    try (VectorContainer toSpill = batch) {
+      spillOutput.writeBatch(toSpill);
+      spilledBatches++;
+    }
+  }
+
+  /**
+   * Transfer a buffered batch to the outgoing vectors.
+   *
+   * @return the number of records of the batch
+   */
+  private int transfer(VectorContainer batch) {
+    final int records = batch.getRecordCount();
+    int index = 0;
+    for (VectorWrapper<?> w : batch) {
+      final ValueVector to = transfers.get(index++).getTo();
+      w.getValueVector().makeTransferPair(to).transfer();
+      to.setValueCount(records);
+    }
+    return records;
+  }
+
+  /**
+   * Split the values of each column of the sample in ranges holding about the same number of
+   * records.
+   */
+  private void computeBoundaries() {
+    final int n = sampledRecords;
+    bits = Math.max(1, Math.min(bitsPerColumn, Integer.SIZE - Integer.numberOfLeadingZeros(n - 1)));
+    final int ranges = 1 << bits;
+
+    boundaries = new long[encoders.length][];
+    for (int c = 0; c < encoders.length; c++) {
+      final long[] values = sample[c];
+      Arrays.sort(values, 0, n);
+
+      final long[] columnBoundaries = new long[ranges - 1];
+      for (int r = 0; r < columnBoundaries.length; r++) {
+        columnBoundaries[r] = values[(int) ((r + 1L) * n / ranges)];
+      }
+      boundaries[c] = columnBoundaries;
+    }
+    sample = null;
+    logger.debug("Computed {} clustering ranges per column from {} of {} records", ranges, n, consumedRecords);
+  }
+
+  private void computeKeys(int records) {
+    final boolean hilbert = config.getCurve() == ClusteringCurve.HILBERT;
+    final int scale = bitsPerColumn - bits;
+    keyVector.allocateNew(records);
+    rangeVector.allocateNew(records);
+    for (int i = 0; i < records; i++) {
+      for (int c = 0; c < encoders.length; c++) {
+        coordinates[c] = rank(boundaries[c], encoders[c].encode(columnVectors[c], i)) << scale;
+      }
+      final long key = hilbert
+        ? SpaceFillingCurves.hilbert(coordinates, bitsPerColumn)
+        : SpaceFillingCurves.zOrder(coordinates, bitsPerColumn);
+      keyVector.set(i, key);
+      rangeVector.set(i, key >>> rangeShift);
+    }
+    keyVector.setValueCount(records);
+    rangeVector.setValueCount(records);
+  }
+
+  /**
+   * @return the number of boundaries lower than or equal to the value.
+   */
+  private static int rank(long[] boundaries, long value) {
+    int low = 0;
+    int high = boundaries.length;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (boundaries[mid] <= value) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Maps the value at the given index of a vector to a long, preserving the order of the values.
+   * Nulls come first. Only a prefix of variable width values is kept, and decimals that do not fit
+   * in a long are saturated.
+   */
+  @FunctionalInterface
+  private interface KeyEncoder {
+    long encode(ValueVector vector, int index);
+  }
+
+  private static KeyEncoder getEncoder(ValueVector vector) {
+    final KeyEncoder valueEncoder = getValueEncoder(vector);
+    if (valueEncoder == null) {
+      return null;
+    }
+    return (v, index) -> v.isNull(index) ? Long.MIN_VALUE : valueEncoder.encode(v, index);
+  }
+
+  private static KeyEncoder getValueEncoder(ValueVector vector) {
+    switch (vector.getMinorType()) {
+      case TINYINT:
+        return (v, index) -> v.getDataBuffer().getByte(index);
+      case SMALLINT:
+        return (v, index) -> v.getDataBuffer().getShort((long) index * 2);
+      case INT:
+      case DATEDAY:
+      case TIMEMILLI:
+        return (v, index) -> v.getDataBuffer().getInt((long) index * 4);
+      case BIGINT:
+      case DATEMILLI:
+      case TIMESTAMPMILLI:
+        return (v, index) -> v.getDataBuffer().getLong((long) index * 8);
+      case FLOAT4:
+        return (v, index) -> {
+          final int raw = v.getDataBuffer().getInt((long) index * 4);
+          return raw ^ ((raw >> 31) & Integer.MAX_VALUE);
+        };
+      case FLOAT8:
+        return (v, index) -> {
+          final long raw = v.getDataBuffer().getLong((long) index * 8);
+          return raw ^ ((raw >> 63) & Long.MAX_VALUE);
+        };
+      case BIT:
+        return (v, index) -> BitVectorHelper.get(v.getDataBuffer(), index);
+      case VARCHAR:
+      case VARBINARY:
+        return (v, index) -> {
+          final ArrowBuf offsets = v.getOffsetBuffer();
+          final int start = offsets.getInt((long) index * 4);
+          final int length = Math.min(Long.BYTES, offsets.getInt((long) (index + 1) * 4) - start);
+          final ArrowBuf data = v.getDataBuffer();
+          long prefix = 0;
+          for (int i = 0; i < Long.BYTES; i++) {
+            prefix = (prefix << 8) | (i < length ? data.getByte(start + i) & 0xFF : 0);
+          }
+          // compare the bytes as unsigned.
+          return prefix ^ Long.MIN_VALUE;
+        };
+      case DECIMAL:
+        return (v, index) -> {
+          // little endian 128 bit value
+          final long low = v.getDataBuffer().getLong((long) index * 16);
+          final long high = v.getDataBuffer().getLong((long) index * 16 + 8);
+          if (high == (low >> 63)) {
+            return low;
+          }
+          return high < 0 ? Long.MIN_VALUE + 1 : Long.MAX_VALUE;
+        };
+      default:
+        return null;
+    }
+  }
+
+  @Override
+  public <OUT, IN, EXCEP extends Throwable> OUT accept(OperatorVisitor<OUT, IN, EXCEP> visitor, IN value) throws EXCEP {
+    return visitor.visitSingleInput(this, value);
+  }
+
+  @Override
+  public void close() throws Exception {
+    final List<AutoCloseable> closeables = new ArrayList<>(batches);
+    closeables.add(spillOutput);
+    closeables.add(spillInput);
+    closeables.add(spillContainer);
+    closeables.add(spillFile);
+    closeables.add(spillManager);
+    closeables.add(outgoing);
+    AutoCloseables.close(closeables);
+  }
+
+  @Override
+  public State getState() {
+    return state;
+  }
+
+  @SuppressWarnings("unused")
+  public static class ClusteringKeyCreator implements Creator<ClusteringKeyPOP> {
+
+    @Override
+    public SingleInputOperator create(OperatorContext context, ClusteringKeyPOP operator) throws ExecutionSetupException {
+      return new ClusteringKeyOperator(context, operator);
+    }
+  }
+}
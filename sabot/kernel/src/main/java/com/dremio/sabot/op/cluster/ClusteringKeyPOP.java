@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.cluster;
+
+import static com.dremio.exec.proto.UserBitShared.CoreOperatorType.CLUSTERING_KEY_VALUE;
+
+import java.util.List;
+
+import com.dremio.exec.physical.base.AbstractSingle;
+import com.dremio.exec.physical.base.OpProps;
+import com.dremio.exec.physical.base.PhysicalOperator;
+import com.dremio.exec.physical.base.PhysicalVisitor;
+import com.dremio.exec.physical.base.WriterOptions.ClusteringCurve;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Appends to each record its position along a space filling curve over the given columns, and the
+ * range of the curve the position falls in.
+ */
+@JsonTypeName("clustering-key")
+public class ClusteringKeyPOP extends AbstractSingle {
+
+  private final List<String> columns;
+  private final ClusteringCurve curve;
+
+  @JsonCreator
+  public ClusteringKeyPOP(
+      @JsonProperty("props") OpProps props,
+      @JsonProperty("child") PhysicalOperator child,
+      @JsonProperty("columns") List<String> columns,
+      @JsonProperty("curve") ClusteringCurve curve) {
+    super(props, child);
+    this.columns = ImmutableList.copyOf(columns);
+    this.curve = curve;
+  }
+
+  @Override
+  public <T, X, E extends Throwable> T accept(PhysicalVisitor<T, X, E> physicalVisitor, X value) throws E {
+    return physicalVisitor.visitOp(this, value);
+  }
+
+  @Override
+  public int getOperatorType() {
+    return CLUSTERING_KEY_VALUE;
+  }
+
+  public List<String> getColumns() {
+    return columns;
+  }
+
+  public ClusteringCurve getCurve() {
+    return curve;
+  }
+
+  @Override
+  protected PhysicalOperator getNewWithChild(PhysicalOperator child) {
+    return new ClusteringKeyPOP(props, child, columns, curve);
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.cluster;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelWriter;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rel.type.RelDataTypeFactory;
+import org.apache.calcite.sql.type.SqlTypeName;
+
+import com.dremio.common.expression.CompleteType;
+import com.dremio.exec.physical.base.PhysicalOperator;
+import com.dremio.exec.physical.base.WriterOptions.ClusteringCurve;
+import com.dremio.exec.planner.physical.PhysicalPlanCreator;
+import com.dremio.exec.planner.physical.Prel;
+import com.dremio.exec.planner.physical.SinglePrel;
+import com.dremio.exec.record.BatchSchema;
+import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
+import com.dremio.options.Options;
+import com.dremio.options.TypeValidators.LongValidator;
+import com.dremio.options.TypeValidators.PositiveLongValidator;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Appends a clustering key to the records of its input: the position of each record along a
+ * space filling curve over the given columns. Sorting on the key clusters the records on all the
+ * columns at once, instead of mostly on the first one as a lexicographic sort does.
+ *
+ * The range of the curve the key falls in is appended as well, distributing the records on it
+ * range partitions them.
+ */
+@Options
+public class ClusteringKeyPrel extends SinglePrel {
+
+  public static final LongValidator RESERVE = new PositiveLongValidator("planner.op.clustering_key.reserve_bytes", Long.MAX_VALUE, DEFAULT_RESERVE);
+  public static final LongValidator LIMIT = new PositiveLongValidator("planner.op.clustering_key.limit_bytes", Long.MAX_VALUE, DEFAULT_LIMIT);
+
+  public static final String CLUSTERING_KEY_FIELD = "C_L_U_S_T_E_R_I_N_G_K_E_Y";
+  public static final String CLUSTERING_RANGE_FIELD = "C_L_U_S_T_E_R_I_N_G_R_A_N_G_E";
+
+  private final List<Integer> columns;
+  private final ClusteringCurve curve;
+
+  public ClusteringKeyPrel(RelOptCluster cluster, RelTraitSet traits, RelNode child, List<Integer> columns, ClusteringCurve curve) {
+    super(cluster, traits, child);
+    this.columns = ImmutableList.copyOf(columns);
+    this.curve = curve;
+  }
+
+  @Override
+  protected RelDataType deriveRowType() {
+    final RelDataTypeFactory typeFactory = getCluster().getTypeFactory();
+    return typeFactory.builder()
+        .addAll(getInput().getRowType().getFieldList())
+        .add(CLUSTERING_KEY_FIELD, typeFactory.createSqlType(SqlTypeName.BIGINT))
+        .add(CLUSTERING_RANGE_FIELD, typeFactory.createSqlType(SqlTypeName.BIGINT))
+        .build();
+  }
+
+  @Override
+  public SelectionVectorMode getEncoding() {
+    return SelectionVectorMode.NONE;
+  }
+
+  @Override
+  public RelNode copy(RelTraitSet traitSet, List<RelNode> inputs) {
+    return new ClusteringKeyPrel(getCluster(), traitSet, inputs.get(0), columns, curve);
+  }
+
+  @Override
+  public PhysicalOperator getPhysicalOperator(PhysicalPlanCreator creator) throws IOException {
+    final PhysicalOperator child = ((Prel) getInput()).getPhysicalOperator(creator);
+    final BatchSchema schema = BatchSchema.newBuilder()
+        .addFields(child.getProps().getSchema())
+        .addField(CompleteType.BIGINT.toField(CLUSTERING_KEY_FIELD))
+        .addField(CompleteType.BIGINT.toField(CLUSTERING_RANGE_FIELD))
+        .setSelectionVectorMode(SelectionVectorMode.NONE)
+        .build();
+    return new ClusteringKeyPOP(creator.props(this, null, schema, RESERVE, LIMIT), child, getColumnNames(), curve);
+  }
+
+  /**
+   * @return index of the clustering key in the records.
+   */
+  public int getKeyIndex() {
+    return getRowType().getFieldCount() - 2;
+  }
+
+  /**
+   * @return index of the range of the clustering key in the records.
+   */
+  public int getRangeIndex() {
+    return getRowType().getFieldCount() - 1;
+  }
+
+  public List<Integer> getColumns() {
+    return columns;
+  }
+
+  public ClusteringCurve getCurve() {
+    return curve;
+  }
+
+  private List<String> getColumnNames() {
+    final List<String> names = getInput().getRowType().getFieldNames();
+    return FluentIterable.from(columns).transform(names::get).toList();
+  }
+
+  @Override
+  public RelWriter explainTerms(RelWriter pw) {
+    return super.explainTerms(pw)
+        .item("columns", getColumnNames())
+        .item("curve", curve);
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.cluster;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Maps points of a multi dimensional grid to their position along a space filling curve, so that
+ * sorting on the position keeps points that are close in every dimension close to each other.
+ *
+ * The coordinates of a point have the same number of bits each, and the position is made of all
+ * the bits of the coordinates, so it fits in a long as long as dimensions * bits <= 63.
+ */
+public final class SpaceFillingCurves {
+
+  private SpaceFillingCurves() {
+  }
+
+  /**
+   * @param dimensions number of coordinates of each point
+   * @return the number of bits that can be used for each coordinate
+   */
+  public static int bitsPerDimension(int dimensions) {
+    Preconditions.checkArgument(dimensions > 0, "At least one dimension is required.");
+    return Math.min(Integer.SIZE - 1, (Long.SIZE - 1) / dimensions);
+  }
+
+  /**
+   * Position of a point along the Z-order (Morton) curve: the bits of the coordinates are
+   * interleaved, from the most significant bit of the first coordinate.
+   *
+   * @param coordinates coordinates of the point, each in [0, 2^bits)
+   * @param bits number of bits of each coordinate
+   * @return position of the point
+   */
+  public static long zOrder(int[] coordinates, int bits) {
+    checkBits(coordinates.length, bits);
+    return interleave(coordinates, bits);
+  }
+
+  /**
+   * Position of a point along the Hilbert curve. Unlike the Z-order curve, consecutive positions
+   * are always neighbours in the grid, which keeps the ranges of each dimension tighter.
+   *
+   * Uses the transpose algorithm of J. Skilling, "Programming the Hilbert curve" (2004).
+   *
+   * @param coordinates coordinates of the point, each in [0, 2^bits)
+   * @param bits number of bits of each coordinate
+   * @return position of the point
+   */
+  public static long hilbert(int[] coordinates, int bits) {
+    checkBits(coordinates.length, bits);
+    final int n = coordinates.length;
+    final int[] x = coordinates.clone();
+    final int m = 1 << (bits - 1);
+
+    // inverse undo
+    for (int q = m; q > 1; q >>= 1) {
+      final int p = q - 1;
+      for (int i = 0; i < n; i++) {
+        if ((x[i] & q) != 0) {
+          x[0] ^= p;
+        } else {
+          final int t = (x[0] ^ x[i]) & p;
+          x[0] ^= t;
+          x[i] ^= t;
+        }
+      }
+    }
+
+    // gray encode
+    for (int i = 1; i < n; i++) {
+      x[i] ^= x[i - 1];
+    }
+    int t = 0;
+    for (int q = m; q > 1; q >>= 1) {
+      if ((x[n - 1] & q) != 0) {
+        t ^= q - 1;
+      }
+    }
+    for (int i = 0; i < n; i++) {
+      x[i] ^= t;
+    }
+
+    return interleave(x, bits);
+  }
+
+  private static long interleave(int[] coordinates, int bits) {
+    long position = 0;
+    for (int b = bits - 1; b >= 0; b--) {
+      for (int coordinate : coordinates) {
+        position = (position << 1) | ((coordinate >>> b) & 1);
+      }
+    }
+    return position;
+  }
+
+  private static void checkBits(int dimensions, int bits) {
+    Preconditions.checkArgument(bits > 0 && bits <= bitsPerDimension(dimensions),
+      "Invalid number of bits %s for %s dimensions.", bits, dimensions);
+  }
+}
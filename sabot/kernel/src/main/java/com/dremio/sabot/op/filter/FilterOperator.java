@@ -129,6 +129,13 @@ public class FilterOperator implements SingleInputOperator {
 
   @Override
   public void close() throws Exception {
+    if (splitter != null) {
+      OperatorStats stats = context.getStats();
+      stats.addLongStat(Metric.ADAPTIVE_TRIAL_BATCHES, splitter.getNumAdaptiveTrialBatches());
+      stats.addLongStat(Metric.ADAPTIVE_PREFERRED_COST, splitter.getAdaptivePreferredCost());
+      stats.addLongStat(Metric.ADAPTIVE_ALTERNATE_COST, splitter.getAdaptiveAlternateCost());
+      stats.addLongStat(Metric.ADAPTIVE_ENGINE_SWITCHES, splitter.getNumAdaptiveEngineSwitches());
+    }
     AutoCloseables.close(output, splitter);
     context.getStats().addLongStat(Metric.JAVA_EXECUTE_TIME, javaCodeGenWatch.elapsed(TimeUnit.MILLISECONDS));
     context.getStats().addLongStat(Metric.GANDIVA_EXECUTE_TIME, gandivaCodeGenWatch.elapsed(TimeUnit.MILLISECONDS));
@@ -144,6 +151,8 @@ public class FilterOperator implements SingleInputOperator {
     stats.addLongStat(Metric.JAVA_EXPRESSIONS, splitter.getNumExprsInJava());
     stats.addLongStat(Metric.GANDIVA_EXPRESSIONS, splitter.getNumExprsInGandiva());
     stats.addLongStat(Metric.MIXED_SPLITS, splitter.getNumSplitsInBoth());
+    stats.addLongStat(Metric.GANDIVA_CACHE_HITS, splitter.getNumGandivaCacheHits());
+    stats.addLongStat(Metric.GANDIVA_CACHE_MISSES, splitter.getNumGandivaCacheMisses());
     stats.addLongStat(Metric.JAVA_BUILD_TIME, javaCodeGenWatch.elapsed(TimeUnit.MILLISECONDS));
     stats.addLongStat(Metric.GANDIVA_BUILD_TIME, gandivaCodeGenWatch.elapsed(TimeUnit.MILLISECONDS));
     stats.setProfileDetails(OperatorProfileDetails
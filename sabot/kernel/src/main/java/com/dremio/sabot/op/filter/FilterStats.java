@@ -25,7 +25,13 @@ public class FilterStats {
     GANDIVA_EXECUTE_TIME,
     JAVA_EXPRESSIONS,
     GANDIVA_EXPRESSIONS,
-    MIXED_SPLITS;
+    MIXED_SPLITS,
+    GANDIVA_CACHE_HITS,       // gandiva projectors and filters found compiled in the cache
+    GANDIVA_CACHE_MISSES,     // gandiva projectors and filters compiled by this operator
+    ADAPTIVE_TRIAL_BATCHES,   // batches evaluated while timing both code generation engines
+    ADAPTIVE_PREFERRED_COST,  // nanos per thousand records with the preferred code generation engine
+    ADAPTIVE_ALTERNATE_COST,  // nanos per thousand records with the other code generation engine
+    ADAPTIVE_ENGINE_SWITCHES; // 1 if the expressions are evaluated with the other engine, as it is faster
 
     @Override
     public int metricId() {
@@ -0,0 +1,276 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.llvm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.arrow.gandiva.evaluator.Filter;
+import org.apache.arrow.gandiva.evaluator.Projector;
+import org.apache.arrow.gandiva.exceptions.GandivaException;
+import org.apache.arrow.gandiva.expression.Condition;
+import org.apache.arrow.gandiva.expression.ExpressionTree;
+import org.apache.arrow.gandiva.expression.GandivaSerializationHelper;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Process-wide cache of compiled gandiva projectors and filters, keyed by the serialized expressions
+ * and the input schema. A compiled module does not hold any per-batch state, so it is shared by all
+ * the fragments evaluating the same expressions.
+ *
+ * Modules are reference counted. Only the modules not in use are evicted, least recently used first,
+ * once the cache grows beyond its capacity.
+ */
+final class GandivaCache {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(GandivaCache.class);
+
+  private static final GandivaCache INSTANCE = new GandivaCache();
+
+  // in access order, least recently used first.
+  private final LinkedHashMap<Key, Entry<?>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  @VisibleForTesting
+  GandivaCache() {
+  }
+
+  static GandivaCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Get a compiled projector for the expressions, building it if it is not in the cache.
+   *
+   * @param schema schema of the input
+   * @param exprs expressions to project
+   * @param optimize should optimize the llvm build
+   * @param capacity number of modules to keep in the cache
+   * @return handle to the projector, to be closed once done with the projector
+   * @throws GandivaException when we fail to make the gandiva projector
+   */
+  Handle<Projector> getProjector(Schema schema, List<ExpressionTree> exprs, boolean optimize, int capacity)
+    throws GandivaException {
+    final Key key = new Key(false, optimize, GandivaSerializationHelper.toBytes(schema),
+      GandivaSerializationHelper.toBytes(exprs));
+    return acquire(key, capacity, () -> Projector.make(schema, exprs, optimize), Projector::close);
+  }
+
+  /**
+   * Get a compiled filter for the condition, building it if it is not in the cache.
+   *
+   * @param schema schema of the input
+   * @param condition filter condition
+   * @param optimize should optimize the llvm build
+   * @param capacity number of modules to keep in the cache
+   * @return handle to the filter, to be closed once done with the filter
+   * @throws GandivaException when we fail to make the gandiva filter
+   */
+  Handle<Filter> getFilter(Schema schema, Condition condition, boolean optimize, int capacity)
+    throws GandivaException {
+    final Key key = new Key(true, optimize, GandivaSerializationHelper.toBytes(schema),
+      GandivaSerializationHelper.toBytes(condition));
+    return acquire(key, capacity, () -> Filter.make(schema, condition, optimize), Filter::close);
+  }
+
+  @VisibleForTesting
+  synchronized int size() {
+    return entries.size();
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> Handle<T> acquire(Key key, int capacity, ModuleBuilder<T> builder, ModuleCloser<T> closer)
+    throws GandivaException {
+    Entry<T> entry;
+    synchronized (this) {
+      entry = (Entry<T>) entries.get(key);
+      if (entry == null) {
+        entry = new Entry<>(closer);
+        entry.cached = true;
+        entries.put(key, entry);
+      }
+      entry.refCount++;
+    }
+
+    // concurrent users of the same expressions wait for a single build.
+    final boolean hit;
+    try {
+      hit = entry.build(builder);
+    } catch (GandivaException | RuntimeException e) {
+      release(key, entry);
+      throw e;
+    }
+
+    evict(capacity);
+    return new Handle<>(key, entry, hit);
+  }
+
+  private void release(Key key, Entry<?> entry) {
+    final boolean close;
+    synchronized (this) {
+      entry.refCount--;
+      if (entry.module == null && entries.get(key) == entry) {
+        // the build failed, let the next user try again.
+        entries.remove(key);
+        entry.cached = false;
+      }
+      close = entry.refCount == 0 && !entry.cached;
+    }
+
+    if (close) {
+      entry.close();
+    }
+  }
+
+  private void evict(int capacity) {
+    final List<Entry<?>> evicted = new ArrayList<>();
+    synchronized (this) {
+      final Iterator<Map.Entry<Key, Entry<?>>> iterator = entries.entrySet().iterator();
+      while (entries.size() > capacity && iterator.hasNext()) {
+        final Entry<?> entry = iterator.next().getValue();
+        if (entry.refCount == 0 && entry.module != null) {
+          iterator.remove();
+          entry.cached = false;
+          evicted.add(entry);
+        }
+      }
+    }
+
+    for (Entry<?> entry : evicted) {
+      entry.close();
+    }
+  }
+
+  /**
+   * Reference to a compiled module of the cache.
+   */
+  final class Handle<T> implements AutoCloseable {
+    private final Key key;
+    private final Entry<T> entry;
+    private final boolean hit;
+    private boolean closed;
+
+    private Handle(Key key, Entry<T> entry, boolean hit) {
+      this.key = key;
+      this.entry = entry;
+      this.hit = hit;
+    }
+
+    T get() {
+      return entry.module;
+    }
+
+    /**
+     * @return true if the module was already compiled.
+     */
+    boolean isHit() {
+      return hit;
+    }
+
+    @Override
+    public void close() {
+      if (!closed) {
+        closed = true;
+        release(key, entry);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface ModuleBuilder<T> {
+    T build() throws GandivaException;
+  }
+
+  @FunctionalInterface
+  private interface ModuleCloser<T> {
+    void close(T module) throws GandivaException;
+  }
+
+  private static final class Entry<T> {
+    private final ModuleCloser<T> closer;
+    private volatile T module;
+    // guarded by the cache.
+    private int refCount;
+    private boolean cached;
+
+    private Entry(ModuleCloser<T> closer) {
+      this.closer = closer;
+    }
+
+    // returns true if the module was already built.
+    private synchronized boolean build(ModuleBuilder<T> builder) throws GandivaException {
+      if (module != null) {
+        return true;
+      }
+      module = builder.build();
+      return false;
+    }
+
+    private void close() {
+      if (module == null) {
+        return;
+      }
+      try {
+        closer.close(module);
+      } catch (GandivaException e) {
+        logger.warn("Failed to close gandiva module", e);
+      }
+    }
+  }
+
+  private static final class Key {
+    private final boolean filter;
+    private final boolean optimize;
+    private final byte[] schema;
+    private final byte[] exprs;
+    private final int hashCode;
+
+    private Key(boolean filter, boolean optimize, byte[] schema, byte[] exprs) {
+      this.filter = filter;
+      this.optimize = optimize;
+      this.schema = schema;
+      this.exprs = exprs;
+      int hash = Boolean.hashCode(filter);
+      hash = 31 * hash + Boolean.hashCode(optimize);
+      hash = 31 * hash + Arrays.hashCode(schema);
+      this.hashCode = 31 * hash + Arrays.hashCode(exprs);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) o;
+      return filter == other.filter
+        && optimize == other.optimize
+        && Arrays.equals(schema, other.schema)
+        && Arrays.equals(exprs, other.exprs);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -30,6 +30,7 @@ import org.apache.arrow.vector.VectorSchemaRoot;
 import com.dremio.common.expression.LogicalExpression;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.selection.SelectionVector2;
+import com.dremio.sabot.exec.context.CompilationOptions;
 import com.dremio.sabot.exec.context.FunctionContext;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -40,11 +41,15 @@ import com.google.common.collect.Sets;
 public class NativeFilter implements AutoCloseable {
 
   private final Filter filter;
+  // set when the filter comes from the cache.
+  private final GandivaCache.Handle<Filter> cachedFilter;
   private final VectorSchemaRoot root;
   private final SelectionVector2 selectionVector;
 
-  private NativeFilter(Filter filter, VectorSchemaRoot root, SelectionVector2 selectionVector) {
+  private NativeFilter(Filter filter, GandivaCache.Handle<Filter> cachedFilter, VectorSchemaRoot root,
+                       SelectionVector2 selectionVector) {
     this.filter = filter;
+    this.cachedFilter = cachedFilter;
     this.root = root;
     this.selectionVector = selectionVector;
   }
@@ -65,8 +70,25 @@ public class NativeFilter implements AutoCloseable {
     Set referencedFields = Sets.newHashSet();
     Condition condition = GandivaExpressionBuilder.serializeExprToCondition(input, expr, referencedFields, functionContext);
     VectorSchemaRoot root = GandivaUtils.getSchemaRoot(input, referencedFields);
+    CompilationOptions options = functionContext.getCompilationOptions();
+    if (options.enableGandivaCache()) {
+      GandivaCache.Handle<Filter> cachedFilter = GandivaCache.getInstance().getFilter(root.getSchema(), condition,
+        optimize, options.getGandivaCacheSize());
+      return new NativeFilter(cachedFilter.get(), cachedFilter, root, selectionVector);
+    }
     Filter filter = Filter.make(root.getSchema(), condition, optimize);
-    return new NativeFilter(filter, root, selectionVector);
+    return new NativeFilter(filter, null, root, selectionVector);
+  }
+
+  public boolean isCached() {
+    return cachedFilter != null;
+  }
+
+  /**
+   * @return true if the filter was already compiled, by this or another fragment.
+   */
+  public boolean isCacheHit() {
+    return cachedFilter != null && cachedFilter.isHit();
   }
 
   /**
@@ -103,7 +125,11 @@ public class NativeFilter implements AutoCloseable {
    */
   @Override
   public void close() throws GandivaException {
-    filter.close();
+    if (cachedFilter != null) {
+      cachedFilter.close();
+    } else {
+      filter.close();
+    }
   }
 
 }
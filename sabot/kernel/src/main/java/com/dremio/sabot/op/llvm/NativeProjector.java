@@ -31,6 +31,7 @@ import org.apache.arrow.vector.types.pojo.Schema;
 
 import com.dremio.common.expression.LogicalExpression;
 import com.dremio.exec.record.VectorAccessible;
+import com.dremio.sabot.exec.context.CompilationOptions;
 import com.dremio.sabot.exec.context.FunctionContext;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -39,6 +40,8 @@ public class NativeProjector implements AutoCloseable {
   private final VectorAccessible incoming;
   private List<ExpressionTree> columnExprList = new ArrayList<>();
   private Projector projector = null;
+  // set when the projector comes from the cache.
+  private GandivaCache.Handle<Projector> cachedProjector = null;
   private VectorSchemaRoot root;
   private final Schema schema;
   private final FunctionContext functionContext;
@@ -62,7 +65,25 @@ public class NativeProjector implements AutoCloseable {
 
   public void build() throws GandivaException {
     root = GandivaUtils.getSchemaRoot(incoming, referencedFields);
-    projector = Projector.make(root.getSchema(), columnExprList, optimize);
+    final CompilationOptions options = functionContext.getCompilationOptions();
+    if (options.enableGandivaCache()) {
+      cachedProjector = GandivaCache.getInstance().getProjector(root.getSchema(), columnExprList, optimize,
+        options.getGandivaCacheSize());
+      projector = cachedProjector.get();
+    } else {
+      projector = Projector.make(root.getSchema(), columnExprList, optimize);
+    }
+  }
+
+  boolean isCached() {
+    return cachedProjector != null;
+  }
+
+  /**
+   * @return true if the projector was already compiled, by this or another fragment.
+   */
+  boolean isCacheHit() {
+    return cachedProjector != null && cachedProjector.isHit();
   }
 
   public void execute(int recordCount, List<ValueVector> outVectors) throws Exception {
@@ -78,6 +99,10 @@ public class NativeProjector implements AutoCloseable {
 
   @Override
   public void close() throws Exception {
-    projector.close();
+    if (cachedProjector != null) {
+      cachedProjector.close();
+    } else {
+      projector.close();
+    }
   }
 }
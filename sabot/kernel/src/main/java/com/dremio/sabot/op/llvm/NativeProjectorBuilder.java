@@ -41,6 +41,8 @@ public class NativeProjectorBuilder {
   private List<ValueVector> allocationVectorsForNoOpt = new ArrayList<>();
   private final VectorAccessible incoming;
   private final FunctionContext functionContext;
+  private int cacheHits;
+  private int cacheMisses;
 
   public NativeProjectorBuilder(VectorAccessible incoming, FunctionContext functionContext) {
     this.incoming = incoming;
@@ -76,9 +78,11 @@ public class NativeProjectorBuilder {
     }
     if (!allocationVectorsForOpt.isEmpty()) {
       projectorWithOpt.build();
+      recordCacheLookup(projectorWithOpt);
     }
     if (!allocationVectorsForNoOpt.isEmpty()) {
       projectorWithNoOpt.build();
+      recordCacheLookup(projectorWithNoOpt);
     }
 
     return new NativeProjectEvaluator() {
@@ -107,6 +111,31 @@ public class NativeProjectorBuilder {
 
   }
 
+  private void recordCacheLookup(NativeProjector projector) {
+    if (!projector.isCached()) {
+      return;
+    }
+    if (projector.isCacheHit()) {
+      cacheHits++;
+    } else {
+      cacheMisses++;
+    }
+  }
+
+  /**
+   * @return number of projectors found compiled in the gandiva cache.
+   */
+  public int getCacheHits() {
+    return cacheHits;
+  }
+
+  /**
+   * @return number of projectors compiled, and added to the gandiva cache.
+   */
+  public int getCacheMisses() {
+    return cacheMisses;
+  }
+
   private static class ExprPairing {
     private final LogicalExpression expr;
     private final FieldVector outputVector;
@@ -165,6 +165,8 @@ public class ProjectOperator implements SingleInputOperator {
     stats.addLongStat(Metric.JAVA_EXPRESSIONS, splitter.getNumExprsInJava());
     stats.addLongStat(Metric.MIXED_EXPRESSIONS, splitter.getNumExprsInBoth());
     stats.addLongStat(Metric.MIXED_SPLITS, splitter.getNumSplitsInBoth());
+    stats.addLongStat(Metric.GANDIVA_CACHE_HITS, splitter.getNumGandivaCacheHits());
+    stats.addLongStat(Metric.GANDIVA_CACHE_MISSES, splitter.getNumGandivaCacheMisses());
     stats.setProfileDetails(OperatorProfileDetails
       .newBuilder()
       .addAllSplitInfos(splitter.getSplitInfos())
@@ -276,6 +278,13 @@ public class ProjectOperator implements SingleInputOperator {
 
   @Override
   public void close() throws Exception {
+    if (splitter != null) {
+      OperatorStats stats = context.getStats();
+      stats.addLongStat(Metric.ADAPTIVE_TRIAL_BATCHES, splitter.getNumAdaptiveTrialBatches());
+      stats.addLongStat(Metric.ADAPTIVE_PREFERRED_COST, splitter.getAdaptivePreferredCost());
+      stats.addLongStat(Metric.ADAPTIVE_ALTERNATE_COST, splitter.getAdaptiveAlternateCost());
+      stats.addLongStat(Metric.ADAPTIVE_ENGINE_SWITCHES, splitter.getNumAdaptiveEngineSwitches());
+    }
     AutoCloseables.close(outgoing, splitter);
     context.getStats().addLongStat(Metric.JAVA_EVALUATE_TIME, javaCodeGenWatch.elapsed(TimeUnit.MILLISECONDS));
     context.getStats().addLongStat(Metric.GANDIVA_EVALUATE_TIME, gandivaCodeGenWatch.elapsed(TimeUnit.MILLISECONDS));
@@ -161,7 +161,9 @@ public class ScanOperator implements ProducerOperator {
     MIN_METADATA_IO_READ_TIME_NS,  // Minimum IO read time for metadata operations
     MAX_METADATA_IO_READ_TIME_NS,   // Maximum IO read time for metadata operations
     AVG_METADATA_IO_READ_TIME_NS,  // Average IO read time for metadata operations
-    NUM_METADATA_IO_READ
+    NUM_METADATA_IO_READ,
+    NUM_ORC_STRIPES_PRUNED, // Number of ORC stripes skipped based on stripe statistics
+    ORC_STRIPE_BYTES_PRUNED // Number of bytes in ORC stripes skipped based on stripe statistics
     ;
 
     @Override
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.arrow.gandiva.expression;
+
+import java.util.List;
+
+import org.apache.arrow.gandiva.exceptions.GandivaException;
+import org.apache.arrow.gandiva.ipc.GandivaTypes;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+/**
+ * Gives access to the serialized form of gandiva expressions, which is what gets compiled. Used
+ * as the key for caching compiled modules.
+ */
+public final class GandivaSerializationHelper {
+
+  private GandivaSerializationHelper() {
+  }
+
+  public static byte[] toBytes(Schema schema) throws GandivaException {
+    return ArrowTypeHelper.arrowSchemaToProtobuf(schema).toByteArray();
+  }
+
+  public static byte[] toBytes(List<ExpressionTree> exprs) throws GandivaException {
+    GandivaTypes.ExpressionList.Builder builder = GandivaTypes.ExpressionList.newBuilder();
+    for (ExpressionTree expr : exprs) {
+      builder.addExprs(expr.toProtobuf());
+    }
+    return builder.build().toByteArray();
+  }
+
+  public static byte[] toBytes(Condition condition) throws GandivaException {
+    return condition.toProtobuf().toByteArray();
+  }
+}
@@ -179,6 +179,24 @@ public class MutableVarcharVector extends BaseVariableWidthVector {
     garbageSizeInBytes = 0;
   }
 
+  /**
+   * Allocate memory for the given number of values, including the forward index, so that
+   * setting values at smaller indices does not allocate as long as the data fits.
+   *
+   * @param totalBytes desired total memory capacity for the data
+   * @param valueCount the desired number of values
+   */
+  @Override
+  public void allocateNew(long totalBytes, int valueCount) {
+    super.allocateNew(totalBytes, valueCount);
+    try {
+      fwdIndex.allocateNew(valueCount);
+    } catch (Exception e) {
+      clear();
+      throw e;
+    }
+  }
+
 
   /*----------------------------------------------------------------*
    |                                                                |
@@ -336,7 +354,8 @@ public class MutableVarcharVector extends BaseVariableWidthVector {
       fwdIndex.setNull(index);
     }
 
-    if (needsCompaction()) {
+    // also reclaim the garbage instead of growing the buffers once all the values have been appended
+    if (needsCompaction() || (garbageSizeInBytes > 0 && head >= getValueCapacity())) {
       compactInternal();
     }
   }
@@ -17,7 +17,9 @@ package org.apache.parquet.hadoop;
 
 import java.io.IOException;
 
+import org.apache.parquet.column.ColumnWriteStore;
 import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.column.impl.ColumnWriteStoreV1;
 import org.apache.parquet.column.page.PageWriteStore;
 import org.apache.parquet.hadoop.CodecFactory.BytesCompressor;
 import org.apache.parquet.schema.MessageType;
@@ -32,6 +34,17 @@ public class ColumnChunkPageWriteStoreExposer {
     return new ColumnChunkPageWriteStore(compressor, schema, parquetProperties);
   }
 
+  /**
+   * Create a column store that also writes the bloom filters of the columns enabled in the properties.
+   */
+  public static ColumnWriteStore newColumnWriteStore(
+      MessageType schema,
+      PageWriteStore pageStore,
+      ParquetProperties parquetProperties
+      ) {
+    return new ColumnWriteStoreV1(schema, pageStore, (ColumnChunkPageWriteStore) pageStore, parquetProperties);
+  }
+
   public static void flushPageStore(PageWriteStore pageStore, ParquetFileWriter w) throws IOException {
     ((ColumnChunkPageWriteStore) pageStore).flushToFileWriter(w);
   }
@@ -22,6 +22,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
@@ -31,7 +32,12 @@ import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.junit.After;
@@ -48,6 +54,7 @@ import com.dremio.connector.metadata.DatasetMetadata;
 import com.dremio.connector.metadata.DatasetNotFoundException;
 import com.dremio.connector.metadata.DatasetStats;
 import com.dremio.connector.metadata.EntityPath;
+import com.dremio.connector.metadata.GetDatasetOption;
 import com.dremio.connector.metadata.PartitionChunkListing;
 import com.dremio.connector.metadata.extensions.SupportsReadSignature;
 import com.dremio.datastore.api.LegacyKVStore;
@@ -64,11 +71,13 @@ import com.dremio.service.namespace.SourceState;
 import com.dremio.service.namespace.dataset.proto.DatasetConfig;
 import com.dremio.service.namespace.dataset.proto.ReadDefinition;
 import com.dremio.service.namespace.source.proto.MetadataPolicy;
+import com.dremio.service.namespace.source.proto.UpdateMode;
 import com.dremio.service.scheduler.ModifiableLocalSchedulerService;
 import com.dremio.service.scheduler.ModifiableSchedulerService;
 import com.dremio.test.UserExceptionMatcher;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 public class TestSourceMetadataManager {
   private static final int MAX_COLUMNS = 800;
@@ -460,6 +469,90 @@ public class TestSourceMetadataManager {
     );
   }
 
+  @Test
+  public void parallelSync() throws Exception {
+    final List<DatasetHandle> handles = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      final EntityPath path = new EntityPath(ImmutableList.of("joker", "folder", "dataset" + i));
+      handles.add(() -> path);
+    }
+
+    ExtendedStoragePlugin sp = mock(ExtendedStoragePlugin.class);
+    when(sp.listDatasetHandles((GetDatasetOption[]) anyVararg()))
+        .thenReturn(handles::iterator);
+
+    NamespaceService ns = mock(NamespaceService.class);
+    when(ns.getAllDatasets(any()))
+        .thenReturn(Collections.emptyList());
+    final Set<NamespaceKey> added = ConcurrentHashMap.newKeySet();
+    doAnswer(invocation -> {
+      added.add((NamespaceKey) invocation.getArguments()[0]);
+      return null;
+    }).when(ns).addOrUpdateDataset(any(NamespaceKey.class), any(DatasetConfig.class));
+
+    ManagedStoragePlugin.MetadataBridge msp = mock(ManagedStoragePlugin.MetadataBridge.class);
+    when(msp.getMetadata())
+        .thenReturn(sp);
+
+    // 20 datasets in batches of 3 over 4 workers
+    MetadataSynchronizer synchronizer = new MetadataSynchronizer(ns, new NamespaceKey("joker"), msp,
+        new MetadataPolicy().setDatasetUpdateMode(UpdateMode.PREFETCH_QUERIED),
+        new DatasetSaver(ns, key -> {}, optionManager), DatasetRetrievalOptions.DEFAULT, 4, 3);
+    synchronizer.setup();
+    SyncStatus status = synchronizer.go();
+
+    assertTrue(status.isRefreshed());
+    assertEquals(20, added.size());
+  }
+
+  @Test
+  public void parallelSyncFailureWaitsForWorkers() throws Exception {
+    final List<DatasetHandle> handles = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      final EntityPath path = new EntityPath(ImmutableList.of("joker", "folder", "dataset" + i));
+      handles.add(() -> path);
+    }
+
+    ExtendedStoragePlugin sp = mock(ExtendedStoragePlugin.class);
+    when(sp.listDatasetHandles((GetDatasetOption[]) anyVararg()))
+        .thenReturn(handles::iterator);
+
+    NamespaceService ns = mock(NamespaceService.class);
+    when(ns.getAllDatasets(any()))
+        .thenReturn(Collections.emptyList());
+    final NamespaceKey failing = new NamespaceKey(ImmutableList.of("joker", "folder", "dataset0"));
+    final AtomicInteger inProgress = new AtomicInteger();
+    final AtomicInteger added = new AtomicInteger();
+    doAnswer(invocation -> {
+      if (failing.equals(invocation.getArguments()[0])) {
+        throw new NamespaceNotFoundException(failing, "failure");
+      }
+      // a namespace update ignoring interrupts
+      inProgress.incrementAndGet();
+      Uninterruptibles.sleepUninterruptibly(50, TimeUnit.MILLISECONDS);
+      added.incrementAndGet();
+      inProgress.decrementAndGet();
+      return null;
+    }).when(ns).addOrUpdateDataset(any(NamespaceKey.class), any(DatasetConfig.class));
+
+    ManagedStoragePlugin.MetadataBridge msp = mock(ManagedStoragePlugin.MetadataBridge.class);
+    when(msp.getMetadata())
+        .thenReturn(sp);
+
+    MetadataSynchronizer synchronizer = new MetadataSynchronizer(ns, new NamespaceKey("joker"), msp,
+        new MetadataPolicy().setDatasetUpdateMode(UpdateMode.PREFETCH_QUERIED),
+        new DatasetSaver(ns, key -> {}, optionManager), DatasetRetrievalOptions.DEFAULT, 4, 1);
+    synchronizer.setup();
+    synchronizer.go();
+
+    // the sync failed, and no worker is left updating the namespace
+    assertEquals(0, inProgress.get());
+    final int addedAfterSync = added.get();
+    assertTrue(addedAfterSync < 19);
+    Thread.sleep(200);
+    assertEquals(addedAfterSync, added.get());
+  }
+
   @Test
   public void exceedMaxColumnLimit() throws Exception {
     NamespaceService ns = mock(NamespaceService.class);
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.physical.impl;
+
+import static com.dremio.sabot.Fixtures.t;
+import static com.dremio.sabot.Fixtures.th;
+import static com.dremio.sabot.Fixtures.tr;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.physical.config.Filter;
+import com.dremio.exec.physical.config.Project;
+import com.dremio.sabot.BaseTestOperator;
+import com.dremio.sabot.Fixtures.Table;
+import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.op.filter.FilterOperator;
+import com.dremio.sabot.op.filter.FilterStats;
+import com.dremio.sabot.op.project.ProjectOperator;
+import com.dremio.sabot.op.project.ProjectorStats;
+
+import io.airlift.tpch.GenerationDefinition.TpchTable;
+import io.airlift.tpch.TpchGenerator;
+
+/**
+ * Tests for picking the code generation engine at runtime.
+ */
+public class TestAdaptiveCodeGen extends BaseTestOperator {
+
+  @Test
+  public void testProjectTimesBothEngines() throws Exception {
+    Project project = new Project(PROPS, null, Arrays.asList(n("r_regionkey + 3", "res")));
+    final Table expected = t(
+      th("res"),
+      tr(3L),
+      tr(4L),
+      tr(5L),
+      tr(6L),
+      tr(7L)
+    );
+
+    try (AutoCloseable with = with(ExecConstants.ADAPTIVE_CODEGEN_TRIAL_BATCHES, 1)) {
+      // one batch per record, the engine is picked after the fourth batch.
+      OperatorStats stats = validateSingle(project, ProjectOperator.class,
+        TpchGenerator.singleGenerator(TpchTable.REGION, 0.1, getTestAllocator()), expected, 1);
+      Assert.assertEquals(4, stats.getLongStat(ProjectorStats.Metric.ADAPTIVE_TRIAL_BATCHES));
+      Assert.assertTrue(stats.getLongStat(ProjectorStats.Metric.ADAPTIVE_PREFERRED_COST) > 0);
+      Assert.assertTrue(stats.getLongStat(ProjectorStats.Metric.ADAPTIVE_ALTERNATE_COST) > 0);
+    }
+  }
+
+  @Test
+  public void testCostProfileReused() throws Exception {
+    Project project = new Project(PROPS, null, Arrays.asList(n("r_regionkey * 7", "res")));
+    final Table expected = t(
+      th("res"),
+      tr(0L),
+      tr(7L),
+      tr(14L),
+      tr(21L),
+      tr(28L)
+    );
+
+    try (AutoCloseable with = with(ExecConstants.ADAPTIVE_CODEGEN_TRIAL_BATCHES, 1)) {
+      for (int i = 0; i < 3; i++) {
+        validateSingle(project, ProjectOperator.class,
+          TpchGenerator.singleGenerator(TpchTable.REGION, 0.1, getTestAllocator()), expected, 1);
+      }
+
+      // the engine is picked from the costs measured by the previous runs.
+      OperatorStats stats = validateSingle(project, ProjectOperator.class,
+        TpchGenerator.singleGenerator(TpchTable.REGION, 0.1, getTestAllocator()), expected, 1);
+      Assert.assertEquals(0, stats.getLongStat(ProjectorStats.Metric.ADAPTIVE_TRIAL_BATCHES));
+      Assert.assertTrue(stats.getLongStat(ProjectorStats.Metric.ADAPTIVE_PREFERRED_COST) > 0);
+    }
+  }
+
+  @Test
+  public void testFilterTimesBothEngines() throws Exception {
+    Filter filter = new Filter(PROPS, null, parseExpr("r_regionkey > 5"), 1f);
+
+    try (AutoCloseable with = with(ExecConstants.ADAPTIVE_CODEGEN_TRIAL_BATCHES, 1)) {
+      OperatorStats stats = runSingle(filter, FilterOperator.class, TpchTable.REGION, 0.1, 1);
+      Assert.assertEquals(4, stats.getLongStat(FilterStats.Metric.ADAPTIVE_TRIAL_BATCHES));
+      Assert.assertTrue(stats.getLongStat(FilterStats.Metric.ADAPTIVE_ALTERNATE_COST) > 0);
+    }
+  }
+
+  @Test
+  public void testDisabledByDefault() throws Exception {
+    Project project = new Project(PROPS, null, Arrays.asList(n("r_regionkey + 5", "res")));
+
+    OperatorStats stats = runSingle(project, ProjectOperator.class, TpchTable.REGION, 0.1, 1);
+    Assert.assertEquals(0, stats.getLongStat(ProjectorStats.Metric.ADAPTIVE_TRIAL_BATCHES));
+    Assert.assertEquals(0, stats.getLongStat(ProjectorStats.Metric.ADAPTIVE_ENGINE_SWITCHES));
+  }
+}
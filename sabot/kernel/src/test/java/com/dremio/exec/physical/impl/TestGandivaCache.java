@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.physical.impl;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.dremio.exec.physical.config.Filter;
+import com.dremio.exec.physical.config.Project;
+import com.dremio.sabot.BaseTestOperator;
+import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.op.filter.FilterOperator;
+import com.dremio.sabot.op.filter.FilterStats;
+import com.dremio.sabot.op.project.ProjectOperator;
+import com.dremio.sabot.op.project.ProjectorStats;
+
+import io.airlift.tpch.GenerationDefinition;
+
+/**
+ * Tests that compiled gandiva modules are shared across operators.
+ */
+public class TestGandivaCache extends BaseTestOperator {
+
+  @Test
+  public void testProjectorReused() throws Exception {
+    Project project = new Project(PROPS, null, Arrays.asList(n("isnull(c_acctbal)", "res")));
+
+    OperatorStats first = runSingle(project, ProjectOperator.class, GenerationDefinition.TpchTable
+      .CUSTOMER_LIMITED, 6, 10);
+    Assert.assertEquals(1, first.getLongStat(ProjectorStats.Metric.GANDIVA_EXPRESSIONS));
+    Assert.assertEquals(1, first.getLongStat(ProjectorStats.Metric.GANDIVA_CACHE_HITS)
+      + first.getLongStat(ProjectorStats.Metric.GANDIVA_CACHE_MISSES));
+
+    OperatorStats second = runSingle(project, ProjectOperator.class, GenerationDefinition.TpchTable
+      .CUSTOMER_LIMITED, 6, 10);
+    Assert.assertEquals(1, second.getLongStat(ProjectorStats.Metric.GANDIVA_CACHE_HITS));
+    Assert.assertEquals(0, second.getLongStat(ProjectorStats.Metric.GANDIVA_CACHE_MISSES));
+  }
+
+  @Test
+  public void testFilterReused() throws Exception {
+    Filter filter = new Filter(PROPS, null, parseExpr("isnull(c_mktsegment)"), 1f);
+
+    runSingle(filter, FilterOperator.class, GenerationDefinition.TpchTable.CUSTOMER_LIMITED, 6, 10);
+
+    OperatorStats second = runSingle(filter, FilterOperator.class, GenerationDefinition.TpchTable
+      .CUSTOMER_LIMITED, 6, 10);
+    Assert.assertEquals(1, second.getLongStat(FilterStats.Metric.GANDIVA_EXPRESSIONS));
+    Assert.assertEquals(1, second.getLongStat(FilterStats.Metric.GANDIVA_CACHE_HITS));
+    Assert.assertEquals(0, second.getLongStat(FilterStats.Metric.GANDIVA_CACHE_MISSES));
+  }
+}
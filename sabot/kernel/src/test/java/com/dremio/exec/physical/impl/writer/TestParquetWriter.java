@@ -18,8 +18,10 @@ package com.dremio.exec.physical.impl.writer;
 import static com.dremio.exec.store.parquet.ParquetRecordWriter.DREMIO_VERSION_PROPERTY;
 import static org.apache.parquet.format.converter.ParquetMetadataConverter.SKIP_ROW_GROUPS;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.notNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -41,7 +43,10 @@ import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
 import org.apache.parquet.hadoop.util.PageHeaderUtil;
 import org.joda.time.Period;
 import org.junit.AfterClass;
@@ -370,6 +375,160 @@ public class TestParquetWriter extends BaseTestQuery {
     }
   }
 
+  @Test
+  public void testTPCHReadWriteColumnar() throws Exception {
+    try {
+      test(String.format("alter session set \"%s\" = true", ExecConstants.PARQUET_WRITER_COLUMNAR));
+      runTestAndValidate("*", "*", "cp.\"tpch/supplier.parquet\"", "supplier_parquet_columnar", false);
+      runTestAndValidate("*", "*", "cp.\"employee.json\"", "employee_parquet_columnar", false);
+    } finally {
+      test(String.format("alter session set \"%s\" = %b", ExecConstants.PARQUET_WRITER_COLUMNAR,
+        ExecConstants.PARQUET_WRITER_COLUMNAR_VALIDATOR.getDefault().getBoolVal()));
+    }
+
+    // the files above are the same either way, so check the writer reports the batches it wrote column by column
+    assertTrue(writeColumnarBatches() > 0);
+  }
+
+  /**
+   * Write a batch with the columnar option, and return the number of batches the writer reported
+   * as written column by column.
+   */
+  private long writeColumnarBatches() throws Exception {
+    final Path tmpSchemaPath = new Path(getDfsTestTmpSchemaLocation());
+    final Path targetPath = new Path(tmpSchemaPath, "testColumnarBatches");
+
+    final Configuration hadoopConf = new Configuration();
+    final FileSystem newFs = targetPath.getFileSystem(hadoopConf);
+    assertTrue(newFs.mkdirs(targetPath));
+
+    final BufferAllocator ALLOCATOR = allocatorRule.newAllocator("test-parquet-writer", 0, Long.MAX_VALUE);
+
+    OptionManager optionManager = mock(OptionManager.class);
+    when(optionManager.getOption(ExecConstants.PARQUET_WRITER_COMPRESSION_TYPE_VALIDATOR)).thenReturn("none");
+    when(optionManager.getOption(ExecConstants.PARQUET_PAGE_SIZE_VALIDATOR)).thenReturn(256L);
+    when(optionManager.getOption(ExecConstants.PARQUET_MAXIMUM_PARTITIONS_VALIDATOR)).thenReturn(1L);
+    when(optionManager.getOption(ExecConstants.PARQUET_DICT_PAGE_SIZE_VALIDATOR)).thenReturn(4096L);
+    when(optionManager.getOption(ExecConstants.PARQUET_WRITER_COLUMNAR_VALIDATOR)).thenReturn(true);
+
+    OperatorStats operatorStats = mock(OperatorStats.class);
+
+    OperatorContext opContext = mock(OperatorContext.class);
+    when(opContext.getFragmentHandle()).thenReturn(ExecProtos.FragmentHandle.newBuilder().setMajorFragmentId(2323).setMinorFragmentId(234236).build());
+    when(opContext.getAllocator()).thenReturn(ALLOCATOR);
+    when(opContext.getOptions()).thenReturn(optionManager);
+    when(opContext.getStats()).thenReturn(operatorStats);
+
+    ParquetWriter writerConf = mock(ParquetWriter.class);
+    when(writerConf.getLocation()).thenReturn(targetPath.toUri().toString());
+    OpProps props = mock(OpProps.class);
+    when(writerConf.getProps()).thenReturn(props);
+    when(writerConf.getProps().getUserName()).thenReturn("testuser");
+
+    ParquetFormatPlugin formatPlugin = mock(ParquetFormatPlugin.class);
+    FileSystemPlugin fsPlugin = mock(FileSystemPlugin.class);
+    when(fsPlugin.createFS((String) notNull(), (OperatorContext) notNull())).thenReturn(HadoopFileSystem.getLocal(hadoopConf));
+    when(writerConf.getFormatPlugin()).thenReturn(formatPlugin);
+    when(formatPlugin.getFsPlugin()).thenReturn(fsPlugin);
+
+    ParquetRecordWriter writer = new ParquetRecordWriter(opContext, writerConf, new ParquetFormatConfig());
+
+    RecordWriter.OutputEntryListener outputEntryListener = mock(RecordWriter.OutputEntryListener.class);
+    RecordWriter.WriteStatsListener writeStatsListener = mock(RecordWriter.WriteStatsListener.class);
+    ArgumentCaptor<Long> columnarBatchesCaptor = ArgumentCaptor.forClass(long.class);
+
+    BigIntVector bigIntVector = new BigIntVector("key", ALLOCATOR);
+    bigIntVector.allocateNew(2);
+    bigIntVector.set(0, 52459253098448904L);
+    bigIntVector.set(1, 1116675951L);
+
+    VectorContainer container = new VectorContainer();
+    container.add(bigIntVector);
+    container.setRecordCount(2);
+    container.buildSchema(BatchSchema.SelectionVectorMode.NONE);
+
+    writer.setup(container, outputEntryListener, writeStatsListener);
+    writer.startPartition(WritePartition.NONE);
+    writer.writeBatch(0, container.getRecordCount());
+
+    container.clear();
+    writer.close();
+
+    verify(operatorStats).setLongStat(eq(ParquetRecordWriter.Metric.NUM_COLUMNAR_BATCHES), columnarBatchesCaptor.capture());
+
+    container.close();
+    ALLOCATOR.close();
+    return columnarBatchesCaptor.getValue();
+  }
+
+  @Test
+  public void testTPCHReadWriteColumnarDictionary() throws Exception {
+    try {
+      test(String.format("alter session set \"%s\" = true", ExecConstants.PARQUET_WRITER_COLUMNAR));
+      test(String.format("alter session set \"%s\" = true", ExecConstants.PARQUET_WRITER_ENABLE_DICTIONARY_ENCODING));
+      runTestAndValidate("*", "*", "cp.\"tpch/nation.parquet\"", "nation_parquet_columnar_dict", false);
+    } finally {
+      test(String.format("alter session set \"%s\" = %b", ExecConstants.PARQUET_WRITER_COLUMNAR,
+        ExecConstants.PARQUET_WRITER_COLUMNAR_VALIDATOR.getDefault().getBoolVal()));
+      test(String.format("alter session set \"%s\" = %b", ExecConstants.PARQUET_WRITER_ENABLE_DICTIONARY_ENCODING,
+        ExecConstants.PARQUET_WRITER_ENABLE_DICTIONARY_ENCODING_VALIDATOR.getDefault().getBoolVal()));
+    }
+  }
+
+  @Test
+  public void testTPCHReadWriteAsyncFlush() throws Exception {
+    // small files, so that several of them are flushed in the background
+    try (AutoCloseable flush = withOption(ExecConstants.PARQUET_WRITER_FLUSH_PARALLELISM_VALIDATOR, 2);
+         AutoCloseable blockSize = withOption(ExecConstants.PARQUET_BLOCK_SIZE_VALIDATOR, 64 * 1024);
+         AutoCloseable minRecords = withOption(ExecConstants.PARQUET_MIN_RECORDS_FOR_FLUSH_VALIDATOR, 100)) {
+      runTestAndValidate("*", "*", "cp.\"tpch/supplier.parquet\"", "supplier_parquet_async_flush", false);
+      runTestAndValidate("*", "*", "cp.\"employee.json\"", "employee_parquet_async_flush", false);
+    }
+  }
+
+  @Test
+  public void testTPCHReadWriteZstd() throws Exception {
+    try (AutoCloseable level = withOption(ExecConstants.PARQUET_WRITER_COMPRESSION_ZSTD_LEVEL_VALIDATOR, 9)) {
+      test(String.format("alter session set \"%s\" = 'zstd'", ExecConstants.PARQUET_WRITER_COMPRESSION_TYPE));
+      runTestAndValidate("*", "*", "cp.\"tpch/supplier.parquet\"", "supplier_parquet_zstd", false);
+    } finally {
+      test(String.format("alter session set \"%s\" = '%s'", ExecConstants.PARQUET_WRITER_COMPRESSION_TYPE,
+        ExecConstants.PARQUET_WRITER_COMPRESSION_TYPE_VALIDATOR.getDefault().getStringVal()));
+    }
+  }
+
+  @Test
+  public void testBloomFilterAndPageIndexes() throws Exception {
+    final String outputFile = "supplier_parquet_bloom_filter";
+    try {
+      test(String.format("alter session set \"%s\" = 'S_NAME, s_phone'", ExecConstants.PARQUET_WRITER_BLOOM_FILTER_COLUMNS));
+      deleteTableIfExists(outputFile);
+      test("use dfs_test");
+      test(String.format("CREATE TABLE %s AS SELECT * FROM cp.\"tpch/supplier.parquet\"", outputFile));
+
+      Configuration hadoopConf = new Configuration();
+      Path output = new Path(getDfsTestTmpSchemaLocation(), outputFile);
+      FileSystem fs = output.getFileSystem(hadoopConf);
+      for (FileStatus file : fs.listStatus(output)) {
+        try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromStatus(file, hadoopConf))) {
+          for (BlockMetaData block : reader.getFooter().getBlocks()) {
+            for (ColumnChunkMetaData column : block.getColumns()) {
+              final String name = column.getPath().toDotString();
+              final boolean bloomFilter = name.equals("s_name") || name.equals("s_phone");
+              assertEquals(name, bloomFilter, reader.readBloomFilter(column) != null);
+              assertNotNull(name, reader.readColumnIndex(column));
+              assertNotNull(name, reader.readOffsetIndex(column));
+            }
+          }
+        }
+      }
+    } finally {
+      test(String.format("alter session set \"%s\" = '%s'", ExecConstants.PARQUET_WRITER_BLOOM_FILTER_COLUMNS,
+        ExecConstants.PARQUET_WRITER_BLOOM_FILTER_COLUMNS_VALIDATOR.getDefault().getStringVal()));
+      deleteTableIfExists(outputFile);
+    }
+  }
+
   @Test
   public void testTPCHReadWriteDictGzip() throws Exception {
     try {
@@ -19,9 +19,19 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.List;
 
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
 import org.junit.Test;
 
 import com.dremio.BaseTestQuery;
+import com.dremio.PlanTestBase;
 import com.dremio.exec.ExecConstants;
 import com.dremio.sabot.rpc.user.QueryDataBatch;
 
@@ -179,6 +189,91 @@ public class TestPartitionCreation extends BaseTestQuery {
     test("create table dfs_test.mypart3 PARTITION BY (kind) STORE AS (type => 'TEXT', fieldDelimiter => ',') as select * from sys.options");
   }
 
+  @Test
+  public void testClusteredCreation() throws Exception {
+    final String input = "sys.options";
+    for (String curve : new String[] {"zorder", "hilbert"}) {
+      try {
+        setSessionOption(ExecConstants.WRITER_CLUSTERING, "'" + curve + "'");
+        final String tableName = "dfs_test.clustered_" + curve;
+        runSQL("CREATE TABLE " + tableName + " LOCALSORT BY (name, num_val) as SELECT * FROM " + input);
+        testBuilder()
+          .unOrdered()
+          .sqlQuery("SELECT name, kind, type, status, num_val, string_val FROM " + tableName)
+          .sqlBaselineQuery("SELECT name, kind, type, status, num_val, string_val FROM " + input)
+          .go();
+
+        final String partitionedTableName = "dfs_test.clustered_partitioned_" + curve;
+        runSQL("CREATE TABLE " + partitionedTableName + " PARTITION BY (type) LOCALSORT BY (name, num_val) as SELECT * FROM " + input);
+        testBuilder()
+          .unOrdered()
+          .sqlQuery("SELECT name, kind, type, status, num_val, string_val FROM " + partitionedTableName)
+          .sqlBaselineQuery("SELECT name, kind, type, status, num_val, string_val FROM " + input)
+          .go();
+      } finally {
+        setSessionOption(ExecConstants.WRITER_CLUSTERING, "'none'");
+      }
+    }
+  }
+
+  /**
+   * Row groups written clustered along a curve span a smaller range of the second sort column
+   * than row groups written in lexicographic order.
+   */
+  @Test
+  public void testClusteredRowGroups() throws Exception {
+    final String select = "SELECT * FROM cp.\"tpch/lineitem.parquet\"";
+    try (AutoCloseable blockSize = withOption(ExecConstants.PARQUET_BLOCK_SIZE_VALIDATOR, 64 * 1024)) {
+      runSQL("CREATE TABLE dfs_test.lineitem_lexicographic LOCALSORT BY (l_partkey, l_suppkey) AS " + select);
+      final double lexicographic = getAverageRange("lineitem_lexicographic", "l_suppkey");
+
+      for (String curve : new String[] {"zorder", "hilbert"}) {
+        try {
+          setSessionOption(ExecConstants.WRITER_CLUSTERING, "'" + curve + "'");
+          final String tableName = "lineitem_" + curve;
+          final String ctas = "CREATE TABLE dfs_test." + tableName + " LOCALSORT BY (l_partkey, l_suppkey) AS " + select;
+          PlanTestBase.testPlanSubstrPatterns(ctas, new String[] {"ClusteringKey"}, null);
+          runSQL(ctas);
+
+          final double clustered = getAverageRange(tableName, "l_suppkey");
+          assertTrue(String.format("%s: %f, lexicographic: %f", curve, clustered, lexicographic),
+            clustered < lexicographic * 0.75);
+        } finally {
+          setSessionOption(ExecConstants.WRITER_CLUSTERING, "'none'");
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the average difference between the max and min values of the column in the row groups of the table
+   */
+  private static double getAverageRange(String tableName, String column) throws Exception {
+    final Configuration hadoopConf = new Configuration();
+    final Path output = new Path(getDfsTestTmpSchemaLocation(), tableName);
+    final FileSystem fs = output.getFileSystem(hadoopConf);
+    long total = 0;
+    int rowGroups = 0;
+    for (FileStatus file : fs.listStatus(output)) {
+      if (!file.getPath().getName().endsWith(".parquet")) {
+        continue;
+      }
+      try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromStatus(file, hadoopConf))) {
+        for (BlockMetaData block : reader.getFooter().getBlocks()) {
+          for (ColumnChunkMetaData chunk : block.getColumns()) {
+            if (chunk.getPath().toDotString().equals(column)) {
+              final Statistics<?> statistics = chunk.getStatistics();
+              total += ((Number) statistics.genericGetMax()).longValue() - ((Number) statistics.genericGetMin()).longValue();
+              rowGroups++;
+            }
+          }
+        }
+      }
+    }
+    assertTrue("Expected several row groups in " + tableName + " but found " + rowGroups, rowGroups > 4);
+    return (double) total / rowGroups;
+  }
+
   @Test
   public void testDistributionBuckets() throws Exception {
     List<QueryDataBatch> result = testSqlWithResults("create table dfs_test.options_name DISTRIBUTE BY (name) STORE AS (type => 'TEXT', fieldDelimiter => ',') as select * from sys.options");
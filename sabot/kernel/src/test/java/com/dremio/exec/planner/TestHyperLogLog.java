@@ -15,6 +15,11 @@
  */
 package com.dremio.exec.planner;
 
+import static org.junit.Assert.assertTrue;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -58,6 +63,24 @@ public class TestHyperLogLog extends PlanTestBase {
       "group by l_returnflag");
   }
 
+  @Test
+  public void ndvSpillHashTableBatchSize() throws Exception {
+    final String sql = "SELECT l_returnflag, sum(l_extendedprice), ndv(l_partkey)\n" +
+      "FROM cp.\"tpch/lineitem.parquet\"\n" +
+      "group by l_returnflag";
+    final String plan = getPlanInString("EXPLAIN PLAN FOR " + sql, JSON_FORMAT);
+
+    // the hash aggregate can spill, and its batches are sized for a sketch slot per group
+    assertTrue(plan, plan.contains("\"useSpill\" : true"));
+    final Matcher matcher = Pattern.compile("\"hashTableBatchSize\" : (\\d+)").matcher(plan);
+    assertTrue(plan, matcher.find());
+    do {
+      final int hashTableBatchSize = Integer.parseInt(matcher.group(1));
+      assertTrue(plan, hashTableBatchSize > 0 && hashTableBatchSize <= 248);
+    } while (matcher.find());
+    test(sql);
+  }
+
   @Ignore("DX-10395")
   @Test
   public void ndv2() throws Exception {
@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.deltalake;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.dremio.exec.hadoop.HadoopFileSystem;
+import com.dremio.exec.store.dfs.FileSelection;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+import com.dremio.sabot.exec.store.deltalake.proto.DeltaLakeProtobuf.DeltaLakeDatasetXAttr;
+
+/**
+ * Tests for {@link DeltaLakeTable}
+ */
+public class TestDeltaLakeTable {
+
+    private static final Path LOG_DIR = Path.of("/table/_delta_log");
+
+    private static final String SCHEMA_1 = "{\"type\":\"struct\",\"fields\":[" +
+            "{\"name\":\"id\",\"type\":\"long\",\"nullable\":true,\"metadata\":{}}," +
+            "{\"name\":\"part\",\"type\":\"string\",\"nullable\":true,\"metadata\":{}}]}";
+    private static final String SCHEMA_2 = "{\"type\":\"struct\",\"fields\":[" +
+            "{\"name\":\"id\",\"type\":\"long\",\"nullable\":true,\"metadata\":{}}," +
+            "{\"name\":\"part\",\"type\":\"string\",\"nullable\":true,\"metadata\":{}}," +
+            "{\"name\":\"name\",\"type\":\"string\",\"nullable\":true,\"metadata\":{}}]}";
+
+    // the columns of a checkpoint written by Delta, without the remove and txn actions
+    private static final MessageType CHECKPOINT_SCHEMA = MessageTypeParser.parseMessageType(
+            "message spark_schema {\n" +
+            "  optional group add {\n" +
+            "    optional binary path (UTF8);\n" +
+            "    optional group partitionValues (MAP) {\n" +
+            "      repeated group key_value {\n" +
+            "        required binary key (UTF8);\n" +
+            "        optional binary value (UTF8);\n" +
+            "      }\n" +
+            "    }\n" +
+            "    optional int64 size;\n" +
+            "    optional int64 modificationTime;\n" +
+            "    optional boolean dataChange;\n" +
+            "    optional binary stats (UTF8);\n" +
+            "  }\n" +
+            "  optional group metaData {\n" +
+            "    optional binary id (UTF8);\n" +
+            "    optional group format {\n" +
+            "      optional binary provider (UTF8);\n" +
+            "    }\n" +
+            "    optional binary schemaString (UTF8);\n" +
+            "    optional group partitionColumns (LIST) {\n" +
+            "      repeated group list {\n" +
+            "        optional binary element (UTF8);\n" +
+            "      }\n" +
+            "    }\n" +
+            "    optional int64 createdTime;\n" +
+            "  }\n" +
+            "  optional group protocol {\n" +
+            "    optional int32 minReaderVersion;\n" +
+            "    optional int32 minWriterVersion;\n" +
+            "  }\n" +
+            "  optional group commitInfo {\n" +
+            "    optional int64 version;\n" +
+            "    optional int64 timestamp;\n" +
+            "    optional binary operation (UTF8);\n" +
+            "  }\n" +
+            "}");
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    @Test
+    public void testLatestCompleteCheckpoint() {
+        DeltaLakeTable.DeltaLogFiles logFiles = new DeltaLakeTable.DeltaLogFiles();
+        logFiles.add(LOG_DIR.resolve("00000000000000000009.json"));
+        logFiles.add(LOG_DIR.resolve("00000000000000000010.json"));
+        logFiles.add(LOG_DIR.resolve("00000000000000000010.checkpoint.parquet"));
+        logFiles.add(LOG_DIR.resolve("00000000000000000011.json"));
+        logFiles.add(LOG_DIR.resolve("00000000000000000020.checkpoint.0000000002.0000000002.parquet"));
+        logFiles.add(LOG_DIR.resolve("00000000000000000020.json"));
+        logFiles.add(LOG_DIR.resolve("_last_checkpoint"));
+
+        // second checkpoint is missing its first part
+        Map.Entry<Long, List<Path>> checkpoint = logFiles.getLatestCompleteCheckpoint();
+        assertEquals(10L, (long) checkpoint.getKey());
+        assertEquals(Collections.singletonList(LOG_DIR.resolve("00000000000000000010.checkpoint.parquet")), checkpoint.getValue());
+        assertEquals(20L, logFiles.getLatestVersion());
+
+        logFiles.add(LOG_DIR.resolve("00000000000000000020.checkpoint.0000000001.0000000002.parquet"));
+        checkpoint = logFiles.getLatestCompleteCheckpoint();
+        assertEquals(20L, (long) checkpoint.getKey());
+        assertEquals(Arrays.asList(
+                LOG_DIR.resolve("00000000000000000020.checkpoint.0000000001.0000000002.parquet"),
+                LOG_DIR.resolve("00000000000000000020.checkpoint.0000000002.0000000002.parquet")), checkpoint.getValue());
+    }
+
+    @Test
+    public void testNoCheckpoint() {
+        DeltaLakeTable.DeltaLogFiles logFiles = new DeltaLakeTable.DeltaLogFiles();
+        logFiles.add(LOG_DIR.resolve("00000000000000000000.json"));
+        logFiles.add(LOG_DIR.resolve("00000000000000000001.json"));
+        logFiles.add(LOG_DIR.resolve("00000000000000000001.crc"));
+
+        assertNull(logFiles.getLatestCompleteCheckpoint());
+        assertEquals(1L, logFiles.getLatestVersion());
+        assertEquals(1L, DeltaLakeTable.getVersion(LOG_DIR.resolve("00000000000000000001.json")));
+    }
+
+    @Test
+    public void testSnapshotCache() {
+        DeltaLogSnapshotCache cache = new DeltaLogSnapshotCache();
+        DeltaLogSnapshot snapshot = new DeltaLogSnapshot("WRITE", 2, 200, 20, 1000L, 3, false);
+        cache.put(LOG_DIR, 3, 1000L, snapshot);
+
+        assertNull(cache.get(LOG_DIR, 2, 1000L));
+        assertNull(cache.get(Path.of("/other/_delta_log"), 3, 1000L));
+        // the table was dropped and created again at the same location
+        assertNull(cache.get(LOG_DIR, 3, 5000L));
+
+        // cached snapshots aren't affected by merges into the returned copy
+        DeltaLogSnapshot cached = cache.get(LOG_DIR, 3, 1000L);
+        assertEquals(snapshot, cached);
+        cached.merge(new DeltaLogSnapshot("WRITE", 1, 100, 10, 2000L, 4, false));
+        assertEquals(snapshot, cache.get(LOG_DIR, 3, 1000L));
+    }
+
+    @Test
+    public void testModificationTime() {
+        DeltaLakeTable.DeltaLogFiles logFiles = new DeltaLakeTable.DeltaLogFiles();
+        logFiles.add(LOG_DIR.resolve("00000000000000000010.checkpoint.parquet"), 100L);
+        logFiles.add(LOG_DIR.resolve("00000000000000000011.json"), 110L);
+        logFiles.add(LOG_DIR.resolve("00000000000000000020.checkpoint.0000000002.0000000002.parquet"), 201L);
+        logFiles.add(LOG_DIR.resolve("00000000000000000020.checkpoint.0000000001.0000000002.parquet"), 200L);
+        logFiles.add(LOG_DIR.resolve("00000000000000000020.json"), 199L);
+
+        // commit files are preferred over the checkpoints, which are written after them
+        assertEquals(100L, logFiles.getModificationTime(10));
+        assertEquals(110L, logFiles.getModificationTime(11));
+        assertEquals(199L, logFiles.getModificationTime(20));
+        assertEquals(-1L, logFiles.getModificationTime(12));
+    }
+
+    @Test
+    public void testReplayCheckpointAndCommits() throws Exception {
+        final File root = tempDir.newFolder();
+        final File deltaLog = new File(root, DeltaConstants.DELTA_LOG_DIR);
+        deltaLog.mkdir();
+
+        // the commits up to the checkpoint aren't read
+        writeLogFile(deltaLog, "00000000000000000000.json", "covered by the checkpoint");
+        writeLogFile(deltaLog, "00000000000000000001.json", "covered by the checkpoint");
+        writeCheckpoint(new File(deltaLog, "00000000000000000001.checkpoint.parquet"));
+        writeLogFile(deltaLog, "00000000000000000002.json",
+                "{\"commitInfo\":{\"timestamp\":2000,\"operation\":\"WRITE\",\"readVersion\":1,\"operationMetrics\":" +
+                        "{\"numFiles\":\"1\",\"numOutputBytes\":\"300\",\"numOutputRows\":\"30\"}}}",
+                "{\"add\":{\"path\":\"part=b/file3.parquet\",\"partitionValues\":{\"part\":\"b\"},\"size\":300,\"dataChange\":true}}");
+        writeLogFile(deltaLog, "00000000000000000003.json",
+                "{\"commitInfo\":{\"timestamp\":3000,\"operation\":\"ADD COLUMNS\",\"readVersion\":2,\"operationMetrics\":{}}}",
+                "{\"metaData\":{\"id\":\"table-id\",\"format\":{\"provider\":\"parquet\",\"options\":{}},\"schemaString\":\"" +
+                        SCHEMA_2.replace("\"", "\\\"") + "\",\"partitionColumns\":[\"part\"],\"configuration\":{},\"createdTime\":1000}}");
+
+        final FileSystem fs = HadoopFileSystem.getLocal(new Configuration());
+        final FileSelection fileSelection = FileSelection.create(fs, Path.of(root.toURI()));
+        final DeltaLogSnapshotCache cache = new DeltaLogSnapshotCache();
+
+        // cold cache: the checkpoint and the commits written after it are replayed
+        DeltaLakeTable table = new DeltaLakeTable(fs, fileSelection, cache, 2);
+        final DeltaLogSnapshot snapshot = table.getConsolidatedSnapshot();
+        assertSnapshot(snapshot, 3, 600, 60, SCHEMA_2);
+        assertEquals(3000L, snapshot.getTimestamp());
+        assertXAttr(table.buildDatasetXattr(), 1, -1, 2, 3);
+
+        // the latest version is cached, nothing is replayed
+        table = new DeltaLakeTable(fs, fileSelection, cache, 2);
+        assertEquals(snapshot, table.getConsolidatedSnapshot());
+        assertXAttr(table.buildDatasetXattr(), -1, 3, 3, 3);
+
+        // only the new commit is replayed on top of the cached version
+        writeLogFile(deltaLog, "00000000000000000004.json",
+                "{\"commitInfo\":{\"timestamp\":4000,\"operation\":\"WRITE\",\"readVersion\":3,\"operationMetrics\":" +
+                        "{\"numFiles\":\"1\",\"numOutputBytes\":\"400\",\"numOutputRows\":\"40\"}}}",
+                "{\"add\":{\"path\":\"part=c/file4.parquet\",\"partitionValues\":{\"part\":\"c\"},\"size\":400,\"dataChange\":true}}");
+        table = new DeltaLakeTable(fs, fileSelection, cache, 2);
+        assertSnapshot(table.getConsolidatedSnapshot(), 4, 1000, 100, SCHEMA_2);
+        assertXAttr(table.buildDatasetXattr(), -1, 3, 4, 4);
+
+        // without the cache, the checkpoint schema is replaced by the one of the later commit
+        table = new DeltaLakeTable(fs, fileSelection, new DeltaLogSnapshotCache(), 2);
+        assertSnapshot(table.getConsolidatedSnapshot(), 4, 1000, 100, SCHEMA_2);
+        assertXAttr(table.buildDatasetXattr(), 1, -1, 2, 4);
+    }
+
+    private static void assertSnapshot(DeltaLogSnapshot snapshot, long files, long bytes, long rows, String schema) {
+        assertEquals(files, snapshot.getNetFilesAdded());
+        assertEquals(bytes, snapshot.getNetBytesAdded());
+        assertEquals(rows, snapshot.getNetOutputRows());
+        assertEquals(schema, snapshot.getSchema());
+        assertEquals(Collections.singletonList("part"), snapshot.getPartitionColumns());
+    }
+
+    private static void assertXAttr(DeltaLakeDatasetXAttr xAttr, long closestCheckpointVersion, long closestLocalSnapshot,
+                                    long commitReadStartVersion, long commitReadEndVersion) {
+        assertEquals(closestCheckpointVersion, xAttr.getClosestCheckpointVersion());
+        assertEquals(closestLocalSnapshot, xAttr.getClosestLocalSnapshot());
+        assertEquals(commitReadStartVersion, xAttr.getCommitReadStartVersion());
+        assertEquals(commitReadEndVersion, xAttr.getCommitReadEndVersion());
+    }
+
+    private static void writeLogFile(File deltaLog, String name, String... lines) throws IOException {
+        Files.write(new File(deltaLog, name).toPath(), Arrays.asList(lines), UTF_8);
+    }
+
+    /**
+     * Writes the checkpoint of a table with two files in two partitions, without commitInfo like the checkpoints
+     * written by Delta.
+     */
+    private static void writeCheckpoint(File checkpoint) throws IOException {
+        final SimpleGroupFactory factory = new SimpleGroupFactory(CHECKPOINT_SCHEMA);
+        try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(new org.apache.hadoop.fs.Path(checkpoint.toURI()))
+                .withType(CHECKPOINT_SCHEMA)
+                .build()) {
+            final Group protocol = factory.newGroup();
+            protocol.addGroup("protocol")
+                    .append("minReaderVersion", 1)
+                    .append("minWriterVersion", 2);
+            writer.write(protocol);
+
+            final Group metaData = factory.newGroup();
+            final Group metaDataAction = metaData.addGroup("metaData")
+                    .append("id", "table-id")
+                    .append("schemaString", SCHEMA_1)
+                    .append("createdTime", 1000L);
+            metaDataAction.addGroup("format").append("provider", "parquet");
+            metaDataAction.addGroup("partitionColumns").addGroup("list").append("element", "part");
+            writer.write(metaData);
+
+            for (int i = 1; i <= 2; i++) {
+                final Group add = factory.newGroup();
+                final Group addAction = add.addGroup("add")
+                        .append("path", "part=a/file" + i + ".parquet")
+                        .append("size", 100L * i)
+                        .append("modificationTime", 1000L)
+                        .append("dataChange", false)
+                        .append("stats", "{\"numRecords\":" + 10 * i + "}");
+                addAction.addGroup("partitionValues").addGroup("key_value")
+                        .append("key", "part")
+                        .append("value", "a");
+                writer.write(add);
+            }
+        }
+    }
+}
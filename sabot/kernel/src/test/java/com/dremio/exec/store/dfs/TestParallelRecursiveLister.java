@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.dfs;
+
+import static com.dremio.io.file.PathFilters.NO_HIDDEN_FILES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.dremio.datastore.api.LegacyKVStore;
+import com.dremio.datastore.api.LegacyKVStore.LegacyFindByRange;
+import com.dremio.exec.hadoop.HadoopFileSystem;
+import com.dremio.exec.store.file.proto.FileProtobuf.DirectoryListing;
+import com.dremio.io.file.FileAttributes;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.FileSystemUtils;
+import com.dremio.io.file.Path;
+import com.google.common.collect.ImmutableList;
+
+public class TestParallelRecursiveLister {
+
+  @Rule
+  public TemporaryFolder tempDir = new TemporaryFolder();
+
+  private FileSystem fs;
+  private File root;
+
+  @Before
+  public void setup() throws Exception {
+    fs = HadoopFileSystem.getLocal(new Configuration());
+    root = tempDir.newFolder();
+    for (String file : new String[] {"a/1", "a/2", "b/c/3", "b/c/d/4", "b/5", "6", ".hidden/7", "b/_hidden/8"}) {
+      final File f = new File(root, file);
+      f.getParentFile().mkdirs();
+      assertTrue(f.createNewFile());
+    }
+  }
+
+  @Test
+  public void sameAsGlobRecursive() throws Exception {
+    final List<String> expected = paths(globRecursive(Path.of(root.toURI())));
+    for (int parallelism : new int[] {1, 4}) {
+      final ParallelRecursiveLister lister = new ParallelRecursiveLister(fs, parallelism, null, "test:");
+      assertEquals(expected, paths(lister.list(Path.of(root.toURI()), NO_HIDDEN_FILES)));
+    }
+  }
+
+  @Test
+  public void globPattern() throws Exception {
+    final Path pattern = Path.of(root.toURI()).resolve("*");
+    final ParallelRecursiveLister lister = new ParallelRecursiveLister(fs, 2, null, "test:");
+    assertEquals(paths(globRecursive(pattern)), paths(lister.list(pattern, NO_HIDDEN_FILES)));
+  }
+
+  @Test
+  public void reuseUnmodifiedDirectories() throws Exception {
+    final Map<String, DirectoryListing> listings = new ConcurrentSkipListMap<>();
+    final LegacyKVStore<String, DirectoryListing> store = newStore(listings);
+
+    // listings of recently modified directories are not saved
+    final File c = new File(root, "b/c");
+    final ParallelRecursiveLister lister = new ParallelRecursiveLister(fs, 4, store, "test:");
+    lister.list(Path.of(root.toURI()), NO_HIDDEN_FILES);
+    assertTrue(listings.isEmpty());
+
+    final long lastHour = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1);
+    for (String directory : new String[] {"", "a", "b", "b/c", "b/c/d"}) {
+      assertTrue(new File(root, directory).setLastModified(lastHour));
+    }
+    final List<String> expected = paths(globRecursive(Path.of(root.toURI())));
+    assertEquals(expected, paths(lister.list(Path.of(root.toURI()), NO_HIDDEN_FILES)));
+    assertEquals(5, listings.size());
+
+    // an unmodified directory is not listed again, even when the listing would differ
+    assertTrue(new File(c, "9").createNewFile());
+    assertTrue(c.setLastModified(lastHour));
+    assertEquals(expected, paths(lister.list(Path.of(root.toURI()), NO_HIDDEN_FILES)));
+
+    // the entries of a modified directory are listed again, even when its parent is unmodified
+    assertTrue(c.setLastModified(lastHour + 1000));
+    final List<String> modified = paths(lister.list(Path.of(root.toURI()), NO_HIDDEN_FILES));
+    assertEquals(paths(globRecursive(Path.of(root.toURI()))), modified);
+    assertFalse(expected.equals(modified));
+  }
+
+  @Test
+  public void deleteListingsOfRemovedDirectories() throws Exception {
+    final Map<String, DirectoryListing> listings = new ConcurrentSkipListMap<>();
+    final LegacyKVStore<String, DirectoryListing> store = newStore(listings);
+    final long lastHour = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1);
+    for (String directory : new String[] {"", "a", "b", "b/c", "b/c/d"}) {
+      assertTrue(new File(root, directory).setLastModified(lastHour));
+    }
+    final ParallelRecursiveLister lister = new ParallelRecursiveLister(fs, 4, store, "test:");
+    lister.list(Path.of(root.toURI()), NO_HIDDEN_FILES);
+    assertEquals(5, listings.size());
+
+    // removing b/c modifies b, whose listing no longer has b/c and b/c/d
+    FileUtils.deleteDirectory(new File(root, "b/c"));
+    assertTrue(new File(root, "b").setLastModified(lastHour + 1000));
+    assertEquals(paths(globRecursive(Path.of(root.toURI()))), paths(lister.list(Path.of(root.toURI()), NO_HIDDEN_FILES)));
+    assertEquals(3, listings.size());
+    assertTrue(listings.keySet().stream().noneMatch(key -> key.endsWith("/b/c") || key.endsWith("/b/c/d")));
+  }
+
+  @Test
+  public void deleteListingsOfSource() throws Exception {
+    final Map<String, DirectoryListing> listings = new ConcurrentSkipListMap<>();
+    final LegacyKVStore<String, DirectoryListing> store = newStore(listings);
+    final DirectoryListing listing = DirectoryListing.newBuilder().setLastModificationTime(1).build();
+    for (String key : new String[] {"test:/a", "test:/a/b", "test2:/a", "tes:/a"}) {
+      listings.put(key, listing);
+    }
+
+    ParallelRecursiveLister.deleteListings(store, "test");
+    assertEquals(ImmutableList.of("tes:/a", "test2:/a"), ImmutableList.copyOf(listings.keySet()));
+  }
+
+  /**
+   * Store backed by the given sorted map.
+   */
+  @SuppressWarnings("unchecked")
+  private static LegacyKVStore<String, DirectoryListing> newStore(Map<String, DirectoryListing> listings) {
+    final LegacyKVStore<String, DirectoryListing> store = mock(LegacyKVStore.class);
+    when(store.get(anyString())).thenAnswer(invocation -> listings.get((String) invocation.getArguments()[0]));
+    doAnswer(invocation -> listings.put((String) invocation.getArguments()[0], (DirectoryListing) invocation.getArguments()[1]))
+      .when(store).put(anyString(), any(DirectoryListing.class));
+    doAnswer(invocation -> listings.remove((String) invocation.getArguments()[0]))
+      .when(store).delete(anyString());
+    when(store.find(any(LegacyFindByRange.class))).thenAnswer(invocation -> {
+      final LegacyFindByRange<String> range = (LegacyFindByRange<String>) invocation.getArguments()[0];
+      return ((NavigableMap<String, DirectoryListing>) listings)
+        .subMap(range.getStart(), range.isStartInclusive(), range.getEnd(), range.isEndInclusive())
+        .entrySet();
+    });
+    return store;
+  }
+
+  private List<FileAttributes> globRecursive(Path pattern) throws IOException {
+    try (DirectoryStream<FileAttributes> stream = FileSystemUtils.globRecursive(fs, pattern, NO_HIDDEN_FILES)) {
+      return ImmutableList.copyOf(stream);
+    }
+  }
+
+  private static List<String> paths(List<FileAttributes> attributes) {
+    return attributes.stream()
+      .map(a -> a.getPath().toString() + (a.isDirectory() ? "/" : ""))
+      .collect(Collectors.toList());
+  }
+}
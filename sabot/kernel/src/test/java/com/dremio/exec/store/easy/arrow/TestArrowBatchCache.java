@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.easy.arrow;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.dremio.exec.record.RecordBatchData;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.io.file.Path;
+import com.dremio.test.AllocatorRule;
+
+/**
+ * Tests for {@link ArrowBatchCache}
+ */
+public class TestArrowBatchCache {
+  private static final int COUNT = 100;
+  private static final Path DIR = Path.of("/results/job1");
+  private static final Path FILE = DIR.resolve("0_0.dremarrow1");
+
+  @Rule
+  public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void setup() {
+    allocator = allocatorRule.newAllocator("test-arrow-batch-cache", 0, Long.MAX_VALUE);
+  }
+
+  @After
+  public void cleanup() {
+    allocator.close();
+  }
+
+  @Test
+  public void sharedBatches() {
+    try (ArrowBatchCache cache = new ArrowBatchCache(allocator, Long.MAX_VALUE)) {
+      try (RecordBatchData batch = newBatch()) {
+        cache.put(FILE, 8, batch);
+      }
+      assertNull(cache.get(FILE, 0, allocator));
+
+      // each read gets its own batch, valid after the cache is closed
+      final RecordBatchData first = cache.get(FILE, 8, allocator);
+      assertNotNull(first);
+      first.close();
+      try (RecordBatchData second = cache.get(FILE, 8, allocator)) {
+        cache.close();
+        verify(second);
+      }
+    }
+  }
+
+  @Test
+  public void evictBySize() {
+    final long batchSize;
+    try (RecordBatchData batch = newBatch()) {
+      batchSize = batch.getVectors().stream().mapToLong(v -> v.getBufferSize()).sum();
+    }
+
+    try (ArrowBatchCache cache = new ArrowBatchCache(allocator, 2 * batchSize)) {
+      for (long offset = 0; offset < 3; offset++) {
+        try (RecordBatchData batch = newBatch()) {
+          cache.put(FILE, offset, batch);
+        }
+      }
+      int cached = 0;
+      for (long offset = 0; offset < 3; offset++) {
+        try (RecordBatchData batch = cache.get(FILE, offset, allocator)) {
+          if (batch != null) {
+            verify(batch);
+            cached++;
+          }
+        }
+      }
+      assertEquals(2, cached);
+    }
+  }
+
+  @Test
+  public void invalidateDirectory() {
+    try (ArrowBatchCache cache = new ArrowBatchCache(allocator, Long.MAX_VALUE)) {
+      final Path other = Path.of("/results/job10/0_0.dremarrow1");
+      try (RecordBatchData batch = newBatch()) {
+        cache.put(FILE, 0, batch);
+        cache.put(other, 0, batch);
+      }
+
+      cache.invalidate(DIR);
+      assertNull(cache.get(FILE, 0, allocator));
+      try (RecordBatchData batch = cache.get(other, 0, allocator)) {
+        verify(batch);
+      }
+    }
+  }
+
+  private RecordBatchData newBatch() {
+    final IntVector ints = new IntVector("ints", allocator);
+    final VarCharVector strings = new VarCharVector("strings", allocator);
+    for (int i = 0; i < COUNT; i++) {
+      if (i % 3 != 0) {
+        ints.setSafe(i, i);
+        strings.setSafe(i, Integer.toString(i).getBytes(UTF_8));
+      }
+    }
+    try (VectorContainer container = new VectorContainer()) {
+      container.addCollection(asList(ints, strings));
+      container.setAllCount(COUNT);
+      container.buildSchema();
+      return new RecordBatchData(container, allocator);
+    }
+  }
+
+  private static void verify(RecordBatchData batch) {
+    assertEquals(COUNT, batch.getRecordCount());
+    final IntVector ints = (IntVector) batch.getVectors().get(0);
+    final VarCharVector strings = (VarCharVector) batch.getVectors().get(1);
+    for (int i = 0; i < COUNT; i++) {
+      if (i % 3 != 0) {
+        assertEquals(i, ints.get(i));
+        assertEquals(Integer.toString(i), new String(strings.get(i), UTF_8));
+      } else {
+        assertNull(ints.getObject(i));
+        assertNull(strings.getObject(i));
+      }
+    }
+  }
+}
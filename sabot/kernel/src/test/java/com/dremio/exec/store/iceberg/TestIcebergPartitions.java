@@ -19,10 +19,15 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.hadoop.conf.Configuration;
@@ -32,6 +37,7 @@ import org.apache.iceberg.DataFile;
 import org.apache.iceberg.DataFiles;
 import org.apache.iceberg.FileFormat;
 import org.apache.iceberg.Files;
+import org.apache.iceberg.Metrics;
 import org.apache.iceberg.PartitionSpec;
 import org.apache.iceberg.Schema;
 import org.apache.iceberg.Table;
@@ -48,11 +54,16 @@ import org.junit.rules.TemporaryFolder;
 
 import com.dremio.BaseTestQuery;
 import com.dremio.common.exceptions.UserException;
+import com.dremio.connector.metadata.DatasetSplit;
 import com.dremio.connector.metadata.PartitionChunk;
 import com.dremio.connector.metadata.PartitionValue;
 import com.dremio.exec.hadoop.HadoopFileSystem;
 import com.dremio.exec.proto.UserBitShared;
+import com.dremio.sabot.exec.store.iceberg.proto.IcebergProtobuf.IcebergDatasetXAttr;
+import com.dremio.sabot.exec.store.parquet.proto.ParquetProtobuf.ColumnValueCount;
+import com.dremio.sabot.exec.store.parquet.proto.ParquetProtobuf.ParquetDatasetSplitXAttr;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 
 public class TestIcebergPartitions extends BaseTestQuery {
   private static FileSystem fs;
@@ -160,6 +171,70 @@ public class TestIcebergPartitions extends BaseTestQuery {
     assertEquals(1200, recordCount.intValue());
   }
 
+  @Test
+  public void testParallelSplitConversion() throws Exception {
+    File root = tempDir.newFolder();
+    HadoopTables tables = new HadoopTables(conf);
+    Table table = tables.create(schema, spec, root.getAbsolutePath());
+
+    // enough data files for several groups of files to be converted concurrently.
+    AppendFiles appendFiles = table.newAppend();
+    for (int i = 0; i < 100; i++) {
+      File dataFile = new File(root, "d" + i);
+      dataFile.createNewFile();
+      int recordCount = i + 1;
+      appendFiles.appendFile(DataFiles.builder(spec)
+        .withInputFile(Files.localInput(dataFile))
+        .withPartitionPath(ID + "=" + (i % 3) + "/" + NAME + "=n" + (i % 2))
+        .withMetrics(new Metrics((long) recordCount, null,
+          ImmutableMap.of(1, (long) recordCount, 2, (long) recordCount),
+          ImmutableMap.of(1, 0L, 2, (long) (i % 4))))
+        .withFormat(FileFormat.PARQUET)
+        .build());
+    }
+    appendFiles.commit();
+
+    IcebergTableInfo serial = new IcebergTableWrapper(getSabotContext(),
+      HadoopFileSystem.get(fs), conf, root.getAbsolutePath(), 1).getTableInfo();
+    IcebergTableInfo parallel = new IcebergTableWrapper(getSabotContext(),
+      HadoopFileSystem.get(fs), conf, root.getAbsolutePath(), 4).getTableInfo();
+
+    assertEquals(5050, serial.getRecordCount());
+    assertEquals(serial.getRecordCount(), parallel.getRecordCount());
+    assertEquals(getSplits(serial), getSplits(parallel));
+    assertEquals(getColumnValueCounts(serial), getColumnValueCounts(parallel));
+    assertEquals(ImmutableMap.of(ID, 5050L, NAME, 5050L - 150L), getColumnValueCounts(serial));
+  }
+
+  // partition values, record count and extended properties of the splits, in order.
+  private static List<String> getSplits(IcebergTableInfo tableInfo) throws IOException {
+    List<String> splits = new ArrayList<>();
+    Iterator<? extends PartitionChunk> chunks = tableInfo.getPartitionChunkListing().iterator();
+    while (chunks.hasNext()) {
+      PartitionChunk chunk = chunks.next();
+      Iterator<? extends DatasetSplit> chunkSplits = chunk.getSplits().iterator();
+      while (chunkSplits.hasNext()) {
+        DatasetSplit split = chunkSplits.next();
+        ByteArrayOutputStream extraInfo = new ByteArrayOutputStream();
+        split.getExtraInfo().writeTo(extraInfo);
+        splits.add(chunk.getPartitionValues() + " " + split.getRecordCount() + " "
+          + ParquetDatasetSplitXAttr.parseFrom(extraInfo.toByteArray()));
+      }
+    }
+    return splits;
+  }
+
+  private static Map<String, Long> getColumnValueCounts(IcebergTableInfo tableInfo) throws IOException {
+    ByteArrayOutputStream extraInfo = new ByteArrayOutputStream();
+    tableInfo.getExtraInfo().writeTo(extraInfo);
+    Map<String, Long> counts = new HashMap<>();
+    for (ColumnValueCount count : IcebergDatasetXAttr.parseFrom(extraInfo.toByteArray())
+      .getParquetDatasetXAttr().getColumnValueCountsList()) {
+      counts.put(count.getColumn(), count.getCount());
+    }
+    return counts;
+  }
+
   @Test
   public void testNonIdentityPartitions() throws Exception {
     File root = tempDir.newFolder();
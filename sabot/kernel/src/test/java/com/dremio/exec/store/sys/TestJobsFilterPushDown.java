@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.sys;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.dremio.PlanTestBase;
+
+public class TestJobsFilterPushDown extends PlanTestBase {
+
+  @Test
+  public void testFilterPushdown_Equal() throws Exception {
+    final String query = "SELECT * FROM sys.jobs WHERE user_name = 'alice'";
+    testHelper(query, false, "field: \"USER\"   value: \"alice\"");
+  }
+
+  @Test
+  public void testFilterPushdown_TimeRange() throws Exception {
+    final String query = "SELECT * FROM sys.jobs WHERE start_time >= TIMESTAMP '2020-01-01 00:00:00' " +
+        "AND TIMESTAMP '2020-01-02 00:00:00' > start_time";
+    testHelper(query, false, "field: \"START_TIME\"", "min: 1577836800000", "max: 1577923200000");
+  }
+
+  @Test
+  public void testFilterPushdown_Or() throws Exception {
+    final String query = "SELECT job_id FROM sys.jobs WHERE status = 'FAILED' OR status = 'CANCELED'";
+    testHelper(query, false, "value: \"FAILED\"", "value: \"CANCELED\"");
+  }
+
+  @Test
+  public void testPartialFilterPushdown() throws Exception {
+    final String query = "SELECT * FROM sys.operator_stats WHERE user_name = 'alice' AND records_in > 10";
+    testHelper(query, true, "field: \"USER\"   value: \"alice\"");
+  }
+
+  @Test
+  public void testNoPushdownOnOtherTables() throws Exception {
+    final String plan = getPlanInString("EXPLAIN PLAN FOR SELECT * FROM sys.options WHERE name = 'a'", OPTIQ_FORMAT);
+    assertFalse(String.format("Expected plan to not contain a pushed condition.\n %s", plan), plan.contains("condition=["));
+  }
+
+  private void testHelper(final String query, boolean filterPrelExpected, String... filterInScan) throws Exception {
+    final String plan = getPlanInString("EXPLAIN PLAN FOR " + query, OPTIQ_FORMAT);
+
+    if (!filterPrelExpected) {
+      // If filter prel is not expected, make sure it is not in plan
+      assertFalse(String.format("Expected plan to not contain filter, however it did.\n %s", plan), plan.contains("Filter("));
+    } else {
+      assertTrue(String.format("Expected plan to contain filter and did not.\n %s", plan), plan.contains("Filter("));
+    }
+
+    // Check for filter pushed into scan.
+    for (String filter : filterInScan) {
+      assertTrue(String.format("Expected plan to contain %s, however it did not.\n %s", filter, plan), plan.contains(filter));
+    }
+
+    // run the query
+    test(query);
+  }
+}
@@ -189,7 +189,7 @@ public class TestMetadataProvider extends BaseTestQuery {
 
     assertEquals(RequestStatus.OK, resp.getStatus());
     List<TableMetadata> tables = resp.getTablesList();
-    assertEquals(25, tables.size());
+    assertEquals(27, tables.size());
 
     Iterator<TableMetadata> iterator = tables.iterator();
     verifyTable("INFORMATION_SCHEMA", "CATALOGS", iterator.next());
@@ -200,9 +200,11 @@ public class TestMetadataProvider extends BaseTestQuery {
     verifyTable("sys", "boot", iterator.next());
     verifyTable("sys", "dependencies", iterator.next());
     verifyTable("sys", "fragments", iterator.next());
+    verifyTable("sys", "jobs", iterator.next());
     verifyTable("sys", "materializations", iterator.next());
     verifyTable("sys", "memory", iterator.next());
     verifyTable("sys", "nodes", iterator.next());
+    verifyTable("sys", "operator_stats", iterator.next());
     verifyTable("sys", "options", iterator.next());
     verifyTable("sys", "reflections", iterator.next());
     verifyTable("sys", "refreshes", iterator.next());
@@ -240,7 +242,7 @@ public class TestMetadataProvider extends BaseTestQuery {
 
     assertEquals(RequestStatus.OK, resp.getStatus());
     List<TableMetadata> tables = resp.getTablesList();
-    assertEquals(24, tables.size());
+    assertEquals(26, tables.size());
 
     Iterator<TableMetadata> iterator = tables.iterator();
     verifyTable("INFORMATION_SCHEMA", "CATALOGS", iterator.next());
@@ -251,9 +253,11 @@ public class TestMetadataProvider extends BaseTestQuery {
     verifyTable("sys", "boot", iterator.next());
     verifyTable("sys", "dependencies", iterator.next());
     verifyTable("sys", "fragments", iterator.next());
+    verifyTable("sys", "jobs", iterator.next());
     verifyTable("sys", "materializations", iterator.next());
     verifyTable("sys", "memory", iterator.next());
     verifyTable("sys", "nodes", iterator.next());
+    verifyTable("sys", "operator_stats", iterator.next());
     verifyTable("sys", "options", iterator.next());
     verifyTable("sys", "reflections", iterator.next());
     verifyTable("sys", "refreshes", iterator.next());
@@ -278,16 +282,18 @@ public class TestMetadataProvider extends BaseTestQuery {
 
     assertEquals(RequestStatus.OK, resp.getStatus());
     List<TableMetadata> tables = resp.getTablesList();
-    assertEquals(15, tables.size());
+    assertEquals(17, tables.size());
 
     Iterator<TableMetadata> iterator = tables.iterator();
     verifyTable("INFORMATION_SCHEMA", "CATALOGS", iterator.next());
     verifyTable("INFORMATION_SCHEMA", "COLUMNS", iterator.next());
 
     verifyTable("sys", "boot", iterator.next());
+    verifyTable("sys", "jobs", iterator.next());
     verifyTable("sys", "materializations", iterator.next());
     verifyTable("sys", "memory", iterator.next());
     verifyTable("sys", "nodes", iterator.next());
+    verifyTable("sys", "operator_stats", iterator.next());
     verifyTable("sys", "options", iterator.next());
     verifyTable("sys", "reflections", iterator.next());
     verifyTable("sys", "timezone_abbrevs", iterator.next());
@@ -324,7 +330,7 @@ public class TestMetadataProvider extends BaseTestQuery {
     assertEquals(RequestStatus.OK, resp1.getStatus());
 
     final List<ColumnMetadata> columns1 = resp1.getColumnsList();
-    assertEquals(215, columns1.size());
+    assertEquals(242, columns1.size());
     assertTrue("incremental update column shouldn't be returned",
       columns1.stream().noneMatch(input -> input.getColumnName().equals(IncrementalUpdateUtils.UPDATE_COLUMN)));
   }
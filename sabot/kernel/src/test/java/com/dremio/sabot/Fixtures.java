@@ -67,6 +67,8 @@ import com.dremio.exec.record.selection.SelectionVector2;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.io.BaseEncoding;
+import com.yahoo.memory.Memory;
+import com.yahoo.sketches.hll.HllSketch;
 
 import de.vandermeer.asciitable.v2.V2_AsciiTable;
 import de.vandermeer.asciitable.v2.render.V2_AsciiTableRenderer;
@@ -1010,6 +1012,36 @@ public final class Fixtures {
     }
   }
 
+  /**
+   * Creates a cell matching a serialized HyperLogLog sketch whose estimate rounds to the given value.
+   */
+  public static Cell createHllEstimate(long estimate) {
+    return new HllEstimate(estimate);
+  }
+
+  private static class HllEstimate extends VarBinary {
+    private final long estimate;
+
+    public HllEstimate(long estimate) {
+      super(new byte[0]);
+      this.estimate = estimate;
+    }
+
+    private static long getEstimate(byte[] sketch) {
+      return Math.round(HllSketch.heapify(Memory.wrap(sketch)).getEstimate());
+    }
+
+    @Override
+    boolean evaluateEquality(byte[] obj1, byte[] obj2) {
+      return getEstimate(obj1) == estimate;
+    }
+
+    @Override
+    public String toString(byte[] obj) {
+      return "hll~" + (obj == this.obj ? estimate : getEstimate(obj));
+    }
+  }
+
   public static Decimal createDecimal(BigDecimal d, int precision, int scale) {
     return new Decimal(d, precision, scale);
   }
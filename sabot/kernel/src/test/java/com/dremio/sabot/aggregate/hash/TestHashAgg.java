@@ -18,6 +18,7 @@ package com.dremio.sabot.aggregate.hash;
 import static com.dremio.sabot.Fixtures.t;
 import static com.dremio.sabot.Fixtures.th;
 import static com.dremio.sabot.Fixtures.tr;
+import static org.junit.Assert.assertEquals;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
@@ -44,7 +45,9 @@ import com.dremio.sabot.BaseTestOperator;
 import com.dremio.sabot.Fixtures;
 import com.dremio.sabot.Fixtures.Table;
 import com.dremio.sabot.Generator;
+import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.op.aggregate.hash.HashAggOperator;
+import com.dremio.sabot.op.aggregate.vectorized.HashAggStats;
 import com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggOperator;
 import com.dremio.sabot.op.aggregate.vectorized.nospill.VectorizedHashAggOperatorNoSpill;
 import com.dremio.test.UserExceptionMatcher;
@@ -944,4 +947,68 @@ public class TestHashAgg extends BaseTestOperator {
       validateSingle(vanillaConf, HashAggOperator.class, inputData, expected);
     }
   }
+
+  /**
+   * Each key appears twice in a single batch of 10 records, so phase-1 aggregation
+   * reduces its input by half.
+   */
+  private Table getPartialAggBypassInput(int numBatches) {
+    final Fixtures.DataRow[] rows = new Fixtures.DataRow[numBatches * 10];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = tr((long) (i / 2), (long) i);
+    }
+    return t(th("x", "y"), rows);
+  }
+
+  /**
+   * The records of the first aggregated batches are aggregated, the records of the following
+   * batches are passed through as they are.
+   */
+  private Table getPartialAggBypassOutput(int numBatches, int aggregatedBatches) {
+    final Fixtures.DataRow[] rows = new Fixtures.DataRow[aggregatedBatches * 5 + (numBatches - aggregatedBatches) * 10];
+    for (int i = 0; i < aggregatedBatches * 5; i++) {
+      rows[i] = tr((long) i, (long) (4 * i + 1));
+    }
+    for (int i = aggregatedBatches * 5, record = aggregatedBatches * 10; i < rows.length; i++, record++) {
+      rows[i] = tr((long) (record / 2), (long) record);
+    }
+    return t(th("x", "sum"), rows).orderInsensitive();
+  }
+
+  private OperatorStats validatePartialAgg(int numBatches, int aggregatedBatches) throws Exception {
+    final HashAggregate conf = new HashAggregate(OpProps.prototype(), null,
+      Arrays.asList(n("x")), Arrays.asList(n("sum(y)", "sum")), true, true, 1f, 3968, true);
+    return validateSingle(conf, VectorizedHashAggOperator.class,
+      getPartialAggBypassInput(numBatches).toGenerator(getTestAllocator()),
+      getPartialAggBypassOutput(numBatches, aggregatedBatches), 10);
+  }
+
+  @Test
+  public void partialAggBypass() throws Exception {
+    try (AutoCloseable useSpillingAgg = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_USE_SPILLING_OPERATOR, true);
+         AutoCloseable sampleBatches = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_PARTIAL_BYPASS_SAMPLE_BATCHES, 4);
+         AutoCloseable threshold = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_PARTIAL_BYPASS_THRESHOLD, 0.4d)) {
+      /* the sampled batches are aggregated, the records of the following batches are passed through */
+      OperatorStats stats = validatePartialAgg(8, 4);
+      assertEquals(1, stats.getLongStat(HashAggStats.Metric.PARTIAL_AGG_BYPASSED));
+      assertEquals(40, stats.getLongStat(HashAggStats.Metric.PARTIAL_AGG_PASSED_THROUGH_RECORDS));
+
+      /* no bypass before the sample batches have been consumed */
+      stats = validatePartialAgg(3, 3);
+      assertEquals(0, stats.getLongStat(HashAggStats.Metric.PARTIAL_AGG_BYPASSED));
+      assertEquals(0, stats.getLongStat(HashAggStats.Metric.PARTIAL_AGG_PASSED_THROUGH_RECORDS));
+
+      /* no bypass when the reduction ratio is below the threshold */
+      try (AutoCloseable higherThreshold = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_PARTIAL_BYPASS_THRESHOLD, 0.9d)) {
+        stats = validatePartialAgg(8, 8);
+        assertEquals(0, stats.getLongStat(HashAggStats.Metric.PARTIAL_AGG_BYPASSED));
+      }
+
+      /* no bypass when disabled */
+      try (AutoCloseable disabled = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_PARTIAL_BYPASS_ENABLED, false)) {
+        stats = validatePartialAgg(8, 8);
+        assertEquals(0, stats.getLongStat(HashAggStats.Metric.PARTIAL_AGG_BYPASSED));
+      }
+    }
+  }
 }
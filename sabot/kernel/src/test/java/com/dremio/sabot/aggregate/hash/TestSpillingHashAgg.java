@@ -15,6 +15,11 @@
  */
 package com.dremio.sabot.aggregate.hash;
 
+import static com.dremio.sabot.Fixtures.createHllEstimate;
+import static com.dremio.sabot.Fixtures.split;
+import static com.dremio.sabot.Fixtures.t;
+import static com.dremio.sabot.Fixtures.th;
+import static com.dremio.sabot.Fixtures.tr;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -709,4 +714,86 @@ public class TestSpillingHashAgg extends BaseTestOperator {
       }
     }
   }
+
+  private HashAggregate getHashAggregate(long reserve, long max, int hashTableBatchSize, List<NamedExpression> aggExprs) {
+    OpProps props = PROPS.cloneWithNewReserve(reserve).cloneWithMemoryExpensive(true);
+    props.setMemLimit(max);
+    return new HashAggregate(props, null,
+      Arrays.asList(n("BIGINT_KEY")),
+      aggExprs,
+      true,
+      true,
+      1f,
+      hashTableBatchSize);
+  }
+
+  /**
+   * Test spill of the variable width MIN/MAX accumulators, with the values of each group
+   * spread over several spilled batches
+   * @throws Exception
+   */
+  @Test
+  public void testSpillVarcharMinMax() throws Exception {
+    final int numGroups = 20_000;
+    final int numRounds = 3;
+    final HashAggregate agg = getHashAggregate(1_000_000, 12_000_000, 990,
+      Arrays.asList(n("min(VARCHAR_MEASURE)", "MIN_VARCHAR"), n("max(VARCHAR_MEASURE)", "MAX_VARCHAR")));
+
+    final Fixtures.DataRow[] input = new Fixtures.DataRow[numGroups * numRounds];
+    final Fixtures.DataRow[] output = new Fixtures.DataRow[numGroups];
+    for (int i = 0; i < numGroups; i++) {
+      String min = null;
+      String max = null;
+      for (int round = 0; round < numRounds; round++) {
+        final String value = String.format("%05d", (i * 7919L + round * 104729L) % 100_000);
+        input[round * numGroups + i] = tr((long) i, value);
+        min = (min == null || value.compareTo(min) < 0) ? value : min;
+        max = (max == null || value.compareTo(max) > 0) ? value : max;
+      }
+      output[i] = tr((long) i, min, max);
+    }
+    final Fixtures.Table table = split(th("BIGINT_KEY", "VARCHAR_MEASURE"), 2000, input);
+    final Fixtures.Table expected = t(th("BIGINT_KEY", "MIN_VARCHAR", "MAX_VARCHAR"), output).orderInsensitive();
+
+    try (AutoCloseable useSpillingAgg = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_USE_SPILLING_OPERATOR, true);
+         AutoCloseable numPartitions = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_NUMPARTITIONS, 4);
+         AutoCloseable options = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_USE_MINIMUM_AS_LIMIT, true)) {
+      validateSingle(agg, VectorizedHashAggOperator.class, table, expected, 2000);
+      final VectorizedHashAggSpillStats stats = agg.getSpillStats();
+      assertTrue(stats.getSpills() > 0);
+    }
+  }
+
+  /**
+   * Test spill of the NDV accumulators, with the sketches of each group
+   * spread over several spilled batches
+   * @throws Exception
+   */
+  @Test
+  public void testSpillNdv() throws Exception {
+    final int numGroups = 2_000;
+    final int numRounds = 4;
+    final HashAggregate agg = getHashAggregate(1_000_000, 40_000_000, 128,
+      Arrays.asList(n("hll(VARCHAR_MEASURE)", "NDV_VARCHAR"), n("hll(BIGINT_MEASURE)", "NDV_BIGINT")));
+
+    final Fixtures.DataRow[] input = new Fixtures.DataRow[numGroups * numRounds];
+    final Fixtures.DataRow[] output = new Fixtures.DataRow[numGroups];
+    for (int i = 0; i < numGroups; i++) {
+      final int distinct = 1 + i % numRounds;
+      for (int round = 0; round < numRounds; round++) {
+        input[round * numGroups + i] = tr((long) i, "value" + (round % distinct), (long) (round % distinct));
+      }
+      output[i] = tr((long) i, createHllEstimate(distinct), createHllEstimate(distinct));
+    }
+    final Fixtures.Table table = split(th("BIGINT_KEY", "VARCHAR_MEASURE", "BIGINT_MEASURE"), 1000, input);
+    final Fixtures.Table expected = t(th("BIGINT_KEY", "NDV_VARCHAR", "NDV_BIGINT"), output).orderInsensitive();
+
+    try (AutoCloseable useSpillingAgg = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_USE_SPILLING_OPERATOR, true);
+         AutoCloseable numPartitions = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_NUMPARTITIONS, 4);
+         AutoCloseable options = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_USE_MINIMUM_AS_LIMIT, true)) {
+      validateSingle(agg, VectorizedHashAggOperator.class, table, expected, 1000);
+      final VectorizedHashAggSpillStats stats = agg.getSpillStats();
+      assertTrue(stats.getSpills() > 0);
+    }
+  }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.cluster;
+
+import static com.dremio.sabot.Fixtures.t;
+import static com.dremio.sabot.Fixtures.th;
+import static com.dremio.sabot.Fixtures.tr;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.IntVector;
+import org.junit.Test;
+
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.physical.base.WriterOptions.ClusteringCurve;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.exec.record.VectorWrapper;
+import com.dremio.sabot.BaseTestOperator;
+import com.dremio.sabot.Fixtures;
+import com.dremio.sabot.Generator;
+import com.dremio.sabot.op.spi.SingleInputOperator.State;
+
+public class TestClusteringKeyOperator extends BaseTestOperator {
+
+  private static final String KEY = ClusteringKeyPrel.CLUSTERING_KEY_FIELD;
+  private static final String RANGE = ClusteringKeyPrel.CLUSTERING_RANGE_FIELD;
+
+  // two columns: 20 bits per column, and the range is made of the 10 most significant bits of the key.
+  private static final int BITS_PER_COLUMN = 20;
+  private static final int RANGE_SHIFT = 2 * BITS_PER_COLUMN - ClusteringKeyOperator.MAX_RANGE_BITS;
+
+  private final ClusteringKeyPOP pop = new ClusteringKeyPOP(PROPS, null, Arrays.asList("x", "y"), ClusteringCurve.ZORDER);
+
+  @Test
+  public void zOrder() throws Exception {
+    validateSingle(pop, ClusteringKeyOperator.class, getInput(), getExpected(), 3);
+  }
+
+  @Test
+  public void spill() throws Exception {
+    try (AutoCloseable option = with(ExecConstants.WRITER_CLUSTERING_BUFFER_BYTES_VALIDATOR, 1)) {
+      validateSingle(pop, ClusteringKeyOperator.class, getInput(), getExpected(), 3);
+    }
+  }
+
+  /**
+   * The ranges are computed from a sample of the whole input, not only of its first records.
+   */
+  @Test
+  public void sampleWholeInput() throws Exception {
+    final int records = 1024;
+    final Fixtures.DataRow[] rows = new Fixtures.DataRow[records];
+    for (int i = 0; i < records; i++) {
+      rows[i] = tr(i, i);
+    }
+
+    final long[] keys = new long[records];
+    try (AutoCloseable sampleRecords = with(ExecConstants.WRITER_CLUSTERING_SAMPLE_RECORDS_VALIDATOR, 16);
+         AutoCloseable bufferBytes = with(ExecConstants.WRITER_CLUSTERING_BUFFER_BYTES_VALIDATOR, 1024);
+         ClusteringKeyOperator op = newOperator(ClusteringKeyOperator.class, pop, 64);
+         Generator generator = t(th("x", "y"), rows).toGenerator(getTestAllocator())) {
+      final VectorAccessible output = op.setup(generator.getOutput());
+      int count;
+      while ((count = generator.next(64)) != 0) {
+        op.consumeData(count);
+        assertEquals(State.CAN_CONSUME, op.getState());
+      }
+      op.noMoreToConsume();
+
+      int total = 0;
+      while (op.getState() == State.CAN_PRODUCE) {
+        final int outputRecords = op.outputData();
+        final IntVector x = getVector(output, "x");
+        final BigIntVector key = getVector(output, KEY);
+        final BigIntVector range = getVector(output, RANGE);
+        for (int i = 0; i < outputRecords; i++) {
+          assertEquals(key.get(i) >>> RANGE_SHIFT, range.get(i));
+          keys[x.get(i)] = key.get(i);
+        }
+        total += outputRecords;
+      }
+      assertEquals(records, total);
+    }
+
+    final Set<Long> lastKeys = new HashSet<>();
+    for (int i = 1; i < records; i++) {
+      assertTrue(keys[i - 1] <= keys[i]);
+      if (i >= records / 2) {
+        lastKeys.add(keys[i]);
+      }
+    }
+    // a sample of the first records would put all the last records in the last range.
+    assertTrue("last records spread over " + lastKeys.size() + " keys", lastKeys.size() >= 4);
+  }
+
+  private static Fixtures.Table getInput() {
+    final Fixtures.DataRow[] rows = new Fixtures.DataRow[8];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = tr(i, 7 - i);
+    }
+    return t(th("x", "y"), rows);
+  }
+
+  /**
+   * The sample holds the whole input, so the rank of each value is the value itself, scaled
+   * from 3 bits to the bits of a column.
+   */
+  private static Fixtures.Table getExpected() {
+    final Fixtures.DataRow[] rows = new Fixtures.DataRow[8];
+    for (int i = 0; i < rows.length; i++) {
+      final int[] coordinates = {i << (BITS_PER_COLUMN - 3), (7 - i) << (BITS_PER_COLUMN - 3)};
+      final long key = SpaceFillingCurves.zOrder(coordinates, BITS_PER_COLUMN);
+      rows[i] = tr(i, 7 - i, key, key >>> RANGE_SHIFT);
+    }
+    return t(th("x", "y", KEY, RANGE), rows);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T getVector(VectorAccessible accessible, String name) {
+    for (VectorWrapper<?> w : accessible) {
+      if (w.getField().getName().equals(name)) {
+        return (T) w.getValueVector();
+      }
+    }
+    throw new IllegalArgumentException(name);
+  }
+}
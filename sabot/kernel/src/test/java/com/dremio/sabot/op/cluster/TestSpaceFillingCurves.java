@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.cluster;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import com.dremio.test.DremioTest;
+
+public class TestSpaceFillingCurves extends DremioTest {
+
+  @Test
+  public void zOrder() {
+    assertEquals(0b10, SpaceFillingCurves.zOrder(new int[] {1, 0}, 1));
+    assertEquals(0b1010, SpaceFillingCurves.zOrder(new int[] {0b11, 0b00}, 2));
+    assertEquals(0b110011, SpaceFillingCurves.zOrder(new int[] {0b10, 0b11, 0b01}, 2));
+  }
+
+  @Test
+  public void hilbert2d() {
+    checkHilbert(2, 4);
+  }
+
+  @Test
+  public void hilbert3d() {
+    checkHilbert(3, 3);
+  }
+
+  @Test
+  public void bitsPerDimension() {
+    assertEquals(31, SpaceFillingCurves.bitsPerDimension(1));
+    assertEquals(31, SpaceFillingCurves.bitsPerDimension(2));
+    assertEquals(21, SpaceFillingCurves.bitsPerDimension(3));
+    assertEquals(7, SpaceFillingCurves.bitsPerDimension(9));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooManyBits() {
+    SpaceFillingCurves.hilbert(new int[] {0, 0, 0}, 22);
+  }
+
+  /**
+   * Every point of the grid gets a distinct position, and consecutive positions are neighbours.
+   */
+  private static void checkHilbert(int dimensions, int bits) {
+    final int side = 1 << bits;
+    final int points = 1 << (bits * dimensions);
+    final int[][] byPosition = new int[points][];
+
+    for (int p = 0; p < points; p++) {
+      final int[] coordinates = new int[dimensions];
+      int rest = p;
+      for (int d = 0; d < dimensions; d++) {
+        coordinates[d] = rest % side;
+        rest /= side;
+      }
+
+      final int position = (int) SpaceFillingCurves.hilbert(coordinates, bits);
+      assertNull("duplicate position " + position, byPosition[position]);
+      byPosition[position] = coordinates;
+    }
+
+    for (int i = 1; i < points; i++) {
+      int distance = 0;
+      for (int d = 0; d < dimensions; d++) {
+        distance += Math.abs(byPosition[i][d] - byPosition[i - 1][d]);
+      }
+      assertEquals("positions " + (i - 1) + " and " + i + " are not neighbours", 1, distance);
+    }
+  }
+}
@@ -20,6 +20,7 @@ import java.util.concurrent.TimeUnit;
 
 import com.dremio.options.Options;
 import com.dremio.options.TypeValidators.BooleanValidator;
+import com.dremio.options.TypeValidators.EnumeratedStringValidator;
 import com.dremio.options.TypeValidators.PositiveLongValidator;
 
 /**
@@ -62,4 +63,10 @@ public interface ReflectionOptions {
   BooleanValidator STRICT_INCREMENTAL_REFRESH = new BooleanValidator("reflection.manager.strict_incremental_refresh.enabled", false);
   // If enabled, uses Iceberg format for reflection datasets
   BooleanValidator REFLECTION_USE_ICEBERG_DATASET = new BooleanValidator("reflection.manager.use_iceberg_dataset.enabled", false);
+  // Compression of the reflection parquet files, empty to use store.parquet.compression
+  EnumeratedStringValidator REFLECTION_PARQUET_COMPRESSION = new EnumeratedStringValidator("reflection.parquet.compression", "", "", "snappy", "gzip", "zstd", "none");
+  // If enabled, the reflection parquet files get a bloom filter for each distribution field
+  BooleanValidator REFLECTION_PARQUET_BLOOM_FILTER_DISTRIBUTION_FIELDS = new BooleanValidator("reflection.parquet.bloom_filter.distribution_fields.enabled", false);
+  // Space filling curve to cluster the sort fields of the reflections with, instead of sorting them lexicographically
+  EnumeratedStringValidator REFLECTION_SORT_FIELDS_CLUSTERING = new EnumeratedStringValidator("reflection.sort_fields.clustering", "none", "none", "zorder", "hilbert");
 }
@@ -23,12 +23,15 @@ import org.slf4j.LoggerFactory;
 
 import com.dremio.common.exceptions.UserException;
 import com.dremio.common.util.DremioCollectors;
+import com.dremio.exec.physical.base.ParquetWriterOptions;
 import com.dremio.exec.physical.base.WriterOptions;
 import com.dremio.exec.planner.sql.parser.PartitionDistributionStrategy;
+import com.dremio.options.OptionManager;
 import com.dremio.service.reflection.proto.ReflectionDetails;
 import com.dremio.service.reflection.proto.ReflectionField;
 import com.dremio.service.reflection.proto.ReflectionGoal;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 
 import io.protostuff.ByteString;
@@ -43,9 +46,10 @@ public class WriterOptionManager {
   public WriterOptions buildWriterOptionForReflectionGoal(
     Integer ringCount,
     ReflectionGoal goal,
-    List<String> availableFields
+    List<String> availableFields,
+    OptionManager optionManager
   ) {
-    return buildWriterOptionForReflectionGoal(ringCount, goal, availableFields, false, true, null);
+    return buildWriterOptionForReflectionGoal(ringCount, goal, availableFields, false, true, null, optionManager);
   }
 
   public WriterOptions buildWriterOptionForReflectionGoal(
@@ -54,7 +58,8 @@ public class WriterOptionManager {
     List<String> availableFields,
     boolean isIcebergDataset,
     boolean isCreate,
-    ByteString extendedByteString
+    ByteString extendedByteString,
+    OptionManager optionManager
   ) {
     ReflectionDetails details = goal.getDetails();
 
@@ -78,17 +83,35 @@ public class WriterOptionManager {
       icebergWriterOperation = isCreate ? WriterOptions.IcebergWriterOperation.CREATE : WriterOptions.IcebergWriterOperation.INSERT;
     }
 
+    final List<String> distributionFields = validateAndPluckNames(details.getDistributionFieldList(), availableFieldsToName);
     return new WriterOptions(
       ringCount,
       validateAndPluckNames(details.getPartitionFieldList(), availableFieldsToName),
       validateAndPluckNames(details.getSortFieldList(), availableFieldsToName),
-      validateAndPluckNames(details.getDistributionFieldList(), availableFieldsToName),
+      distributionFields,
       dist,
       false,
       Long.MAX_VALUE,
       icebergWriterOperation,
-      extendedByteString
-    );
+      extendedByteString,
+      false,
+      Long.MAX_VALUE,
+      buildParquetWriterOptions(optionManager, distributionFields)
+    ).withClusteringCurve(WriterOptions.ClusteringCurve.fromOption(
+      optionManager.getOption(ReflectionOptions.REFLECTION_SORT_FIELDS_CLUSTERING)));
+  }
+
+  /**
+   * Parquet settings of the reflection files. Distribution fields are usually high cardinality join
+   * or filter keys, so they are the ones that can get a bloom filter.
+   */
+  @VisibleForTesting ParquetWriterOptions buildParquetWriterOptions(OptionManager optionManager, List<String> distributionFields) {
+    final String compression = optionManager.getOption(ReflectionOptions.REFLECTION_PARQUET_COMPRESSION);
+    final List<String> bloomFilterColumns =
+      optionManager.getOption(ReflectionOptions.REFLECTION_PARQUET_BLOOM_FILTER_DISTRIBUTION_FIELDS)
+        ? distributionFields
+        : ImmutableList.of();
+    return new ParquetWriterOptions(Strings.isNullOrEmpty(compression) ? null : compression, bloomFilterColumns);
   }
 
   @VisibleForTesting List<String> validateAndPluckNames(List<ReflectionField> fields, Map<String, String> knownFields){
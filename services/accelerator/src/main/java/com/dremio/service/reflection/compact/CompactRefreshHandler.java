@@ -168,7 +168,7 @@ public class CompactRefreshHandler implements SqlToPlanHandler {
         config.getContext().getCatalog().createNewTable(
           new NamespaceKey(ReflectionUtils.getMaterializationPath(newMaterialization)),
           null,
-          writerOptionManager.buildWriterOptionForReflectionGoal((int) ringCount, goal, fields),
+          writerOptionManager.buildWriterOptionForReflectionGoal((int) ringCount, goal, fields, config.getContext().getOptions()),
           ImmutableMap.of()
         ),
         initial.getRowType()
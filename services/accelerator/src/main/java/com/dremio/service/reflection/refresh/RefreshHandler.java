@@ -194,7 +194,8 @@ public class RefreshHandler implements SqlToPlanHandler {
         config.getContext().getCatalog().createNewTable(
           new NamespaceKey(tablePath),
           icebergTableProps,
-          writerOptionManager.buildWriterOptionForReflectionGoal(0, goal, fields, materialization.getIsIcebergDataset(), isCreate, extendedByteString),
+          writerOptionManager.buildWriterOptionForReflectionGoal(0, goal, fields, materialization.getIsIcebergDataset(), isCreate, extendedByteString,
+            config.getContext().getOptions()),
           ImmutableMap.of()),
         initial.getRowType());
 
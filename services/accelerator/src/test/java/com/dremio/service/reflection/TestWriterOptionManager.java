@@ -16,6 +16,9 @@
 
 package com.dremio.service.reflection;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +27,8 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import com.dremio.common.exceptions.UserException;
+import com.dremio.exec.physical.base.ParquetWriterOptions;
+import com.dremio.options.OptionManager;
 import com.dremio.service.reflection.proto.ReflectionField;
 import com.dremio.service.reflection.refresh.RefreshHandler;
 import com.google.common.collect.ImmutableMap;
@@ -72,4 +77,30 @@ public class TestWriterOptionManager {
       );
     }
   }
+
+  @Test public void testParquetWriterOptions() {
+    OptionManager optionManager = mock(OptionManager.class);
+    when(optionManager.getOption(ReflectionOptions.REFLECTION_PARQUET_COMPRESSION)).thenReturn("zstd");
+    when(optionManager.getOption(ReflectionOptions.REFLECTION_PARQUET_BLOOM_FILTER_DISTRIBUTION_FIELDS)).thenReturn(true);
+
+    WriterOptionManager subject = WriterOptionManager.Instance;
+
+    ParquetWriterOptions actual = subject.buildParquetWriterOptions(optionManager, Arrays.asList("my_name"));
+
+    Assert.assertEquals("zstd", actual.getCompression());
+    Assert.assertEquals(Arrays.asList("my_name"), actual.getBloomFilterColumns());
+  }
+
+  @Test public void testParquetWriterOptionsDefault() {
+    OptionManager optionManager = mock(OptionManager.class);
+    when(optionManager.getOption(ReflectionOptions.REFLECTION_PARQUET_COMPRESSION)).thenReturn("");
+    when(optionManager.getOption(ReflectionOptions.REFLECTION_PARQUET_BLOOM_FILTER_DISTRIBUTION_FIELDS)).thenReturn(false);
+
+    WriterOptionManager subject = WriterOptionManager.Instance;
+
+    ParquetWriterOptions actual = subject.buildParquetWriterOptions(optionManager, Arrays.asList("my_name"));
+
+    Assert.assertNull(actual.getCompression());
+    Assert.assertTrue(actual.getBloomFilterColumns().isEmpty());
+  }
 }
@@ -17,6 +17,7 @@ package com.dremio.exec.rpc;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.NettyArrowBuf;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
@@ -32,7 +33,9 @@ import com.dremio.common.exceptions.UserException;
 import com.dremio.common.memory.MemoryDebugInfo;
 import com.dremio.exec.proto.GeneralRPCProtos.RpcHeader;
 import com.dremio.exec.proto.GeneralRPCProtos.RpcMode;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.protobuf.CodedInputStream;
+import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.OutOfMemoryException;
 
@@ -46,13 +49,23 @@ import org.apache.arrow.memory.OutOfMemoryException;
 public class MessageDecoder extends ByteToMessageDecoder {
   private final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(this.getClass());
 
+  /* data bodies smaller than this are copied rather than sliced out of the buffer they were read into */
+  static final int DEFAULT_MIN_SLICED_BODY_SIZE = 32 * 1024;
+
   private BufferAllocator allocator;
+  private final int minSlicedBodySize;
   private final AtomicLong messageCounter = new AtomicLong();
 
   public MessageDecoder(BufferAllocator allocator) {
+    this(allocator, DEFAULT_MIN_SLICED_BODY_SIZE);
+  }
+
+  @VisibleForTesting
+  MessageDecoder(BufferAllocator allocator, int minSlicedBodySize) {
     super();
     setCumulator(COMPOSITE_CUMULATOR);
     this.allocator = allocator;
+    this.minSlicedBodySize = minSlicedBodySize;
   }
 
   @Override
@@ -100,9 +113,10 @@ public class MessageDecoder extends ByteToMessageDecoder {
       }
     }
 
-    final ByteBuf frame = in.slice(in.readerIndex(), length);
+    final int frameIndex = in.readerIndex();
+    final ByteBuf frame = in.slice(frameIndex, length);
     try {
-      final InboundRpcMessage message = decodeMessage(ctx, frame, length);
+      final InboundRpcMessage message = decodeMessage(ctx, in, frameIndex, frame, length);
       if (message != null) {
         out.add(message);
       }
@@ -118,11 +132,14 @@ public class MessageDecoder extends ByteToMessageDecoder {
    * with correct coordination id to sender rather than failing the channel.
    *
    * @param ctx The channel context.
+   * @param in The cumulated bytes the frame is part of.
+   * @param frameIndex The index of the frame in the cumulated bytes.
    * @param frame The Frame of the message we're processing.
    * @param length The length of the frame.
    * @throws Exception Code should only throw corrupt channel messages, causing the channel to close.
    */
-  private InboundRpcMessage decodeMessage(final ChannelHandlerContext ctx, final ByteBuf frame, final int length) throws Exception {
+  private InboundRpcMessage decodeMessage(final ChannelHandlerContext ctx, final ByteBuf in, final int frameIndex,
+                                          final ByteBuf frame, final int length) throws Exception {
     // now, we know the entire message is in the buffer and the buffer is constrained to this message. Additionally,
     // this process should avoid reading beyond the end of this buffer so we inform the ByteBufInputStream to throw an
     // exception if be go beyond readable bytes (as opposed to blocking).
@@ -158,10 +175,13 @@ public class MessageDecoder extends ByteToMessageDecoder {
 
 
       try {
-        dBody = NettyArrowBuf.unwrapBuffer(allocator.buffer(dBodyLength));
-        // need to make buffer copy, otherwise netty will try to refill this buffer if we move the readerIndex forward...
-        // TODO: Can we avoid this copy?
-        dBody.writeBytes(frame.nioBuffer(frame.readerIndex(), dBodyLength));
+        dBody = sliceDataBody(in, frameIndex + frame.readerIndex(), dBodyLength);
+        if (dBody == null) {
+          // the data body is small, was received over multiple reads or not in arrow memory, copy it into a
+          // contiguous buffer.
+          dBody = NettyArrowBuf.unwrapBuffer(allocator.buffer(dBodyLength));
+          dBody.writeBytes(frame.nioBuffer(frame.readerIndex(), dBodyLength));
+        }
 
       } catch (OutOfMemoryException e) {
         sendOutOfMemory(e, ctx, header.getCoordinationId());
@@ -183,6 +203,60 @@ public class MessageDecoder extends ByteToMessageDecoder {
     return m;
   }
 
+  /**
+   * Get the data body as a slice of the buffer netty read it into, without copying it. This is
+   * only possible when the channel reads into arrow memory (using an ArrowByteBufAllocator) and the data
+   * body is contiguous, that is it was received in a single read. The slice keeps the buffer netty read
+   * into alive until the data body is released, so netty never reuses that memory for later reads.
+   *
+   * Small bodies, or bodies taking less than half of the buffer they were read into, are copied instead
+   * so that they do not pin much larger buffers. The slice is associated with the allocator of this
+   * decoder and has its own reference count, so the data body is owned the same way as a copied one:
+   * it is released independently of the cumulated bytes.
+   *
+   * @param cumulation The cumulated bytes.
+   * @param index The index of the data body in the cumulated bytes.
+   * @param length The length of the data body.
+   * @return The data body, or null if it needs to be copied.
+   */
+  private ByteBuf sliceDataBody(final ByteBuf cumulation, final int index, final int length) {
+    if (length < minSlicedBodySize) {
+      return null;
+    }
+
+    ByteBuf component = cumulation;
+    int componentIndex = index;
+    if (cumulation instanceof CompositeByteBuf) {
+      final CompositeByteBuf composite = (CompositeByteBuf) cumulation;
+      final int cIndex = composite.toComponentIndex(index);
+      component = composite.internalComponent(cIndex);
+      componentIndex = index - composite.toByteIndex(cIndex);
+    }
+
+    if (componentIndex + length > component.capacity() || !component.hasMemoryAddress()) {
+      return null;
+    }
+
+    ByteBuf root = component;
+    while (root != null && !(root instanceof NettyArrowBuf)) {
+      root = root.unwrap();
+    }
+    if (root == null) {
+      return null;
+    }
+
+    final ArrowBuf arrowBuf = ((NettyArrowBuf) root).arrowBuf();
+    final long offset = component.memoryAddress() + componentIndex - arrowBuf.memoryAddress();
+    if (offset < 0 || offset + length > arrowBuf.capacity() || 2L * length < arrowBuf.capacity()
+        || arrowBuf.getReferenceManager().getAllocator().getRoot() != allocator.getRoot()) {
+      return null;
+    }
+
+    final ArrowBuf body = arrowBuf.getReferenceManager().retain(arrowBuf, allocator).slice(offset, length);
+    body.writerIndex(length);
+    return NettyArrowBuf.unwrapBuffer(body);
+  }
+
   private void sendOutOfMemory(OutOfMemoryException e, final ChannelHandlerContext ctx, int coordinationId){
     final UserException uex = UserException.memoryError(e)
         .message("Out of memory while receiving data.")
@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.rpc;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.dremio.exec.proto.GeneralRPCProtos.RpcHeader;
+import com.dremio.exec.proto.GeneralRPCProtos.RpcMode;
+import com.dremio.test.AllocatorRule;
+import com.google.protobuf.CodedOutputStream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.NettyArrowBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+/**
+ * Tests for {@link MessageDecoder}
+ */
+public class TestMessageDecoder {
+  private static final int MIN_SLICED_BODY_SIZE = 512;
+
+  @Rule
+  public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  private BufferAllocator rootAllocator;
+  /* allocator of the buffers the channel reads into */
+  private BufferAllocator channelAllocator;
+  /* allocator of the decoder */
+  private BufferAllocator decoderAllocator;
+  private EmbeddedChannel channel;
+
+  @Before
+  public void setup() {
+    rootAllocator = allocatorRule.newAllocator("test-message-decoder", 0, Long.MAX_VALUE);
+    channelAllocator = rootAllocator.newChildAllocator("channel", 0, Long.MAX_VALUE);
+    decoderAllocator = rootAllocator.newChildAllocator("decoder", 0, Long.MAX_VALUE);
+    channel = new EmbeddedChannel(new MessageDecoder(decoderAllocator, MIN_SLICED_BODY_SIZE));
+  }
+
+  @After
+  public void cleanup() {
+    assertFalse(channel.finish());
+    decoderAllocator.close();
+    channelAllocator.close();
+    rootAllocator.close();
+  }
+
+  @Test
+  public void slicedBody() throws Exception {
+    final byte[] body = bytes(1024);
+    channel.writeInbound(read(message(1, body)));
+
+    final InboundRpcMessage message = channel.readInbound();
+    assertMessage(message, 1, body);
+    // the received bytes were released by the decoder, the body now holds the memory it was read into
+    assertEquals(0, channelAllocator.getAllocatedMemory());
+    assertTrue(decoderAllocator.getAllocatedMemory() >= body.length);
+    assertEquals(1, message.dBody.refCnt());
+
+    message.release();
+    assertEquals(0, decoderAllocator.getAllocatedMemory());
+    assertEquals(0, rootAllocator.getAllocatedMemory());
+  }
+
+  @Test
+  public void smallBodyCopied() throws Exception {
+    final byte[] body = bytes(MIN_SLICED_BODY_SIZE - 1);
+    channel.writeInbound(read(message(1, body)));
+
+    final InboundRpcMessage message = channel.readInbound();
+    assertMessage(message, 1, body);
+    assertEquals(0, channelAllocator.getAllocatedMemory());
+    assertEquals(1, message.dBody.refCnt());
+
+    message.release();
+    assertEquals(0, rootAllocator.getAllocatedMemory());
+  }
+
+  @Test
+  public void multipleMessagesInOneRead() throws Exception {
+    final byte[] body1 = bytes(1024);
+    final byte[] body2 = bytes(100);
+    final byte[] body3 = bytes(700);
+    channel.writeInbound(read(message(1, body1), message(2, body2), message(3, body3)));
+
+    final InboundRpcMessage message1 = channel.readInbound();
+    final InboundRpcMessage message2 = channel.readInbound();
+    final InboundRpcMessage message3 = channel.readInbound();
+    assertNull(channel.readInbound());
+    assertMessage(message1, 1, body1);
+    assertMessage(message2, 2, body2);
+    assertMessage(message3, 3, body3);
+    assertEquals(0, channelAllocator.getAllocatedMemory());
+
+    message2.release();
+    message1.release();
+    message3.release();
+    assertEquals(0, rootAllocator.getAllocatedMemory());
+  }
+
+  @Test
+  public void messageSplitAcrossReads() throws Exception {
+    final byte[] body1 = bytes(1024);
+    final byte[] body2 = bytes(2048);
+    final byte[] bytes1 = message(1, body1);
+    final byte[] bytes2 = message(2, body2);
+
+    // the first body is split between two reads, the second one is received in a single read
+    final int split = bytes1.length - body1.length / 2;
+    channel.writeInbound(read(Arrays.copyOfRange(bytes1, 0, split)));
+    assertNull(channel.readInbound());
+    channel.writeInbound(read(Arrays.copyOfRange(bytes1, split, bytes1.length),
+      Arrays.copyOfRange(bytes2, 0, bytes2.length - body2.length)));
+    final InboundRpcMessage message1 = channel.readInbound();
+    assertNull(channel.readInbound());
+    channel.writeInbound(read(Arrays.copyOfRange(bytes2, bytes2.length - body2.length, bytes2.length)));
+    final InboundRpcMessage message2 = channel.readInbound();
+
+    assertMessage(message1, 1, body1);
+    assertMessage(message2, 2, body2);
+    assertEquals(0, channelAllocator.getAllocatedMemory());
+    assertEquals(1, message1.dBody.refCnt());
+    assertEquals(1, message2.dBody.refCnt());
+
+    message1.release();
+    message2.release();
+    assertEquals(0, rootAllocator.getAllocatedMemory());
+  }
+
+  private static void assertMessage(InboundRpcMessage message, int coordinationId, byte[] body) {
+    assertEquals(coordinationId, message.coordinationId);
+    assertArrayEquals(new byte[] { (byte) coordinationId }, message.pBody);
+    final byte[] actual = new byte[message.dBody.readableBytes()];
+    message.dBody.getBytes(message.dBody.readerIndex(), actual);
+    assertArrayEquals(body, actual);
+  }
+
+  private static byte[] bytes(int length) {
+    final byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = (byte) (i * 31 + length);
+    }
+    return bytes;
+  }
+
+  /**
+   * Returns the bytes of a message, as written by {@link RpcEncoder}.
+   */
+  private static byte[] message(int coordinationId, byte[] dBody) throws IOException {
+    final RpcHeader header = RpcHeader.newBuilder()
+      .setMode(RpcMode.REQUEST)
+      .setCoordinationId(coordinationId)
+      .setRpcType(1)
+      .build();
+    final byte[] pBody = { (byte) coordinationId };
+
+    final ByteArrayOutputStream frame = new ByteArrayOutputStream();
+    final CodedOutputStream cos = CodedOutputStream.newInstance(frame);
+    cos.writeRawVarint32(RpcEncoder.HEADER_TAG);
+    cos.writeRawVarint32(header.getSerializedSize());
+    header.writeTo(cos);
+    cos.writeRawVarint32(RpcEncoder.PROTOBUF_BODY_TAG);
+    cos.writeRawVarint32(pBody.length);
+    cos.writeRawBytes(pBody);
+    cos.writeRawVarint32(RpcEncoder.RAW_BODY_TAG);
+    cos.writeRawVarint32(dBody.length);
+    cos.writeRawBytes(dBody);
+    cos.flush();
+
+    final ByteArrayOutputStream message = new ByteArrayOutputStream();
+    final CodedOutputStream lengthCos = CodedOutputStream.newInstance(message);
+    lengthCos.writeRawVarint32(frame.size());
+    lengthCos.flush();
+    frame.writeTo(message);
+    return message.toByteArray();
+  }
+
+  /**
+   * Returns the bytes received by a single read of the channel, in arrow memory.
+   */
+  private ByteBuf read(byte[]... chunks) {
+    int length = 0;
+    for (byte[] chunk : chunks) {
+      length += chunk.length;
+    }
+    final ByteBuf buf = NettyArrowBuf.unwrapBuffer(channelAllocator.buffer(length));
+    for (byte[] chunk : chunks) {
+      buf.writeBytes(chunk);
+    }
+    return buf;
+  }
+}
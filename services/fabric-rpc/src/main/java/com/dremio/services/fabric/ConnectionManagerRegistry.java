@@ -15,6 +15,9 @@
  */
 package com.dremio.services.fabric;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentMap;
 
@@ -30,18 +33,25 @@ import com.google.common.collect.Maps;
 import io.netty.channel.EventLoopGroup;
 
 /**
- * Manages available remote connections
+ * Manages available remote connections.
+ *
+ * Each remote daemon gets a control connection, used by default. If data connections are configured, bulk
+ * data is spread over that many extra connections to the same daemon, so that a single TCP stream (and event
+ * loop) doesn't cap the bandwidth between two daemons and small control messages are never queued behind
+ * large data messages.
  */
 final class ConnectionManagerRegistry implements AutoCloseable {
 //  static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ConnectionManagerRegistry.class);
 
   private final ConcurrentMap<FabricIdentity, FabricConnectionManager> registry = Maps.newConcurrentMap();
+  private final ConcurrentMap<FabricIdentity, FabricConnectionManager[]> dataRegistry = Maps.newConcurrentMap();
 
   private final BufferAllocator allocator;
   private final RpcConfig config;
   private final EventLoopGroup eventLoop;
   private final FabricMessageHandler handler;
   private final Optional<SSLEngineFactory> engineFactory;
+  private final int dataConnections;
 
   private volatile FabricIdentity localIdentity;
 
@@ -50,28 +60,25 @@ final class ConnectionManagerRegistry implements AutoCloseable {
       EventLoopGroup eventLoop,
       BufferAllocator allocator,
       FabricMessageHandler handler,
-      Optional<SSLEngineFactory> engineFactory
+      Optional<SSLEngineFactory> engineFactory,
+      int dataConnections
   ) {
     this.allocator = allocator;
     this.config = config;
     this.eventLoop = eventLoop;
     this.handler = handler;
     this.engineFactory = engineFactory;
+    this.dataConnections = dataConnections;
 
     Metrics.newGauge(Metrics.join("rpc","peers"), () -> registry.size());
   }
 
   FabricConnectionManager getConnectionManager(FabricIdentity remoteIdentity) {
-    assert localIdentity != null : "Fabric identity must be set before a connection manager can be retrieved";
-    assert remoteIdentity != null : "Identity cannot be null.";
-    assert remoteIdentity.getAddress() != null && !remoteIdentity.getAddress().isEmpty()
-        : "RemoteIdentity's server address cannot be null.";
-    assert remoteIdentity.getPort() > 0
-        : String.format("Fabric Port must be set to a port between 1 and 65k. Was set to %d.", remoteIdentity.getPort());
+    checkIdentities(remoteIdentity);
 
     FabricConnectionManager m = registry.get(remoteIdentity);
     if (m == null) {
-      m = new FabricConnectionManager(config, allocator, remoteIdentity, localIdentity, eventLoop, handler, engineFactory);
+      m = newConnectionManager(remoteIdentity, Optional.empty());
       FabricConnectionManager m2 = registry.putIfAbsent(remoteIdentity, m);
       if (m2 != null) {
         m = m2;
@@ -80,13 +87,78 @@ final class ConnectionManagerRegistry implements AutoCloseable {
     return m;
   }
 
+  /**
+   * Get the data connection manager for the given stripe. Messages that need to be delivered in order must use
+   * the same stripe. Falls back to the control connection if no data connections are configured.
+   *
+   * @param remoteIdentity the remote daemon
+   * @param stripe any int, mapped to one of the data connections
+   * @return connection manager
+   */
+  FabricConnectionManager getConnectionManager(FabricIdentity remoteIdentity, int stripe) {
+    if (dataConnections <= 0) {
+      return getConnectionManager(remoteIdentity);
+    }
+    return getDataConnectionManager(remoteIdentity, stripe);
+  }
+
+  /**
+   * Get the data connection manager an inbound data connection should be added to, so that it is never used as
+   * the control connection. The remote daemon may be configured with a different number of data connections.
+   *
+   * @param remoteIdentity the remote daemon
+   * @param stripe stripe of the inbound connection
+   * @return connection manager, or null if no data connections are configured
+   */
+  FabricConnectionManager getInboundDataConnectionManager(FabricIdentity remoteIdentity, int stripe) {
+    if (dataConnections <= 0) {
+      return null;
+    }
+    return getDataConnectionManager(remoteIdentity, stripe);
+  }
+
+  private FabricConnectionManager getDataConnectionManager(FabricIdentity remoteIdentity, int stripe) {
+    checkIdentities(remoteIdentity);
+
+    FabricConnectionManager[] managers = dataRegistry.get(remoteIdentity);
+    if (managers == null) {
+      managers = new FabricConnectionManager[dataConnections];
+      for (int i = 0; i < dataConnections; i++) {
+        managers[i] = newConnectionManager(remoteIdentity, Optional.of(i));
+      }
+      FabricConnectionManager[] managers2 = dataRegistry.putIfAbsent(remoteIdentity, managers);
+      if (managers2 != null) {
+        managers = managers2;
+      }
+    }
+    return managers[Math.floorMod(stripe, dataConnections)];
+  }
+
+  private FabricConnectionManager newConnectionManager(FabricIdentity remoteIdentity, Optional<Integer> dataStripe) {
+    return new FabricConnectionManager(config, allocator, remoteIdentity, localIdentity, eventLoop, handler,
+        engineFactory, dataStripe);
+  }
+
+  private void checkIdentities(FabricIdentity remoteIdentity) {
+    assert localIdentity != null : "Fabric identity must be set before a connection manager can be retrieved";
+    assert remoteIdentity != null : "Identity cannot be null.";
+    assert remoteIdentity.getAddress() != null && !remoteIdentity.getAddress().isEmpty()
+        : "RemoteIdentity's server address cannot be null.";
+    assert remoteIdentity.getPort() > 0
+        : String.format("Fabric Port must be set to a port between 1 and 65k. Was set to %d.", remoteIdentity.getPort());
+  }
+
   void setIdentity(FabricIdentity localIdentity) {
     this.localIdentity = localIdentity;
   }
 
   @Override
   public void close() throws Exception {
-    AutoCloseables.close(registry.values());
+    final List<FabricConnectionManager> managers = new ArrayList<>(registry.values());
+    for (FabricConnectionManager[] dataManagers : dataRegistry.values()) {
+      managers.addAll(Arrays.asList(dataManagers));
+    }
+    AutoCloseables.close(managers);
   }
 
 }
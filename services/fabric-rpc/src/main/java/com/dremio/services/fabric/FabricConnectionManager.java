@@ -50,14 +50,12 @@ final class FabricConnectionManager extends ReconnectingConnection<FabricConnect
       final FabricIdentity localIdentity,
       final EventLoopGroup eventLoop,
       final FabricMessageHandler handler,
-      Optional<SSLEngineFactory> engineFactory
+      Optional<SSLEngineFactory> engineFactory,
+      Optional<Integer> dataStripe
   ) {
     super(
         rpcConfig.getName(),
-        FabricHandshake.newBuilder()
-          .setRpcVersion(FabricRpcConfig.RPC_VERSION)
-          .setIdentity(localIdentity)
-          .build(),
+        newHandshake(localIdentity, dataStripe),
         remoteIdentity.getAddress(),
         remoteIdentity.getPort());
 
@@ -70,6 +68,18 @@ final class FabricConnectionManager extends ReconnectingConnection<FabricConnect
     this.engineFactory = engineFactory;
   }
 
+  /**
+   * Data connections are marked with their stripe, so that the remote daemon doesn't mistake them for the
+   * control connection.
+   */
+  private static FabricHandshake newHandshake(FabricIdentity localIdentity, Optional<Integer> dataStripe) {
+    final FabricHandshake.Builder handshake = FabricHandshake.newBuilder()
+        .setRpcVersion(FabricRpcConfig.RPC_VERSION)
+        .setIdentity(localIdentity);
+    dataStripe.ifPresent(handshake::setDataStripe);
+    return handshake.build();
+  }
+
   @Override
   protected BasicClient<?, FabricConnection, FabricHandshake, ?> getNewClient() throws RpcException {
     return new FabricClient(rpcConfig, eventLoop, allocator, remoteIdentity, localIdentity, handler,
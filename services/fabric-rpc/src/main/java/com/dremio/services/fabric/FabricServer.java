@@ -112,9 +112,17 @@ class FabricServer extends BasicServer<RpcType, FabricConnection>{
 
         final boolean isLoopback = inbound.getIdentity().getAddress().equals(address) && inbound.getIdentity().getPort() == port;
 
-        if (!isLoopback) {
-          FabricConnectionManager manager = connectionRegistry.getConnectionManager(inbound.getIdentity());
+        // data connections are only added to the data connection managers, never used as the control connection
+        final FabricConnectionManager manager;
+        if (isLoopback) {
+          manager = null;
+        } else if (inbound.hasDataStripe()) {
+          manager = connectionRegistry.getInboundDataConnectionManager(inbound.getIdentity(), inbound.getDataStripe());
+        } else {
+          manager = connectionRegistry.getConnectionManager(inbound.getIdentity());
+        }
 
+        if (manager != null) {
           // update the close handler.
           connection.wrapCloseHandler(manager.getCloseHandlerCreator());
 
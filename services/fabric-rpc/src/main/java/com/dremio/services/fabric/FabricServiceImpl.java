@@ -54,6 +54,7 @@ public class FabricServiceImpl implements FabricService {
   private final BufferAllocator bootstrapAllocator;
   private final long reservationInBytes;
   private final long maxAllocationInBytes;
+  private final int dataConnections;
 
   private final RpcConfig rpcConfig;
 
@@ -75,6 +76,22 @@ public class FabricServiceImpl implements FabricService {
       long maxAllocationInBytes,
       int timeoutInSeconds,
       Executor rpcHandleDispatcher
+  ) {
+    this(address, initialPort, allowPortHunting, threadCount, bootstrapAllocator, reservationInBytes,
+        maxAllocationInBytes, timeoutInSeconds, rpcHandleDispatcher, 0);
+  }
+
+  public FabricServiceImpl(
+      String address,
+      int initialPort,
+      boolean allowPortHunting,
+      int threadCount,
+      BufferAllocator bootstrapAllocator,
+      long reservationInBytes,
+      long maxAllocationInBytes,
+      int timeoutInSeconds,
+      Executor rpcHandleDispatcher,
+      int dataConnections
   ) {
     this.address = address;
     if (initialPort == 0) {
@@ -88,6 +105,7 @@ public class FabricServiceImpl implements FabricService {
     this.bootstrapAllocator = bootstrapAllocator;
     this.reservationInBytes = reservationInBytes;
     this.maxAllocationInBytes = maxAllocationInBytes;
+    this.dataConnections = dataConnections;
 
     rpcConfig = FabricRpcConfig.getMapping(timeoutInSeconds, rpcHandleDispatcher, Optional.empty());
   }
@@ -112,7 +130,8 @@ public class FabricServiceImpl implements FabricService {
     eventLoop = TransportCheck.createEventLoopGroup(threadCount, "FABRIC-");
     eventLoopCloseable = new EventLoopCloseable(eventLoop);
 
-    registry = new ConnectionManagerRegistry(getRpcConfig(), eventLoop, allocator, handler, getSSLEngineFactory());
+    registry = new ConnectionManagerRegistry(getRpcConfig(), eventLoop, allocator, handler, getSSLEngineFactory(),
+        dataConnections);
 
     server = newFabricServer();
 
@@ -226,6 +245,12 @@ public class FabricServiceImpl implements FabricService {
       final FabricConnectionManager manager = registry.getConnectionManager(FabricIdentity.newBuilder().setAddress(address).setPort(port).build());
       return new CommandRunner(protocol, manager);
     }
+
+    @Override
+    public FabricCommandRunner getCommandRunner(String address, int port, int stripe) {
+      final FabricConnectionManager manager = registry.getConnectionManager(FabricIdentity.newBuilder().setAddress(address).setPort(port).build(), stripe);
+      return new CommandRunner(protocol, manager);
+    }
   }
 
   public static String getAddress(boolean useIP) throws UnknownHostException {
@@ -31,4 +31,22 @@ public interface FabricRunnerFactory {
    *         attempt to send a message, a connection may not be made.
    */
   FabricCommandRunner getCommandRunner(String address, int port);
+
+  /**
+   * Get a runner that communicates with another node over one of the data
+   * connections to that node, to be used for bulk data. Messages that must be
+   * received in order should use the same stripe.
+   *
+   * @param address
+   *          The hostname or IP to connect to.
+   * @param port
+   *          The port to connect to.
+   * @param stripe
+   *          Selects the data connection.
+   * @return The command runner to this point. By default, this is the same as
+   *         the runner for control messages.
+   */
+  default FabricCommandRunner getCommandRunner(String address, int port, int stripe) {
+    return getCommandRunner(address, port);
+  }
 }
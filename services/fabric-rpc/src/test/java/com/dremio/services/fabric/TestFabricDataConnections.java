@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.services.fabric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.util.concurrent.DremioFutures;
+import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
+import com.dremio.exec.proto.UserBitShared.QueryId;
+import com.dremio.exec.rpc.FutureBitCommand;
+import com.dremio.exec.rpc.RemoteConnection;
+import com.dremio.exec.rpc.Response;
+import com.dremio.exec.rpc.ResponseSender;
+import com.dremio.exec.rpc.RpcConfig;
+import com.dremio.exec.rpc.RpcException;
+import com.dremio.exec.rpc.RpcOutcomeListener;
+import com.dremio.services.fabric.api.FabricCommandRunner;
+import com.dremio.services.fabric.api.FabricProtocol;
+import com.dremio.services.fabric.api.FabricRunnerFactory;
+import com.dremio.services.fabric.api.PhysicalConnection;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+
+/**
+ * Test that control and data messages between two daemons travel over their own connections.
+ */
+public class TestFabricDataConnections extends BaseTestFabric {
+  private static final int DATA_CONNECTIONS = 2;
+
+  private FabricServiceImpl fabric1;
+  private FabricServiceImpl fabric2;
+  private Protocol protocol1;
+  private Protocol protocol2;
+  private FabricRunnerFactory factory1;
+  private FabricRunnerFactory factory2;
+
+  @Before
+  public void setupDaemons() throws Exception {
+    fabric1 = new FabricServiceImpl(address, 45678, true, THREAD_COUNT, allocator, RESERVATION, MAX_ALLOCATION,
+        TIMEOUT, pool, DATA_CONNECTIONS);
+    fabric1.start();
+    fabric2 = new FabricServiceImpl(address, 45678, true, THREAD_COUNT, allocator, RESERVATION, MAX_ALLOCATION,
+        TIMEOUT, pool, DATA_CONNECTIONS);
+    fabric2.start();
+
+    protocol1 = new Protocol();
+    protocol2 = new Protocol();
+    factory1 = fabric1.registerProtocol(protocol1);
+    factory2 = fabric2.registerProtocol(protocol2);
+  }
+
+  @After
+  public void shutdownDaemons() throws Exception {
+    AutoCloseables.close(fabric1, fabric2);
+  }
+
+  @Test
+  public void controlAndDataConnections() throws Exception {
+    // open the data connections first, so that the second daemon would adopt one of them as its control
+    // connection if it couldn't tell them apart.
+    send(factory1.getCommandRunner(address, fabric2.getPort(), 0), 1);
+    send(factory1.getCommandRunner(address, fabric2.getPort(), 1), 2);
+    send(factory1.getCommandRunner(address, fabric2.getPort(), DATA_CONNECTIONS), 3);
+    send(factory1.getCommandRunner(address, fabric2.getPort()), 4);
+
+    final Channel data0 = protocol2.channels.get(1L);
+    final Channel data1 = protocol2.channels.get(2L);
+    final Channel control = protocol2.channels.get(4L);
+    assertNotEquals(data0.remoteAddress(), data1.remoteAddress());
+    assertNotEquals(data0.remoteAddress(), control.remoteAddress());
+    assertNotEquals(data1.remoteAddress(), control.remoteAddress());
+    // stripes are mapped to the same data connection
+    assertEquals(data0.remoteAddress(), protocol2.channels.get(3L).remoteAddress());
+
+    // the second daemon reuses the connections opened by the first daemon, each for its own purpose
+    send(factory2.getCommandRunner(address, fabric1.getPort()), 5);
+    send(factory2.getCommandRunner(address, fabric1.getPort(), 0), 6);
+    send(factory2.getCommandRunner(address, fabric1.getPort(), 1), 7);
+    assertEquals(control.remoteAddress(), protocol1.channels.get(5L).localAddress());
+    assertEquals(data0.remoteAddress(), protocol1.channels.get(6L).localAddress());
+    assertEquals(data1.remoteAddress(), protocol1.channels.get(7L).localAddress());
+  }
+
+  @Test
+  public void noDataConnectionsOnReceiver() throws Exception {
+    // the daemon of the base test doesn't have data connections, so inbound data connections are only used to
+    // answer the messages received over them.
+    final Protocol protocol = new Protocol();
+    final FabricRunnerFactory factory = fabric.registerProtocol(protocol);
+
+    send(factory1.getCommandRunner(address, fabric.getPort(), 0), 1);
+    send(factory1.getCommandRunner(address, fabric.getPort()), 2);
+    final Channel data = protocol.channels.get(1L);
+    final Channel control = protocol.channels.get(2L);
+    assertNotEquals(data.remoteAddress(), control.remoteAddress());
+
+    // striped messages fall back to the control connection
+    send(factory.getCommandRunner(address, fabric1.getPort(), 0), 3);
+    send(factory.getCommandRunner(address, fabric1.getPort()), 4);
+    assertEquals(control.remoteAddress(), protocol1.channels.get(3L).localAddress());
+    assertEquals(control.remoteAddress(), protocol1.channels.get(4L).localAddress());
+  }
+
+  private void send(FabricCommandRunner runner, long id) throws Exception {
+    final SimpleMessage m = new SimpleMessage(id);
+    runner.runCommand(m);
+    DremioFutures.getChecked(m.getFuture(), RpcException.class, 1000, TimeUnit.MILLISECONDS, RpcException::mapException);
+  }
+
+  private static class SimpleMessage extends FutureBitCommand<NodeEndpoint, ProxyConnection> {
+
+    private final long id;
+
+    public SimpleMessage(long id) {
+      super();
+      this.id = id;
+    }
+
+    @Override
+    public void doRpcCall(RpcOutcomeListener<NodeEndpoint> outcomeListener, ProxyConnection connection) {
+      connection.send(outcomeListener, new FakeEnum(1), QueryId.newBuilder().setPart1(id).build(), NodeEndpoint.class);
+    }
+
+  }
+
+  /**
+   * Records the channel each message was received on.
+   */
+  private class Protocol implements FabricProtocol {
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+
+    @Override
+    public int getProtocolId() {
+      return 3;
+    }
+
+    @Override
+    public BufferAllocator getAllocator() {
+      return allocator;
+    }
+
+    @Override
+    public RpcConfig getConfig() {
+      return RpcConfig.newBuilder().name("test-data-connections").timeout(0)
+          .add(new FakeEnum(1), QueryId.class, new FakeEnum(1), NodeEndpoint.class)
+          .build();
+    }
+
+    @Override
+    public MessageLite getResponseDefaultInstance(int rpcType) throws RpcException {
+      return NodeEndpoint.getDefaultInstance();
+    }
+
+    @Override
+    public void handle(PhysicalConnection connection, int rpcType, ByteString pBody, ByteBuf dBody,
+                       ResponseSender sender) throws RpcException {
+      try {
+        channels.put(QueryId.parseFrom(pBody).getPart1(), ((RemoteConnection) connection).getChannel());
+      } catch (InvalidProtocolBufferException e) {
+        throw new RpcException(e);
+      }
+      sender.send(new Response(new FakeEnum(1), expectedD));
+    }
+
+  }
+}
@@ -33,6 +33,7 @@ import com.dremio.datastore.api.LegacyIndexedStore;
 import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
 import com.dremio.exec.record.RecordBatchHolder;
 import com.dremio.exec.store.JobResultsStoreConfig;
+import com.dremio.exec.store.easy.arrow.ArrowBatchCache;
 import com.dremio.exec.store.easy.arrow.ArrowFileMetadata;
 import com.dremio.exec.store.easy.arrow.ArrowFileMetadataValidator;
 import com.dremio.exec.store.easy.arrow.ArrowFileReader;
@@ -56,11 +57,19 @@ import com.google.common.collect.Sets;
 public class JobResultsStore implements Service {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(JobResultsStore.class);
 
+  /**
+   * System property for the maximum size, in bytes, of the recently read result batches kept in direct memory to serve
+   * the next pages of the same results. 0 disables the cache.
+   */
+  public static final String RESULTS_CACHE_SIZE_KEY = "dremio.jobs.results.cache.size_bytes";
+  private static final long DEFAULT_RESULTS_CACHE_SIZE = 64L * 1024 * 1024;
+
   private final String storageName;
   private final Path jobStoreLocation;
   private final FileSystem dfs;
   private final BufferAllocator allocator;
   private final LegacyIndexedStore<JobId, JobResult> store;
+  private final ArrowBatchCache cache;
 
   public JobResultsStore(
       final JobResultsStoreConfig resultsStoreConfig,
@@ -74,6 +83,9 @@ public class JobResultsStore implements Service {
 
     this.store = store;
     this.allocator = allocator;
+
+    final long cacheSize = Long.getLong(RESULTS_CACHE_SIZE_KEY, DEFAULT_RESULTS_CACHE_SIZE);
+    this.cache = cacheSize > 0 ? new ArrowBatchCache(allocator, cacheSize) : null;
   }
 
   /**
@@ -96,6 +108,9 @@ public class JobResultsStore implements Service {
 
   public boolean cleanup(JobId jobId) {
     final Path jobOutputDir = getJobOutputDir(jobId);
+    if (cache != null) {
+      cache.invalidate(jobOutputDir);
+    }
     try {
       if (doesQueryResultsDirExists(jobOutputDir, jobId)) {
         deleteQueryResults(jobOutputDir, true, jobId);
@@ -236,7 +251,7 @@ public class JobResultsStore implements Service {
                                                     BufferAllocator allocator,
                                                     long fileOffset,
                                                     long fileLimit) throws IOException {
-    try(ArrowFileReader fileReader = new ArrowFileReader(dfs, jobOutputDir, arrowFileMetadata, allocator)) {
+    try(ArrowFileReader fileReader = new ArrowFileReader(dfs, jobOutputDir, arrowFileMetadata, allocator, cache)) {
       return fileReader.read(fileOffset, fileLimit);
     }
   }
@@ -312,6 +327,9 @@ public class JobResultsStore implements Service {
 
   @Override
   public void close() throws Exception {
+    if (cache != null) {
+      cache.close();
+    }
   }
 
   protected Set<NodeEndpoint> getNodeEndpoints(JobId jobId) {
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Provider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.dremio.common.utils.protos.AttemptId;
+import com.dremio.datastore.SearchTypes.SearchQuery;
+import com.dremio.datastore.api.LegacyIndexedStore;
+import com.dremio.datastore.api.LegacyIndexedStore.LegacyFindByCondition;
+import com.dremio.datastore.api.LegacyKVStoreProvider;
+import com.dremio.exec.proto.UserBitShared.CoreOperatorType;
+import com.dremio.exec.proto.UserBitShared.MajorFragmentProfile;
+import com.dremio.exec.proto.UserBitShared.MinorFragmentProfile;
+import com.dremio.exec.proto.UserBitShared.OperatorProfile;
+import com.dremio.exec.proto.UserBitShared.QueryProfile;
+import com.dremio.exec.proto.UserBitShared.StreamProfile;
+import com.dremio.exec.store.sys.jobs.JobsListManager;
+import com.dremio.service.job.proto.JobAttempt;
+import com.dremio.service.job.proto.JobId;
+import com.dremio.service.job.proto.JobResult;
+import com.dremio.service.job.proto.JobStats;
+import com.dremio.service.jobtelemetry.GetQueryProfileRequest;
+import com.dremio.service.jobtelemetry.JobTelemetryClient;
+import com.dremio.service.namespace.NamespaceKey;
+import com.google.common.collect.FluentIterable;
+
+import io.grpc.StatusRuntimeException;
+
+/**
+ * Reads the jobs store for the sys.jobs and sys.operator_stats tables. Conditions pushed into
+ * the scan are evaluated by the job index, so only matching jobs are read.
+ */
+public class JobsListManagerImpl implements JobsListManager {
+  private static final Logger logger = LoggerFactory.getLogger(JobsListManagerImpl.class);
+
+  private final Provider<LegacyKVStoreProvider> kvStoreProvider;
+  private final Provider<JobTelemetryClient> jobTelemetryClientProvider;
+
+  public JobsListManagerImpl(Provider<LegacyKVStoreProvider> kvStoreProvider,
+                             Provider<JobTelemetryClient> jobTelemetryClientProvider) {
+    this.kvStoreProvider = kvStoreProvider;
+    this.jobTelemetryClientProvider = jobTelemetryClientProvider;
+  }
+
+  @Override
+  public Iterable<JobsListManager.JobInfo> getJobs(SearchQuery condition) {
+    return FluentIterable.from(findJobs(condition))
+      .transform(entry -> toJobInfo(entry.getKey(), getLastAttempt(entry.getValue())));
+  }
+
+  @Override
+  public Iterable<OperatorStatsInfo> getOperatorStats(SearchQuery condition) {
+    return FluentIterable.from(findJobs(condition))
+      .transformAndConcat(entry -> toOperatorStats(entry.getKey(), entry.getValue()));
+  }
+
+  private Iterable<Map.Entry<JobId, JobResult>> findJobs(SearchQuery condition) {
+    final LegacyIndexedStore<JobId, JobResult> store =
+      kvStoreProvider.get().getStore(LocalJobsService.JobsStoreCreator.class);
+    if (condition == null) {
+      return store.find();
+    }
+    return store.find(new LegacyFindByCondition().setCondition(condition));
+  }
+
+  private static JobAttempt getLastAttempt(JobResult job) {
+    return job.getAttemptsList().get(job.getAttemptsList().size() - 1);
+  }
+
+  private static JobsListManager.JobInfo toJobInfo(JobId jobId, JobAttempt attempt) {
+    final com.dremio.service.job.proto.JobInfo info = attempt.getInfo();
+    final JobStats stats = attempt.getStats();
+    return new JobsListManager.JobInfo(
+      jobId.getId(),
+      info.getUser(),
+      attempt.getState() == null ? null : attempt.getState().name(),
+      info.getQueryType() == null ? null : info.getQueryType().name(),
+      info.getResourceSchedulingInfo() == null ? null : info.getResourceSchedulingInfo().getQueueName(),
+      info.getDatasetPathList() == null ? null : new NamespaceKey(info.getDatasetPathList()).getSchemaPath(),
+      info.getStartTime(),
+      info.getFinishTime(),
+      stats == null ? null : stats.getInputRecords(),
+      stats == null ? null : stats.getOutputRecords(),
+      info.getFailureInfo(),
+      info.getSql());
+  }
+
+  private Iterable<OperatorStatsInfo> toOperatorStats(JobId jobId, JobResult job) {
+    final int attemptIndex = job.getAttemptsList().size() - 1;
+    final JobAttempt attempt = job.getAttemptsList().get(attemptIndex);
+    // the full profile is only stored once the job is done
+    if (JobsServiceUtil.isNonFinalState(attempt.getState())) {
+      return Collections.emptyList();
+    }
+
+    final QueryProfile profile;
+    try {
+      final AttemptId attemptId = new AttemptId(JobsServiceUtil.getJobIdAsExternalId(jobId), attemptIndex);
+      profile = jobTelemetryClientProvider.get().getBlockingStub()
+        .getQueryProfile(GetQueryProfileRequest.newBuilder()
+          .setQueryId(attemptId.toQueryId())
+          .build())
+        .getProfile();
+    } catch (StatusRuntimeException e) {
+      logger.debug("Unable to get the profile of job {}", jobId.getId(), e);
+      return Collections.emptyList();
+    }
+
+    final com.dremio.service.job.proto.JobInfo info = attempt.getInfo();
+    final List<OperatorStatsInfo> operators = new ArrayList<>();
+    for (MajorFragmentProfile major : profile.getFragmentProfileList()) {
+      // operator id to its stats, summed over the minor fragments of the phase
+      final Map<Integer, OperatorStats> phaseOperators = new LinkedHashMap<>();
+      for (MinorFragmentProfile minor : major.getMinorFragmentProfileList()) {
+        for (OperatorProfile operator : minor.getOperatorProfileList()) {
+          phaseOperators.computeIfAbsent(operator.getOperatorId(), id -> new OperatorStats(operator.getOperatorType()))
+            .add(operator);
+        }
+      }
+
+      for (Map.Entry<Integer, OperatorStats> entry : phaseOperators.entrySet()) {
+        final OperatorStats stats = entry.getValue();
+        final CoreOperatorType type = CoreOperatorType.valueOf(stats.operatorType);
+        operators.add(new OperatorStatsInfo(
+          jobId.getId(),
+          info.getUser(),
+          attempt.getState().name(),
+          info.getStartTime(),
+          major.getMajorFragmentId(),
+          entry.getKey(),
+          type == null ? String.valueOf(stats.operatorType) : type.name(),
+          stats.minorFragments,
+          TimeUnit.NANOSECONDS.toMillis(stats.setupNanos),
+          TimeUnit.NANOSECONDS.toMillis(stats.processNanos),
+          TimeUnit.NANOSECONDS.toMillis(stats.waitNanos),
+          stats.peakMemory,
+          stats.records,
+          stats.batches));
+      }
+    }
+    return operators;
+  }
+
+  /**
+   * Stats of an operator, accumulated over the minor fragments of its phase.
+   */
+  private static final class OperatorStats {
+    private final int operatorType;
+    private int minorFragments;
+    private long setupNanos;
+    private long processNanos;
+    private long waitNanos;
+    private long peakMemory;
+    private long records;
+    private long batches;
+
+    private OperatorStats(int operatorType) {
+      this.operatorType = operatorType;
+    }
+
+    private void add(OperatorProfile operator) {
+      minorFragments++;
+      setupNanos += operator.getSetupNanos();
+      processNanos += operator.getProcessNanos();
+      waitNanos += operator.getWaitNanos();
+      peakMemory = Math.max(peakMemory, operator.getPeakLocalMemoryAllocated());
+      for (StreamProfile input : operator.getInputProfileList()) {
+        records += input.getRecords();
+        batches += input.getBatches();
+      }
+    }
+  }
+}
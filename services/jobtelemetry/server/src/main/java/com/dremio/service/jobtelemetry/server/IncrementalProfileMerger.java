@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobtelemetry.server;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import com.dremio.common.nodes.EndpointHelper;
+import com.dremio.exec.proto.CoordExecRPC.ExecutorQueryProfile;
+import com.dremio.exec.proto.CoordExecRPC.FragmentStatus;
+import com.dremio.exec.proto.CoordExecRPC.NodePhaseStatus;
+import com.dremio.exec.proto.CoordExecRPC.NodeQueryStatus;
+import com.dremio.exec.proto.UserBitShared.FragmentState;
+import com.dremio.exec.proto.UserBitShared.MajorFragmentProfile;
+import com.dremio.exec.proto.UserBitShared.NodePhaseProfile;
+import com.dremio.exec.proto.UserBitShared.NodeQueryProfile;
+import com.dremio.exec.proto.UserBitShared.QueryProfile;
+import com.google.common.base.Preconditions;
+
+/**
+ * Merger for the profile of a single query, that keeps the merged profile of each phase until an
+ * executor reports on that phase again. Unlike {@link ProfileMerger}, building the merged profile
+ * only re-processes the phases updated since the last merge.
+ *
+ * The merger does not keep the executor profiles: it only folds the fragment counts and the phases
+ * of each update, and reads the executor profiles from the profile store when phases have to be
+ * merged again.
+ *
+ * The merged profile is the same as the one produced by {@link ProfileMerger}, with the executors
+ * in the order of their first update.
+ */
+final class IncrementalProfileMerger {
+  // summary of the latest update of each executor, keyed by endpoint.
+  private final Map<String, ExecutorSummary> executors = new LinkedHashMap<>();
+  private int totalFragments;
+  private int finishedFragments;
+  private int maxPhaseId = -1;
+
+  // merged profile of each phase, and the phases updated since they were merged.
+  private final Map<Integer, MajorFragmentProfile> phaseProfiles = new HashMap<>();
+  private final BitSet dirtyPhases = new BitSet();
+
+  // last merged profile, and the inputs it was built from.
+  private QueryProfile lastMerged;
+  private QueryProfile lastPlanningProfile;
+  private QueryProfile lastTailProfile;
+
+  /**
+   * Fold the profile of an executor, replacing the previous one from the same executor.
+   *
+   * @param executorProfile executor profile
+   */
+  synchronized void update(ExecutorQueryProfile executorProfile) {
+    final ExecutorSummary summary = new ExecutorSummary(executorProfile);
+    final ExecutorSummary previous =
+      executors.put(EndpointHelper.getMinimalString(executorProfile.getEndpoint()), summary);
+
+    if (previous != null) {
+      totalFragments -= previous.totalFragments;
+      finishedFragments -= previous.finishedFragments;
+      // phases the executor does not report anymore have to be merged again as well.
+      dirtyPhases.or(previous.phases);
+    }
+    totalFragments += summary.totalFragments;
+    finishedFragments += summary.finishedFragments;
+    dirtyPhases.or(summary.phases);
+
+    if (previous != null && previous.phases.length() > summary.phases.length()) {
+      // the executor reported fewer phases than before.
+      maxPhaseId = executors.values().stream()
+        .mapToInt(s -> s.phases.length() - 1)
+        .max()
+        .orElse(-1);
+    } else {
+      maxPhaseId = Integer.max(maxPhaseId, summary.phases.length() - 1);
+    }
+    lastMerged = null;
+  }
+
+  /**
+   * Build the merged profile, merging again the phases updated since the last merge.
+   *
+   * @param planningProfile planning profile, may be null
+   * @param tailProfile tail profile, may be null
+   * @param executorProfiles latest executor profiles, only read if a phase has to be merged again
+   * @return merged profile
+   */
+  synchronized QueryProfile merge(QueryProfile planningProfile, QueryProfile tailProfile,
+                                  Supplier<Stream<ExecutorQueryProfile>> executorProfiles) {
+    // at least one of the two should be present.
+    Preconditions.checkState(planningProfile != null || tailProfile != null);
+
+    if (lastMerged != null && lastPlanningProfile == planningProfile && lastTailProfile == tailProfile) {
+      return lastMerged;
+    }
+
+    if (!dirtyPhases.isEmpty()) {
+      mergePhases(executorProfiles.get());
+    }
+
+    // fill up details from tailProfile. Only if it is not present, use the
+    // planning profile.
+    final QueryProfile.Builder builder = QueryProfile.newBuilder();
+    final QueryProfile base = tailProfile != null ? tailProfile : planningProfile;
+    builder.mergeFrom(base);
+
+    for (ExecutorSummary summary : executors.values()) {
+      builder.addNodeProfile(summary.nodeProfile);
+    }
+    for (int phaseId = 0; phaseId <= maxPhaseId; phaseId++) {
+      final MajorFragmentProfile phaseProfile = phaseProfiles.get(phaseId);
+      builder.addFragmentProfile(phaseProfile != null
+        ? phaseProfile
+        : MajorFragmentProfile.newBuilder().setMajorFragmentId(phaseId).build());
+    }
+
+    lastMerged = builder
+      .setTotalFragments(Math.max(base.getTotalFragments(), totalFragments))
+      .setFinishedFragments(finishedFragments)
+      .build();
+    lastPlanningProfile = planningProfile;
+    lastTailProfile = tailProfile;
+    return lastMerged;
+  }
+
+  /**
+   * Merge again the phases updated since the last merge, from the executors that reported on them.
+   */
+  private void mergePhases(Stream<ExecutorQueryProfile> executorProfiles) {
+    final Map<String, ExecutorQueryProfile> profiles = new HashMap<>();
+    executorProfiles.forEach(profile -> profiles.put(EndpointHelper.getMinimalString(profile.getEndpoint()), profile));
+
+    final Map<Integer, MajorFragmentProfile.Builder> builders = new HashMap<>();
+    for (int phaseId = dirtyPhases.nextSetBit(0); phaseId >= 0; phaseId = dirtyPhases.nextSetBit(phaseId + 1)) {
+      builders.put(phaseId, MajorFragmentProfile.newBuilder().setMajorFragmentId(phaseId));
+    }
+
+    for (Map.Entry<String, ExecutorSummary> entry : executors.entrySet()) {
+      final ExecutorQueryProfile profile = profiles.get(entry.getKey());
+      if (profile == null || !entry.getValue().phases.intersects(dirtyPhases)) {
+        continue;
+      }
+
+      // per-node status for each phase.
+      for (NodePhaseStatus nodePhaseStatus : profile.getNodeStatus().getPhaseStatusList()) {
+        final MajorFragmentProfile.Builder phaseProfile = builders.get(nodePhaseStatus.getMajorFragmentId());
+        if (phaseProfile != null) {
+          phaseProfile.addNodePhaseProfile(
+            NodePhaseProfile.newBuilder()
+              .setEndpoint(profile.getEndpoint())
+              .setMaxMemoryUsed(nodePhaseStatus.getMaxMemoryUsed())
+              .build());
+        }
+      }
+
+      // fragment status for each phase.
+      for (FragmentStatus fragmentStatus : profile.getFragmentsList()) {
+        final MajorFragmentProfile.Builder phaseProfile = builders.get(fragmentStatus.getHandle().getMajorFragmentId());
+        if (phaseProfile != null) {
+          phaseProfile.addMinorFragmentProfile(fragmentStatus.getProfile());
+        }
+      }
+    }
+
+    for (Map.Entry<Integer, MajorFragmentProfile.Builder> entry : builders.entrySet()) {
+      phaseProfiles.put(entry.getKey(), entry.getValue().build());
+    }
+    dirtyPhases.clear();
+  }
+
+  /**
+   * What the merger keeps of the latest profile of an executor: its node profile, the phases it
+   * reported on and its fragment counts.
+   */
+  private static final class ExecutorSummary {
+    private final NodeQueryProfile nodeProfile;
+    private final BitSet phases = new BitSet();
+    private int totalFragments;
+    private int finishedFragments;
+
+    private ExecutorSummary(ExecutorQueryProfile executorProfile) {
+      final NodeQueryStatus status = executorProfile.getNodeStatus();
+      this.nodeProfile = NodeQueryProfile.newBuilder()
+        .setEndpoint(executorProfile.getEndpoint())
+        .setMaxMemoryUsed(status.getMaxMemoryUsed())
+        .setTimeEnqueuedBeforeSubmitMs(status.getTimeEnqueuedBeforeSubmitMs())
+        .build();
+
+      for (NodePhaseStatus nodePhaseStatus : status.getPhaseStatusList()) {
+        phases.set(nodePhaseStatus.getMajorFragmentId());
+      }
+
+      for (FragmentStatus fragmentStatus : executorProfile.getFragmentsList()) {
+        phases.set(fragmentStatus.getHandle().getMajorFragmentId());
+        ++totalFragments;
+        if (isTerminal(fragmentStatus.getProfile().getState())) {
+          ++finishedFragments;
+        }
+      }
+    }
+
+    private static boolean isTerminal(FragmentState state) {
+      return (state == FragmentState.FINISHED
+        || state == FragmentState.FAILED
+        || state == FragmentState.CANCELLED);
+    }
+  }
+}
@@ -16,6 +16,9 @@
 package com.dremio.service.jobtelemetry.server;
 
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import com.dremio.common.AutoCloseables;
@@ -41,6 +44,8 @@ import com.dremio.service.jobtelemetry.server.store.MetricsStore;
 import com.dremio.service.jobtelemetry.server.store.ProfileStore;
 import com.dremio.telemetry.utils.GrpcTracerFacade;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.inject.Inject;
 import com.google.protobuf.Empty;
 
@@ -61,6 +66,12 @@ public class JobTelemetryServiceImpl extends JobTelemetryServiceGrpc.JobTelemetr
   private final ProgressMetricsPublisher progressMetricsPublisher;
   private final BackgroundProfileWriter bgProfileWriter;
   private final boolean saveFullProfileOnQueryTermination;
+  // merged phases of each query, so that building a profile only re-merges the phases updated since the last time.
+  private final ConcurrentMap<QueryId, IncrementalProfileMerger> profileMergers = new ConcurrentHashMap<>();
+  // to ensure we don't start merging again after a query's sub-profiles are deleted.
+  private final Cache<QueryId, Boolean> deletedQueryIds = CacheBuilder.newBuilder()
+    .expireAfterWrite(5, TimeUnit.MINUTES)
+    .build();
   private Retryer retryer;
 
   @Inject
@@ -152,6 +163,7 @@ public class JobTelemetryServiceImpl extends JobTelemetryServiceGrpc.JobTelemetr
       // update executor profile.
       profileStore.putExecutorProfile(profile.getQueryId(), profile.getEndpoint(),
         profile);
+      putIncrementalProfile(profile);
 
       responseObserver.onNext(Empty.getDefaultInstance());
       responseObserver.onCompleted();
@@ -174,6 +186,24 @@ public class JobTelemetryServiceImpl extends JobTelemetryServiceGrpc.JobTelemetr
     metricsStore.put(profile.getQueryId(), EndpointHelper.getMinimalString(profile.getEndpoint()), profile.getProgress());
   }
 
+  private void putIncrementalProfile(ExecutorQueryProfile profile) {
+    final QueryId queryId = profile.getQueryId();
+    if (deletedQueryIds.asMap().containsKey(queryId)) {
+      return;
+    }
+    profileMergers.computeIfAbsent(queryId, k -> new IncrementalProfileMerger())
+      .update(profile);
+    if (deletedQueryIds.asMap().containsKey(queryId)) {
+      // raced with a delete.
+      profileMergers.remove(queryId);
+    }
+  }
+
+  private void deleteIncrementalProfile(QueryId queryId) {
+    deletedQueryIds.put(queryId, Boolean.TRUE);
+    profileMergers.remove(queryId);
+  }
+
   @Override
   public StreamObserver<GetQueryProgressMetricsRequest> getQueryProgressMetrics(
       StreamObserver<GetQueryProgressMetricsResponse> responseObserver) {
@@ -268,7 +298,9 @@ public class JobTelemetryServiceImpl extends JobTelemetryServiceGrpc.JobTelemetr
     QueryProfile mergedProfile = buildFullProfile(queryId);
     // persist the merged profile, if in a terminal state
     if (isTerminal(mergedProfile.getState())) {
-      bgProfileWriter.tryWriteAsync(queryId, mergedProfile);
+      // once written, the profile is served from the store.
+      bgProfileWriter.tryWriteAsync(queryId, mergedProfile)
+        .ifPresent(future -> future.thenRun(() -> deleteIncrementalProfile(queryId)));
     }
     return mergedProfile;
   }
@@ -280,6 +312,7 @@ public class JobTelemetryServiceImpl extends JobTelemetryServiceGrpc.JobTelemetr
     this.retryer.call(() -> {
       profileStore.putFullProfile(queryId, fullProfile);
       profileStore.deleteSubProfiles(queryId);
+      deleteIncrementalProfile(queryId);
       metricsStore.delete(queryId);
       return null;
     });
@@ -293,6 +326,10 @@ public class JobTelemetryServiceImpl extends JobTelemetryServiceGrpc.JobTelemetr
       throw new IllegalArgumentException("profile not found for the given queryId");
     }
 
+    final IncrementalProfileMerger incrementalMerger = profileMergers.get(queryId);
+    if (incrementalMerger != null) {
+      return incrementalMerger.merge(planningProfile, tailProfile, () -> profileStore.getAllExecutorProfiles(queryId));
+    }
     return ProfileMerger.merge(
       planningProfile,
       tailProfile,
@@ -312,6 +349,7 @@ public class JobTelemetryServiceImpl extends JobTelemetryServiceGrpc.JobTelemetr
     try {
       // delete profile.
       profileStore.deleteProfile(request.getQueryId());
+      deleteIncrementalProfile(request.getQueryId());
       metricsStore.delete(request.getQueryId());
 
       responseObserver.onNext(Empty.getDefaultInstance());
@@ -16,9 +16,9 @@
 package com.dremio.service.jobtelemetry.server.store;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
@@ -52,13 +52,14 @@ public class LocalProfileStore implements ProfileStore {
 
   private final LegacyKVStoreProvider kvStoreProvider;
   private final Map<UserBitShared.QueryId, UserBitShared.QueryProfile> planningProfiles =
-    new HashMap<>();
-  private final Map<UserBitShared.QueryId, UserBitShared.QueryProfile> tailProfiles = new HashMap<>();
+    new ConcurrentHashMap<>();
+  private final Map<UserBitShared.QueryId, UserBitShared.QueryProfile> tailProfiles = new ConcurrentHashMap<>();
   private final Map<UserBitShared.QueryId, Map<String, CoordExecRPC.ExecutorQueryProfile>> executorMap =
-    new HashMap<>();
+    new ConcurrentHashMap<>();
   private LegacyKVStore<AttemptId, UserBitShared.QueryProfile> fullProfileStore;
 
-  // to ensure we don't save sub-profiles after a query has terminated.
+  // to ensure we don't save sub-profiles after a query has terminated. The maps are not locked, so
+  // puts check again after updating, and deletes mark the query before removing its entries.
   private Cache<UserBitShared.QueryId, Boolean> deletedQueryIds = CacheBuilder.newBuilder()
     .expireAfterWrite(5, TimeUnit.MINUTES)
     .build();
@@ -73,29 +74,35 @@ public class LocalProfileStore implements ProfileStore {
   }
 
   @Override
-  public synchronized void putPlanningProfile(UserBitShared.QueryId queryId,
-                                              UserBitShared.QueryProfile profile) {
-    if (deletedQueryIds.asMap().containsKey(queryId)) {
+  public void putPlanningProfile(UserBitShared.QueryId queryId,
+                                 UserBitShared.QueryProfile profile) {
+    if (isDeleted(queryId)) {
       return;
     }
     planningProfiles.put(queryId, profile);
+    if (isDeleted(queryId)) {
+      planningProfiles.remove(queryId);
+    }
   }
 
   @Override
-  public synchronized Optional<UserBitShared.QueryProfile> getPlanningProfile(UserBitShared.QueryId queryId) {
+  public Optional<UserBitShared.QueryProfile> getPlanningProfile(UserBitShared.QueryId queryId) {
     return Optional.ofNullable(planningProfiles.get(queryId));
   }
 
   @Override
-  public synchronized void putTailProfile(UserBitShared.QueryId queryId, UserBitShared.QueryProfile profile) {
-    if (deletedQueryIds.asMap().containsKey(queryId)) {
+  public void putTailProfile(UserBitShared.QueryId queryId, UserBitShared.QueryProfile profile) {
+    if (isDeleted(queryId)) {
       return;
     }
     tailProfiles.put(queryId, profile);
+    if (isDeleted(queryId)) {
+      tailProfiles.remove(queryId);
+    }
   }
 
   @Override
-  public synchronized Optional<UserBitShared.QueryProfile> getTailProfile(UserBitShared.QueryId queryId) {
+  public Optional<UserBitShared.QueryProfile> getTailProfile(UserBitShared.QueryId queryId) {
     return Optional.ofNullable(tailProfiles.get(queryId));
   }
 
@@ -111,28 +118,25 @@ public class LocalProfileStore implements ProfileStore {
   }
 
   @Override
-  public synchronized void putExecutorProfile(UserBitShared.QueryId queryId,
-                                              CoordinationProtos.NodeEndpoint endpoint,
-                                              CoordExecRPC.ExecutorQueryProfile profile) {
+  public void putExecutorProfile(UserBitShared.QueryId queryId,
+                                 CoordinationProtos.NodeEndpoint endpoint,
+                                 CoordExecRPC.ExecutorQueryProfile profile) {
     if(LOGGER.isDebugEnabled()) {
       LOGGER.debug("Updating profile store for query id {}", QueryIdHelper.getQueryId(queryId));
     }
 
-    if (deletedQueryIds.asMap().containsKey(queryId)) {
+    if (isDeleted(queryId)) {
       return;
     }
-    executorMap.compute(queryId,
-      (key, value) -> {
-        if (value == null)  {
-          value = new HashMap<>();
-        }
-        value.put(EndpointHelper.getMinimalString(endpoint), profile);
-        return value;
-      });
+    executorMap.computeIfAbsent(queryId, key -> new ConcurrentHashMap<>())
+      .put(EndpointHelper.getMinimalString(endpoint), profile);
+    if (isDeleted(queryId)) {
+      executorMap.remove(queryId);
+    }
   }
 
   @Override
-  public synchronized Stream<CoordExecRPC.ExecutorQueryProfile> getAllExecutorProfiles(UserBitShared.QueryId queryId) {
+  public Stream<CoordExecRPC.ExecutorQueryProfile> getAllExecutorProfiles(UserBitShared.QueryId queryId) {
     Map<String, CoordExecRPC.ExecutorQueryProfile> innerMap = executorMap.get(queryId);
 
     return innerMap == null ? Stream.empty() :
@@ -140,13 +144,17 @@ public class LocalProfileStore implements ProfileStore {
   }
 
   @Override
-  public synchronized void deleteSubProfiles(UserBitShared.QueryId queryId) {
+  public void deleteSubProfiles(UserBitShared.QueryId queryId) {
     deletedQueryIds.put(queryId, Boolean.TRUE);
     planningProfiles.remove(queryId);
     tailProfiles.remove(queryId);
     executorMap.remove(queryId);
   }
 
+  private boolean isDeleted(UserBitShared.QueryId queryId) {
+    return deletedQueryIds.asMap().containsKey(queryId);
+  }
+
   @Override
   public void deleteProfile(UserBitShared.QueryId queryId) {
     deleteSubProfiles(queryId);
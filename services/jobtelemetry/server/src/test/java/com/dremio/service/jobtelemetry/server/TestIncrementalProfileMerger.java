@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobtelemetry.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import com.dremio.exec.proto.CoordExecRPC;
+import com.dremio.exec.proto.CoordinationProtos;
+import com.dremio.exec.proto.ExecProtos;
+import com.dremio.exec.proto.UserBitShared;
+import com.dremio.exec.proto.UserBitShared.FragmentState;
+
+/**
+ * Test for incremental profile merge.
+ */
+public class TestIncrementalProfileMerger {
+  private static final CoordinationProtos.NodeEndpoint NODE1 = CoordinationProtos.NodeEndpoint
+    .newBuilder()
+    .setAddress("190.190.0.66")
+    .build();
+  private static final CoordinationProtos.NodeEndpoint NODE2 = CoordinationProtos.NodeEndpoint
+    .newBuilder()
+    .setAddress("190.190.0.67")
+    .build();
+
+  private static final UserBitShared.QueryProfile PLANNING_PROFILE =
+    UserBitShared.QueryProfile.newBuilder()
+      .setPlan("PLAN_VALUE")
+      .setQuery("Select * from plan")
+      .setState(UserBitShared.QueryResult.QueryState.ENQUEUED)
+      .setTotalFragments(3)
+      .build();
+
+  @Test
+  public void testMatchesFullMerge() {
+    final CoordExecRPC.ExecutorQueryProfile node1 = executorProfile(NODE1, 10, FragmentState.FINISHED, 2);
+    final CoordExecRPC.ExecutorQueryProfile node2 = executorProfile(NODE2, 20, FragmentState.RUNNING, 1);
+
+    final IncrementalProfileMerger merger = new IncrementalProfileMerger();
+    merger.update(node1);
+    merger.update(node2);
+
+    assertEquals(ProfileMerger.merge(PLANNING_PROFILE, null, Stream.of(node1, node2)),
+      merger.merge(PLANNING_PROFILE, null, () -> Stream.of(node1, node2)));
+  }
+
+  @Test
+  public void testUpdateReplacesExecutorProfile() {
+    final CoordExecRPC.ExecutorQueryProfile node1 = executorProfile(NODE1, 10, FragmentState.RUNNING, 2);
+    final CoordExecRPC.ExecutorQueryProfile node1Update = executorProfile(NODE1, 15, FragmentState.FINISHED, 1);
+    final CoordExecRPC.ExecutorQueryProfile node2 = executorProfile(NODE2, 20, FragmentState.FINISHED, 2);
+
+    final IncrementalProfileMerger merger = new IncrementalProfileMerger();
+    merger.update(node1);
+    merger.update(node2);
+    merger.update(node1Update);
+
+    final UserBitShared.QueryProfile merged = merger.merge(PLANNING_PROFILE, null, () -> Stream.of(node1Update, node2));
+    assertEquals(ProfileMerger.merge(PLANNING_PROFILE, null, Stream.of(node1Update, node2)), merged);
+    assertEquals(3, merged.getTotalFragments());
+    assertEquals(3, merged.getFinishedFragments());
+    assertEquals(2, merged.getFragmentProfileCount());
+  }
+
+  @Test
+  public void testMergedProfileReused() {
+    final UserBitShared.QueryProfile tailProfile = PLANNING_PROFILE.toBuilder()
+      .setState(UserBitShared.QueryResult.QueryState.COMPLETED)
+      .build();
+
+    final CoordExecRPC.ExecutorQueryProfile node1 = executorProfile(NODE1, 10, FragmentState.RUNNING, 1);
+    final IncrementalProfileMerger merger = new IncrementalProfileMerger();
+    merger.update(node1);
+
+    final UserBitShared.QueryProfile merged = merger.merge(PLANNING_PROFILE, null, () -> Stream.of(node1));
+    assertSame(merged, merger.merge(PLANNING_PROFILE, null, TestIncrementalProfileMerger::noExecutorProfiles));
+
+    // a new tail profile, or a new executor profile, invalidates the merged profile.
+    final UserBitShared.QueryProfile withTail = merger.merge(PLANNING_PROFILE, tailProfile,
+      TestIncrementalProfileMerger::noExecutorProfiles);
+    assertNotSame(merged, withTail);
+    assertEquals(UserBitShared.QueryResult.QueryState.COMPLETED, withTail.getState());
+
+    final CoordExecRPC.ExecutorQueryProfile node1Update = executorProfile(NODE1, 10, FragmentState.FINISHED, 1);
+    merger.update(node1Update);
+    assertEquals(1, merger.merge(PLANNING_PROFILE, tailProfile, () -> Stream.of(node1Update)).getFinishedFragments());
+  }
+
+  @Test
+  public void testOnlyUpdatedPhasesMerged() {
+    final CoordExecRPC.ExecutorQueryProfile node1 = executorProfile(NODE1, 10, FragmentState.RUNNING, 3);
+    final CoordExecRPC.ExecutorQueryProfile node2 = executorProfile(NODE2, 20, FragmentState.RUNNING, 1);
+
+    final IncrementalProfileMerger merger = new IncrementalProfileMerger();
+    merger.update(node1);
+    merger.update(node2);
+    final UserBitShared.QueryProfile merged = merger.merge(PLANNING_PROFILE, null, () -> Stream.of(node1, node2));
+
+    // only phase 0 is updated, the other phases of the previous merge are reused.
+    final CoordExecRPC.ExecutorQueryProfile node2Update = executorProfile(NODE2, 20, FragmentState.FINISHED, 1);
+    merger.update(node2Update);
+    final UserBitShared.QueryProfile updated = merger.merge(PLANNING_PROFILE, null, () -> Stream.of(node1, node2Update));
+
+    assertEquals(ProfileMerger.merge(PLANNING_PROFILE, null, Stream.of(node1, node2Update)), updated);
+    assertNotSame(merged.getFragmentProfile(0), updated.getFragmentProfile(0));
+    assertSame(merged.getFragmentProfile(1), updated.getFragmentProfile(1));
+    assertSame(merged.getFragmentProfile(2), updated.getFragmentProfile(2));
+  }
+
+  private static Stream<CoordExecRPC.ExecutorQueryProfile> noExecutorProfiles() {
+    throw new AssertionError("no phase should be merged again");
+  }
+
+  // executor profile with one fragment per phase, for the given number of phases.
+  private static CoordExecRPC.ExecutorQueryProfile executorProfile(CoordinationProtos.NodeEndpoint endpoint,
+                                                                   long memory, FragmentState state, int phases) {
+    final CoordExecRPC.NodeQueryStatus.Builder nodeStatus = CoordExecRPC.NodeQueryStatus.newBuilder()
+      .setMaxMemoryUsed(memory)
+      .setTimeEnqueuedBeforeSubmitMs(2);
+    final CoordExecRPC.ExecutorQueryProfile.Builder builder = CoordExecRPC.ExecutorQueryProfile.newBuilder()
+      .setEndpoint(endpoint);
+
+    for (int phaseId = 0; phaseId < phases; phaseId++) {
+      nodeStatus.addPhaseStatus(CoordExecRPC.NodePhaseStatus.newBuilder()
+        .setMajorFragmentId(phaseId)
+        .setMaxMemoryUsed(memory + phaseId)
+        .build());
+      builder.addFragments(CoordExecRPC.FragmentStatus.newBuilder()
+        .setHandle(ExecProtos.FragmentHandle.newBuilder().setMajorFragmentId(phaseId).build())
+        .setProfile(UserBitShared.MinorFragmentProfile.newBuilder()
+          .setEndTime(memory + phaseId)
+          .setState(state)
+          .build())
+        .build());
+    }
+    return builder.setNodeStatus(nodeStatus).build();
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.resource.loadaware;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Snapshot of the load of the executors. As fragments of a query usually run on all executors, the most loaded
+ * executor is the one that limits admission, so the maximum load over executors is kept, along with the memory of
+ * each executor so that the memory headroom is that of the most constrained executor.
+ */
+public final class ExecutorLoad {
+
+  /**
+   * Load when no statistics have been collected (yet). Admission then only relies on the reservations of
+   * admitted queries.
+   */
+  public static final ExecutorLoad UNKNOWN = new ExecutorLoad(0, 0, ImmutableList.of());
+
+  private final double load;
+  private final int executorCount;
+  private final List<ExecutorMemory> memory;
+
+  /**
+   * @param load ratio of running fragments to the fragment capacity on the most loaded executor
+   * @param executorCount number of executors that reported statistics
+   * @param memory memory of the executors that reported it
+   */
+  public ExecutorLoad(double load, int executorCount, List<ExecutorMemory> memory) {
+    this.load = load;
+    this.executorCount = executorCount;
+    this.memory = ImmutableList.copyOf(memory);
+  }
+
+  /**
+   * @return ratio of running fragments to the fragment capacity on the most loaded executor
+   */
+  public double getLoad() {
+    return load;
+  }
+
+  /**
+   * @return number of executors that reported statistics
+   */
+  public int getExecutorCount() {
+    return executorCount;
+  }
+
+  /**
+   * @return whether the memory of at least one executor is known
+   */
+  public boolean hasMemory() {
+    return !memory.isEmpty();
+  }
+
+  /**
+   * Memory that can still be reserved on the most constrained executor.
+   *
+   * @param maxMemoryPercent percentage of its memory that each executor may use
+   * @param minUsedMemory memory considered in use on each executor, whatever it reported
+   * @return the smallest headroom over the executors, in bytes, or {@link Long#MAX_VALUE} if no memory is known
+   */
+  public long getMemoryHeadroom(double maxMemoryPercent, long minUsedMemory) {
+    long headroom = Long.MAX_VALUE;
+    for (ExecutorMemory executor : memory) {
+      final long capacity = (long) (executor.maxMemory * maxMemoryPercent / 100);
+      headroom = Math.min(headroom, capacity - Math.max(executor.usedMemory, minUsedMemory));
+    }
+    return headroom;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("load: %.2f, executors: %d, memory: %s", load, executorCount, memory);
+  }
+
+  /**
+   * Direct memory of one executor.
+   */
+  public static final class ExecutorMemory {
+    private final long maxMemory;
+    private final long usedMemory;
+
+    /**
+     * @param maxMemory maximum direct memory of the executor
+     * @param usedMemory direct memory in use on the executor
+     */
+    public ExecutorMemory(long maxMemory, long usedMemory) {
+      this.maxMemory = maxMemory;
+      this.usedMemory = usedMemory;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%d/%d", usedMemory, maxMemory);
+    }
+  }
+}
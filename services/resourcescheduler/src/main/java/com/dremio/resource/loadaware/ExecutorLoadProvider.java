@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.resource.loadaware;
+
+/**
+ * Source of the live load of the executors, used by {@link LoadAwareResourceAllocator} for admission.
+ */
+@FunctionalInterface
+public interface ExecutorLoadProvider {
+
+  /**
+   * Collect the current load of the executors. This may block while statistics are fetched from the
+   * executors, so it is not called on the query submission path.
+   *
+   * @return load of the executors, {@link ExecutorLoad#UNKNOWN} if not available.
+   */
+  ExecutorLoad getExecutorLoad();
+
+  ExecutorLoadProvider NO_OP = () -> ExecutorLoad.UNKNOWN;
+}
@@ -0,0 +1,469 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.resource.loadaware;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import javax.inject.Provider;
+
+import com.dremio.common.concurrent.CloseableSchedulerThreadPool;
+import com.dremio.exec.proto.UserBitShared;
+import com.dremio.options.OptionManager;
+import com.dremio.resource.GroupResourceInformation;
+import com.dremio.resource.ResourceSchedulingDecisionInfo;
+import com.dremio.resource.ResourceSchedulingObserver;
+import com.dremio.resource.ResourceSchedulingProperties;
+import com.dremio.resource.ResourceSchedulingResult;
+import com.dremio.resource.ResourceSet;
+import com.dremio.resource.basic.BasicResourceAllocator;
+import com.dremio.resource.basic.BasicResourceConstants;
+import com.dremio.resource.basic.QueueType;
+import com.dremio.resource.common.ResourceSchedulingContext;
+import com.dremio.resource.exception.ResourceUnavailableException;
+import com.dremio.service.coordinator.ClusterCoordinator;
+import com.dremio.telemetry.api.metrics.Histogram;
+import com.dremio.telemetry.api.metrics.Metrics;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Resource allocator that admits queries based on the live load of the executors rather than on fixed
+ * concurrency limits.
+ *
+ * Queries wait in named queues (the routing queue if set, otherwise the queue picked by
+ * {@link BasicResourceAllocator} from the query cost). A query is admitted when its per-node memory estimate
+ * fits in the memory headroom of the executors and the executors are not overloaded with fragments. When
+ * capacity frees up, the next query is picked from the non-empty queue with the fewest running queries
+ * relative to its weight, so that queues share the cluster in proportion to their weights.
+ *
+ * Admission state is local to this coordinator. When disabled, allocation is delegated to
+ * {@link BasicResourceAllocator}.
+ */
+public class LoadAwareResourceAllocator extends BasicResourceAllocator {
+
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(LoadAwareResourceAllocator.class);
+
+  private static final String METRICS_PREFIX = "queues";
+  // routing queues are named by users, so their wait times are not reported by queue
+  private static final String OTHER_QUEUES = "other";
+
+  private final Provider<GroupResourceInformation> groupResourceInformationProvider;
+  private final Provider<ExecutorLoadProvider> executorLoadProvider;
+  // queues with waiting or running queries, guarded by this
+  private final Map<String, Queue> queues = new HashMap<>();
+  private final Map<String, Histogram> waitTimes = new HashMap<>();
+  private final AtomicBoolean refreshScheduled = new AtomicBoolean(false);
+  private CloseableSchedulerThreadPool scheduler;
+
+  private volatile ExecutorLoad executorLoad = ExecutorLoad.UNKNOWN;
+  private volatile long refreshMillis = LoadAwareResourceConstants.STATS_REFRESH_MILLIS.getDefault().getNumVal();
+  // reservations of admitted queries, per node, guarded by this
+  private long reservedMemory;
+  private int runningQueries;
+  // weights of the queues, parsed when the option changes, guarded by this
+  private String weightsOption;
+  private Map<String, Integer> weights = new HashMap<>();
+
+  public LoadAwareResourceAllocator(final Provider<ClusterCoordinator> clusterCoordinatorProvider,
+                                    final Provider<GroupResourceInformation> groupResourceInformationProvider,
+                                    final Provider<ExecutorLoadProvider> executorLoadProvider) {
+    super(clusterCoordinatorProvider, groupResourceInformationProvider);
+    this.groupResourceInformationProvider = groupResourceInformationProvider;
+    this.executorLoadProvider = executorLoadProvider;
+  }
+
+  @Override
+  public void start() throws Exception {
+    super.start();
+    scheduler = new CloseableSchedulerThreadPool("load-aware-queue", 1);
+    Metrics.newGauge(Metrics.join(METRICS_PREFIX, "running"), () -> getRunningQueries());
+    Metrics.newGauge(Metrics.join(METRICS_PREFIX, "reserved_memory"), () -> getReservedMemory());
+    for (QueueType queueType : QueueType.values()) {
+      final String name = queueType.name().toLowerCase(Locale.ROOT);
+      waitTimes.put(name, newWaitTimeHistogram(name));
+    }
+    waitTimes.put(OTHER_QUEUES, newWaitTimeHistogram(OTHER_QUEUES));
+  }
+
+  @Override
+  public ResourceSchedulingResult allocate(final ResourceSchedulingContext queryContext,
+                                           final ResourceSchedulingProperties resourceSchedulingProperties,
+                                           final ResourceSchedulingObserver resourceSchedulingObserver,
+                                           final Consumer<ResourceSchedulingDecisionInfo> schedulingDecisionInfoConsumer) {
+    final OptionManager options = queryContext.getOptions();
+    if (!options.getOption(LoadAwareResourceConstants.ENABLE_LOAD_AWARE_QUEUE)) {
+      return super.allocate(queryContext, resourceSchedulingProperties, resourceSchedulingObserver,
+        schedulingDecisionInfoConsumer);
+    }
+
+    final QueueType queueType = getQueueNameFromSchedulingProperties(queryContext, resourceSchedulingProperties);
+    final String queueName = resourceSchedulingProperties.getRoutingQueue() != null ?
+      resourceSchedulingProperties.getRoutingQueue() : queueType.name().toLowerCase(Locale.ROOT);
+
+    final ResourceSchedulingDecisionInfo resourceSchedulingDecisionInfo = new ResourceSchedulingDecisionInfo();
+    resourceSchedulingDecisionInfo.setQueueName(queueName);
+    resourceSchedulingDecisionInfo.setQueueId(queueName);
+    resourceSchedulingDecisionInfo.setWorkloadClass(queryContext.getQueryContextInfo().getPriority().getWorkloadClass());
+    schedulingDecisionInfoConsumer.accept(resourceSchedulingDecisionInfo);
+
+    // same per-node limit as the basic allocator
+    final long memoryLimit = (queueType == QueueType.SMALL || queueType == QueueType.REFLECTION_SMALL) ?
+      options.getOption(BasicResourceConstants.SMALL_QUEUE_MEMORY_LIMIT) :
+      options.getOption(BasicResourceConstants.LARGE_QUEUE_MEMORY_LIMIT);
+    long queryMaxAllocation = queryContext.getQueryContextInfo().getQueryMaxAllocation();
+    if (options.getOption(BasicResourceConstants.ENABLE_QUEUE_MEMORY_LIMIT) && memoryLimit > 0) {
+      queryMaxAllocation = Math.min(memoryLimit, queryMaxAllocation);
+    }
+    final long memoryEstimate = estimateMemory(resourceSchedulingProperties.getQueryCost(), queryMaxAllocation, options);
+    final boolean isReflection = queueType == QueueType.REFLECTION_SMALL || queueType == QueueType.REFLECTION_LARGE;
+    final long queueTimeout = options.getOption(isReflection ?
+      BasicResourceConstants.REFLECTION_QUEUE_TIMEOUT : BasicResourceConstants.QUEUE_TIMEOUT);
+
+    refreshMillis = options.getOption(LoadAwareResourceConstants.STATS_REFRESH_MILLIS);
+    scheduleRefresh();
+
+    resourceSchedulingObserver.beginQueueWait();
+    final WaitingQuery waitingQuery = new WaitingQuery(queryContext.getQueryId(), options, queryMaxAllocation,
+      memoryEstimate, System.currentTimeMillis());
+    synchronized (this) {
+      final Queue queue = getQueue(queueName, options);
+      waitingQuery.queue = queue;
+      queue.waiting.addLast(waitingQuery);
+    }
+    // armed once the query is in its queue, so that it finds it there when it fires
+    waitingQuery.setTimeout(scheduler.schedule(() -> timeout(waitingQuery, queueTimeout), queueTimeout, TimeUnit.MILLISECONDS));
+    // remove from the queue if the caller gave up waiting
+    waitingQuery.future.addListener(() -> {
+      if (waitingQuery.future.isCancelled()) {
+        waitingQuery.cancelTimeout();
+        remove(waitingQuery);
+      }
+    }, MoreExecutors.directExecutor());
+
+    dispatch(options);
+    return new ResourceSchedulingResult(resourceSchedulingDecisionInfo, waitingQuery.future);
+  }
+
+  private static long estimateMemory(Double cost, long queryMaxAllocation, OptionManager options) {
+    final double memoryPerCost = options.getOption(LoadAwareResourceConstants.MEMORY_PER_COST);
+    final long minMemory = options.getOption(LoadAwareResourceConstants.MIN_QUERY_MEMORY);
+    final long estimate = cost == null ? minMemory : (long) Math.min(Long.MAX_VALUE, cost * memoryPerCost);
+    return Math.min(queryMaxAllocation, Math.max(minMemory, estimate));
+  }
+
+  /**
+   * Get the queue with the given name, updating the weights of the queues if they changed in the options.
+   */
+  private Queue getQueue(String name, OptionManager options) {
+    final String option = options.getOption(LoadAwareResourceConstants.QUEUE_WEIGHTS);
+    if (!option.equals(weightsOption)) {
+      weightsOption = option;
+      weights = parseWeights(option);
+      for (Queue queue : queues.values()) {
+        queue.weight = weights.getOrDefault(queue.name, 1);
+      }
+    }
+    return queues.computeIfAbsent(name,
+      n -> new Queue(n, weights.getOrDefault(n, 1), waitTimes.getOrDefault(n, waitTimes.get(OTHER_QUEUES))));
+  }
+
+  private static Histogram newWaitTimeHistogram(String name) {
+    return Metrics.newHistogram(Metrics.join(METRICS_PREFIX, name, "wait_millis"), Metrics.ResetType.PERIODIC_15M);
+  }
+
+  @VisibleForTesting
+  static Map<String, Integer> parseWeights(String weights) {
+    final Map<String, Integer> result = new HashMap<>();
+    for (String entry : Splitter.on(',').trimResults().omitEmptyStrings().split(weights)) {
+      final int separator = entry.lastIndexOf(':');
+      try {
+        final String name = separator < 0 ? entry : entry.substring(0, separator).trim();
+        final int weight = separator < 0 ? 1 : Integer.parseInt(entry.substring(separator + 1).trim());
+        result.put(name, Math.max(1, weight));
+      } catch (NumberFormatException e) {
+        logger.warn("Ignoring invalid queue weight '{}'", entry);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Admit as many waiting queries as the current load allows.
+   */
+  private void dispatch(OptionManager options) {
+    final double maxMemoryPercent = options.getOption(LoadAwareResourceConstants.MAX_MEMORY_PERCENT);
+    final double maxLoad = options.getOption(LoadAwareResourceConstants.MAX_LOAD);
+    final ExecutorLoad load = executorLoad;
+    // only used when the executors did not report their memory
+    final long executorMemory = load.hasMemory() ? 0 : groupResourceInformationProvider.get().getAverageExecutorMemory();
+
+    final List<WaitingQuery> admitted = new ArrayList<>();
+    synchronized (this) {
+      while (true) {
+        final Queue queue = nextQueue();
+        if (queue == null) {
+          break;
+        }
+        final WaitingQuery query = queue.waiting.peekFirst();
+        if (runningQueries > 0 && !canAdmit(query.memoryEstimate, executorMemory, maxMemoryPercent, maxLoad, load)) {
+          break;
+        }
+        queue.waiting.removeFirst();
+        queue.running++;
+        runningQueries++;
+        reservedMemory += query.memoryEstimate;
+        admitted.add(query);
+      }
+    }
+
+    // complete outside of the lock, as listeners of the future run on this thread
+    final long now = System.currentTimeMillis();
+    for (WaitingQuery query : admitted) {
+      query.cancelTimeout();
+      query.queue.waitTime.update(now - query.enqueueTime);
+      logger.debug("Admitted query {} from queue '{}' after {} ms, executors {}",
+        query.queryId, query.queue.name, now - query.enqueueTime, load);
+      if (!query.future.set(new LoadAwareResourceSet(query))) {
+        // cancelled in the meantime
+        release(query, options);
+      }
+    }
+  }
+
+  /**
+   * Pick the non-empty queue with the fewest running queries relative to its weight, the queue with the oldest
+   * waiting query breaking ties.
+   */
+  private Queue nextQueue() {
+    Queue next = null;
+    for (Queue queue : queues.values()) {
+      if (queue.waiting.isEmpty()) {
+        continue;
+      }
+      if (next == null) {
+        next = queue;
+        continue;
+      }
+      final double share = (double) queue.running / queue.weight;
+      final double nextShare = (double) next.running / next.weight;
+      if (share < nextShare || (share == nextShare
+        && queue.waiting.peekFirst().enqueueTime < next.waiting.peekFirst().enqueueTime)) {
+        next = queue;
+      }
+    }
+    return next;
+  }
+
+  private boolean canAdmit(long memoryEstimate, long executorMemory, double maxMemoryPercent, double maxLoad,
+                           ExecutorLoad load) {
+    if (load.getLoad() >= maxLoad) {
+      return false;
+    }
+    // memory reported by the executors lags behind admission, so admitted queries count at least for their estimate
+    final long headroom = load.hasMemory() ? load.getMemoryHeadroom(maxMemoryPercent, reservedMemory) :
+      (long) (executorMemory * maxMemoryPercent / 100) - reservedMemory;
+    return memoryEstimate <= headroom;
+  }
+
+  private void timeout(WaitingQuery query, long queueTimeout) {
+    if (!remove(query)) {
+      return;
+    }
+    final String message = String.format(
+      "Query cancelled by Workload Manager. Query enqueued time of %.2f seconds exceeded for '%s' queue.",
+      queueTimeout / 1000.0, query.queue.name);
+    logger.trace(message);
+    query.future.setException(new ResourceUnavailableException(message));
+  }
+
+  private synchronized boolean remove(WaitingQuery query) {
+    if (query.queue == null || !query.queue.waiting.remove(query)) {
+      return false;
+    }
+    removeIfUnused(query.queue);
+    return true;
+  }
+
+  private void release(WaitingQuery query, OptionManager options) {
+    synchronized (this) {
+      query.queue.running--;
+      runningQueries--;
+      reservedMemory -= query.memoryEstimate;
+      removeIfUnused(query.queue);
+    }
+    dispatch(options);
+  }
+
+  /**
+   * Drop a queue without waiting or running queries, as routing queues are not known in advance.
+   */
+  private void removeIfUnused(Queue queue) {
+    if (queue.running == 0 && queue.waiting.isEmpty()) {
+      queues.remove(queue.name, queue);
+    }
+  }
+
+  private void scheduleRefresh() {
+    if (refreshScheduled.compareAndSet(false, true)) {
+      scheduler.execute(this::refresh);
+    }
+  }
+
+  /**
+   * Collect the load of the executors and admit waiting queries if it went down. Runs periodically once the
+   * allocator is in use.
+   */
+  private void refresh() {
+    try {
+      executorLoad = executorLoadProvider.get().getExecutorLoad();
+      final OptionManager options = lastOptions();
+      if (options != null) {
+        dispatch(options);
+      }
+    } catch (Exception e) {
+      logger.warn("Failure while collecting executor load", e);
+    } finally {
+      if (!scheduler.isShutdown()) {
+        scheduler.schedule(this::refresh, refreshMillis, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  private synchronized OptionManager lastOptions() {
+    for (Queue queue : queues.values()) {
+      final WaitingQuery query = queue.waiting.peekFirst();
+      if (query != null) {
+        return query.options;
+      }
+    }
+    return null;
+  }
+
+  @VisibleForTesting
+  synchronized long getRunningQueries() {
+    return runningQueries;
+  }
+
+  @VisibleForTesting
+  synchronized long getReservedMemory() {
+    return reservedMemory;
+  }
+
+  @VisibleForTesting
+  synchronized int getQueueCount() {
+    return queues.size();
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (scheduler != null) {
+      scheduler.close();
+    }
+    super.close();
+  }
+
+  /**
+   * A named queue, with its weight and the number of its queries that are running.
+   */
+  private static final class Queue {
+    private final String name;
+    private final Deque<WaitingQuery> waiting = new ArrayDeque<>();
+    private final Histogram waitTime;
+    private int weight;
+    private int running;
+
+    private Queue(String name, int weight, Histogram waitTime) {
+      this.name = name;
+      this.weight = weight;
+      this.waitTime = waitTime;
+    }
+  }
+
+  /**
+   * A query waiting for admission, or admitted once its future is set.
+   */
+  private static final class WaitingQuery {
+    private final UserBitShared.QueryId queryId;
+    private final OptionManager options;
+    private final long memoryLimit;
+    private final long memoryEstimate;
+    private final long enqueueTime;
+    private final SettableFuture<ResourceSet> future = SettableFuture.create();
+    private Queue queue;
+    // guarded by this
+    private ScheduledFuture<?> timeout;
+    private boolean timeoutCancelled;
+
+    private WaitingQuery(UserBitShared.QueryId queryId, OptionManager options, long memoryLimit, long memoryEstimate,
+                         long enqueueTime) {
+      this.queryId = queryId;
+      this.options = options;
+      this.memoryLimit = memoryLimit;
+      this.memoryEstimate = memoryEstimate;
+      this.enqueueTime = enqueueTime;
+    }
+
+    private synchronized void setTimeout(ScheduledFuture<?> timeout) {
+      if (timeoutCancelled) {
+        // admitted or cancelled before the timeout was armed
+        timeout.cancel(false);
+      } else {
+        this.timeout = timeout;
+      }
+    }
+
+    private synchronized void cancelTimeout() {
+      timeoutCancelled = true;
+      if (timeout != null) {
+        timeout.cancel(false);
+      }
+    }
+  }
+
+  private final class LoadAwareResourceSet implements ResourceSet {
+    private final WaitingQuery query;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    private LoadAwareResourceSet(WaitingQuery query) {
+      this.query = query;
+    }
+
+    @Override
+    public long getPerNodeQueryMemoryLimit() {
+      return query.memoryLimit;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed.compareAndSet(false, true)) {
+        release(query, query.options);
+      }
+    }
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.resource.loadaware;
+
+import com.dremio.options.Options;
+import com.dremio.options.TypeValidators;
+
+/**
+ * Constants to manage load aware admission of queries
+ */
+@Options
+public interface LoadAwareResourceConstants {
+  TypeValidators.BooleanValidator ENABLE_LOAD_AWARE_QUEUE = new TypeValidators.BooleanValidator("exec.queue.load_aware.enable", false);
+  // comma separated list of name:weight, queries routed to a queue that is not listed get a weight of 1.
+  TypeValidators.StringValidator QUEUE_WEIGHTS = new TypeValidators.StringValidator("exec.queue.load_aware.weights",
+    "small:3,large:1,reflection_small:1,reflection_large:1");
+  // percentage of the executor direct memory that admitted queries are allowed to use
+  TypeValidators.LongValidator MAX_MEMORY_PERCENT = new TypeValidators.RangeLongValidator("exec.queue.load_aware.max_memory_percent", 1, 100, 85);
+  // ratio of running fragments to the fragment capacity of the executors above which no query is admitted
+  TypeValidators.DoubleValidator MAX_LOAD = new TypeValidators.RangeDoubleValidator("exec.queue.load_aware.max_load", 0.1, 100, 1.5);
+  // per-node memory reserved for a query, per unit of planner cost
+  TypeValidators.DoubleValidator MEMORY_PER_COST = new TypeValidators.RangeDoubleValidator("exec.queue.load_aware.memory_per_cost", 0, 1024 * 1024, 16);
+  TypeValidators.LongValidator MIN_QUERY_MEMORY = new TypeValidators.PositiveLongValidator("exec.queue.load_aware.min_query_memory",
+    Long.MAX_VALUE, 64 * 1024 * 1024);
+  TypeValidators.LongValidator STATS_REFRESH_MILLIS = new TypeValidators.PositiveLongValidator("exec.queue.load_aware.stats_refresh_millis",
+    60 * 1000, 1000);
+}
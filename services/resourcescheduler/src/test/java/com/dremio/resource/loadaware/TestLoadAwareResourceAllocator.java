@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.resource.loadaware;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import com.dremio.common.utils.protos.ExternalIdHelper;
+import com.dremio.exec.proto.CoordExecRPC;
+import com.dremio.exec.proto.CoordinationProtos;
+import com.dremio.exec.proto.UserBitShared;
+import com.dremio.options.OptionManager;
+import com.dremio.resource.GroupResourceInformation;
+import com.dremio.resource.ResourceSchedulingProperties;
+import com.dremio.resource.ResourceSet;
+import com.dremio.resource.basic.BasicResourceConstants;
+import com.dremio.resource.common.ResourceSchedulingContext;
+import com.dremio.resource.exception.ResourceUnavailableException;
+import com.dremio.resource.loadaware.ExecutorLoad.ExecutorMemory;
+import com.dremio.service.DirectProvider;
+import com.dremio.service.coordinator.ClusterCoordinator;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link LoadAwareResourceAllocator}
+ */
+public class TestLoadAwareResourceAllocator {
+
+  @Rule
+  public Timeout globalTimeout = new Timeout(30, TimeUnit.SECONDS);
+
+  private OptionManager optionManager;
+  private volatile ExecutorLoad executorLoad = ExecutorLoad.UNKNOWN;
+  private LoadAwareResourceAllocator resourceAllocator;
+
+  @Before
+  public void setup() throws Exception {
+    optionManager = mock(OptionManager.class);
+    when(optionManager.getOption(LoadAwareResourceConstants.ENABLE_LOAD_AWARE_QUEUE)).thenReturn(true);
+    when(optionManager.getOption(LoadAwareResourceConstants.QUEUE_WEIGHTS)).thenReturn("small:3,large:1");
+    when(optionManager.getOption(LoadAwareResourceConstants.MAX_MEMORY_PERCENT)).thenReturn(100L);
+    when(optionManager.getOption(LoadAwareResourceConstants.MAX_LOAD)).thenReturn(1.0);
+    when(optionManager.getOption(LoadAwareResourceConstants.MEMORY_PER_COST)).thenReturn(0.0);
+    when(optionManager.getOption(LoadAwareResourceConstants.MIN_QUERY_MEMORY)).thenReturn(400L);
+    when(optionManager.getOption(LoadAwareResourceConstants.STATS_REFRESH_MILLIS)).thenReturn(10L);
+    when(optionManager.getOption(BasicResourceConstants.ENABLE_QUEUE_MEMORY_LIMIT)).thenReturn(true);
+    when(optionManager.getOption(BasicResourceConstants.SMALL_QUEUE_MEMORY_LIMIT)).thenReturn(4096L);
+    when(optionManager.getOption(BasicResourceConstants.LARGE_QUEUE_MEMORY_LIMIT)).thenReturn(Long.MAX_VALUE);
+    when(optionManager.getOption(BasicResourceConstants.QUEUE_THRESHOLD_SIZE)).thenReturn(30000000L);
+    when(optionManager.getOption(BasicResourceConstants.QUEUE_TIMEOUT)).thenReturn(60 * 1000L);
+
+    final GroupResourceInformation resourceInformation = mock(GroupResourceInformation.class);
+    when(resourceInformation.getAverageExecutorMemory()).thenReturn(1000L);
+
+    resourceAllocator = new LoadAwareResourceAllocator(DirectProvider.wrap(mock(ClusterCoordinator.class)),
+      DirectProvider.wrap(resourceInformation), DirectProvider.<ExecutorLoadProvider>wrap(() -> executorLoad));
+    resourceAllocator.start();
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    resourceAllocator.close();
+  }
+
+  @Test
+  public void testParseWeights() {
+    final Map<String, Integer> weights = LoadAwareResourceAllocator.parseWeights(" small:3, large : 1,etl,bad:x,zero:0");
+    assertEquals(3, (int) weights.get("small"));
+    assertEquals(1, (int) weights.get("large"));
+    assertEquals(1, (int) weights.get("etl"));
+    assertEquals(1, (int) weights.get("zero"));
+    assertFalse(weights.containsKey("bad"));
+  }
+
+  @Test
+  public void testAdmissionByMemoryHeadroom() throws Exception {
+    final ResourceSet resourceSet1 = allocate(112100D).get();
+    final ResourceSet resourceSet2 = allocate(112100D).get();
+    assertEquals(4096, resourceSet1.getPerNodeQueryMemoryLimit());
+    assertEquals(800, resourceAllocator.getReservedMemory());
+
+    // a third query does not fit in the remaining memory
+    final Future<ResourceSet> future3 = allocate(112100D);
+    assertFalse(future3.isDone());
+
+    resourceSet1.close();
+    final ResourceSet resourceSet3 = future3.get();
+    assertEquals(2, resourceAllocator.getRunningQueries());
+
+    resourceSet2.close();
+    resourceSet3.close();
+    // closing twice releases the reservation once
+    resourceSet3.close();
+    assertEquals(0, resourceAllocator.getRunningQueries());
+    assertEquals(0, resourceAllocator.getReservedMemory());
+  }
+
+  @Test
+  public void testAdmissionByExecutorLoad() throws Exception {
+    final ResourceSet resourceSet1 = allocate(112100D).get();
+
+    executorLoad = new ExecutorLoad(1.2, 1, ImmutableList.of());
+    // wait for the load to be refreshed
+    Thread.sleep(100);
+    final Future<ResourceSet> future2 = allocate(112100D);
+    assertFalse(future2.isDone());
+
+    executorLoad = new ExecutorLoad(0.5, 1, ImmutableList.of());
+    final ResourceSet resourceSet2 = future2.get();
+
+    resourceSet1.close();
+    resourceSet2.close();
+  }
+
+  @Test
+  public void testAdmissionByHeadroomOfEachExecutor() throws Exception {
+    // the larger executor uses most of its memory, but still has room for the queries
+    executorLoad = new ExecutorLoad(0.1, 2, ImmutableList.of(new ExecutorMemory(10000, 9000), new ExecutorMemory(3000, 0)));
+    // start the refresh of the load, and wait for it
+    allocate(112100D).get().close();
+    Thread.sleep(100);
+
+    final ResourceSet resourceSet1 = allocate(112100D).get();
+    final ResourceSet resourceSet2 = allocate(112100D).get();
+    final ResourceSet resourceSet3 = allocate(112100D).get();
+    assertEquals(3, resourceAllocator.getRunningQueries());
+
+    resourceSet1.close();
+    resourceSet2.close();
+    resourceSet3.close();
+    assertEquals(0, resourceAllocator.getRunningQueries());
+  }
+
+  @Test
+  public void testMemoryHeadroom() {
+    final ExecutorLoad load = new ExecutorLoad(0.1, 3,
+      ImmutableList.of(new ExecutorMemory(10000, 9000), new ExecutorMemory(1000, 100), new ExecutorMemory(2000, 0)));
+    assertEquals(900, load.getMemoryHeadroom(100, 0));
+    assertEquals(600, load.getMemoryHeadroom(100, 400));
+    assertEquals(-4000, load.getMemoryHeadroom(50, 0));
+    assertEquals(Long.MAX_VALUE, ExecutorLoad.UNKNOWN.getMemoryHeadroom(100, 400));
+  }
+
+  @Test
+  public void testRoutingQueues() throws Exception {
+    // queues of routed queries are dropped once they have no query
+    for (int i = 0; i < 3; i++) {
+      final ResourceSchedulingProperties resourceSchedulingProperties = new ResourceSchedulingProperties();
+      resourceSchedulingProperties.setQueryCost(112100D);
+      resourceSchedulingProperties.setRoutingQueue("routed" + i);
+      resourceAllocator.allocate(createQueryContext(), resourceSchedulingProperties).getResourceSetFuture().get().close();
+    }
+    assertEquals(0, resourceAllocator.getQueueCount());
+  }
+
+  @Test
+  public void testQueueTimeout() throws Exception {
+    when(optionManager.getOption(BasicResourceConstants.QUEUE_TIMEOUT)).thenReturn(100L);
+    final ResourceSet resourceSet1 = allocate(112100D).get();
+    final ResourceSet resourceSet2 = allocate(112100D).get();
+    try {
+      allocate(112100D).get();
+      fail("Query should have timed out in the queue");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof ResourceUnavailableException);
+      assertTrue(e.getMessage().contains("Workload Manager"));
+    }
+    resourceSet1.close();
+    resourceSet2.close();
+    assertEquals(0, resourceAllocator.getRunningQueries());
+  }
+
+  private Future<ResourceSet> allocate(double cost) {
+    final ResourceSchedulingProperties resourceSchedulingProperties = new ResourceSchedulingProperties();
+    resourceSchedulingProperties.setQueryCost(cost);
+    return resourceAllocator.allocate(createQueryContext(), resourceSchedulingProperties).getResourceSetFuture();
+  }
+
+  private ResourceSchedulingContext createQueryContext() {
+    final UserBitShared.QueryId queryId = ExternalIdHelper.toQueryId(ExternalIdHelper.generateExternalId());
+    return new ResourceSchedulingContext() {
+      @Override
+      public CoordExecRPC.QueryContextInformation getQueryContextInfo() {
+        return CoordExecRPC.QueryContextInformation.newBuilder()
+          .setQueryMaxAllocation(Long.MAX_VALUE)
+          .setPriority(CoordExecRPC.FragmentPriority.newBuilder().setWorkloadClass(UserBitShared.WorkloadClass.GENERAL).build())
+          .build();
+      }
+
+      @Override
+      public UserBitShared.QueryId getQueryId() {
+        return queryId;
+      }
+
+      @Override
+      public String getQueryUserName() {
+        return "foo";
+      }
+
+      @Override
+      public CoordinationProtos.NodeEndpoint getCurrentEndpoint() {
+        return null;
+      }
+
+      @Override
+      public Collection<CoordinationProtos.NodeEndpoint> getActiveEndpoints() {
+        return ImmutableList.of();
+      }
+
+      @Override
+      public OptionManager getOptions() {
+        return optionManager;
+      }
+    };
+  }
+}